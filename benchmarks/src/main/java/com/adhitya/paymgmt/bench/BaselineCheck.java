@@ -0,0 +1,129 @@
+package com.adhitya.paymgmt.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and lists every
+ * benchmark whose score or allocation per operation got worse by more than the
+ * threshold, and every baseline benchmark missing from the result. Exits with
+ * status 1 if there are any, so it can gate a review.
+ *
+ * <p>A change past the threshold counts as a regression only when the two
+ * confidence intervals (score &plusmn; JMH's {@code scoreError}) do not overlap;
+ * otherwise it is reported as within error. Record both runs with several forks,
+ * as one fork's interval misses the variation between JVM runs.</p>
+ *
+ * <p>Usage: {@code BaselineCheck <baseline.json> <result.json> [threshold percent, default 10]}</p>
+ */
+public final class BaselineCheck {
+  private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+  private BaselineCheck() {}
+
+  private record Measurement(String mode, double score, double scoreError, String unit,
+                             double allocatedBytes, double allocationError) {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: BaselineCheck <baseline.json> <result.json> [threshold percent]");
+      System.exit(2);
+    }
+    Map<String, Measurement> baseline = read(new File(args[0]));
+    Map<String, Measurement> current = read(new File(args[1]));
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+    int regressions = 0;
+    System.out.printf("%-75s %14s %14s %9s %9s%n", "Benchmark", "Baseline", "Current", "Score", "Alloc");
+    for (Map.Entry<String, Measurement> entry : current.entrySet()) {
+      Measurement now = entry.getValue();
+      Measurement before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-75s %14s %14.3f %9s %9s%n", entry.getKey(), "-", now.score(), "new", "");
+        continue;
+      }
+      // Throughput regresses downwards; every time-per-operation mode regresses upwards
+      double scoreChange = percentChange(before.score(), now.score());
+      double scoreWorse = "thrpt".equals(now.mode()) ? -scoreChange : scoreChange;
+      double allocationWorse = percentChange(before.allocatedBytes(), now.allocatedBytes());
+      boolean scorePast = scoreWorse > threshold;
+      boolean allocationPast = allocationWorse > threshold;
+      boolean scoreRegressed = scorePast
+        && separated(before.score(), before.scoreError(), now.score(), now.scoreError());
+      boolean allocationRegressed = allocationPast
+        && separated(before.allocatedBytes(), before.allocationError(), now.allocatedBytes(), now.allocationError());
+      boolean regressed = scoreRegressed || allocationRegressed;
+      if (regressed) {
+        regressions++;
+      }
+      String verdict = regressed ? "  REGRESSION" : scorePast || allocationPast ? "  within error" : "";
+      System.out.printf("%-75s %14.3f %14.3f %+8.1f%% %+8.1f%%%s%n", entry.getKey(), before.score(), now.score(),
+        scoreChange, allocationWorse, verdict);
+    }
+    // A benchmark that stopped running (renamed, removed or failed) would otherwise pass unnoticed
+    int missing = 0;
+    for (Map.Entry<String, Measurement> entry : baseline.entrySet()) {
+      if (!current.containsKey(entry.getKey())) {
+        missing++;
+        System.out.printf("%-75s %14.3f %14s %9s %9s  MISSING%n", entry.getKey(), entry.getValue().score(), "-", "",
+          "");
+      }
+    }
+
+    System.out.printf("%d benchmark(s) regressed by more than %.1f%% beyond their error bounds%n", regressions,
+      threshold);
+    if (missing > 0) {
+      System.out.printf("%d baseline benchmark(s) missing from the result%n", missing);
+    }
+    if (regressions > 0 || missing > 0) {
+      System.exit(1);
+    }
+  }
+
+  private static double percentChange(double before, double after) {
+    if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+      return 0;
+    }
+    return (after - before) / before * 100;
+  }
+
+  // True when [a - aError, a + aError] and [b - bError, b + bError] are disjoint; a missing error counts as 0
+  private static boolean separated(double a, double aError, double b, double bError) {
+    if (Double.isNaN(a) || Double.isNaN(b)) {
+      return false;
+    }
+    double margin = (Double.isNaN(aError) ? 0 : aError) + (Double.isNaN(bError) ? 0 : bError);
+    return Math.abs(a - b) > margin;
+  }
+
+  // Keyed by benchmark name plus its parameters, e.g. "...calculateReport{payments=10000, source=LIST}"
+  private static Map<String, Measurement> read(File file) throws IOException {
+    Map<String, Measurement> measurements = new LinkedHashMap<>();
+    for (JsonNode run : new ObjectMapper().readTree(file)) {
+      StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+      JsonNode params = run.path("params");
+      if (params.isObject()) {
+        Map<String, String> sorted = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+          Map.Entry<String, JsonNode> param = it.next();
+          sorted.put(param.getKey(), param.getValue().asText());
+        }
+        key.append(sorted);
+      }
+      JsonNode primary = run.path("primaryMetric");
+      JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION_METRIC);
+      measurements.put(key.toString(), new Measurement(run.path("mode").asText(), primary.path("score").asDouble(),
+        primary.path("scoreError").asDouble(Double.NaN), primary.path("scoreUnit").asText(),
+        allocation.isMissingNode() ? Double.NaN : allocation.path("score").asDouble(),
+        allocation.isMissingNode() ? Double.NaN : allocation.path("scoreError").asDouble(Double.NaN)));
+    }
+    return measurements;
+  }
+}
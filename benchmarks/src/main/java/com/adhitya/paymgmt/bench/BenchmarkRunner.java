@@ -0,0 +1,45 @@
+package com.adhitya.paymgmt.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line and always
+ * attaches the GC profiler, which reports GC counts and time alongside allocation
+ * per operation ({@code gc.alloc.rate.norm}). Results go to
+ * {@code target/jmh-result.json} unless {@code -rff} says otherwise, ready for
+ * {@link BaselineCheck}.
+ */
+public final class BenchmarkRunner {
+  private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions options = new CommandLineOptions(args);
+    if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+      || options.shouldListProfilers() || options.shouldListResultFormats()) {
+      Main.main(args);
+      return;
+    }
+
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+    boolean gcRequested = options.getProfilers().stream()
+      .anyMatch(profiler -> profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName()));
+    if (!gcRequested) {
+      builder.addProfiler(GCProfiler.class);
+    }
+    if (!options.getResult().hasValue()) {
+      builder.result(DEFAULT_RESULT_FILE);
+    }
+    if (!options.getResultFormat().hasValue()) {
+      builder.resultFormat(ResultFormatType.JSON);
+    }
+    new Runner(builder.build()).run();
+  }
+}
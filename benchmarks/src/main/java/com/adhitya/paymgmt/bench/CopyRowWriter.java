@@ -0,0 +1,171 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.Money;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams rows into a {@code COPY ... FROM STDIN} in PostgreSQL's text format.
+ * Fields are encoded straight into a reusable byte buffer, so writing a row
+ * allocates nothing beyond what the caller passes in. Columns are separated by
+ * tabs, NULL is {@code \N}, and tabs, newlines and backslashes inside text are escaped.
+ */
+final class CopyRowWriter implements AutoCloseable {
+  private static final int BUFFER_SIZE = 1 << 16;
+  // Longest single field written without a bounds check: a long or a timestamp
+  private static final int MAX_FIXED_FIELD = 24;
+
+  private final CopyIn copyIn;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private final StringBuilder scratch = new StringBuilder(24);
+  private int position;
+  private boolean rowStarted;
+
+  CopyRowWriter(Connection connection, String copySql) throws SQLException {
+    this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+  }
+
+  CopyRowWriter number(long value) throws SQLException {
+    separator();
+    ensureCapacity(MAX_FIXED_FIELD);
+    if (value < 0) {
+      buffer[position++] = '-';
+    }
+    else {
+      value = -value;
+    }
+    // Digits of the negative magnitude, so Long.MIN_VALUE needs no special case
+    int start = position;
+    do {
+      buffer[position++] = (byte) ('0' - (value % 10));
+      value /= 10;
+    } while (value != 0);
+    reverse(start, position - 1);
+    return this;
+  }
+
+  /** Writes a foreign key, or NULL when the ID is 0. */
+  CopyRowWriter reference(int id) throws SQLException {
+    return id == 0 ? nullValue() : number(id);
+  }
+
+  CopyRowWriter amount(long minorUnits) throws SQLException {
+    scratch.setLength(0);
+    return text(Money.ofMinor(minorUnits).appendTo(scratch));
+  }
+
+  /** Writes {@code yyyy-MM-dd HH:mm:ss}, or NULL. */
+  CopyRowWriter timestamp(LocalDateTime value) throws SQLException {
+    if (value == null) {
+      return nullValue();
+    }
+    separator();
+    ensureCapacity(MAX_FIXED_FIELD);
+    digits(value.getYear(), 4);
+    buffer[position++] = '-';
+    digits(value.getMonthValue(), 2);
+    buffer[position++] = '-';
+    digits(value.getDayOfMonth(), 2);
+    buffer[position++] = ' ';
+    digits(value.getHour(), 2);
+    buffer[position++] = ':';
+    digits(value.getMinute(), 2);
+    buffer[position++] = ':';
+    digits(value.getSecond(), 2);
+    return this;
+  }
+
+  CopyRowWriter text(CharSequence value) throws SQLException {
+    if (value == null) {
+      return nullValue();
+    }
+    separator();
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      ensureCapacity(4);
+      if (c == '\\' || c == '\t' || c == '\n' || c == '\r') {
+        buffer[position++] = '\\';
+        buffer[position++] = (byte) (c == '\t' ? 't' : c == '\n' ? 'n' : c == '\r' ? 'r' : '\\');
+      }
+      else if (c < 0x80) {
+        buffer[position++] = (byte) c;
+      }
+      else {
+        byte[] encoded = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(encoded, 0, buffer, position, encoded.length);
+        position += encoded.length;
+      }
+    }
+    return this;
+  }
+
+  CopyRowWriter nullValue() throws SQLException {
+    separator();
+    ensureCapacity(2);
+    buffer[position++] = '\\';
+    buffer[position++] = 'N';
+    return this;
+  }
+
+  void endRow() throws SQLException {
+    ensureCapacity(1);
+    buffer[position++] = '\n';
+    rowStarted = false;
+  }
+
+  /** Flushes the remaining rows and completes the COPY, returning the rows the server loaded. */
+  long finish() throws SQLException {
+    flush();
+    return copyIn.endCopy();
+  }
+
+  /** Aborts the COPY if {@link #finish()} was not reached, discarding every row sent. */
+  @Override
+  public void close() throws SQLException {
+    if (copyIn.isActive()) {
+      copyIn.cancelCopy();
+    }
+  }
+
+  private void separator() throws SQLException {
+    if (rowStarted) {
+      ensureCapacity(1);
+      buffer[position++] = '\t';
+    }
+    rowStarted = true;
+  }
+
+  private void digits(int value, int width) {
+    for (int i = position + width - 1; i >= position; i--) {
+      buffer[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    position += width;
+  }
+
+  private void reverse(int from, int to) {
+    while (from < to) {
+      byte b = buffer[from];
+      buffer[from++] = buffer[to];
+      buffer[to--] = b;
+    }
+  }
+
+  private void ensureCapacity(int bytes) throws SQLException {
+    if (position + bytes > buffer.length) {
+      flush();
+    }
+  }
+
+  private void flush() throws SQLException {
+    if (position > 0) {
+      copyIn.writeToCopy(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
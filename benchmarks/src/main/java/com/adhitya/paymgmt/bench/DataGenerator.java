@@ -0,0 +1,457 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.config.DatabaseConfig;
+import com.adhitya.paymgmt.config.SchemaMigrator;
+import com.adhitya.paymgmt.model.enums.PartyType;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.repository.AuditPartitionRepository;
+import com.adhitya.paymgmt.util.PasswordUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills a local PostgreSQL database with a large, realistic dataset for
+ * performance testing of the repositories and reports. Rows are streamed in with
+ * {@code COPY}, payments in parallel chunks, and follow the same distributions as
+ * {@link SyntheticDataset}: payroll spikes on days 25 to 28, a few counterparties
+ * taking most of the traffic and mostly completed payments. Every payment that
+ * moved past PENDING gets the audit history of its status changes.
+ *
+ * <p>Output is fully determined by the seed and the row counts, whatever the
+ * thread count: each chunk of payments draws from its own seeded generator, and
+ * audit IDs are derived from payment IDs ({@code 2 * id - 1} and {@code 2 * id}).</p>
+ *
+ * <p>The target tables must be empty, or pass {@code --truncate}. Connection
+ * settings come from the usual {@code paymgmt.db.*} system properties.</p>
+ *
+ * <pre>
+ * java -Dpaymgmt.db.url=jdbc:postgresql://localhost:5432/perf \
+ *   -cp benchmarks/target/benchmarks.jar com.adhitya.paymgmt.bench.DataGenerator \
+ *   --payments 20000000 --seed 42 --truncate
+ * </pre>
+ *
+ * Options: {@code --users}, {@code --employees}, {@code --counterparties},
+ * {@code --payments}, {@code --seed}, {@code --start}, {@code --end} (ISO dates),
+ * {@code --password} (shared by every user), {@code --threads},
+ * {@code --truncate} and {@code --keep-indexes}.
+ */
+public final class DataGenerator {
+  private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+  private static final int CHUNK_SIZE = 100_000;
+  private static final String[] TABLES = {"users", "employees", "counterparties", "payments", "audit_logs"};
+  // Secondary indexes on these are dropped during the load and rebuilt afterwards
+  private static final String[] INDEXED_TABLES = {"payments", "audit_logs", "counterparties"};
+
+  private final int userCount;
+  private final int employeeCount;
+  private final int counterpartyCount;
+  private final int paymentCount;
+  private final long seed;
+  private final LocalDate start;
+  private final LocalDate end;
+  private final String password;
+  private final int threads;
+  private final boolean truncate;
+  private final boolean keepIndexes;
+
+  private int[] managerIds;
+
+  private DataGenerator(Map<String, String> options) {
+    this.paymentCount = Integer.parseInt(options.getOrDefault("payments", "1000000"));
+    this.userCount = Integer.parseInt(options.getOrDefault("users", "100"));
+    this.employeeCount = Integer.parseInt(options.getOrDefault("employees",
+      String.valueOf(Math.max(10, paymentCount / 2_000))));
+    this.counterpartyCount = Integer.parseInt(options.getOrDefault("counterparties",
+      String.valueOf(Math.max(20, paymentCount / 500))));
+    this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    this.start = LocalDate.parse(options.getOrDefault("start", SyntheticDataset.START.toString()));
+    this.end = LocalDate.parse(options.getOrDefault("end", SyntheticDataset.END.toString()));
+    this.password = options.getOrDefault("password", "password");
+    this.threads = Integer.parseInt(options.getOrDefault("threads",
+      String.valueOf(Runtime.getRuntime().availableProcessors())));
+    this.truncate = options.containsKey("truncate");
+    this.keepIndexes = options.containsKey("keep-indexes");
+
+    if (paymentCount < 0 || userCount < 20 || employeeCount < 1 || counterpartyCount < 2 || threads < 1) {
+      throw new IllegalArgumentException("Need at least 20 users, 1 employee, 2 counterparties and 1 thread");
+    }
+    if (end.isBefore(start)) {
+      throw new IllegalArgumentException("End date cannot be before start date");
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--")) {
+        throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+      }
+      String name = args[i].substring(2);
+      boolean flag = name.equals("truncate") || name.equals("keep-indexes");
+      if (!flag && i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for --" + name);
+      }
+      options.put(name, flag ? "true" : args[++i]);
+    }
+    new DataGenerator(options).run();
+  }
+
+  private void run() throws Exception {
+    long started = System.nanoTime();
+    new SchemaMigrator().migrate();
+
+    List<String> deferredIndexes = new ArrayList<>();
+    long auditRows;
+    try {
+      try (Connection connection = DatabaseConfig.getConnection()) {
+        prepareSession(connection);
+        if (truncate) {
+          execute(connection, "TRUNCATE " + String.join(", ", TABLES) + " RESTART IDENTITY CASCADE");
+        }
+        if (!keepIndexes) {
+          dropSecondaryIndexes(connection, deferredIndexes);
+        }
+        loadUsers(connection);
+        loadEmployees(connection);
+        loadCounterparties(connection);
+      }
+      createAuditPartitions();
+
+      auditRows = loadPayments();
+    }
+    catch (Exception | Error ex) {
+      // A failed load must not leave the database without its indexes
+      try {
+        rebuildIndexes(deferredIndexes);
+      }
+      catch (SQLException rebuildFailure) {
+        ex.addSuppressed(rebuildFailure);
+      }
+      throw ex;
+    }
+    rebuildIndexes(deferredIndexes);
+
+    try (Connection connection = DatabaseConfig.getConnection()) {
+      prepareSession(connection);
+      for (String table : TABLES) {
+        execute(connection, "SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+          "GREATEST((SELECT max(id) FROM " + table + "), 1))");
+      }
+      execute(connection, "ANALYZE " + String.join(", ", TABLES));
+    }
+
+    long total = userCount + employeeCount + counterpartyCount + (long) paymentCount + auditRows;
+    logger.info("Generated {} rows ({} payments, {} audit entries) with seed {} in {} s",
+      total, paymentCount, auditRows, seed, seconds(started));
+  }
+
+  /**
+   * Users 1, 21, 41... are admins, the next five of every twenty are finance
+   * managers and the rest viewers: 5%, 25% and 70%. Usernames are the lower-case
+   * role plus the ID, e.g. {@code viewer7}, and all share one password hash.
+   */
+  private void loadUsers(Connection connection) throws SQLException {
+    String hash = PasswordUtil.hashPassword(password);
+    LocalDateTime createdAt = start.minusDays(1).atStartOfDay();
+    List<Integer> managers = new ArrayList<>();
+
+    try (CopyRowWriter writer = new CopyRowWriter(connection,
+      "COPY users (id, username, password, role, email, created_at) FROM STDIN")) {
+      for (int id = 1; id <= userCount; id++) {
+        Role role = roleOf(id);
+        if (role == Role.FINANCE_MANAGER) {
+          managers.add(id);
+        }
+        String username = role.getDbValue().toLowerCase() + id;
+        writer.number(id).text(username).text(hash).text(role.getDbValue()).text(username + "@example.com")
+          .timestamp(createdAt).endRow();
+      }
+      logger.info("Loaded {} users", writer.finish());
+    }
+    managerIds = managers.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static Role roleOf(int id) {
+    int slot = (id - 1) % 20;
+    if (slot == 0) {
+      return Role.ADMIN;
+    }
+    return slot <= 5 ? Role.FINANCE_MANAGER : Role.VIEWER;
+  }
+
+  private void loadEmployees(Connection connection) throws SQLException {
+    LocalDateTime createdAt = start.minusDays(1).atStartOfDay();
+    try (CopyRowWriter writer = new CopyRowWriter(connection,
+      "COPY employees (id, name, department, created_at) FROM STDIN")) {
+      for (int id = 1; id <= employeeCount; id++) {
+        writer.number(id).text("Employee " + id).text(Distributions.DEPARTMENTS[id % Distributions.DEPARTMENTS.length])
+          .timestamp(createdAt).endRow();
+      }
+      logger.info("Loaded {} employees", writer.finish());
+    }
+  }
+
+  /** Odd IDs are vendors and even IDs clients, as in {@link SyntheticDataset}. */
+  private void loadCounterparties(Connection connection) throws SQLException {
+    LocalDateTime createdAt = start.minusDays(1).atStartOfDay();
+    try (CopyRowWriter writer = new CopyRowWriter(connection,
+      "COPY counterparties (id, name, type, mobile, created_at) FROM STDIN")) {
+      for (int id = 1; id <= counterpartyCount; id++) {
+        PartyType type = id % 2 == 1 ? PartyType.VENDOR : PartyType.CLIENT;
+        writer.number(id).text((type == PartyType.VENDOR ? "Vendor " : "Client ") + id).text(type.getDbValue())
+          .text(String.format("9%09d", id)).timestamp(createdAt).endRow();
+      }
+      logger.info("Loaded {} counterparties", writer.finish());
+    }
+  }
+
+  /** Status changes can land up to three days after the end date, so cover that month too. */
+  private void createAuditPartitions() {
+    AuditPartitionRepository partitions = new AuditPartitionRepository();
+    if (!partitions.isPartitioned()) {
+      return;
+    }
+    YearMonth last = YearMonth.from(end.plusDays(3));
+    for (YearMonth month = YearMonth.from(start); !month.isAfter(last); month = month.plusMonths(1)) {
+      partitions.createPartition(month);
+    }
+  }
+
+  /** Loads payment chunks on parallel connections and returns the audit rows written. */
+  private long loadPayments() throws Exception {
+    int chunks = (paymentCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    AtomicInteger nextChunk = new AtomicInteger();
+    AtomicLong auditRows = new AtomicLong();
+    AtomicLong paymentsDone = new AtomicLong();
+    long started = System.nanoTime();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        workers.add(executor.submit(() -> {
+          try (Connection connection = DatabaseConfig.getConnection()) {
+            prepareSession(connection);
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+              int first = chunk * CHUNK_SIZE + 1;
+              int last = Math.min(paymentCount, first + CHUNK_SIZE - 1);
+              auditRows.addAndGet(loadChunk(connection, chunk, first, last));
+              long done = paymentsDone.addAndGet(last - first + 1);
+              logger.info("Payments {}/{} ({} rows/s)", done, paymentCount,
+                done * 1_000_000_000L / Math.max(1, System.nanoTime() - started));
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    return auditRows.get();
+  }
+
+  /**
+   * Writes payments {@code first..last} and then their audit history, in one
+   * transaction so a failed chunk leaves nothing behind.
+   */
+  private long loadChunk(Connection connection, int chunk, int first, int last) throws SQLException {
+    // Mix the chunk into the seed so neighbouring chunks do not share a sequence
+    Random random = new Random(seed ^ (chunk + 1) * 0x9E3779B97F4A7C15L);
+    int count = last - first + 1;
+    LocalDateTime[] createdAt = new LocalDateTime[count];
+    LocalDateTime[] updatedAt = new LocalDateTime[count];
+    Status[] statuses = new Status[count];
+    int[] createdBy = new int[count];
+
+    connection.setAutoCommit(false);
+    try {
+      try (CopyRowWriter writer = new CopyRowWriter(connection, "COPY payments (id, amount, direction, category, " +
+        "status, description, created_by, created_at, updated_at, employee_id, counterparty_id) FROM STDIN")) {
+        for (int i = 0; i < count; i++) {
+          int id = first + i;
+          PaymentCategory category = Distributions.category(random);
+          createdAt[i] = Distributions.createdAt(random, category, start, end);
+          statuses[i] = Distributions.status(random);
+          createdBy[i] = managerIds[random.nextInt(managerIds.length)];
+          updatedAt[i] = statuses[i] == Status.PENDING ? null : createdAt[i].plusHours(1 + random.nextInt(72));
+
+          int employeeId = 0;
+          int counterpartyId = 0;
+          if (category == PaymentCategory.SALARY) {
+            employeeId = 1 + random.nextInt(employeeCount);
+          }
+          else {
+            // Vendors sit on odd IDs and clients on even ones
+            int rank = Distributions.skewedIndex(random, counterpartyCount / 2);
+            counterpartyId = 2 * rank + (category == PaymentCategory.VENDOR_PAYMENT ? 1 : 2);
+          }
+          PaymentDirection direction = category == PaymentCategory.CLIENT_INVOICE
+            ? PaymentDirection.INCOMING
+            : PaymentDirection.OUTGOING;
+
+          writer.number(id)
+            .amount(Distributions.amountMinorUnits(random, category))
+            .text(direction.getDbValue())
+            .text(category.getDbValue())
+            .text(statuses[i].getDbValue())
+            .text(Distributions.description(random, category, id))
+            .number(createdBy[i])
+            .timestamp(createdAt[i])
+            .timestamp(updatedAt[i])
+            .reference(employeeId)
+            .reference(counterpartyId)
+            .endRow();
+        }
+        writer.finish();
+      }
+
+      long auditRows;
+      try (CopyRowWriter writer = new CopyRowWriter(connection,
+        "COPY audit_logs (id, payment_id, field_changed, old_value, new_value, changed_by, changed_at) FROM STDIN")) {
+        for (int i = 0; i < count; i++) {
+          if (statuses[i] == Status.PENDING) {
+            continue;
+          }
+          long id = first + i;
+          // A completed payment passed through PROCESSING somewhere before its last update
+          LocalDateTime processingAt = statuses[i] == Status.PROCESSING
+            ? updatedAt[i]
+            : createdAt[i].plusMinutes(random.nextInt((int) Duration.between(createdAt[i], updatedAt[i])
+                .toMinutes()));
+          writeStatusChange(writer, 2 * id - 1, id, Status.PENDING, Status.PROCESSING, createdBy[i], processingAt);
+          if (statuses[i] == Status.COMPLETED) {
+            writeStatusChange(writer, 2 * id, id, Status.PROCESSING, Status.COMPLETED,
+              managerIds[random.nextInt(managerIds.length)], updatedAt[i]);
+          }
+        }
+        auditRows = writer.finish();
+      }
+      connection.commit();
+      return auditRows;
+    }
+    catch (SQLException ex) {
+      connection.rollback();
+      throw ex;
+    }
+    finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  private static void writeStatusChange(CopyRowWriter writer, long auditId, long paymentId, Status from, Status to,
+                                        int changedBy, LocalDateTime changedAt) throws SQLException {
+    writer.number(auditId).number(paymentId).text("status").text(from.getDbValue()).text(to.getDbValue())
+      .number(changedBy).timestamp(changedAt).endRow();
+  }
+
+  /**
+   * Drops the indexes on the bulk-loaded tables that back no constraint and adds
+   * their definitions to {@code dropped} as it goes, so a failure part way still
+   * leaves the dropped ones to rebuild. One index build after the load is far
+   * cheaper than maintaining it row by row, the GIN search indexes above all.
+   */
+  private static void dropSecondaryIndexes(Connection connection, List<String> dropped) throws SQLException {
+    String sql = "SELECT i.indexrelid::regclass::text, pg_get_indexdef(i.indexrelid) " +
+                 "FROM pg_index i JOIN pg_class t ON t.oid = i.indrelid " +
+                 "WHERE t.relnamespace = 'public'::regnamespace AND t.relname IN ('" +
+                 String.join("', '", INDEXED_TABLES) + "') " +
+                 "AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)";
+
+    Map<String, String> indexes = new LinkedHashMap<>();
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(sql)
+    ) {
+      while (resultSet.next()) {
+        indexes.put(resultSet.getString(1), resultSet.getString(2));
+      }
+    }
+    for (Map.Entry<String, String> index : indexes.entrySet()) {
+      // Logged in full so the index can be recreated by hand if the rebuild never runs
+      logger.info("Dropping index {} for the load: {}", index.getKey(), index.getValue());
+      execute(connection, "DROP INDEX " + index.getKey());
+      dropped.add(index.getValue());
+    }
+  }
+
+  /**
+   * Recreates the dropped indexes. Every definition is attempted; the ones that
+   * fail are logged and reported together at the end.
+   */
+  private static void rebuildIndexes(List<String> definitions) throws SQLException {
+    if (definitions.isEmpty()) {
+      return;
+    }
+    SQLException failure = null;
+    try (Connection connection = DatabaseConfig.getConnection()) {
+      prepareSession(connection);
+      for (String definition : definitions) {
+        long started = System.nanoTime();
+        try {
+          // The definition of an index on a partitioned table reads ON ONLY, which would skip the partitions
+          execute(connection, definition.replace(" ON ONLY ", " ON "));
+          logger.info("Rebuilt index in {} s: {}", seconds(started), definition);
+        }
+        catch (SQLException ex) {
+          logger.error("Could not rebuild index, recreate it by hand: {}", definition, ex);
+          if (failure == null) {
+            failure = new SQLException("Could not rebuild every dropped index");
+          }
+          failure.addSuppressed(ex);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static void prepareSession(Connection connection) throws SQLException {
+    // Losing the tail of a generated load on a crash is harmless; waiting on WAL flushes is not
+    execute(connection, "SET synchronous_commit = off");
+    execute(connection, "SET maintenance_work_mem = '512MB'");
+    try {
+      // Generated keys are consistent by construction, so skip the per-row foreign key triggers
+      execute(connection, "SET session_replication_role = replica");
+    }
+    catch (SQLException ex) {
+      logger.debug("Foreign key checks stay on: {}", ex.getMessage());
+    }
+  }
+
+  private static void execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  private static long seconds(long startedNanos) {
+    return (System.nanoTime() - startedNanos) / 1_000_000_000L;
+  }
+}
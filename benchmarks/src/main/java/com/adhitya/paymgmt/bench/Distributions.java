@@ -0,0 +1,88 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+/** Value distributions shared by the synthetic data used in benchmarks and load tests. */
+final class Distributions {
+  static final String[] DEPARTMENTS = {"Engineering", "Finance", "Sales", "Operations", "Support", "Legal"};
+
+  private static final String[] VENDOR_ITEMS = {"Cloud hosting", "Office rent", "Hardware", "Consulting",
+    "Legal services", "Travel", "Software licences", "Catering", "Logistics", "Marketing"};
+  private static final String[] CLIENT_ITEMS = {"Retainer", "Milestone", "Support contract", "Licence renewal",
+    "Implementation", "Training", "Audit fee"};
+
+  private Distributions() {}
+
+  /** Salary 30%, vendor payments 45%, client invoices 25%. */
+  static PaymentCategory category(Random random) {
+    int roll = random.nextInt(100);
+    if (roll < 30) {
+      return PaymentCategory.SALARY;
+    }
+    return roll < 75 ? PaymentCategory.VENDOR_PAYMENT : PaymentCategory.CLIENT_INVOICE;
+  }
+
+  /** Completed 80%, processing 12%, pending 8%. */
+  static Status status(Random random) {
+    int roll = random.nextInt(100);
+    if (roll < 80) {
+      return Status.COMPLETED;
+    }
+    return roll < 92 ? Status.PROCESSING : Status.PENDING;
+  }
+
+  /**
+   * Returns an index below {@code size} where low indexes are far more likely:
+   * the first 10% of indexes receive roughly half of all draws.
+   */
+  static int skewedIndex(Random random, int size) {
+    double u = random.nextDouble();
+    return Math.min(size - 1, (int) (size * u * u * u));
+  }
+
+  /**
+   * Salaries are 30,000 to 150,000; other payments are log-normal around 20,000
+   * with a long tail, capped at 5,000,000.
+   */
+  static long amountMinorUnits(Random random, PaymentCategory category) {
+    if (category == PaymentCategory.SALARY) {
+      return (30_000 + random.nextInt(120_001)) * 100L;
+    }
+    double major = Math.exp(Math.log(20_000) + random.nextGaussian());
+    return Math.max(100, Math.min(500_000_000L, Math.round(major * 100)));
+  }
+
+  /** Salaries cluster on payroll days 25 to 28; everything else is uniform over the range. */
+  static LocalDateTime createdAt(Random random, PaymentCategory category, LocalDate start, LocalDate end) {
+    LocalDate day;
+    if (category == PaymentCategory.SALARY) {
+      long months = ChronoUnit.MONTHS.between(start.withDayOfMonth(1), end.withDayOfMonth(1)) + 1;
+      day = start.withDayOfMonth(1).plusMonths(random.nextInt((int) months)).withDayOfMonth(25 + random.nextInt(4));
+      if (day.isBefore(start) || day.isAfter(end)) {
+        day = start;
+      }
+    }
+    else {
+      day = start.plusDays(random.nextInt((int) ChronoUnit.DAYS.between(start, end) + 1));
+    }
+    // Business hours, to the second
+    return day.atTime(9, 0).plusSeconds(random.nextInt(9 * 3600));
+  }
+
+  static String description(Random random, PaymentCategory category, int id) {
+    switch (category) {
+      case SALARY:
+        return "Monthly salary";
+      case VENDOR_PAYMENT:
+        return VENDOR_ITEMS[random.nextInt(VENDOR_ITEMS.length)] + " invoice " + id;
+      default:
+        return CLIENT_ITEMS[random.nextInt(CLIENT_ITEMS.length)] + " " + id;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.repository.CounterpartyRepository;
+import com.adhitya.paymgmt.repository.EmployeeRepository;
+import com.adhitya.paymgmt.repository.PaymentRepository;
+import com.adhitya.paymgmt.service.PaymentService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database-free stand-ins for the repositories and services the report engine
+ * depends on, serving a {@link SyntheticDataset} from memory.
+ */
+final class InMemoryFixtures {
+  private InMemoryFixtures() {}
+
+  static final class Employees extends EmployeeRepository {
+    private final Map<Integer, Employee> byId = new HashMap<>();
+    private final List<Employee> all;
+
+    Employees(List<Employee> employees) {
+      this.all = employees;
+      employees.forEach(employee -> byId.put(employee.getId(), employee));
+    }
+
+    @Override
+    public Employee findById(int id) {
+      return byId.get(id);
+    }
+
+    @Override
+    public List<Employee> findAll() {
+      return all;
+    }
+  }
+
+  static final class Counterparties extends CounterpartyRepository {
+    private final Map<Integer, Counterparty> byId = new HashMap<>();
+    private final List<Counterparty> all;
+
+    Counterparties(List<Counterparty> counterparties) {
+      this.all = counterparties;
+      counterparties.forEach(counterparty -> byId.put(counterparty.getId(), counterparty));
+    }
+
+    @Override
+    public Counterparty findById(int id) {
+      return byId.get(id);
+    }
+
+    @Override
+    public List<Counterparty> findAll() {
+      return all;
+    }
+  }
+
+  /** Returns the whole dataset for every date range, as the report period covers all of it. */
+  static final class Payments extends PaymentService {
+    private final List<Payment> payments;
+
+    Payments(List<Payment> payments) {
+      super(null, null, null, null);
+      this.payments = payments;
+    }
+
+    @Override
+    public List<Payment> getPaymentsByDateRange(LocalDate start, LocalDate end) {
+      return payments;
+    }
+  }
+
+  /** Feeds the column store's bulk load from memory. */
+  static final class ScanSource extends PaymentRepository {
+    private final List<Payment> payments;
+
+    ScanSource(List<Payment> payments) {
+      super(null, null, null);
+      this.payments = payments;
+    }
+
+    @Override
+    public void scanColumns(int afterId, LocalDateTime updatedSince, ColumnVisitor visitor) {
+      for (Payment p : payments) {
+        if (p.getId() > afterId) {
+          visitor.visit(p.getId(), p.getAmount().minorUnits(), p.getPaymentDirection(), p.getCategory(),
+            p.getStatus(), p.getCreatedBy().getId(), p.getCreatedAt(), p.getUpdatedAt(),
+            p.getEmployee() != null ? p.getEmployee().getId() : 0,
+            p.getCounterParty() != null ? p.getCounterParty().getId() : 0);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.adhitya.paymgmt.bench;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and outcome counts, safe to record into from
+ * any number of threads. Latencies are kept in microseconds with three
+ * significant digits. {@link #interval()} hands back everything recorded since
+ * the previous call and starts a fresh interval.
+ */
+final class LatencyStats {
+  private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> rejections = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+  private long intervalStartNanos = System.nanoTime();
+
+  LatencyStats() {
+    for (Operation operation : Operation.values()) {
+      recorders.put(operation, new Recorder(3));
+      rejections.put(operation, new LongAdder());
+      errors.put(operation, new LongAdder());
+    }
+  }
+
+  /** Records a completed operation; a lookup that found nothing still counts as completed. */
+  void recordSuccess(Operation operation, long latencyNanos) {
+    recorders.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+  }
+
+  /** Records an operation turned away by throttling or admission control. */
+  void recordRejected(Operation operation) {
+    rejections.get(operation).increment();
+  }
+
+  void recordError(Operation operation) {
+    errors.get(operation).increment();
+  }
+
+  synchronized Interval interval() {
+    Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    Map<Operation, Long> rejected = new EnumMap<>(Operation.class);
+    Map<Operation, Long> failed = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+      rejected.put(operation, rejections.get(operation).sumThenReset());
+      failed.put(operation, errors.get(operation).sumThenReset());
+    }
+    long now = System.nanoTime();
+    Interval interval = new Interval(histograms, rejected, failed, now - intervalStartNanos);
+    intervalStartNanos = now;
+    return interval;
+  }
+
+  /** What was recorded over one interval; latencies in microseconds. */
+  record Interval(Map<Operation, Histogram> histograms, Map<Operation, Long> rejected,
+                  Map<Operation, Long> errors, long elapsedNanos) {
+
+    double perSecond(long count) {
+      return count * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    /** All operations merged into one histogram. */
+    Histogram total() {
+      Histogram total = new Histogram(3);
+      histograms.values().forEach(total::add);
+      return total;
+    }
+  }
+}
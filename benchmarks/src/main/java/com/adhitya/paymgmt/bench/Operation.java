@@ -0,0 +1,57 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.enums.Role;
+
+import java.util.Random;
+
+/**
+ * Service-layer operations a simulated session performs, with how often each
+ * role picks them. Weights per role add up to 100; {@link #LOGIN} is never
+ * picked, it starts every session.
+ */
+enum Operation {
+  LOGIN(0, 0, 0),
+  LIST_PAYMENTS(35, 15, 15),
+  FILTER_PAYMENTS(20, 0, 0),
+  TEXT_SEARCH(20, 10, 0),
+  MONTHLY_REPORT(25, 15, 10),
+  ADD_PAYMENT(0, 35, 0),
+  UPDATE_STATUS(0, 25, 0),
+  AUDIT_PAGE(0, 0, 50),
+  AUDIT_BY_PAYMENT(0, 0, 25);
+
+  private static final Operation[] VALUES = values();
+
+  private final int viewerWeight;
+  private final int managerWeight;
+  private final int adminWeight;
+
+  Operation(int viewerWeight, int managerWeight, int adminWeight) {
+    this.viewerWeight = viewerWeight;
+    this.managerWeight = managerWeight;
+    this.adminWeight = adminWeight;
+  }
+
+  int weight(Role role) {
+    switch (role) {
+      case VIEWER:
+        return viewerWeight;
+      case FINANCE_MANAGER:
+        return managerWeight;
+      default:
+        return adminWeight;
+    }
+  }
+
+  /** Draws the next operation of a session with the given role. */
+  static Operation pick(Role role, Random random) {
+    int roll = random.nextInt(100);
+    for (Operation operation : VALUES) {
+      roll -= operation.weight(role);
+      if (roll < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("Weights for " + role + " do not add up to 100");
+  }
+}
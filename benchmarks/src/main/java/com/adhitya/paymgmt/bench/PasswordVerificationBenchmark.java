@@ -0,0 +1,47 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.util.PasswordUtil;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one login's password check at the bcrypt costs in use: 10 for older
+ * hashes, 12 for the calibration floor. Each extra round should double the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 8, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class PasswordVerificationBenchmark {
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Param({"10", "12"})
+  public int cost;
+
+  private String hash;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+  }
+
+  @Benchmark
+  public boolean verifyPassword() {
+    return PasswordUtil.verifyPassword(PASSWORD, hash);
+  }
+}
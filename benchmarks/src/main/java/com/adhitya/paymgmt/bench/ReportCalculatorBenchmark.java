@@ -0,0 +1,65 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.analytics.PaymentColumnStore;
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.util.ReportCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReportCalculator#calculateReport} over a year of synthetic payments,
+ * aggregating either the fetched payment list or the column store's arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ReportCalculatorBenchmark {
+
+  public enum Source {
+    /** Aggregates the payment objects. */
+    LIST,
+    /** Aggregates the column store; the transaction listing is not fetched. */
+    COLUMN_STORE
+  }
+
+  @Param({"10000", "100000", "1000000"})
+  public int payments;
+
+  @Param({"LIST", "COLUMN_STORE"})
+  public Source source;
+
+  private ReportCalculator calculator;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SyntheticDataset dataset = SyntheticDataset.generate(payments, 42);
+    InMemoryFixtures.Payments paymentService = new InMemoryFixtures.Payments(dataset.payments());
+    if (source == Source.COLUMN_STORE) {
+      PaymentColumnStore store = new PaymentColumnStore(payments);
+      store.load(new InMemoryFixtures.ScanSource(dataset.payments()));
+      paymentService.useColumnStore(store);
+    }
+    calculator = new ReportCalculator(paymentService, new InMemoryFixtures.Employees(dataset.employees()),
+      new InMemoryFixtures.Counterparties(dataset.counterparties()));
+  }
+
+  @Benchmark
+  public ReportDataDTO calculateReport() {
+    return calculator.calculateReport(SyntheticDataset.START, SyntheticDataset.END);
+  }
+}
@@ -0,0 +1,75 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of the HTML, CSV and PDF report exporters for reports of a given size. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ReportExportBenchmark {
+
+  /** Transactions listed in the report. */
+  @Param({"100", "1000"})
+  public int transactions;
+
+  private ReportService reportService;
+  private ReportDataDTO report;
+  private String html;
+  private Path csvFile;
+  private Path pdfFile;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    SyntheticDataset dataset = SyntheticDataset.generate(transactions, 42);
+    reportService = new ReportService(new InMemoryFixtures.Payments(dataset.payments()),
+      new InMemoryFixtures.Employees(dataset.employees()), new InMemoryFixtures.Counterparties(dataset.counterparties()));
+    report = reportService.generateReportData(SyntheticDataset.START, SyntheticDataset.END);
+    html = reportService.buildHtmlReport(report, "Benchmark Report");
+    csvFile = Files.createTempFile("report-bench", ".csv");
+    pdfFile = Files.createTempFile("report-bench", ".pdf");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(csvFile);
+    Files.deleteIfExists(pdfFile);
+  }
+
+  @Benchmark
+  public String buildHtmlReport() {
+    return reportService.buildHtmlReport(report, "Benchmark Report");
+  }
+
+  @Benchmark
+  public void exportReportAsCsv() {
+    reportService.exportReportAsCsv(report, csvFile.toString());
+  }
+
+  /** Renders the prebuilt HTML, as the menus do after building it once. */
+  @Benchmark
+  public void exportReportAsPdf() {
+    reportService.exportReportAsPdf(html, pdfFile.toString());
+  }
+}
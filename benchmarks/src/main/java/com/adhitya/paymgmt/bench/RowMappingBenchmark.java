@@ -0,0 +1,154 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.repository.PaymentRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * ResultSet-to-Payment mapping over an in-memory result set, comparing
+ * {@link PaymentRowMapper} with the name-based mapping it replaced. Related
+ * entities come from arrays, so only the mapping itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+  @Param({"10000"})
+  public int rows;
+
+  private CachedRowSet resultSet;
+  private User[] users;
+  private Employee[] employees;
+  private Counterparty[] counterparties;
+  private PaymentRowMapper mapper;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    SyntheticDataset dataset = SyntheticDataset.generate(rows, 42);
+    users = index(dataset.users(), User::getId, User[]::new);
+    employees = index(dataset.employees(), Employee::getId, Employee[]::new);
+    counterparties = index(dataset.counterparties(), Counterparty::getId, Counterparty[]::new);
+    mapper = new PaymentRowMapper(id -> users[id], id -> employees[id], id -> counterparties[id]);
+    resultSet = toResultSet(dataset.payments());
+  }
+
+  @Benchmark
+  public void positionalMapper(Blackhole blackhole) throws SQLException {
+    resultSet.beforeFirst();
+    while (resultSet.next()) {
+      blackhole.consume(mapper.map(resultSet));
+    }
+  }
+
+  /** The per-row mapping the repositories used before the row mappers. */
+  @Benchmark
+  public void nameBasedMapping(Blackhole blackhole) throws SQLException {
+    resultSet.beforeFirst();
+    while (resultSet.next()) {
+      blackhole.consume(new Payment(
+        resultSet.getInt("id"),
+        Money.parse(resultSet.getString("amount")),
+        PaymentDirection.valueOf(resultSet.getString("direction")),
+        PaymentCategory.valueOf(resultSet.getString("category")),
+        Status.valueOf(resultSet.getString("status")),
+        resultSet.getString("description"),
+        users[resultSet.getInt("created_by")],
+        resultSet.getTimestamp("created_at").toLocalDateTime(),
+        resultSet.getTimestamp("updated_at") != null ?
+          resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
+        employees[resultSet.getInt("employee_id")],
+        counterparties[resultSet.getInt("counterparty_id")]
+      ));
+    }
+  }
+
+  // Text-typed columns mirror what PgJDBC returns for numeric and enum columns
+  private static CachedRowSet toResultSet(List<Payment> payments) throws SQLException {
+    String[] names = PaymentRowMapper.COLUMNS.split(", ");
+    int[] types = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+      Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER, Types.INTEGER};
+    RowSetMetaData metaData = new RowSetMetaDataImpl();
+    metaData.setColumnCount(names.length);
+    for (int i = 0; i < names.length; i++) {
+      metaData.setColumnName(i + 1, names[i]);
+      metaData.setColumnLabel(i + 1, names[i]);
+      metaData.setColumnType(i + 1, types[i]);
+      metaData.setNullable(i + 1, ResultSetMetaData.columnNullable);
+    }
+
+    CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+    rowSet.setMetaData(metaData);
+    rowSet.moveToInsertRow();
+    for (Payment p : payments) {
+      rowSet.updateInt(1, p.getId());
+      rowSet.updateString(2, p.getAmount().toString());
+      rowSet.updateString(3, p.getPaymentDirection().getDbValue());
+      rowSet.updateString(4, p.getCategory().getDbValue());
+      rowSet.updateString(5, p.getStatus().getDbValue());
+      rowSet.updateString(6, p.getDescription());
+      rowSet.updateInt(7, p.getCreatedBy().getId());
+      rowSet.updateTimestamp(8, Timestamp.valueOf(p.getCreatedAt()));
+      rowSet.updateTimestamp(9, p.getUpdatedAt() != null ? Timestamp.valueOf(p.getUpdatedAt()) : null);
+      if (p.getEmployee() != null) {
+        rowSet.updateInt(10, p.getEmployee().getId());
+      }
+      else {
+        rowSet.updateNull(10);
+      }
+      if (p.getCounterParty() != null) {
+        rowSet.updateInt(11, p.getCounterParty().getId());
+      }
+      else {
+        rowSet.updateNull(11);
+      }
+      rowSet.insertRow();
+    }
+    rowSet.moveToCurrentRow();
+    return rowSet;
+  }
+
+  // Slot 0 stays null, as a NULL foreign key reads as 0
+  private static <T> T[] index(List<T> values, ToIntFunction<T> id, IntFunction<T[]> newArray) {
+    T[] byId = newArray.apply(values.size() + 1);
+    for (T value : values) {
+      byId[id.applyAsInt(value)] = value;
+    }
+    return byId;
+  }
+}
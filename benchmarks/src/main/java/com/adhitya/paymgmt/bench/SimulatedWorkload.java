@@ -0,0 +1,231 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.analytics.PaymentFilter;
+import com.adhitya.paymgmt.config.AppConfig;
+import com.adhitya.paymgmt.config.DatabaseConfig;
+import com.adhitya.paymgmt.config.ReadRouting;
+import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.exception.LoginThrottledException;
+import com.adhitya.paymgmt.exception.WorkloadRejectedException;
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PartyType;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.model.enums.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Performs {@link Operation}s for virtual users against the services wired by
+ * {@link AppConfig}, the way the console menus and the HTTP API call them:
+ * listings, searches and reports on the replica route, payments added with an
+ * idempotency key, and every call after login authenticated by session token.
+ */
+final class SimulatedWorkload {
+  private static final Logger logger = LoggerFactory.getLogger(SimulatedWorkload.class);
+
+  // Errors after this many are counted but not logged
+  private static final int MAX_LOGGED_ERRORS = 20;
+  private static final int PAGE_SIZE = 50;
+  private static final String[] SEARCH_TERMS = {"hosting", "rent", "hardware", "consulting", "licence", "retainer",
+    "milestone", "training", "salary", "invoice", "logistcs", "consultng"};
+
+  private final AppConfig app;
+  private final String password;
+  private final int sessionLength;
+  private final List<YearMonth> months;
+  private final Map<Role, List<User>> accounts = new EnumMap<>(Role.class);
+  private final List<Employee> employees;
+  private final List<Counterparty> vendors = new ArrayList<>();
+  private final List<Counterparty> clients = new ArrayList<>();
+  private final int maxPaymentId;
+  private final AtomicInteger loggedErrors = new AtomicInteger();
+
+  SimulatedWorkload(AppConfig app, String password, int sessionLength, YearMonth firstMonth, YearMonth lastMonth) {
+    this.app = app;
+    this.password = password;
+    this.sessionLength = sessionLength;
+
+    List<YearMonth> range = new ArrayList<>();
+    for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+      range.add(month);
+    }
+    this.months = List.copyOf(range);
+
+    for (User user : app.authService.getAllUsers()) {
+      accounts.computeIfAbsent(user.getRole(), role -> new ArrayList<>()).add(user);
+    }
+    this.employees = app.employeeService.getAll();
+    for (Counterparty counterparty : app.counterpartyService.getAll()) {
+      (counterparty.getPartyType() == PartyType.VENDOR ? vendors : clients).add(counterparty);
+    }
+    this.maxPaymentId = findMaxPaymentId();
+    if (employees.isEmpty() || vendors.isEmpty() || clients.isEmpty() || maxPaymentId == 0) {
+      throw new IllegalStateException("Load a dataset first, e.g. with DataGenerator");
+    }
+  }
+
+  /** Returns true if the database has at least one account with this role. */
+  boolean hasAccounts(Role role) {
+    return !accounts.getOrDefault(role, List.of()).isEmpty();
+  }
+
+  /**
+   * Runs the virtual user's next operation, logging in first when its session
+   * is over, and records the outcome.
+   *
+   * @param startNanos when the operation should have started; in an open-loop
+   *                   run this is the arrival time, so time spent queued counts
+   */
+  void runNext(VirtualUser user, LatencyStats stats, long startNanos) {
+    Operation operation = user.operationsLeft <= 0 ? Operation.LOGIN : Operation.pick(user.role, user.random);
+    try {
+      execute(operation, user);
+      stats.recordSuccess(operation, System.nanoTime() - startNanos);
+    }
+    catch (EmptyResultException ex) {
+      // A search or lookup that matched nothing is still an answered request
+      stats.recordSuccess(operation, System.nanoTime() - startNanos);
+    }
+    catch (LoginThrottledException | WorkloadRejectedException ex) {
+      stats.recordRejected(operation);
+    }
+    catch (RuntimeException ex) {
+      stats.recordError(operation);
+      if (loggedErrors.incrementAndGet() <= MAX_LOGGED_ERRORS) {
+        logger.warn("{} failed for {}", operation, user.account != null ? user.account.getUsername() : user.role, ex);
+      }
+    }
+  }
+
+  private void execute(Operation operation, VirtualUser user) {
+    if (operation == Operation.LOGIN) {
+      login(user);
+      return;
+    }
+    app.authService.authenticate(user.session.token());
+    user.operationsLeft--;
+
+    YearMonth month = months.get(user.random.nextInt(months.size()));
+    switch (operation) {
+      case LIST_PAYMENTS:
+        ReadRouting.onReplica(() -> app.paymentService.getPaymentsByDateRange(month.atDay(1), month.atEndOfMonth()));
+        break;
+      case FILTER_PAYMENTS:
+        PaymentCategory category = PaymentCategory.values()[user.random.nextInt(PaymentCategory.values().length)];
+        ReadRouting.onReplica(() -> app.paymentService.searchPayments(
+          PaymentFilter.and(PaymentFilter.category(category), PaymentFilter.month(month))));
+        break;
+      case TEXT_SEARCH:
+        String term = SEARCH_TERMS[user.random.nextInt(SEARCH_TERMS.length)];
+        ReadRouting.onReplica(() -> app.paymentService.searchByText(term, null, null, null, 0, PAGE_SIZE));
+        break;
+      case MONTHLY_REPORT:
+        app.reportService.generateReportData(month.atDay(1), month.atEndOfMonth());
+        break;
+      case ADD_PAYMENT:
+        addPayment(user);
+        break;
+      case UPDATE_STATUS:
+        updateStatus(user);
+        break;
+      case AUDIT_PAGE:
+        app.auditService.getAuditLogPage(null, null, 0, PAGE_SIZE);
+        break;
+      case AUDIT_BY_PAYMENT:
+        app.auditService.getEntriesByPayment(1 + user.random.nextInt(maxPaymentId));
+        break;
+      default:
+        throw new IllegalStateException("Unexpected operation: " + operation);
+    }
+  }
+
+  /** Ends the current session, if any, and opens one as a random account of the user's role. */
+  private void login(VirtualUser user) {
+    if (user.session != null) {
+      app.authService.logout(user.session.token());
+      user.session = null;
+    }
+    List<User> candidates = accounts.get(user.role);
+    user.account = candidates.get(user.random.nextInt(candidates.size()));
+    user.session = app.authService.openSession(user.account.getUsername(), password);
+    user.operationsLeft = sessionLength;
+  }
+
+  private void addPayment(VirtualUser user) {
+    PaymentCategory category = Distributions.category(user.random);
+    Employee employee = null;
+    Counterparty counterparty = null;
+    if (category == PaymentCategory.SALARY) {
+      employee = employees.get(user.random.nextInt(employees.size()));
+    }
+    else {
+      List<Counterparty> parties = category == PaymentCategory.VENDOR_PAYMENT ? vendors : clients;
+      counterparty = parties.get(Distributions.skewedIndex(user.random, parties.size()));
+    }
+    Payment payment = new Payment(
+      0,
+      Money.ofMinor(Distributions.amountMinorUnits(user.random, category)),
+      category == PaymentCategory.CLIENT_INVOICE ? PaymentDirection.INCOMING : PaymentDirection.OUTGOING,
+      category,
+      Status.PENDING,
+      Distributions.description(user.random, category, user.random.nextInt(1_000_000)),
+      user.account,
+      LocalDateTime.now(),
+      null,
+      employee,
+      counterparty
+    );
+    user.rememberPayment(app.paymentService.addPayment(payment, UUID.randomUUID().toString()));
+  }
+
+  /**
+   * Moves one of the manager's own open payments a step towards COMPLETED, or
+   * looks up a random payment and advances it if it is not yet completed.
+   */
+  private void updateStatus(VirtualUser user) {
+    Integer ownPayment = user.openPayments.pollFirst();
+    int paymentId = ownPayment != null ? ownPayment : 1 + user.random.nextInt(maxPaymentId);
+    Payment payment = app.paymentService.findById(paymentId);
+    if (payment.getStatus() == Status.COMPLETED) {
+      return;
+    }
+
+    Status next = payment.getStatus() == Status.PENDING ? Status.PROCESSING : Status.COMPLETED;
+    app.paymentService.updatePaymentStatus(paymentId, next, user.account.getId());
+    if (next != Status.COMPLETED && ownPayment != null) {
+      user.rememberPayment(paymentId);
+    }
+  }
+
+  private static int findMaxPaymentId() {
+    try (Connection connection = DatabaseConfig.getConnection();
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM payments")
+    ) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+    catch (SQLException ex) {
+      throw new IllegalStateException("Failed to read the payment ID range", ex);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PartyType;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory payments for benchmarks that must not touch a database.
+ * The same seed always produces the same rows. Distributions follow the shape of
+ * real books: monthly payroll around the 25th, a few counterparties taking most
+ * of the vendor and client traffic, and mostly completed payments.
+ */
+public final class SyntheticDataset {
+  public static final LocalDate START = LocalDate.of(2024, 1, 1);
+  public static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+  private final List<User> users;
+  private final List<Employee> employees;
+  private final List<Counterparty> counterparties;
+  private final List<Payment> payments;
+
+  private SyntheticDataset(List<User> users, List<Employee> employees, List<Counterparty> counterparties,
+                           List<Payment> payments) {
+    this.users = users;
+    this.employees = employees;
+    this.counterparties = counterparties;
+    this.payments = payments;
+  }
+
+  /**
+   * Generates {@code paymentCount} payments over {@link #START} to {@link #END},
+   * with employees and counterparties scaled to the volume.
+   */
+  public static SyntheticDataset generate(int paymentCount, long seed) {
+    Random random = new Random(seed);
+    LocalDateTime created = START.atStartOfDay();
+
+    List<User> users = new ArrayList<>();
+    for (int id = 1; id <= 20; id++) {
+      users.add(new User(id, "manager" + id, "-", Role.FINANCE_MANAGER, "manager" + id + "@example.com", created));
+    }
+    List<Employee> employees = new ArrayList<>();
+    int employeeCount = Math.max(10, paymentCount / 2_000);
+    for (int id = 1; id <= employeeCount; id++) {
+      employees.add(new Employee(id, "Employee " + id, Distributions.DEPARTMENTS[id % Distributions.DEPARTMENTS.length],
+        created));
+    }
+    List<Counterparty> counterparties = new ArrayList<>();
+    int counterpartyCount = Math.max(20, paymentCount / 500);
+    for (int id = 1; id <= counterpartyCount; id++) {
+      // Odd IDs are vendors, even IDs clients
+      PartyType type = id % 2 == 1 ? PartyType.VENDOR : PartyType.CLIENT;
+      counterparties.add(new Counterparty(id, type.name().charAt(0) + type.name().substring(1).toLowerCase() + " " + id,
+        type, String.format("9%09d", id), created));
+    }
+
+    List<Payment> payments = new ArrayList<>(paymentCount);
+    for (int id = 1; id <= paymentCount; id++) {
+      PaymentCategory category = Distributions.category(random);
+      LocalDateTime createdAt = Distributions.createdAt(random, category, START, END);
+      Employee employee = null;
+      Counterparty counterparty = null;
+      if (category == PaymentCategory.SALARY) {
+        employee = employees.get(random.nextInt(employees.size()));
+      }
+      else {
+        // Vendors sit on odd IDs and clients on even ones
+        int rank = Distributions.skewedIndex(random, counterpartyCount / 2);
+        counterparty = counterparties.get(2 * rank + (category == PaymentCategory.VENDOR_PAYMENT ? 0 : 1));
+      }
+      Status status = Distributions.status(random);
+      payments.add(new Payment(
+        id,
+        Money.ofMinor(Distributions.amountMinorUnits(random, category)),
+        category == PaymentCategory.CLIENT_INVOICE ? PaymentDirection.INCOMING : PaymentDirection.OUTGOING,
+        category,
+        status,
+        Distributions.description(random, category, id),
+        users.get(random.nextInt(users.size())),
+        createdAt,
+        status == Status.PENDING ? null : createdAt.plusHours(1 + random.nextInt(72)),
+        employee,
+        counterparty
+      ));
+    }
+    return new SyntheticDataset(List.copyOf(users), List.copyOf(employees), List.copyOf(counterparties), payments);
+  }
+
+  public List<User> users() {
+    return users;
+  }
+
+  public List<Employee> employees() {
+    return employees;
+  }
+
+  public List<Counterparty> counterparties() {
+    return counterparties;
+  }
+
+  /** Payments in ID order. */
+  public List<Payment> payments() {
+    return payments;
+  }
+}
@@ -0,0 +1,40 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.service.SessionService;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * One simulated person working through sessions of a fixed length: log in,
+ * perform operations drawn from the role's mix, log out, and start over as
+ * another account of the same role. Not thread-safe; a virtual user is driven
+ * by one thread at a time.
+ */
+final class VirtualUser {
+  // Payments a manager added and may move on to PROCESSING and COMPLETED
+  private static final int MAX_OPEN_PAYMENTS = 32;
+
+  final Role role;
+  final Random random;
+
+  User account;
+  SessionService.Session session;
+  int operationsLeft;
+  final Deque<Integer> openPayments = new ArrayDeque<>();
+
+  VirtualUser(Role role, long seed) {
+    this.role = role;
+    this.random = new Random(seed);
+  }
+
+  void rememberPayment(int paymentId) {
+    if (openPayments.size() == MAX_OPEN_PAYMENTS) {
+      openPayments.removeFirst();
+    }
+    openPayments.addLast(paymentId);
+  }
+}
@@ -0,0 +1,305 @@
+package com.adhitya.paymgmt.bench;
+
+import com.adhitya.paymgmt.config.AppConfig;
+import com.adhitya.paymgmt.model.enums.Role;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the service layer with a mix of concurrent viewer, finance-manager and
+ * admin sessions against a local database (see {@link DataGenerator}) and
+ * reports latency percentiles per operation, to find where throughput stops
+ * growing and latency takes off.
+ *
+ * <p>A run is a series of stages, each warmed up and then measured separately:</p>
+ * <ul>
+ *   <li><b>closed</b> loop: each stage value is a number of virtual users, each
+ *       on its own thread, waiting an exponentially distributed think time
+ *       between operations. Users ramp up over the first half of the warmup.
+ *       Load backs off as the system slows down.</li>
+ *   <li><b>open</b> loop: each stage value is an arrival rate per second, with
+ *       Poisson arrivals served by a bounded worker pool. Latency runs from the
+ *       scheduled arrival, so queueing behind a saturated system is measured
+ *       rather than hidden; arrivals still queued when a stage ends are reported
+ *       as backlog.</li>
+ * </ul>
+ *
+ * <pre>
+ * java -Dpaymgmt.db.url=jdbc:postgresql://localhost:5432/perf \
+ *   -cp benchmarks/target/benchmarks.jar com.adhitya.paymgmt.bench.WorkloadSimulator \
+ *   --mode closed --stages 10,20,40,80 --mix viewer=70,manager=25,admin=5 --think-ms 1000
+ * </pre>
+ *
+ * Options: {@code --mode closed|open}, {@code --stages}, {@code --mix},
+ * {@code --warmup} and {@code --duration} (seconds per stage), {@code --think-ms}
+ * (mean, closed loop), {@code --workers} (open-loop pool size),
+ * {@code --session-ops}, {@code --password}, {@code --start}/{@code --end} (months
+ * queried, ISO dates), {@code --seed} and {@code --hgrm-dir} (writes each stage's
+ * percentile distributions for plotting).
+ */
+public final class WorkloadSimulator {
+  private final boolean openLoop;
+  private final List<Integer> stages = new ArrayList<>();
+  private final Map<Role, Integer> mix = new EnumMap<>(Role.class);
+  private final Duration warmup;
+  private final Duration duration;
+  private final long thinkMillis;
+  private final int workers;
+  private final long seed;
+  private final Path hgrmDir;
+  private final SimulatedWorkload workload;
+  private final AtomicLong userSeeds;
+
+  private WorkloadSimulator(Map<String, String> options, SimulatedWorkload workload) {
+    String mode = options.getOrDefault("mode", "closed");
+    if (!mode.equals("closed") && !mode.equals("open")) {
+      throw new IllegalArgumentException("Mode must be closed or open: " + mode);
+    }
+    this.openLoop = mode.equals("open");
+    for (String stage : options.getOrDefault("stages", openLoop ? "5,10,20,40" : "10,20,40").split(",")) {
+      stages.add(Integer.parseInt(stage.trim()));
+    }
+    for (String entry : options.getOrDefault("mix", "viewer=70,manager=25,admin=5").split(",")) {
+      String[] parts = entry.split("=");
+      mix.put(parseRole(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+    this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+    this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+    this.thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "1000"));
+    this.workers = Integer.parseInt(options.getOrDefault("workers", "64"));
+    this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    this.hgrmDir = options.containsKey("hgrm-dir") ? Path.of(options.get("hgrm-dir")) : null;
+    this.workload = workload;
+    this.userSeeds = new AtomicLong(seed);
+
+    for (Map.Entry<Role, Integer> entry : mix.entrySet()) {
+      if (entry.getValue() > 0 && !workload.hasAccounts(entry.getKey())) {
+        throw new IllegalArgumentException("No " + entry.getKey() + " accounts in the database");
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i += 2) {
+      if (!args[i].startsWith("--") || i + 1 >= args.length) {
+        throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+      }
+      options.put(args[i].substring(2), args[i + 1]);
+    }
+
+    YearMonth first = YearMonth.parse(options.getOrDefault("start", SyntheticDataset.START.toString()).substring(0, 7));
+    YearMonth last = YearMonth.parse(options.getOrDefault("end", SyntheticDataset.END.toString()).substring(0, 7));
+    AppConfig app = new AppConfig();
+    awaitColumnStore(app, Duration.ofMinutes(10));
+    SimulatedWorkload workload = new SimulatedWorkload(app, options.getOrDefault("password", "password"),
+      Integer.parseInt(options.getOrDefault("session-ops", "20")), first, last);
+
+    new WorkloadSimulator(options, workload).run();
+    // AppConfig leaves schedulers and listeners running
+    System.exit(0);
+  }
+
+  private void run() throws Exception {
+    List<String> summary = new ArrayList<>();
+    for (int i = 0; i < stages.size(); i++) {
+      int stage = stages.get(i);
+      String label = openLoop ? stage + " arrivals/s" : stage + " users";
+      System.out.printf("%nStage %d/%d: %s loop, %s, mix %s, %ds warmup + %ds%n", i + 1, stages.size(),
+        openLoop ? "open" : "closed", label, mix, warmup.toSeconds(), duration.toSeconds());
+
+      StageResult result = openLoop ? runOpenStage(stage) : runClosedStage(stage);
+      printStage(result.interval);
+      if (result.backlog > 0) {
+        System.out.printf("Backlog: %d arrivals still queued at the end of the stage%n", result.backlog);
+      }
+      if (hgrmDir != null) {
+        writeHistograms(result.interval, "stage" + (i + 1));
+      }
+
+      Histogram total = result.interval.total();
+      long failures = result.interval.errors().values().stream().mapToLong(Long::longValue).sum()
+        + result.interval.rejected().values().stream().mapToLong(Long::longValue).sum();
+      summary.add(String.format("%-18s %10.1f %10.1f %10.1f %10.1f %10d %10d", label,
+        result.interval.perSecond(total.getTotalCount()), millis(total, 50), millis(total, 99),
+        millis(total, 99.9), failures, result.backlog));
+    }
+
+    System.out.printf("%nSummary%n%-18s %10s %10s %10s %10s %10s %10s%n", "Stage", "ops/s", "p50 ms", "p99 ms",
+      "p99.9 ms", "failed", "backlog");
+    summary.forEach(System.out::println);
+  }
+
+  private StageResult runClosedStage(int userCount) throws InterruptedException {
+    LatencyStats stats = new LatencyStats();
+    List<Role> roles = assignRoles(userCount);
+    List<Thread> threads = new ArrayList<>();
+    long started = System.nanoTime();
+    long stopAt = started + warmup.toNanos() + duration.toNanos();
+
+    for (int i = 0; i < userCount; i++) {
+      VirtualUser user = new VirtualUser(roles.get(i), userSeeds.incrementAndGet());
+      // Ramp up over the first half of the warmup rather than logging everyone in at once
+      long startAt = started + warmup.toNanos() / 2 * i / userCount;
+      Thread thread = new Thread(() -> {
+        LockSupport.parkNanos(startAt - System.nanoTime());
+        while (System.nanoTime() < stopAt) {
+          workload.runNext(user, stats, System.nanoTime());
+          long think = thinkMillis <= 0 ? 0 : (long) (-Math.log(1 - user.random.nextDouble()) * thinkMillis);
+          if (think > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.min(think, 30 * thinkMillis)));
+          }
+        }
+      }, "virtual-user-" + i);
+      thread.setDaemon(true);
+      threads.add(thread);
+      thread.start();
+    }
+
+    Thread.sleep(warmup.toMillis());
+    stats.interval();
+    Thread.sleep(duration.toMillis());
+    LatencyStats.Interval interval = stats.interval();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return new StageResult(interval, 0);
+  }
+
+  private StageResult runOpenStage(int arrivalsPerSecond) throws InterruptedException {
+    LatencyStats stats = new LatencyStats();
+    Map<Role, Queue<VirtualUser>> idle = new EnumMap<>(Role.class);
+    mix.keySet().forEach(role -> idle.put(role, new ConcurrentLinkedQueue<>()));
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(workers, runnable -> {
+      Thread thread = new Thread(runnable, "workload-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    Random arrivals = new Random(seed + arrivalsPerSecond);
+    double meanGapNanos = 1e9 / arrivalsPerSecond;
+    long started = System.nanoTime();
+    long measureFrom = started + warmup.toNanos();
+    long stopAt = measureFrom + duration.toNanos();
+    boolean measuring = false;
+
+    long nextArrival = started;
+    while (nextArrival < stopAt) {
+      long wait = nextArrival - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      if (!measuring && nextArrival >= measureFrom) {
+        stats.interval();
+        measuring = true;
+      }
+      long scheduledAt = nextArrival;
+      Role role = pickRole(arrivals);
+      executor.execute(() -> {
+        Queue<VirtualUser> pool = idle.get(role);
+        VirtualUser user = pool.poll();
+        if (user == null) {
+          user = new VirtualUser(role, userSeeds.incrementAndGet());
+        }
+        workload.runNext(user, stats, scheduledAt);
+        pool.add(user);
+      });
+      nextArrival += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos);
+    }
+
+    LockSupport.parkNanos(stopAt - System.nanoTime());
+    LatencyStats.Interval interval = stats.interval();
+    int backlog = executor.shutdownNow().size();
+    executor.awaitTermination(5, TimeUnit.MINUTES);
+    return new StageResult(interval, backlog);
+  }
+
+  /** Splits the users across roles in proportion to the mix, in a seeded random order. */
+  private List<Role> assignRoles(int userCount) {
+    Random random = new Random(seed);
+    List<Role> roles = new ArrayList<>();
+    for (int i = 0; i < userCount; i++) {
+      roles.add(pickRole(random));
+    }
+    return roles;
+  }
+
+  private Role pickRole(Random random) {
+    int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    int roll = random.nextInt(total);
+    for (Map.Entry<Role, Integer> entry : mix.entrySet()) {
+      roll -= entry.getValue();
+      if (roll < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Empty role mix");
+  }
+
+  private static void printStage(LatencyStats.Interval interval) {
+    System.out.printf("%-18s %9s %8s %8s %9s %9s %9s %9s %9s%n", "Operation", "ops/s", "errors", "rejected",
+      "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Operation operation : Operation.values()) {
+      Histogram histogram = interval.histograms().get(operation);
+      long errors = interval.errors().get(operation);
+      long rejected = interval.rejected().get(operation);
+      if (histogram.getTotalCount() == 0 && errors == 0 && rejected == 0) {
+        continue;
+      }
+      System.out.printf("%-18s %9.1f %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", operation,
+        interval.perSecond(histogram.getTotalCount()), errors, rejected, millis(histogram, 50),
+        millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+  }
+
+  private void writeHistograms(LatencyStats.Interval interval, String prefix) throws IOException {
+    Files.createDirectories(hgrmDir);
+    for (Map.Entry<Operation, Histogram> entry : interval.histograms().entrySet()) {
+      if (entry.getValue().getTotalCount() == 0) {
+        continue;
+      }
+      Path file = hgrmDir.resolve(prefix + "-" + entry.getKey().name().toLowerCase() + ".hgrm");
+      try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+        // Scale microseconds to milliseconds in the output
+        entry.getValue().outputPercentileDistribution(out, 1000.0);
+      }
+    }
+  }
+
+  private static double millis(Histogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  private static Role parseRole(String name) {
+    return name.equalsIgnoreCase("manager") ? Role.FINANCE_MANAGER : Role.fromDbValue(name.toUpperCase());
+  }
+
+  /** Waits for the column store's bulk load, so the first stage does not measure the SQL fallback. */
+  private static void awaitColumnStore(AppConfig app, Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (!app.paymentColumnStore.isLoaded() && System.nanoTime() < deadline) {
+      Thread.sleep(500);
+    }
+  }
+
+  private record StageResult(LatencyStats.Interval interval, int backlog) {}
+}
@@ -67,6 +67,10 @@ CREATE TABLE public.audit_logs (
     CONSTRAINT audit_logs_payment_id_fkey FOREIGN KEY (payment_id) REFERENCES public.payments(id)
 );
 
+-- Supports keyset pagination over audit history and per-payment audit lookups
+CREATE INDEX audit_logs_changed_at_id_idx ON public.audit_logs (changed_at DESC, id DESC);
+CREATE INDEX audit_logs_payment_id_idx ON public.audit_logs (payment_id);
+
 -- Initial Data Population
 -- Users (must be inserted first due to foreign key constraints)
 INSERT INTO users (username, password, role, email) VALUES
@@ -1,10 +1,24 @@
 package com.adhitya.paymgmt;
 
+import com.adhitya.paymgmt.api.ApiServer;
 import com.adhitya.paymgmt.config.AppConfig;
 
 public class Main {
+  private static final int DEFAULT_HTTP_PORT = 8080;
+  private static final int HTTP_WORKER_THREADS = 32;
+
   public static void main(String[] args) {
     AppConfig config = new AppConfig();
+
+    // --http [port] serves the JSON API instead of the console menu
+    if (args.length > 0 && "--http".equals(args[0])) {
+      int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT;
+      ApiServer server = config.createApiServer(port, HTTP_WORKER_THREADS);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5), "api-shutdown"));
+      server.start();
+      return;
+    }
+
     config.getMainMenu().showGeneralMenu();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.adhitya.paymgmt.analytics;
+
+/**
+ * Running totals keyed by positive int IDs, stored in two parallel primitive
+ * arrays with open addressing. Summing millions of rows neither boxes keys or
+ * values nor allocates per entry. Sums use {@link Math#addExact}, so an overflow
+ * fails instead of wrapping.
+ *
+ * <p>Not thread-safe; callers synchronise access.</p>
+ */
+public final class IntLongSumMap {
+  private static final int EMPTY = 0;
+
+  // keys[i] == EMPTY marks a free slot; kept at most half full
+  private int[] keys;
+  private long[] sums;
+  private int size;
+
+  /** Receives one key and its total. */
+  @FunctionalInterface
+  public interface EntryConsumer {
+    void accept(int key, long sum);
+  }
+
+  public IntLongSumMap() {
+    this(16);
+  }
+
+  /** @param expectedKeys number of distinct keys to size the table for */
+  public IntLongSumMap(int expectedKeys) {
+    int capacity = Integer.highestOneBit(Math.max(4, expectedKeys) * 2 - 1) << 1;
+    this.keys = new int[capacity];
+    this.sums = new long[capacity];
+  }
+
+  /**
+   * Adds the amount to the key's total.
+   *
+   * @throws IllegalArgumentException if the key is not positive
+   * @throws ArithmeticException      if the total overflows a long
+   */
+  public void add(int key, long amount) {
+    if (key <= 0) {
+      throw new IllegalArgumentException("Key must be positive: " + key);
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        sums[slot] = Math.addExact(sums[slot], amount);
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    sums[slot] = amount;
+    if (++size * 2 > keys.length) {
+      grow();
+    }
+  }
+
+  /** Returns the key's total, or 0 if nothing was added for it. */
+  public long get(int key) {
+    int mask = keys.length - 1;
+    for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return sums[slot];
+      }
+    }
+    return 0;
+  }
+
+  /** Number of distinct keys. */
+  public int size() {
+    return size;
+  }
+
+  /** Visits every key and its total, in no particular order. */
+  public void forEach(EntryConsumer consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != EMPTY) {
+        consumer.accept(keys[slot], sums[slot]);
+      }
+    }
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    long[] oldSums = sums;
+    keys = new int[oldKeys.length * 2];
+    sums = new long[oldKeys.length * 2];
+    int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = mix(oldKeys[i]) & mask;
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        sums[slot] = oldSums[i];
+      }
+    }
+  }
+
+  // Spreads sequential IDs across the table
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+}
@@ -0,0 +1,259 @@
+package com.adhitya.paymgmt.analytics;
+
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.service.PaymentChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary indexes over payments as one {@link RoaringBitmap} per attribute value:
+ * category, direction, status, counterparty, employee, creating user and creation
+ * month. A {@link PaymentFilter} is answered by intersecting and unioning the
+ * bitmaps of its predicates, without touching the database.
+ *
+ * <p>Bitmaps hold payment IDs rather than column-store row positions, because an
+ * out-of-order insert shifts the store's rows. Built from a loaded
+ * {@link PaymentColumnStore} and kept current as a {@link PaymentChangeListener}.</p>
+ */
+public class PaymentBitmapIndex implements PaymentChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(PaymentBitmapIndex.class);
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean loaded;
+
+  private Bitmaps bitmaps = new Bitmaps();
+
+  // One generation of bitmaps; replaced wholesale by build()
+  private static final class Bitmaps {
+    final RoaringBitmap all = new RoaringBitmap();
+    final RoaringBitmap[] byCategory = newBitmaps(PaymentCategory.values().length);
+    final RoaringBitmap[] byDirection = newBitmaps(PaymentDirection.values().length);
+    final RoaringBitmap[] byStatus = newBitmaps(Status.values().length);
+    final Map<Integer, RoaringBitmap> byCounterparty = new HashMap<>();
+    final Map<Integer, RoaringBitmap> byEmployee = new HashMap<>();
+    final Map<Integer, RoaringBitmap> byCreator = new HashMap<>();
+    final Map<Integer, RoaringBitmap> byMonth = new HashMap<>();
+
+    void add(int id, int direction, int category, int status, int creator, int employeeId, int counterpartyId,
+             int monthKey) {
+      all.add(id);
+      byDirection[direction].add(id);
+      byCategory[category].add(id);
+      byStatus[status].add(id);
+      addKeyed(byCreator, creator, id);
+      addKeyed(byEmployee, employeeId, id);
+      addKeyed(byCounterparty, counterpartyId, id);
+      addKeyed(byMonth, monthKey, id);
+    }
+
+    private static void addKeyed(Map<Integer, RoaringBitmap> index, int key, int id) {
+      if (key != 0) {
+        index.computeIfAbsent(key, ignored -> new RoaringBitmap()).add(id);
+      }
+    }
+
+    private static RoaringBitmap[] newBitmaps(int count) {
+      RoaringBitmap[] result = new RoaringBitmap[count];
+      for (int i = 0; i < count; i++) {
+        result[i] = new RoaringBitmap();
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Rebuilds every bitmap from the column store's current rows. Changes published
+   * while this runs wait for it and are applied afterwards.
+   */
+  public void build(PaymentColumnStore store) {
+    long started = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      PaymentColumnStore.Columns columns = store.copyColumns();
+      Bitmaps rebuilt = new Bitmaps();
+      for (int row = 0; row < columns.size(); row++) {
+        rebuilt.add(columns.ids()[row], columns.directions()[row], columns.categories()[row],
+          columns.statuses()[row], columns.createdBy()[row], columns.employeeIds()[row],
+          columns.counterpartyIds()[row], monthKey(columns.createdAt()[row]));
+      }
+      bitmaps = rebuilt;
+      loaded = true;
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+    logger.info("Built payment bitmap indexes over {} payments in {} ms ({} KB)",
+      cardinality(), (System.nanoTime() - started) / 1_000_000, memoryBytes() / 1024);
+  }
+
+  /** Returns true once the indexes have been built. */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  @Override
+  public void onPaymentSaved(Payment payment) {
+    lock.writeLock().lock();
+    try {
+      int id = payment.getId();
+      // Re-saving an indexed payment must not leave it under its old status
+      for (RoaringBitmap bitmap : bitmaps.byStatus) {
+        bitmap.remove(id);
+      }
+      bitmaps.add(id, payment.getPaymentDirection().ordinal(), payment.getCategory().ordinal(),
+        payment.getStatus().ordinal(), payment.getCreatedBy() != null ? payment.getCreatedBy().getId() : 0,
+        payment.getEmployee() != null ? payment.getEmployee().getId() : 0,
+        payment.getCounterParty() != null ? payment.getCounterParty().getId() : 0,
+        monthKey(PaymentColumnStore.toMillis(payment.getCreatedAt())));
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void onStatusChanged(int paymentId, Status newStatus, LocalDateTime changedAt) {
+    lock.writeLock().lock();
+    try {
+      if (!bitmaps.all.contains(paymentId)) {
+        return;
+      }
+      for (RoaringBitmap bitmap : bitmaps.byStatus) {
+        bitmap.remove(paymentId);
+      }
+      bitmaps.byStatus[newStatus.ordinal()].add(paymentId);
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Evaluates a filter against the indexes.
+   *
+   * @return IDs of the matching payments, ascending
+   * @throws IllegalArgumentException if filter is null
+   */
+  public int[] search(PaymentFilter filter) {
+    if (filter == null) {
+      throw new IllegalArgumentException("Filter cannot be null");
+    }
+
+    lock.readLock().lock();
+    try {
+      return evaluate(filter, bitmaps).toArray();
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Returns the number of indexed payments. */
+  public int cardinality() {
+    lock.readLock().lock();
+    try {
+      return bitmaps.all.cardinality();
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Approximate heap used by the bitmaps. */
+  public long memoryBytes() {
+    lock.readLock().lock();
+    try {
+      long total = bitmaps.all.memoryBytes();
+      for (RoaringBitmap[] group : new RoaringBitmap[][] {bitmaps.byCategory, bitmaps.byDirection, bitmaps.byStatus}) {
+        for (RoaringBitmap bitmap : group) {
+          total += bitmap.memoryBytes();
+        }
+      }
+      for (Map<Integer, RoaringBitmap> group : List.of(bitmaps.byCounterparty, bitmaps.byEmployee,
+        bitmaps.byCreator, bitmaps.byMonth)) {
+        for (RoaringBitmap bitmap : group.values()) {
+          total += bitmap.memoryBytes();
+        }
+      }
+      return total;
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Leaf results are the live bitmaps; only the combinators allocate
+  private static RoaringBitmap evaluate(PaymentFilter filter, Bitmaps bitmaps) {
+    if (filter instanceof PaymentFilter.CategoryIs category) {
+      return bitmaps.byCategory[category.category().ordinal()];
+    }
+    if (filter instanceof PaymentFilter.DirectionIs direction) {
+      return bitmaps.byDirection[direction.direction().ordinal()];
+    }
+    if (filter instanceof PaymentFilter.StatusIs status) {
+      return bitmaps.byStatus[status.status().ordinal()];
+    }
+    if (filter instanceof PaymentFilter.CounterpartyIs counterparty) {
+      return keyed(bitmaps.byCounterparty, counterparty.counterpartyId());
+    }
+    if (filter instanceof PaymentFilter.EmployeeIs employee) {
+      return keyed(bitmaps.byEmployee, employee.employeeId());
+    }
+    if (filter instanceof PaymentFilter.CreatedBy creator) {
+      return keyed(bitmaps.byCreator, creator.userId());
+    }
+    if (filter instanceof PaymentFilter.CreatedInMonth month) {
+      return keyed(bitmaps.byMonth, monthKey(month.month()));
+    }
+    if (filter instanceof PaymentFilter.And and) {
+      RoaringBitmap result = null;
+      for (PaymentFilter part : and.filters()) {
+        RoaringBitmap matches = evaluate(part, bitmaps);
+        result = result == null ? matches : RoaringBitmap.and(result, matches);
+        if (result.isEmpty()) {
+          break;
+        }
+      }
+      return result != null ? result : bitmaps.all;
+    }
+    if (filter instanceof PaymentFilter.Or or) {
+      RoaringBitmap result = new RoaringBitmap();
+      for (PaymentFilter part : or.filters()) {
+        result = RoaringBitmap.or(result, evaluate(part, bitmaps));
+      }
+      return result;
+    }
+    PaymentFilter.Not not = (PaymentFilter.Not) filter;
+    return RoaringBitmap.andNot(bitmaps.all, evaluate(not.filter(), bitmaps));
+  }
+
+  private static RoaringBitmap keyed(Map<Integer, RoaringBitmap> index, int key) {
+    RoaringBitmap bitmap = index.get(key);
+    return bitmap != null ? bitmap : new RoaringBitmap();
+  }
+
+  // Month buckets are keyed as year * 12 + month so they are never 0 for real dates
+  private static int monthKey(YearMonth month) {
+    return month.getYear() * 12 + month.getMonthValue();
+  }
+
+  private static int monthKey(long createdAtMillis) {
+    if (createdAtMillis == PaymentColumnStore.NO_TIMESTAMP) {
+      return 0;
+    }
+    LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(createdAtMillis, MILLIS_PER_DAY));
+    return monthKey(YearMonth.from(date));
+  }
+}
@@ -0,0 +1,460 @@
+package com.adhitya.paymgmt.analytics;
+
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.repository.PaymentRepository;
+import com.adhitya.paymgmt.service.PaymentChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process columnar replica of the {@code payments} table for analytics.
+ * Each attribute lives in its own primitive array, indexed by row and kept
+ * sorted by payment ID: amounts as minor units, enums as ordinals, foreign keys
+ * as ints (0 for none) and timestamps as epoch millis of the stored local time.
+ * Scans are tight loops over those arrays with no per-row object access.
+ *
+ * <p>Bootstrapped with one bulk load and kept current as a
+ * {@link PaymentChangeListener}. Writers take an exclusive lock; scans share a read lock.
+ * Loads fill a new set of arrays without holding the lock, so payment writes never
+ * wait on the database scan; changes arriving meanwhile are replayed onto the new
+ * arrays when they are swapped in.</p>
+ */
+public class PaymentColumnStore implements PaymentChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(PaymentColumnStore.class);
+
+  static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  private static final int CATEGORY_COUNT = PaymentCategory.values().length;
+
+  private final StampedLock lock = new StampedLock();
+  private volatile boolean loaded;
+
+  // Guarded by lock
+  private Table table;
+  // Changes applied while a load is scanning, replayed onto its table; null when no load runs. Guarded by lock
+  private List<Consumer<Table>> pendingChanges;
+
+  /**
+   * Aggregated totals over a set of rows, all amounts in minor units.
+   *
+   * @param count              number of matching payments
+   * @param inflow             total of incoming payments
+   * @param outflow            total of outgoing payments
+   * @param total              total of all payments regardless of direction
+   * @param categoryTotals     totals indexed by {@link PaymentCategory#ordinal()}
+   * @param employeeTotals     totals per employee ID, for payments with an employee
+   * @param counterpartyTotals totals per counterparty ID, for payments with a counterparty
+   */
+  public record Aggregates(int count, long inflow, long outflow, long total, long[] categoryTotals,
+                           IntLongSumMap employeeTotals, IntLongSumMap counterpartyTotals) {}
+
+  /** Copy of the live rows of every column, used for snapshots. Arrays are exactly {@code size} long. */
+  record Columns(int size, int[] ids, long[] amounts, byte[] directions, byte[] categories, byte[] statuses,
+                 int[] createdBy, int[] employeeIds, int[] counterpartyIds, long[] createdAt, long[] updatedAt) {}
+
+  public PaymentColumnStore(int initialCapacity) {
+    table = new Table(Math.max(16, initialCapacity));
+  }
+
+  // ---------- Loading and maintenance ----------
+
+  /** Replaces the contents with every payment currently in the database. */
+  public synchronized void load(PaymentRepository paymentRepository) {
+    long started = System.nanoTime();
+    Table fresh = new Table(capacity());
+    beginLoad();
+    try {
+      paymentRepository.scanColumns(0, null, fresh::putRow);
+    }
+    catch (RuntimeException ex) {
+      abortLoad();
+      throw ex;
+    }
+    finishLoad(fresh);
+    logger.info("Loaded {} payments into column store in {} ms ({} KB)",
+      fresh.size, (System.nanoTime() - started) / 1_000_000, memoryBytes() / 1024);
+  }
+
+  /**
+   * Replaces the contents with previously snapshotted columns, then applies every
+   * row with an ID above {@code highWaterMarkId}, or created or updated after
+   * {@code changedSince}. Changes published while this runs are replayed afterwards.
+   */
+  synchronized void restore(Columns columns, PaymentRepository paymentRepository, int highWaterMarkId,
+                            LocalDateTime changedSince) {
+    long started = System.nanoTime();
+    Table fresh = new Table(columns);
+    beginLoad();
+    try {
+      paymentRepository.scanColumns(highWaterMarkId, changedSince, fresh::putRow);
+    }
+    catch (RuntimeException ex) {
+      abortLoad();
+      throw ex;
+    }
+    finishLoad(fresh);
+    logger.info("Restored {} payments from snapshot and caught up to {} in {} ms",
+      columns.size(), fresh.size, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  // Starts buffering changes before the scan reads anything, so none committed during it are lost
+  private void beginLoad() {
+    long stamp = lock.writeLock();
+    try {
+      pendingChanges = new ArrayList<>();
+    }
+    finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void abortLoad() {
+    long stamp = lock.writeLock();
+    try {
+      pendingChanges = null;
+    }
+    finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // Replays are idempotent, so changes the scan already saw are harmless to apply again
+  private void finishLoad(Table fresh) {
+    long stamp = lock.writeLock();
+    try {
+      for (Consumer<Table> change : pendingChanges) {
+        change.accept(fresh);
+      }
+      pendingChanges = null;
+      table = fresh;
+      loaded = true;
+    }
+    finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Copies the live rows of every column under the read lock. */
+  Columns copyColumns() {
+    long stamp = lock.readLock();
+    try {
+      Table t = table;
+      int size = t.size;
+      return new Columns(size, Arrays.copyOf(t.ids, size), Arrays.copyOf(t.amounts, size),
+        Arrays.copyOf(t.directions, size), Arrays.copyOf(t.categories, size), Arrays.copyOf(t.statuses, size),
+        Arrays.copyOf(t.createdBy, size), Arrays.copyOf(t.employeeIds, size), Arrays.copyOf(t.counterpartyIds, size),
+        Arrays.copyOf(t.createdAt, size), Arrays.copyOf(t.updatedAt, size));
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Returns true once the initial bulk load has completed. */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  @Override
+  public void onPaymentSaved(Payment payment) {
+    int id = payment.getId();
+    long amount = payment.getAmount().minorUnits();
+    PaymentDirection direction = payment.getPaymentDirection();
+    PaymentCategory category = payment.getCategory();
+    Status status = payment.getStatus();
+    int creator = payment.getCreatedBy() != null ? payment.getCreatedBy().getId() : 0;
+    LocalDateTime created = payment.getCreatedAt();
+    LocalDateTime updated = payment.getUpdatedAt();
+    int employeeId = payment.getEmployee() != null ? payment.getEmployee().getId() : 0;
+    int counterpartyId = payment.getCounterParty() != null ? payment.getCounterParty().getId() : 0;
+    apply(t -> t.putRow(id, amount, direction, category, status, creator, created, updated, employeeId, counterpartyId));
+  }
+
+  @Override
+  public void onStatusChanged(int paymentId, Status newStatus, LocalDateTime changedAt) {
+    apply(t -> t.setStatus(paymentId, newStatus, changedAt));
+  }
+
+  private void apply(Consumer<Table> change) {
+    long stamp = lock.writeLock();
+    try {
+      change.accept(table);
+      if (pendingChanges != null) {
+        pendingChanges.add(change);
+      }
+    }
+    finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public int size() {
+    long stamp = lock.readLock();
+    try {
+      return table.size;
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Approximate heap used by the column arrays. */
+  public long memoryBytes() {
+    // ids, createdBy, employeeIds, counterpartyIds: 4 bytes; amounts, createdAt, updatedAt: 8; three enum bytes
+    return (long) capacity() * (4 * 4 + 8 * 3 + 3);
+  }
+
+  private int capacity() {
+    long stamp = lock.readLock();
+    try {
+      return table.ids.length;
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // ---------- Queries ----------
+
+  /**
+   * Aggregates payments created within the date range (inclusive).
+   *
+   * @throws ArithmeticException if a total overflows a long
+   */
+  public Aggregates aggregate(LocalDate start, LocalDate end) {
+    long from = toMillis(start.atStartOfDay());
+    // Exclusive upper bound, so the whole end day counts, including its last second
+    long to = toMillis(end.plusDays(1).atStartOfDay());
+
+    long stamp = lock.readLock();
+    try {
+      Table t = table;
+      int count = 0;
+      long inflow = 0;
+      long outflow = 0;
+      long[] byCategory = new long[CATEGORY_COUNT];
+      IntLongSumMap byEmployee = new IntLongSumMap();
+      IntLongSumMap byCounterparty = new IntLongSumMap();
+      byte incoming = (byte) PaymentDirection.INCOMING.ordinal();
+
+      for (int row = 0; row < t.size; row++) {
+        long created = t.createdAt[row];
+        if (created < from || created >= to) {
+          continue;
+        }
+        long amount = t.amounts[row];
+        count++;
+        if (t.directions[row] == incoming) {
+          inflow = Math.addExact(inflow, amount);
+        }
+        else {
+          outflow = Math.addExact(outflow, amount);
+        }
+        byCategory[t.categories[row]] = Math.addExact(byCategory[t.categories[row]], amount);
+        if (t.employeeIds[row] != 0) {
+          byEmployee.add(t.employeeIds[row], amount);
+        }
+        if (t.counterpartyIds[row] != 0) {
+          byCounterparty.add(t.counterpartyIds[row], amount);
+        }
+      }
+      return new Aggregates(count, inflow, outflow, Math.addExact(inflow, outflow), byCategory,
+        byEmployee, byCounterparty);
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Returns the IDs, ascending, of payments created within the date range (inclusive). */
+  public int[] findIdsByDateRange(LocalDate start, LocalDate end) {
+    long from = toMillis(start.atStartOfDay());
+    long to = toMillis(end.plusDays(1).atStartOfDay());
+
+    long stamp = lock.readLock();
+    try {
+      Table t = table;
+      int[] matches = new int[t.size];
+      int found = 0;
+      for (int row = 0; row < t.size; row++) {
+        long created = t.createdAt[row];
+        if (created >= from && created < to) {
+          matches[found++] = t.ids[row];
+        }
+      }
+      return Arrays.copyOf(matches, found);
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Returns the IDs, ascending, of payments in the category. */
+  public int[] findIdsByCategory(PaymentCategory category) {
+    long stamp = lock.readLock();
+    try {
+      return table.findIdsByOrdinal(table.categories, (byte) category.ordinal());
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Returns the IDs, ascending, of payments with the direction. */
+  public int[] findIdsByDirection(PaymentDirection direction) {
+    long stamp = lock.readLock();
+    try {
+      return table.findIdsByOrdinal(table.directions, (byte) direction.ordinal());
+    }
+    finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // Encodes the wall-clock value as stored in the timestamp column; no time zone is implied
+  static long toMillis(LocalDateTime value) {
+    return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIMESTAMP;
+  }
+
+  // ---------- Row storage ----------
+
+  /**
+   * One set of column arrays. The live table is only touched under the store's
+   * lock; a table being loaded belongs to the loading thread until it is swapped in.
+   */
+  private static final class Table {
+    int size;
+    int[] ids;
+    long[] amounts;
+    byte[] directions;
+    byte[] categories;
+    byte[] statuses;
+    int[] createdBy;
+    int[] employeeIds;
+    int[] counterpartyIds;
+    long[] createdAt;
+    long[] updatedAt;
+
+    Table(int capacity) {
+      ids = new int[capacity];
+      amounts = new long[capacity];
+      directions = new byte[capacity];
+      categories = new byte[capacity];
+      statuses = new byte[capacity];
+      createdBy = new int[capacity];
+      employeeIds = new int[capacity];
+      counterpartyIds = new int[capacity];
+      createdAt = new long[capacity];
+      updatedAt = new long[capacity];
+    }
+
+    // Leaves headroom for the catch-up rows and the changes that follow a restore
+    Table(Columns columns) {
+      int capacity = Math.max(16, columns.size() + (columns.size() >> 3));
+      ids = Arrays.copyOf(columns.ids(), capacity);
+      amounts = Arrays.copyOf(columns.amounts(), capacity);
+      directions = Arrays.copyOf(columns.directions(), capacity);
+      categories = Arrays.copyOf(columns.categories(), capacity);
+      statuses = Arrays.copyOf(columns.statuses(), capacity);
+      createdBy = Arrays.copyOf(columns.createdBy(), capacity);
+      employeeIds = Arrays.copyOf(columns.employeeIds(), capacity);
+      counterpartyIds = Arrays.copyOf(columns.counterpartyIds(), capacity);
+      createdAt = Arrays.copyOf(columns.createdAt(), capacity);
+      updatedAt = Arrays.copyOf(columns.updatedAt(), capacity);
+      size = columns.size();
+    }
+
+    void putRow(int id, long amount, PaymentDirection direction, PaymentCategory category,
+                Status status, int creator, LocalDateTime created, LocalDateTime updated,
+                int employeeId, int counterpartyId) {
+      int row;
+      if (size == 0 || ids[size - 1] < id) {
+        // Fast path: IDs come from a sequence, so rows almost always arrive in order
+        ensureCapacity(size + 1);
+        row = size++;
+      }
+      else {
+        row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0) {
+          row = -row - 1;
+          ensureCapacity(size + 1);
+          shiftRight(row);
+          size++;
+        }
+      }
+
+      ids[row] = id;
+      amounts[row] = amount;
+      directions[row] = (byte) direction.ordinal();
+      categories[row] = (byte) category.ordinal();
+      statuses[row] = (byte) status.ordinal();
+      createdBy[row] = creator;
+      employeeIds[row] = employeeId;
+      counterpartyIds[row] = counterpartyId;
+      createdAt[row] = toMillis(created);
+      updatedAt[row] = toMillis(updated);
+    }
+
+    void setStatus(int paymentId, Status newStatus, LocalDateTime changedAt) {
+      int row = Arrays.binarySearch(ids, 0, size, paymentId);
+      if (row >= 0) {
+        statuses[row] = (byte) newStatus.ordinal();
+        updatedAt[row] = toMillis(changedAt);
+      }
+    }
+
+    int[] findIdsByOrdinal(byte[] column, byte ordinal) {
+      int[] matches = new int[size];
+      int found = 0;
+      for (int row = 0; row < size; row++) {
+        if (column[row] == ordinal) {
+          matches[found++] = ids[row];
+        }
+      }
+      return Arrays.copyOf(matches, found);
+    }
+
+    private void shiftRight(int from) {
+      int count = size - from;
+      System.arraycopy(ids, from, ids, from + 1, count);
+      System.arraycopy(amounts, from, amounts, from + 1, count);
+      System.arraycopy(directions, from, directions, from + 1, count);
+      System.arraycopy(categories, from, categories, from + 1, count);
+      System.arraycopy(statuses, from, statuses, from + 1, count);
+      System.arraycopy(createdBy, from, createdBy, from + 1, count);
+      System.arraycopy(employeeIds, from, employeeIds, from + 1, count);
+      System.arraycopy(counterpartyIds, from, counterpartyIds, from + 1, count);
+      System.arraycopy(createdAt, from, createdAt, from + 1, count);
+      System.arraycopy(updatedAt, from, updatedAt, from + 1, count);
+    }
+
+    private void ensureCapacity(int required) {
+      if (required <= ids.length) {
+        return;
+      }
+      int capacity = Math.max(required, ids.length + (ids.length >> 1));
+      ids = Arrays.copyOf(ids, capacity);
+      amounts = Arrays.copyOf(amounts, capacity);
+      directions = Arrays.copyOf(directions, capacity);
+      categories = Arrays.copyOf(categories, capacity);
+      statuses = Arrays.copyOf(statuses, capacity);
+      createdBy = Arrays.copyOf(createdBy, capacity);
+      employeeIds = Arrays.copyOf(employeeIds, capacity);
+      counterpartyIds = Arrays.copyOf(counterpartyIds, capacity);
+      createdAt = Arrays.copyOf(createdAt, capacity);
+      updatedAt = Arrays.copyOf(updatedAt, capacity);
+    }
+  }
+}
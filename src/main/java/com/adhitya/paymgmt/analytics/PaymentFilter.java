@@ -0,0 +1,171 @@
+package com.adhitya.paymgmt.analytics;
+
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Boolean combination of payment attribute predicates, e.g.
+ * {@code and(or(category(SALARY), category(VENDOR_PAYMENT)), status(PENDING), month(YearMonth.of(2025, 3)))}.
+ * {@link PaymentBitmapIndex} answers a filter by bitmap intersection and union;
+ * {@link #matches} evaluates the same filter against a loaded payment.
+ */
+public sealed interface PaymentFilter {
+
+  /** Returns true if the payment satisfies this filter. */
+  boolean matches(Payment payment);
+
+  static PaymentFilter category(PaymentCategory category) {
+    return new CategoryIs(category);
+  }
+
+  static PaymentFilter direction(PaymentDirection direction) {
+    return new DirectionIs(direction);
+  }
+
+  static PaymentFilter status(Status status) {
+    return new StatusIs(status);
+  }
+
+  static PaymentFilter counterparty(int counterpartyId) {
+    return new CounterpartyIs(counterpartyId);
+  }
+
+  static PaymentFilter employee(int employeeId) {
+    return new EmployeeIs(employeeId);
+  }
+
+  static PaymentFilter createdBy(int userId) {
+    return new CreatedBy(userId);
+  }
+
+  static PaymentFilter month(YearMonth month) {
+    return new CreatedInMonth(month);
+  }
+
+  /** Matches payments satisfying every filter; an empty list matches everything. */
+  static PaymentFilter and(List<PaymentFilter> filters) {
+    return new And(List.copyOf(filters));
+  }
+
+  static PaymentFilter and(PaymentFilter... filters) {
+    return and(List.of(filters));
+  }
+
+  /** Matches payments satisfying any filter; an empty list matches nothing. */
+  static PaymentFilter or(List<PaymentFilter> filters) {
+    return new Or(List.copyOf(filters));
+  }
+
+  static PaymentFilter or(PaymentFilter... filters) {
+    return or(List.of(filters));
+  }
+
+  static PaymentFilter not(PaymentFilter filter) {
+    return new Not(filter);
+  }
+
+  record CategoryIs(PaymentCategory category) implements PaymentFilter {
+    public CategoryIs {
+      if (category == null) {
+        throw new IllegalArgumentException("Payment Category cannot be null");
+      }
+    }
+
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getCategory() == category;
+    }
+  }
+
+  record DirectionIs(PaymentDirection direction) implements PaymentFilter {
+    public DirectionIs {
+      if (direction == null) {
+        throw new IllegalArgumentException("Payment Direction cannot be null");
+      }
+    }
+
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getPaymentDirection() == direction;
+    }
+  }
+
+  record StatusIs(Status status) implements PaymentFilter {
+    public StatusIs {
+      if (status == null) {
+        throw new IllegalArgumentException("Payment status cannot be null");
+      }
+    }
+
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getStatus() == status;
+    }
+  }
+
+  record CounterpartyIs(int counterpartyId) implements PaymentFilter {
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getCounterParty() != null && payment.getCounterParty().getId() == counterpartyId;
+    }
+  }
+
+  record EmployeeIs(int employeeId) implements PaymentFilter {
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getEmployee() != null && payment.getEmployee().getId() == employeeId;
+    }
+  }
+
+  record CreatedBy(int userId) implements PaymentFilter {
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getCreatedBy() != null && payment.getCreatedBy().getId() == userId;
+    }
+  }
+
+  record CreatedInMonth(YearMonth month) implements PaymentFilter {
+    public CreatedInMonth {
+      if (month == null) {
+        throw new IllegalArgumentException("Month cannot be null");
+      }
+    }
+
+    @Override
+    public boolean matches(Payment payment) {
+      return payment.getCreatedAt() != null && YearMonth.from(payment.getCreatedAt()).equals(month);
+    }
+  }
+
+  record And(List<PaymentFilter> filters) implements PaymentFilter {
+    @Override
+    public boolean matches(Payment payment) {
+      return filters.stream().allMatch(filter -> filter.matches(payment));
+    }
+  }
+
+  record Or(List<PaymentFilter> filters) implements PaymentFilter {
+    @Override
+    public boolean matches(Payment payment) {
+      return filters.stream().anyMatch(filter -> filter.matches(payment));
+    }
+  }
+
+  record Not(PaymentFilter filter) implements PaymentFilter {
+    public Not {
+      if (filter == null) {
+        throw new IllegalArgumentException("Filter cannot be null");
+      }
+    }
+
+    @Override
+    public boolean matches(Payment payment) {
+      return !filter.matches(payment);
+    }
+  }
+}
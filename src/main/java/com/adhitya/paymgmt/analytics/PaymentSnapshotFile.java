@@ -0,0 +1,235 @@
+package com.adhitya.paymgmt.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary columnar snapshot of a {@link PaymentColumnStore}.
+ *
+ * <p>Layout (little-endian):</p>
+ * <pre>
+ *   header    64 bytes: magic, version, row count, column count, high-water mark ID,
+ *                       snapshot time (epoch millis), data CRC32, header CRC32
+ *   directory 24 bytes per column: column ID, element size, data offset, data length
+ *   data      one 8-byte aligned region per column
+ * </pre>
+ * Files are written to a temporary name and atomically renamed, so a crash never
+ * leaves a half-written snapshot behind. Reading maps each column region with
+ * {@link FileChannel#map} and bulk-copies it into arrays after checking the CRCs.
+ */
+public final class PaymentSnapshotFile {
+  private static final Logger logger = LoggerFactory.getLogger(PaymentSnapshotFile.class);
+
+  private static final int MAGIC = 0x50534E50; // "PSNP"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+  private static final int DIRECTORY_ENTRY_BYTES = 24;
+  private static final int COLUMN_COUNT = 10;
+
+  // Column IDs; also their order in the file
+  private static final int COL_ID = 0;
+  private static final int COL_AMOUNT = 1;
+  private static final int COL_DIRECTION = 2;
+  private static final int COL_CATEGORY = 3;
+  private static final int COL_STATUS = 4;
+  private static final int COL_CREATED_BY = 5;
+  private static final int COL_EMPLOYEE = 6;
+  private static final int COL_COUNTERPARTY = 7;
+  private static final int COL_CREATED_AT = 8;
+  private static final int COL_UPDATED_AT = 9;
+
+  private static final int[] ELEMENT_BYTES = {4, 8, 1, 1, 1, 4, 4, 4, 8, 8};
+
+  /**
+   * Contents of a snapshot file.
+   *
+   * @param columns         column data
+   * @param highWaterMarkId highest payment ID contained
+   * @param takenAtMillis   wall-clock time (epoch millis, UTC-encoded local time) the copy was taken
+   */
+  record Snapshot(PaymentColumnStore.Columns columns, int highWaterMarkId, long takenAtMillis) {}
+
+  private PaymentSnapshotFile() {}
+
+  static void write(Path file, PaymentColumnStore.Columns columns, long takenAtMillis) throws IOException {
+    int rows = columns.size();
+    int highWaterMark = rows > 0 ? columns.ids()[rows - 1] : 0;
+
+    long[] offsets = new long[COLUMN_COUNT];
+    long position = align(HEADER_BYTES + (long) COLUMN_COUNT * DIRECTORY_ENTRY_BYTES);
+    for (int column = 0; column < COLUMN_COUNT; column++) {
+      offsets[column] = position;
+      position = align(position + (long) rows * ELEMENT_BYTES[column]);
+    }
+    long fileSize = position;
+
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+      StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      CRC32 dataCrc = new CRC32();
+      for (int column = 0; column < COLUMN_COUNT; column++) {
+        long length = (long) rows * ELEMENT_BYTES[column];
+        if (length == 0) {
+          continue;
+        }
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, offsets[column], length);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        putColumn(region, column, columns);
+        region.force();
+        region.rewind();
+        dataCrc.update(region);
+      }
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + COLUMN_COUNT * DIRECTORY_ENTRY_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(COLUMN_COUNT).putInt(highWaterMark)
+        .putLong(takenAtMillis).putLong(dataCrc.getValue());
+      header.position(HEADER_BYTES);
+      for (int column = 0; column < COLUMN_COUNT; column++) {
+        header.putInt(column).putInt(ELEMENT_BYTES[column]).putLong(offsets[column])
+          .putLong((long) rows * ELEMENT_BYTES[column]);
+      }
+      header.putLong(HEADER_BYTES - 8, headerCrc(header));
+      header.rewind();
+      long headerWritten = 0;
+      while (header.hasRemaining()) {
+        headerWritten += channel.write(header, headerWritten);
+      }
+      if (channel.size() < fileSize) {
+        // Trailing alignment padding
+        channel.write(ByteBuffer.allocate(1), fileSize - 1);
+      }
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** Reads and verifies a snapshot; returns null if the file is missing, foreign or corrupt. */
+  static Snapshot read(Path file) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      int headerSize = HEADER_BYTES + COLUMN_COUNT * DIRECTORY_ENTRY_BYTES;
+      if (channel.size() < headerSize) {
+        logger.warn("Snapshot {} is truncated; ignoring it", file);
+        return null;
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize).order(ByteOrder.LITTLE_ENDIAN);
+      if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(12) != COLUMN_COUNT) {
+        logger.warn("Snapshot {} has an unknown format; ignoring it", file);
+        return null;
+      }
+      if (header.getLong(HEADER_BYTES - 8) != headerCrc(header)) {
+        logger.warn("Snapshot {} has a corrupt header; ignoring it", file);
+        return null;
+      }
+
+      int rows = header.getInt(8);
+      int highWaterMark = header.getInt(16);
+      long takenAt = header.getLong(20);
+      long expectedCrc = header.getLong(28);
+
+      CRC32 dataCrc = new CRC32();
+      Object[] arrays = new Object[COLUMN_COUNT];
+      for (int column = 0; column < COLUMN_COUNT; column++) {
+        int entry = HEADER_BYTES + column * DIRECTORY_ENTRY_BYTES;
+        long offset = header.getLong(entry + 8);
+        long length = header.getLong(entry + 16);
+        if (header.getInt(entry + 4) != ELEMENT_BYTES[column] || length != (long) rows * ELEMENT_BYTES[column]
+          || offset + length > channel.size()) {
+          logger.warn("Snapshot {} has an invalid column directory; ignoring it", file);
+          return null;
+        }
+
+        ByteBuffer region = length == 0 ? ByteBuffer.allocate(0)
+          : channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        dataCrc.update(region);
+        region.rewind();
+        arrays[column] = getColumn(region, column, rows);
+      }
+
+      if (dataCrc.getValue() != expectedCrc) {
+        logger.warn("Snapshot {} failed its checksum; ignoring it", file);
+        return null;
+      }
+
+      PaymentColumnStore.Columns columns = new PaymentColumnStore.Columns(rows,
+        (int[]) arrays[COL_ID], (long[]) arrays[COL_AMOUNT], (byte[]) arrays[COL_DIRECTION],
+        (byte[]) arrays[COL_CATEGORY], (byte[]) arrays[COL_STATUS], (int[]) arrays[COL_CREATED_BY],
+        (int[]) arrays[COL_EMPLOYEE], (int[]) arrays[COL_COUNTERPARTY], (long[]) arrays[COL_CREATED_AT],
+        (long[]) arrays[COL_UPDATED_AT]);
+      return new Snapshot(columns, highWaterMark, takenAt);
+    }
+    catch (IOException ex) {
+      logger.warn("Failed to read snapshot " + file + "; ignoring it", ex);
+      return null;
+    }
+  }
+
+  private static void putColumn(ByteBuffer region, int column, PaymentColumnStore.Columns columns) {
+    switch (column) {
+      case COL_ID -> region.asIntBuffer().put(columns.ids());
+      case COL_AMOUNT -> region.asLongBuffer().put(columns.amounts());
+      case COL_DIRECTION -> region.put(columns.directions());
+      case COL_CATEGORY -> region.put(columns.categories());
+      case COL_STATUS -> region.put(columns.statuses());
+      case COL_CREATED_BY -> region.asIntBuffer().put(columns.createdBy());
+      case COL_EMPLOYEE -> region.asIntBuffer().put(columns.employeeIds());
+      case COL_COUNTERPARTY -> region.asIntBuffer().put(columns.counterpartyIds());
+      case COL_CREATED_AT -> region.asLongBuffer().put(columns.createdAt());
+      case COL_UPDATED_AT -> region.asLongBuffer().put(columns.updatedAt());
+      default -> throw new IllegalArgumentException("Unknown column " + column);
+    }
+  }
+
+  private static Object getColumn(ByteBuffer region, int column, int rows) {
+    return switch (ELEMENT_BYTES[column]) {
+      case 1 -> {
+        byte[] values = new byte[rows];
+        region.get(values);
+        yield values;
+      }
+      case 4 -> {
+        int[] values = new int[rows];
+        region.asIntBuffer().get(values);
+        yield values;
+      }
+      default -> {
+        long[] values = new long[rows];
+        region.asLongBuffer().get(values);
+        yield values;
+      }
+    };
+  }
+
+  // CRC over the header and directory, excluding the CRC slot itself
+  private static long headerCrc(ByteBuffer header) {
+    CRC32 crc = new CRC32();
+    ByteBuffer view = header.duplicate();
+    view.position(0).limit(HEADER_BYTES - 8);
+    crc.update(view);
+    view.limit(header.capacity()).position(HEADER_BYTES);
+    crc.update(view);
+    return crc.getValue();
+  }
+
+  private static long align(long position) {
+    return (position + 7) & ~7L;
+  }
+}
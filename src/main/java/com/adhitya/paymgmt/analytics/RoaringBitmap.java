@@ -0,0 +1,528 @@
+package com.adhitya.paymgmt.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative ints in the style of Roaring bitmaps.
+ * Values are split by their high 16 bits into chunks; each chunk stores its low
+ * 16 bits either as a sorted array (sparse, up to 4096 values) or as a 65536-bit
+ * bitmap (dense), switching representation as the chunk fills or empties.
+ * Intersections and unions work chunk by chunk and never expand sparse data.
+ *
+ * <p>Not thread-safe; callers synchronise access.</p>
+ */
+public final class RoaringBitmap {
+  private static final int ARRAY_MAX = 4096;
+  private static final int BITMAP_WORDS = 1024;
+
+  // Sorted high-16-bit keys and their containers, in parallel
+  private char[] keys = new char[4];
+  private Container[] containers = new Container[4];
+  private int chunkCount;
+
+  public RoaringBitmap() {}
+
+  public static RoaringBitmap of(int... values) {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    for (int value : values) {
+      bitmap.add(value);
+    }
+    return bitmap;
+  }
+
+  public void add(int value) {
+    checkValue(value);
+    char high = (char) (value >>> 16);
+    int index = findChunk(high);
+    if (index < 0) {
+      index = -index - 1;
+      insertChunk(index, high, new ArrayContainer());
+    }
+    containers[index] = containers[index].add((char) value);
+  }
+
+  public void remove(int value) {
+    if (value < 0) {
+      return;
+    }
+    int index = findChunk((char) (value >>> 16));
+    if (index < 0) {
+      return;
+    }
+    Container container = containers[index].remove((char) value);
+    if (container.cardinality() == 0) {
+      removeChunk(index);
+    }
+    else {
+      containers[index] = container;
+    }
+  }
+
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = findChunk((char) (value >>> 16));
+    return index >= 0 && containers[index].contains((char) value);
+  }
+
+  public int cardinality() {
+    int total = 0;
+    for (int i = 0; i < chunkCount; i++) {
+      total += containers[i].cardinality();
+    }
+    return total;
+  }
+
+  public boolean isEmpty() {
+    return chunkCount == 0;
+  }
+
+  /** Returns a new bitmap holding the values present in both. */
+  public static RoaringBitmap and(RoaringBitmap left, RoaringBitmap right) {
+    RoaringBitmap result = new RoaringBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < left.chunkCount && j < right.chunkCount) {
+      char a = left.keys[i];
+      char b = right.keys[j];
+      if (a < b) {
+        i++;
+      }
+      else if (a > b) {
+        j++;
+      }
+      else {
+        Container container = left.containers[i].and(right.containers[j]);
+        if (container.cardinality() > 0) {
+          result.appendChunk(a, container);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** Returns a new bitmap holding the values present in either. */
+  public static RoaringBitmap or(RoaringBitmap left, RoaringBitmap right) {
+    RoaringBitmap result = new RoaringBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < left.chunkCount || j < right.chunkCount) {
+      if (j >= right.chunkCount || (i < left.chunkCount && left.keys[i] < right.keys[j])) {
+        result.appendChunk(left.keys[i], left.containers[i].copy());
+        i++;
+      }
+      else if (i >= left.chunkCount || right.keys[j] < left.keys[i]) {
+        result.appendChunk(right.keys[j], right.containers[j].copy());
+        j++;
+      }
+      else {
+        result.appendChunk(left.keys[i], left.containers[i].or(right.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** Returns a new bitmap holding the values of {@code left} that are not in {@code right}. */
+  public static RoaringBitmap andNot(RoaringBitmap left, RoaringBitmap right) {
+    RoaringBitmap result = new RoaringBitmap();
+    int j = 0;
+    for (int i = 0; i < left.chunkCount; i++) {
+      char key = left.keys[i];
+      while (j < right.chunkCount && right.keys[j] < key) {
+        j++;
+      }
+      Container container = j < right.chunkCount && right.keys[j] == key
+        ? left.containers[i].andNot(right.containers[j])
+        : left.containers[i].copy();
+      if (container.cardinality() > 0) {
+        result.appendChunk(key, container);
+      }
+    }
+    return result;
+  }
+
+  public RoaringBitmap copy() {
+    RoaringBitmap copy = new RoaringBitmap();
+    copy.keys = Arrays.copyOf(keys, Math.max(4, chunkCount));
+    copy.containers = new Container[copy.keys.length];
+    for (int i = 0; i < chunkCount; i++) {
+      copy.containers[i] = containers[i].copy();
+    }
+    copy.chunkCount = chunkCount;
+    return copy;
+  }
+
+  /** Returns every value in ascending order. */
+  public int[] toArray() {
+    int[] values = new int[cardinality()];
+    int position = 0;
+    for (int i = 0; i < chunkCount; i++) {
+      position = containers[i].copyTo(values, position, keys[i] << 16);
+    }
+    return values;
+  }
+
+  /** Approximate heap used by the containers. */
+  public long memoryBytes() {
+    long total = (long) keys.length * 2 + (long) containers.length * 8;
+    for (int i = 0; i < chunkCount; i++) {
+      total += containers[i].memoryBytes();
+    }
+    return total;
+  }
+
+  private int findChunk(char high) {
+    return Arrays.binarySearch(keys, 0, chunkCount, high);
+  }
+
+  private void insertChunk(int index, char high, Container container) {
+    if (chunkCount == keys.length) {
+      keys = Arrays.copyOf(keys, chunkCount * 2);
+      containers = Arrays.copyOf(containers, chunkCount * 2);
+    }
+    System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+    System.arraycopy(containers, index, containers, index + 1, chunkCount - index);
+    keys[index] = high;
+    containers[index] = container;
+    chunkCount++;
+  }
+
+  private void appendChunk(char high, Container container) {
+    insertChunk(chunkCount, high, container);
+  }
+
+  private void removeChunk(int index) {
+    System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+    System.arraycopy(containers, index + 1, containers, index, chunkCount - index - 1);
+    containers[--chunkCount] = null;
+  }
+
+  private static void checkValue(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+    }
+  }
+
+  // ---------- Containers ----------
+
+  private interface Container {
+    Container add(char value);
+    Container remove(char value);
+    boolean contains(char value);
+    int cardinality();
+    Container and(Container other);
+    Container or(Container other);
+    Container andNot(Container other);
+    Container copy();
+    int copyTo(int[] target, int position, int highBits);
+    long memoryBytes();
+  }
+
+  private static final class ArrayContainer implements Container {
+    private char[] values;
+    private int size;
+
+    ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int size) {
+      this.values = values;
+      this.size = size;
+    }
+
+    @Override
+    public Container add(char value) {
+      int index = Arrays.binarySearch(values, 0, size, value);
+      if (index >= 0) {
+        return this;
+      }
+      if (size >= ARRAY_MAX) {
+        return toBitmap().add(value);
+      }
+      index = -index - 1;
+      if (size == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+      }
+      System.arraycopy(values, index, values, index + 1, size - index);
+      values[index] = value;
+      size++;
+      return this;
+    }
+
+    @Override
+    public Container remove(char value) {
+      int index = Arrays.binarySearch(values, 0, size, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    @Override
+    public int cardinality() {
+      return size;
+    }
+
+    @Override
+    public Container and(Container other) {
+      char[] result = new char[size];
+      int count = 0;
+      if (other instanceof ArrayContainer array) {
+        int i = 0;
+        int j = 0;
+        while (i < size && j < array.size) {
+          char a = values[i];
+          char b = array.values[j];
+          if (a < b) {
+            i++;
+          }
+          else if (a > b) {
+            j++;
+          }
+          else {
+            result[count++] = a;
+            i++;
+            j++;
+          }
+        }
+      }
+      else {
+        for (int i = 0; i < size; i++) {
+          if (other.contains(values[i])) {
+            result[count++] = values[i];
+          }
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    public Container or(Container other) {
+      if (other instanceof BitmapContainer) {
+        return other.or(this);
+      }
+      ArrayContainer array = (ArrayContainer) other;
+      if (size + array.size > ARRAY_MAX) {
+        return toBitmap().or(other);
+      }
+      char[] result = new char[size + array.size];
+      int i = 0;
+      int j = 0;
+      int count = 0;
+      while (i < size || j < array.size) {
+        if (j >= array.size || (i < size && values[i] < array.values[j])) {
+          result[count++] = values[i++];
+        }
+        else if (i >= size || array.values[j] < values[i]) {
+          result[count++] = array.values[j++];
+        }
+        else {
+          result[count++] = values[i];
+          i++;
+          j++;
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    public Container andNot(Container other) {
+      char[] result = new char[size];
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        if (!other.contains(values[i])) {
+          result[count++] = values[i];
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    public Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, Math.max(4, size)), size);
+    }
+
+    @Override
+    public int copyTo(int[] target, int position, int highBits) {
+      for (int i = 0; i < size; i++) {
+        target[position++] = highBits | values[i];
+      }
+      return position;
+    }
+
+    @Override
+    public long memoryBytes() {
+      return 16L + values.length * 2L;
+    }
+
+    BitmapContainer toBitmap() {
+      BitmapContainer bitmap = new BitmapContainer();
+      for (int i = 0; i < size; i++) {
+        bitmap.add(values[i]);
+      }
+      return bitmap;
+    }
+  }
+
+  private static final class BitmapContainer implements Container {
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer() {
+      this(new long[BITMAP_WORDS], 0);
+    }
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Container add(char value) {
+      long mask = 1L << value;
+      int word = value >>> 6;
+      if ((words[word] & mask) == 0) {
+        words[word] |= mask;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    public Container remove(char value) {
+      long mask = 1L << value;
+      int word = value >>> 6;
+      if ((words[word] & mask) != 0) {
+        words[word] &= ~mask;
+        cardinality--;
+        if (cardinality <= ARRAY_MAX / 2) {
+          return toArray();
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    public int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public Container and(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.and(this);
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      long[] result = new long[BITMAP_WORDS];
+      int count = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        result[i] = words[i] & otherWords[i];
+        count += Long.bitCount(result[i]);
+      }
+      return normalise(result, count);
+    }
+
+    @Override
+    public Container or(Container other) {
+      long[] result = words.clone();
+      int count = cardinality;
+      if (other instanceof ArrayContainer array) {
+        for (int i = 0; i < array.size; i++) {
+          char value = array.values[i];
+          long mask = 1L << value;
+          if ((result[value >>> 6] & mask) == 0) {
+            result[value >>> 6] |= mask;
+            count++;
+          }
+        }
+        return new BitmapContainer(result, count);
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      count = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        result[i] |= otherWords[i];
+        count += Long.bitCount(result[i]);
+      }
+      return new BitmapContainer(result, count);
+    }
+
+    @Override
+    public Container andNot(Container other) {
+      long[] result = words.clone();
+      if (other instanceof ArrayContainer array) {
+        for (int i = 0; i < array.size; i++) {
+          char value = array.values[i];
+          result[value >>> 6] &= ~(1L << value);
+        }
+      }
+      else {
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+          result[i] &= ~otherWords[i];
+        }
+      }
+      int count = 0;
+      for (long word : result) {
+        count += Long.bitCount(word);
+      }
+      return normalise(result, count);
+    }
+
+    @Override
+    public Container copy() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    public int copyTo(int[] target, int position, int highBits) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long word = words[i];
+        while (word != 0) {
+          target[position++] = highBits | (i << 6) | Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+        }
+      }
+      return position;
+    }
+
+    @Override
+    public long memoryBytes() {
+      return 16L + BITMAP_WORDS * 8L;
+    }
+
+    private ArrayContainer toArray() {
+      char[] values = new char[Math.max(4, cardinality)];
+      int count = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long word = words[i];
+        while (word != 0) {
+          values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayContainer(values, count);
+    }
+
+    private static Container normalise(long[] words, int count) {
+      BitmapContainer bitmap = new BitmapContainer(words, count);
+      return count <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.adhitya.paymgmt.api;
+
+/** Thrown by API handlers to end a request with a specific HTTP status and message. */
+public class ApiException extends RuntimeException {
+  private final int status;
+
+  /** Creates exception with HTTP status and error message. */
+  public ApiException(int status, String message) {
+    super(message);
+    this.status = status;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+}
@@ -0,0 +1,223 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.exception.IdempotencyKeyConflictException;
+import com.adhitya.paymgmt.exception.InvalidCredentialsException;
+import com.adhitya.paymgmt.exception.LoginThrottledException;
+import com.adhitya.paymgmt.exception.UserNotFoundException;
+import com.adhitya.paymgmt.exception.WorkloadRejectedException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.service.SessionService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class for the JSON endpoints. Handles bearer-token authentication,
+ * role checks, query/body parsing and maps service exceptions to HTTP statuses.
+ * Responses are streamed with chunked encoding straight from a JsonGenerator,
+ * so large listings are never buffered in memory.
+ */
+public abstract class ApiHandler implements HttpHandler {
+  private static final Logger logger = LoggerFactory.getLogger(ApiHandler.class);
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final ObjectMapper MAPPER = new ObjectMapper(JSON_FACTORY);
+  // Anything else is timed as OTHER, so clients cannot create series at will
+  private static final Set<String> TIMED_METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+  protected final AuthService authService;
+  // One timer per HTTP method, named after the concrete handler
+  private final Map<String, OperationTimer> timers = new ConcurrentHashMap<>();
+
+  protected ApiHandler(AuthService authService) {
+    this.authService = authService;
+  }
+
+  @Override
+  public final void handle(HttpExchange exchange) {
+    String method = TIMED_METHODS.contains(exchange.getRequestMethod()) ? exchange.getRequestMethod() : "OTHER";
+    OperationTimer.Timing timing = timers.computeIfAbsent(method,
+      key -> Metrics.timer("api", getClass().getSimpleName() + ' ' + key)).start();
+    try {
+      handleRequest(exchange, pathSegments(exchange));
+    }
+    catch (ApiException ex) {
+      sendError(exchange, ex.getStatus(), ex.getMessage());
+    }
+    catch (InvalidCredentialsException | UserNotFoundException ex) {
+      sendError(exchange, 401, ex.getMessage());
+    }
+    catch (LoginThrottledException ex) {
+      sendError(exchange, 429, ex.getMessage());
+    }
+    catch (WorkloadRejectedException ex) {
+      exchange.getResponseHeaders().set("Retry-After", "1");
+      sendError(exchange, 503, ex.getMessage());
+    }
+    catch (EmptyResultException ex) {
+      sendError(exchange, 404, ex.getMessage());
+    }
+    catch (IdempotencyKeyConflictException ex) {
+      sendError(exchange, 422, ex.getMessage());
+    }
+    catch (IllegalArgumentException | DateTimeException ex) {
+      sendError(exchange, 400, ex.getMessage());
+    }
+    catch (DataAccessException ex) {
+      logger.error("Data access failure on " + exchange.getRequestURI(), ex);
+      sendError(exchange, 503, "Database unavailable");
+    }
+    catch (Exception ex) {
+      logger.error("Unhandled API failure on " + exchange.getRequestURI(), ex);
+      sendError(exchange, 500, "Internal server error");
+    }
+    finally {
+      exchange.close();
+      timing.close();
+    }
+  }
+
+  /**
+   * Handles one request.
+   * @param segments path segments after the handler's context path, e.g. {@code ["12", "status"]}
+   */
+  protected abstract void handleRequest(HttpExchange exchange, String[] segments) throws IOException;
+
+  // ---------- Authentication ----------
+
+  /** Resolves the bearer token and checks that its role is one of the allowed roles (any role if none given). */
+  protected SessionService.Session requireSession(HttpExchange exchange, Role... allowedRoles) {
+    String header = exchange.getRequestHeaders().getFirst("Authorization");
+    if (header == null || !header.startsWith("Bearer ")) {
+      throw new ApiException(401, "Missing bearer token");
+    }
+
+    SessionService.Session session = authService.authenticate(header.substring("Bearer ".length()).trim());
+    if (allowedRoles.length > 0 && Arrays.stream(allowedRoles).noneMatch(role -> role == session.role())) {
+      throw new ApiException(403, "Role " + session.role() + " may not perform this operation");
+    }
+    return session;
+  }
+
+  // ---------- Requests ----------
+
+  protected void requireMethod(HttpExchange exchange, String method) {
+    if (!method.equalsIgnoreCase(exchange.getRequestMethod())) {
+      throw new ApiException(405, "Method not allowed");
+    }
+  }
+
+  protected JsonNode readBody(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      JsonNode body = MAPPER.readTree(in);
+      if (body == null || !body.isObject()) {
+        throw new ApiException(400, "Request body must be a JSON object");
+      }
+      return body;
+    }
+    catch (com.fasterxml.jackson.core.JsonProcessingException ex) {
+      throw new ApiException(400, "Malformed JSON: " + ex.getOriginalMessage());
+    }
+  }
+
+  protected Map<String, String> queryParams(HttpExchange exchange) {
+    Map<String, String> params = new HashMap<>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null || query.isEmpty()) {
+      return params;
+    }
+    for (String pair : query.split("&")) {
+      int eq = pair.indexOf('=');
+      String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+      String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+      params.put(key, value);
+    }
+    return params;
+  }
+
+  protected int parseId(String value) {
+    try {
+      return Integer.parseInt(value);
+    }
+    catch (NumberFormatException ex) {
+      throw new ApiException(400, "Invalid ID: " + value);
+    }
+  }
+
+  protected LocalDate parseDate(Map<String, String> params, String name) {
+    String value = params.get(name);
+    if (value == null) {
+      throw new ApiException(400, "Missing query parameter: " + name);
+    }
+    return LocalDate.parse(value);
+  }
+
+  protected String requireText(JsonNode body, String field) {
+    JsonNode node = body.get(field);
+    if (node == null || node.isNull() || node.asText().isEmpty()) {
+      throw new ApiException(400, "Missing field: " + field);
+    }
+    return node.asText();
+  }
+
+  // ---------- Responses ----------
+
+  /**
+   * Sends the status line and returns a generator streaming the JSON body.
+   * Closing the generator ends the response.
+   */
+  protected JsonGenerator startJson(HttpExchange exchange, int status) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, 0);
+    return JSON_FACTORY.createGenerator(exchange.getResponseBody());
+  }
+
+  protected void sendNoContent(HttpExchange exchange) throws IOException {
+    exchange.sendResponseHeaders(204, -1);
+  }
+
+  private void sendError(HttpExchange exchange, int status, String message) {
+    if (exchange.getResponseCode() != -1) {
+      // Headers already sent mid-stream; all we can do is cut the response short
+      return;
+    }
+    try (JsonGenerator json = startJson(exchange, status)) {
+      json.writeStartObject();
+      json.writeNumberField("status", status);
+      json.writeStringField("error", message);
+      json.writeEndObject();
+    }
+    catch (IOException ex) {
+      logger.debug("Failed to send error response", ex);
+    }
+  }
+
+  private String[] pathSegments(HttpExchange exchange) {
+    String path = exchange.getRequestURI().getPath();
+    String context = exchange.getHttpContext().getPath();
+    String rest = path.length() > context.length() ? path.substring(context.length()) : "";
+    rest = rest.replaceAll("^/+|/+$", "");
+    return rest.isEmpty() ? new String[0] : rest.split("/");
+  }
+}
@@ -0,0 +1,92 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.service.AuditService;
+import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.service.CounterpartyService;
+import com.adhitya.paymgmt.service.EmployeeService;
+import com.adhitya.paymgmt.service.PaymentIngestionPipeline;
+import com.adhitya.paymgmt.service.PaymentService;
+import com.adhitya.paymgmt.service.ReportService;
+import com.adhitya.paymgmt.service.WorkloadScheduler;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded JSON/HTTP front end over the existing services, so many clients can
+ * be served concurrently without a terminal session each. Requests are accepted
+ * on a fixed worker pool and hand their database work to the
+ * {@link WorkloadScheduler}, which caps concurrent sessions per workload class.
+ */
+public class ApiServer {
+  private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+
+  private final HttpServer server;
+  private final ExecutorService workers;
+
+  /**
+   * @param port          TCP port to listen on
+   * @param workerThreads maximum number of requests served concurrently
+   */
+  public ApiServer(int port, int workerThreads, AuthService authService, PaymentService paymentService,
+                   ReportService reportService, AuditService auditService,
+                   EmployeeService employeeService, CounterpartyService counterpartyService,
+                   PaymentIngestionPipeline ingestionPipeline, WorkloadScheduler scheduler) {
+    if (workerThreads <= 0) {
+      throw new IllegalArgumentException("Worker thread count must be positive");
+    }
+
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException("Failed to bind HTTP API on port " + port, ex);
+    }
+
+    AtomicInteger counter = new AtomicInteger();
+    this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+      Thread thread = new Thread(runnable, "api-worker-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(workers);
+
+    server.createContext("/api/sessions", new SessionHandler(authService));
+    server.createContext("/api/payments",
+      new PaymentHandler(authService, paymentService, employeeService, counterpartyService, ingestionPipeline, scheduler));
+    server.createContext("/api/reports", new ReportHandler(authService, reportService, scheduler));
+    server.createContext("/api/audit-logs", new AuditLogHandler(authService, auditService, scheduler));
+  }
+
+  public void start() {
+    server.start();
+    logger.info("HTTP API listening on port {}", server.getAddress().getPort());
+  }
+
+  /** Stops accepting requests, waits up to {@code graceSeconds} for in-flight ones, then stops the workers. */
+  public void stop(int graceSeconds) {
+    server.stop(graceSeconds);
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(graceSeconds, TimeUnit.SECONDS)) {
+        workers.shutdownNow();
+      }
+    }
+    catch (InterruptedException ex) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+}
@@ -0,0 +1,83 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.dto.AuditLogEntryDTO;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.service.AuditService;
+import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.service.WorkloadScheduler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audit log endpoints (admins only):
+ * <ul>
+ *   <li>{@code GET /api/audit-logs?limit=&since=&beforeChangedAt=&beforeId=} pages newest first</li>
+ *   <li>{@code GET /api/audit-logs?paymentId=} returns all entries of one payment</li>
+ * </ul>
+ * Page responses carry a {@code next} cursor to pass back as beforeChangedAt/beforeId.
+ */
+public class AuditLogHandler extends ApiHandler {
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int MAX_PAGE_SIZE = 500;
+
+  private final AuditService auditService;
+  private final WorkloadScheduler scheduler;
+
+  public AuditLogHandler(AuthService authService, AuditService auditService, WorkloadScheduler scheduler) {
+    super(authService);
+    this.auditService = auditService;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  protected void handleRequest(HttpExchange exchange, String[] segments) throws IOException {
+    if (segments.length != 0) {
+      throw new ApiException(404, "Not found");
+    }
+    requireMethod(exchange, "GET");
+    requireSession(exchange, Role.ADMIN);
+
+    Map<String, String> params = queryParams(exchange);
+    List<AuditLogEntryDTO> entries;
+    int pageSize = 0;
+    if (params.containsKey("paymentId")) {
+      int paymentId = parseId(params.get("paymentId"));
+      entries = scheduler.call(WorkloadClass.ANALYTICS, WorkloadScheduler.Priority.LOW,
+        () -> auditService.getEntriesByPayment(paymentId));
+    }
+    else {
+      pageSize = params.containsKey("limit") ? parseId(params.get("limit")) : DEFAULT_PAGE_SIZE;
+      pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+      LocalDateTime since = params.containsKey("since") ? LocalDateTime.parse(params.get("since")) : null;
+      LocalDateTime before = params.containsKey("beforeChangedAt")
+        ? LocalDateTime.parse(params.get("beforeChangedAt")) : null;
+      int beforeId = params.containsKey("beforeId") ? parseId(params.get("beforeId")) : Integer.MAX_VALUE;
+      int limit = pageSize;
+      entries = scheduler.call(WorkloadClass.ANALYTICS, WorkloadScheduler.Priority.LOW,
+        () -> auditService.getAuditLogPage(since, before, beforeId, limit));
+    }
+
+    try (JsonGenerator json = startJson(exchange, 200)) {
+      json.writeStartObject();
+      json.writeArrayFieldStart("entries");
+      for (AuditLogEntryDTO entry : entries) {
+        JsonViews.writeAuditEntry(json, entry);
+      }
+      json.writeEndArray();
+      if (pageSize > 0 && entries.size() == pageSize) {
+        AuditLogEntryDTO last = entries.get(entries.size() - 1);
+        json.writeObjectFieldStart("next");
+        json.writeStringField("beforeChangedAt", last.changedAt().toString());
+        json.writeNumberField("beforeId", last.id());
+        json.writeEndObject();
+      }
+      json.writeEndObject();
+    }
+  }
+}
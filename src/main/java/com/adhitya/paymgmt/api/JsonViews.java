@@ -0,0 +1,96 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.dto.AuditLogEntryDTO;
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/** Streams domain objects as JSON. Field names are stable parts of the API contract. */
+final class JsonViews {
+
+  private JsonViews() {}
+
+  static void writePayment(JsonGenerator json, Payment p) throws IOException {
+    json.writeStartObject();
+    json.writeNumberField("id", p.getId());
+    writeMoney(json, "amount", p.getAmount());
+    json.writeStringField("direction", p.getPaymentDirection().name());
+    json.writeStringField("category", p.getCategory().name());
+    json.writeStringField("status", p.getStatus().name());
+    json.writeStringField("description", p.getDescription());
+    if (p.getCreatedBy() != null) {
+      json.writeNumberField("createdById", p.getCreatedBy().getId());
+      json.writeStringField("createdBy", p.getCreatedBy().getUsername());
+    }
+    json.writeStringField("createdAt", p.getCreatedAt() != null ? p.getCreatedAt().toString() : null);
+    json.writeStringField("updatedAt", p.getUpdatedAt() != null ? p.getUpdatedAt().toString() : null);
+    if (p.getEmployee() != null) {
+      json.writeNumberField("employeeId", p.getEmployee().getId());
+      json.writeStringField("employeeName", p.getEmployee().getName());
+    }
+    if (p.getCounterParty() != null) {
+      json.writeNumberField("counterpartyId", p.getCounterParty().getId());
+      json.writeStringField("counterpartyName", p.getCounterParty().getName());
+    }
+    json.writeEndObject();
+  }
+
+  static void writePayments(JsonGenerator json, List<Payment> payments) throws IOException {
+    json.writeStartArray();
+    for (Payment payment : payments) {
+      writePayment(json, payment);
+    }
+    json.writeEndArray();
+  }
+
+  static void writeReport(JsonGenerator json, ReportDataDTO report) throws IOException {
+    json.writeStartObject();
+    json.writeStringField("startDate", report.startDate().toString());
+    json.writeStringField("endDate", report.endDate().toString());
+    json.writeNumberField("transactionCount", report.transactionCount());
+    writeMoney(json, "totalInflow", report.totalInflow());
+    writeMoney(json, "totalOutflow", report.totalOutflow());
+    writeMoney(json, "netBalance", report.netBalance());
+    writeMoney(json, "avgDailyValue", report.avgTransactionValue());
+    writeTotals(json, "categoryTotals", report.categoryTotals());
+    writeTotals(json, "employeeTotals", report.employeeTotals());
+    writeTotals(json, "counterpartyTotals", report.counterpartyTotals());
+    json.writeFieldName("transactions");
+    writePayments(json, report.transactions());
+    json.writeEndObject();
+  }
+
+  static void writeAuditEntry(JsonGenerator json, AuditLogEntryDTO entry) throws IOException {
+    json.writeStartObject();
+    json.writeNumberField("id", entry.id());
+    json.writeNumberField("paymentId", entry.paymentId());
+    if (entry.amount() != null) {
+      writeMoney(json, "amount", entry.amount());
+    }
+    json.writeStringField("fieldChanged", entry.fieldChanged());
+    json.writeStringField("oldValue", entry.oldValue());
+    json.writeStringField("newValue", entry.newValue());
+    json.writeStringField("changedBy", entry.changedByUsername());
+    json.writeStringField("changedAt", entry.changedAt().toString());
+    json.writeEndObject();
+  }
+
+  private static void writeTotals(JsonGenerator json, String field, Map<?, Money> totals) throws IOException {
+    json.writeObjectFieldStart(field);
+    for (Map.Entry<?, Money> entry : totals.entrySet()) {
+      writeMoney(json, String.valueOf(entry.getKey()), entry.getValue());
+    }
+    json.writeEndObject();
+  }
+
+  // Written as the plain decimal text, so the number keeps its two decimal places
+  private static void writeMoney(JsonGenerator json, String field, Money amount) throws IOException {
+    json.writeFieldName(field);
+    json.writeNumber(amount.toString());
+  }
+}
@@ -0,0 +1,283 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.dto.PaymentSearchResultDTO;
+import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Role;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.service.CounterpartyService;
+import com.adhitya.paymgmt.service.EmployeeService;
+import com.adhitya.paymgmt.service.PaymentIngestionPipeline;
+import com.adhitya.paymgmt.service.PaymentService;
+import com.adhitya.paymgmt.service.SessionService;
+import com.adhitya.paymgmt.service.WorkloadScheduler;
+import com.adhitya.paymgmt.service.WorkloadScheduler.Priority;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Payment endpoints:
+ * <ul>
+ *   <li>{@code GET /api/payments} with optional {@code from}/{@code to}, {@code category},
+ *       {@code direction}, {@code employeeId}, {@code counterpartyId} or {@code userId} filter</li>
+ *   <li>{@code GET /api/payments/search?q=...} ranked text search with optional {@code from}/{@code to},
+ *       {@code category}, {@code page} (zero-based) and {@code size}; responses carry the {@code next} page</li>
+ *   <li>{@code GET /api/payments/{id}}</li>
+ *   <li>{@code POST /api/payments} (finance managers; honours an {@code Idempotency-Key} header, scoped to the
+ *       caller; replaying a key with a different payment is rejected with 422)</li>
+ *   <li>{@code POST /api/payments/batch} with {@code {"payments": [...]}} through the ingestion pipeline (finance managers)</li>
+ *   <li>{@code PUT /api/payments/{id}/status} (finance managers)</li>
+ * </ul>
+ */
+public class PaymentHandler extends ApiHandler {
+  private static final int MAX_BATCH_SIZE = 10_000;
+  private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+
+  private final PaymentService paymentService;
+  private final EmployeeService employeeService;
+  private final CounterpartyService counterpartyService;
+  private final PaymentIngestionPipeline ingestionPipeline;
+  private final WorkloadScheduler scheduler;
+
+  public PaymentHandler(AuthService authService, PaymentService paymentService,
+                        EmployeeService employeeService, CounterpartyService counterpartyService,
+                        PaymentIngestionPipeline ingestionPipeline, WorkloadScheduler scheduler) {
+    super(authService);
+    this.paymentService = paymentService;
+    this.ingestionPipeline = ingestionPipeline;
+    this.scheduler = scheduler;
+    this.employeeService = employeeService;
+    this.counterpartyService = counterpartyService;
+  }
+
+  @Override
+  protected void handleRequest(HttpExchange exchange, String[] segments) throws IOException {
+    if (segments.length == 0) {
+      if ("GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+        list(exchange);
+      }
+      else {
+        requireMethod(exchange, "POST");
+        create(exchange);
+      }
+    }
+    else if (segments.length == 1 && "search".equals(segments[0])) {
+      requireMethod(exchange, "GET");
+      search(exchange);
+    }
+    else if (segments.length == 1 && "batch".equals(segments[0])) {
+      requireMethod(exchange, "POST");
+      createBatch(exchange);
+    }
+    else if (segments.length == 1) {
+      requireMethod(exchange, "GET");
+      requireSession(exchange);
+      int paymentId = parseId(segments[0]);
+      Payment payment = scheduler.call(WorkloadClass.OLTP, Priority.NORMAL, () -> paymentService.findById(paymentId));
+      try (JsonGenerator json = startJson(exchange, 200)) {
+        JsonViews.writePayment(json, payment);
+      }
+    }
+    else if (segments.length == 2 && "status".equals(segments[1])) {
+      requireMethod(exchange, "PUT");
+      updateStatus(exchange, parseId(segments[0]));
+    }
+    else {
+      throw new ApiException(404, "Not found");
+    }
+  }
+
+  private void list(HttpExchange exchange) throws IOException {
+    requireSession(exchange);
+    Map<String, String> params = queryParams(exchange);
+
+    // Listings scan the table, so they run with the analytics workload
+    List<Payment> payments = scheduler.call(WorkloadClass.ANALYTICS, Priority.NORMAL, () -> findPayments(params));
+
+    try (JsonGenerator json = startJson(exchange, 200)) {
+      JsonViews.writePayments(json, payments);
+    }
+  }
+
+  private void search(HttpExchange exchange) throws IOException {
+    requireSession(exchange);
+    Map<String, String> params = queryParams(exchange);
+    String text = params.get("q");
+    if (text == null || text.isBlank()) {
+      throw new ApiException(400, "Missing query parameter: q");
+    }
+    LocalDate from = params.containsKey("from") ? parseDate(params, "from") : null;
+    LocalDate to = params.containsKey("to") ? parseDate(params, "to") : null;
+    PaymentCategory category = params.containsKey("category")
+      ? PaymentCategory.fromDbValue(params.get("category")) : null;
+    int page = params.containsKey("page") ? parseId(params.get("page")) : 0;
+    int size = params.containsKey("size") ? parseId(params.get("size")) : DEFAULT_SEARCH_PAGE_SIZE;
+
+    // Index-backed and bounded by LIMIT, so it stays in the interactive class
+    List<PaymentSearchResultDTO> results;
+    try {
+      results = scheduler.call(WorkloadClass.OLTP, Priority.NORMAL,
+        () -> paymentService.searchByText(text, from, to, category, page, size));
+    }
+    catch (EmptyResultException ex) {
+      results = List.of();
+    }
+
+    try (JsonGenerator json = startJson(exchange, 200)) {
+      json.writeStartObject();
+      json.writeArrayFieldStart("results");
+      for (PaymentSearchResultDTO result : results) {
+        json.writeStartObject();
+        json.writeNumberField("rank", result.rank());
+        json.writeFieldName("payment");
+        JsonViews.writePayment(json, result.payment());
+        json.writeEndObject();
+      }
+      json.writeEndArray();
+      if (results.size() == size) {
+        json.writeNumberField("next", page + 1);
+      }
+      json.writeEndObject();
+    }
+  }
+
+  private List<Payment> findPayments(Map<String, String> params) {
+    List<Payment> payments;
+    if (params.containsKey("from") || params.containsKey("to")) {
+      payments = paymentService.getPaymentsByDateRange(parseDate(params, "from"), parseDate(params, "to"));
+    }
+    else if (params.containsKey("category")) {
+      payments = paymentService.getPaymentsByCategory(PaymentCategory.fromDbValue(params.get("category")));
+    }
+    else if (params.containsKey("direction")) {
+      payments = paymentService.getPaymentsByPaymentDirection(PaymentDirection.fromDbValue(params.get("direction")));
+    }
+    else if (params.containsKey("employeeId")) {
+      payments = paymentService.getPaymentsByEmployee(parseId(params.get("employeeId")));
+    }
+    else if (params.containsKey("counterpartyId")) {
+      payments = paymentService.getPaymentsByCounterparty(parseId(params.get("counterpartyId")));
+    }
+    else if (params.containsKey("userId")) {
+      payments = paymentService.getPaymentsByUser(parseId(params.get("userId")));
+    }
+    else {
+      payments = paymentService.getAllPayments();
+    }
+    return payments;
+  }
+
+  private void create(HttpExchange exchange) throws IOException {
+    SessionService.Session session = requireSession(exchange, Role.FINANCE_MANAGER);
+    JsonNode body = readBody(exchange);
+    // Retries carrying the same Idempotency-Key header resolve to the original payment
+    String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+
+    Payment payment = scheduler.call(WorkloadClass.OLTP, Priority.NORMAL, () -> {
+      Payment created = parsePayment(body, authService.findById(session.userId()));
+      if (idempotencyKey != null) {
+        return paymentService.findById(paymentService.addPayment(created, idempotencyKey));
+      }
+      paymentService.addPayment(created);
+      return created;
+    });
+
+    try (JsonGenerator json = startJson(exchange, 201)) {
+      JsonViews.writePayment(json, payment);
+    }
+  }
+
+  private void createBatch(HttpExchange exchange) throws IOException {
+    SessionService.Session session = requireSession(exchange, Role.FINANCE_MANAGER);
+    JsonNode items = readBody(exchange).get("payments");
+    if (items == null || !items.isArray() || items.isEmpty()) {
+      throw new ApiException(400, "Field 'payments' must be a non-empty array");
+    }
+    if (items.size() > MAX_BATCH_SIZE) {
+      throw new ApiException(400, "At most " + MAX_BATCH_SIZE + " payments per request");
+    }
+
+    List<Payment> payments = scheduler.call(WorkloadClass.OLTP, Priority.LOW, () -> {
+      User createdBy = authService.findById(session.userId());
+      List<Payment> parsed = new ArrayList<>(items.size());
+      for (JsonNode item : items) {
+        parsed.add(parsePayment(item, createdBy));
+      }
+      return parsed;
+    });
+
+    List<Payment> saved;
+    try {
+      saved = ingestionPipeline.submitAll(payments).join();
+    }
+    catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+
+    try (JsonGenerator json = startJson(exchange, 201)) {
+      JsonViews.writePayments(json, saved);
+    }
+  }
+
+  private Payment parsePayment(JsonNode body, User createdBy) {
+    if (!body.isObject()) {
+      throw new ApiException(400, "Payment must be a JSON object");
+    }
+
+    Payment payment = new Payment();
+    try {
+      payment.setAmount(Money.parse(requireText(body, "amount")));
+    }
+    catch (NumberFormatException ex) {
+      throw new ApiException(400, "Invalid amount");
+    }
+    if (payment.getAmount().signum() <= 0) {
+      throw new ApiException(400, "Amount must be positive");
+    }
+    payment.setPaymentDirection(PaymentDirection.fromDbValue(requireText(body, "direction")));
+    payment.setCategory(PaymentCategory.fromDbValue(requireText(body, "category")));
+    payment.setStatus(Status.PENDING);
+    payment.setDescription(body.path("description").asText(""));
+    payment.setCreatedBy(createdBy);
+    payment.setCreatedAt(LocalDateTime.now());
+    payment.setUpdatedAt(payment.getCreatedAt());
+
+    if (payment.getCategory() == PaymentCategory.SALARY) {
+      payment.setEmployee(employeeService.findById(parseId(requireText(body, "employeeId"))));
+    }
+    else {
+      payment.setCounterParty(counterpartyService.findById(parseId(requireText(body, "counterpartyId"))));
+    }
+    return payment;
+  }
+
+  private void updateStatus(HttpExchange exchange, int paymentId) throws IOException {
+    SessionService.Session session = requireSession(exchange, Role.FINANCE_MANAGER);
+    Status newStatus = Status.fromDbValue(requireText(readBody(exchange), "status"));
+
+    // Status changes are the most latency-sensitive interactive operation
+    Payment payment = scheduler.call(WorkloadClass.OLTP, Priority.HIGH, () -> {
+      paymentService.updatePaymentStatus(paymentId, newStatus, session.userId());
+      return paymentService.findById(paymentId);
+    });
+
+    try (JsonGenerator json = startJson(exchange, 200)) {
+      JsonViews.writePayment(json, payment);
+    }
+  }
+}
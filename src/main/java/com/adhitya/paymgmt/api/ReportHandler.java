@@ -0,0 +1,58 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.service.ReportService;
+import com.adhitya.paymgmt.service.WorkloadScheduler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+/** {@code GET /api/reports?from=YYYY-MM-DD&to=YYYY-MM-DD} returns the report data for the period. */
+public class ReportHandler extends ApiHandler {
+  private static final OperationTimer EXPORT_JSON = Metrics.timer("export", "json");
+
+  private final ReportService reportService;
+  private final WorkloadScheduler scheduler;
+
+  public ReportHandler(AuthService authService, ReportService reportService, WorkloadScheduler scheduler) {
+    super(authService);
+    this.reportService = reportService;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  protected void handleRequest(HttpExchange exchange, String[] segments) throws IOException {
+    if (segments.length != 0) {
+      throw new ApiException(404, "Not found");
+    }
+    requireMethod(exchange, "GET");
+    requireSession(exchange);
+
+    Map<String, String> params = queryParams(exchange);
+    LocalDate from = parseDate(params, "from");
+    LocalDate to = parseDate(params, "to");
+    if (to.isBefore(from)) {
+      throw new ApiException(400, "'to' must not be before 'from'");
+    }
+
+    ReportDataDTO report = scheduler.call(WorkloadClass.ANALYTICS, WorkloadScheduler.Priority.NORMAL, () -> {
+      ReportDataDTO data = reportService.generateReportData(from, to);
+      // The response lists every transaction; fetch them under the analytics quota as well
+      data.transactions();
+      return data;
+    });
+
+    try (OperationTimer.Timing timing = EXPORT_JSON.start();
+         JsonGenerator json = startJson(exchange, 200)) {
+      timing.addRows(report.transactions().size());
+      JsonViews.writeReport(json, report);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.adhitya.paymgmt.api;
+
+import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.service.SessionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+/**
+ * {@code POST /api/sessions} exchanges a username/password for a bearer token;
+ * {@code DELETE /api/sessions} revokes the caller's token.
+ */
+public class SessionHandler extends ApiHandler {
+
+  public SessionHandler(AuthService authService) {
+    super(authService);
+  }
+
+  @Override
+  protected void handleRequest(HttpExchange exchange, String[] segments) throws IOException {
+    if (segments.length != 0) {
+      throw new ApiException(404, "Not found");
+    }
+
+    switch (exchange.getRequestMethod().toUpperCase()) {
+      case "POST" -> login(exchange);
+      case "DELETE" -> logout(exchange);
+      default -> throw new ApiException(405, "Method not allowed");
+    }
+  }
+
+  private void login(HttpExchange exchange) throws IOException {
+    JsonNode body = readBody(exchange);
+    SessionService.Session session = authService.openSession(requireText(body, "username"), requireText(body, "password"));
+
+    try (JsonGenerator json = startJson(exchange, 201)) {
+      json.writeStartObject();
+      json.writeStringField("token", session.token());
+      json.writeNumberField("userId", session.userId());
+      json.writeStringField("username", session.username());
+      json.writeStringField("role", session.role().name());
+      json.writeNumberField("expiresInSeconds",
+        Math.max(0, (session.expiresAtNanos() - System.nanoTime()) / 1_000_000_000L));
+      json.writeEndObject();
+    }
+  }
+
+  private void logout(HttpExchange exchange) throws IOException {
+    SessionService.Session session = requireSession(exchange);
+    authService.logout(session.token());
+    sendNoContent(exchange);
+  }
+}
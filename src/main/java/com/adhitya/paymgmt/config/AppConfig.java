@@ -1,18 +1,40 @@
 package com.adhitya.paymgmt.config;
 
+import com.adhitya.paymgmt.analytics.PaymentBitmapIndex;
+import com.adhitya.paymgmt.analytics.PaymentColumnStore;
+import com.adhitya.paymgmt.analytics.PaymentSnapshotManager;
+import com.adhitya.paymgmt.api.ApiServer;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.MetricsEndpoint;
+import com.adhitya.paymgmt.metrics.MetricsRegistry;
+import com.adhitya.paymgmt.metrics.MetricsReporter;
 import com.adhitya.paymgmt.presentation.MainMenu;
+import com.adhitya.paymgmt.repository.AuditJournal;
 import com.adhitya.paymgmt.repository.AuditLogRepository;
+import com.adhitya.paymgmt.repository.AuditPartitionRepository;
 import com.adhitya.paymgmt.repository.CounterpartyRepository;
 import com.adhitya.paymgmt.repository.EmployeeRepository;
 import com.adhitya.paymgmt.repository.PaymentRepository;
 import com.adhitya.paymgmt.repository.UserRepository;
+import com.adhitya.paymgmt.service.AuditPartitionMaintenance;
 import com.adhitya.paymgmt.service.AuditService;
 import com.adhitya.paymgmt.service.AuthService;
+import com.adhitya.paymgmt.service.ChangeNotificationListener;
 import com.adhitya.paymgmt.service.CounterpartyService;
 import com.adhitya.paymgmt.service.EmployeeService;
+import com.adhitya.paymgmt.service.IdempotencyKeyStore;
+import com.adhitya.paymgmt.service.LoginMetrics;
+import com.adhitya.paymgmt.service.LoginRateLimiter;
+import com.adhitya.paymgmt.service.PasswordVerifier;
+import com.adhitya.paymgmt.service.PaymentIngestionPipeline;
 import com.adhitya.paymgmt.service.PaymentService;
 import com.adhitya.paymgmt.service.ReportService;
+import com.adhitya.paymgmt.service.SessionService;
+import com.adhitya.paymgmt.service.WorkloadScheduler;
+import com.adhitya.paymgmt.util.PasswordUtil;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Scanner;
 
 public class AppConfig {
@@ -23,30 +45,200 @@ public class AppConfig {
   public final AuthService userService;
   public final EmployeeService employeeService;
   public final CounterpartyService counterpartyService;
+  public final AuditPartitionMaintenance auditPartitionMaintenance;
+  public final PaymentIngestionPipeline paymentIngestionPipeline;
+  public final WorkloadScheduler workloadScheduler;
+  public final PaymentColumnStore paymentColumnStore;
+  public final PaymentBitmapIndex paymentBitmapIndex;
+  public final ChangeNotificationListener changeNotificationListener;
 
   public final Scanner scanner;
   public final MainMenu mainMenu;
 
   public AppConfig() {
-    UserRepository userRepo = new UserRepository();
+    new SchemaMigrator().migrate();
+    // Reporting, listings and audit scans go to the replica while it keeps up
+    DatabaseConfig.getRouter().start(Duration.ofSeconds(2));
+    Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConfig.getRouter()::stop, "replica-monitor-stop"));
+
+    UserRepository userRepo = new UserRepository(100_000, 0.001);
     EmployeeRepository employeeRepo = new EmployeeRepository();
     CounterpartyRepository counterpartyRepo = new CounterpartyRepository();
     PaymentRepository paymentRepo = new PaymentRepository(userRepo,employeeRepo,counterpartyRepo);
     AuditLogRepository auditRepo = new AuditLogRepository(paymentRepo,userRepo);
 
-    this.userService = new AuthService(userRepo);
-    this.authService = new AuthService(userRepo);
-    this.paymentService = new PaymentService(paymentRepo, auditRepo, userRepo);
-    this.auditService = new AuditService(auditRepo);
+    // Pick the bcrypt cost for this host; older hashes are upgraded on next login
+    PasswordUtil.calibrate(Duration.ofMillis(250));
+    LoginMetrics loginMetrics = new LoginMetrics();
+    PasswordVerifier passwordVerifier = new PasswordVerifier(
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 64, Duration.ofSeconds(5), loginMetrics);
+    SessionService sessionService = new SessionService(Duration.ofMinutes(15), Duration.ofMinutes(1));
+    this.authService = new AuthService(
+      userRepo,
+      new LoginRateLimiter(40, 20, 5, 5 / 60d, loginMetrics),
+      passwordVerifier,
+      loginMetrics,
+      sessionService
+    );
+    this.userService = authService;
+    // One writer per directory; run further instances with their own paymgmt.audit.journalDir
+    AuditJournal auditJournal = new AuditJournal(
+      Path.of(System.getProperty("paymgmt.audit.journalDir", "journal/audit")), 64 * 1024 * 1024);
+    Runtime.getRuntime().addShutdownHook(new Thread(auditJournal::close, "audit-journal-close"));
+
+    this.auditService = new AuditService(auditRepo, auditJournal);
+    IdempotencyKeyStore idempotencyKeys = new IdempotencyKeyStore(paymentRepo, Duration.ofHours(24), 100_000);
+    idempotencyKeys.start(Duration.ofMinutes(10));
+    this.paymentService = new PaymentService(paymentRepo, auditService, userRepo, idempotencyKeys);
+    this.paymentIngestionPipeline = new PaymentIngestionPipeline(paymentRepo, 8192, 500);
+    this.paymentIngestionPipeline.start();
+
+    // Columnar replica for analytics; queries fall back to SQL until the bulk load finishes
+    this.paymentColumnStore = new PaymentColumnStore(1 << 16);
+    paymentService.useColumnStore(paymentColumnStore);
+    paymentIngestionPipeline.addChangeListener(paymentColumnStore);
+    // Registered after the store so a change reaches the store before the index
+    this.paymentBitmapIndex = new PaymentBitmapIndex();
+    paymentService.useBitmapIndex(paymentBitmapIndex);
+    paymentIngestionPipeline.addChangeListener(paymentBitmapIndex);
+    PaymentSnapshotManager snapshotManager =
+      new PaymentSnapshotManager(paymentColumnStore, paymentRepo, Path.of("snapshot", "payments.snap"));
+    // Applies writes made by other instances to this instance's caches; started before the
+    // caches load so that nothing committed in between is missed
+    this.changeNotificationListener = new ChangeNotificationListener(Duration.ofMillis(100), Duration.ofSeconds(1));
+    changeNotificationListener.register(ChangeNotifications.Entity.PAYMENT,
+      paymentService::refreshPayments, paymentService::reloadPaymentCaches);
+    changeNotificationListener.register(ChangeNotifications.Entity.USER,
+      authService::refreshUsers, authService::reloadUserCaches);
+    changeNotificationListener.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(changeNotificationListener::stop, "change-notification-stop"));
+    changeNotificationListener.awaitListening(Duration.ofSeconds(5));
+    userRepo.loadUsernameFilter();
+    Thread columnStoreLoader = new Thread(() -> {
+      snapshotManager.warmStart();
+      paymentBitmapIndex.build(paymentColumnStore);
+      snapshotManager.start(Duration.ofMinutes(15));
+    }, "column-store-load");
+    columnStoreLoader.setDaemon(true);
+    columnStoreLoader.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(snapshotManager::stop, "payment-snapshot-write"));
+    Runtime.getRuntime().addShutdownHook(new Thread(
+      () -> paymentIngestionPipeline.stop(Duration.ofSeconds(10)), "payment-ingest-stop"));
     this.reportService = new ReportService(paymentService, employeeRepo, counterpartyRepo);
     this.employeeService = new EmployeeService(employeeRepo);
     this.counterpartyService = new CounterpartyService(counterpartyRepo);
+    this.auditPartitionMaintenance = new AuditPartitionMaintenance(
+      new AuditPartitionRepository(), Path.of("archive", "audit_logs"), 3, 24);
+    this.auditPartitionMaintenance.start(Duration.ofHours(6));
+    // Interactive work and reporting get separate session quotas, queues and statement timeouts
+    this.workloadScheduler = new WorkloadScheduler(
+      new WorkloadScheduler.ClassConfig(12, 200, Duration.ofSeconds(5)),
+      new WorkloadScheduler.ClassConfig(3, 12, Duration.ofMinutes(2)));
+    // Console menus and the HTTP API reach these services, so they schedule their own entry points
+    paymentService.useScheduler(workloadScheduler);
+    reportService.useScheduler(workloadScheduler);
+    auditService.useScheduler(workloadScheduler);
+    // Prometheus text on a loopback port and a periodic summary in the log
+    registerGauges(Metrics.registry(), loginMetrics, passwordVerifier, sessionService);
+    startMetricsExport(Metrics.registry());
     this.scanner = new Scanner(System.in);
     this.mainMenu = new MainMenu(scanner,authService,counterpartyService,employeeService,paymentService,auditService,reportService,counterpartyRepo,employeeRepo);
   }
 
+  /**
+   * Publishes the counters components already keep, so they are scraped
+   * alongside the operation timers.
+   */
+  private void registerGauges(MetricsRegistry registry, LoginMetrics loginMetrics,
+                              PasswordVerifier passwordVerifier, SessionService sessionService) {
+    registry.counterFunction("paymgmt_login_verifications_total", "Completed password verifications",
+      () -> loginMetrics.snapshot().verifications());
+    registry.counterFunction("paymgmt_login_rejected_total", "Login attempts turned away",
+      () -> loginMetrics.snapshot().rateLimitedGlobal(), "reason", "rate_limited_global");
+    registry.counterFunction("paymgmt_login_rejected_total", "Login attempts turned away",
+      () -> loginMetrics.snapshot().rateLimitedUser(), "reason", "rate_limited_user");
+    registry.counterFunction("paymgmt_login_rejected_total", "Login attempts turned away",
+      () -> loginMetrics.snapshot().rejectedQueueFull(), "reason", "queue_full");
+    registry.counterFunction("paymgmt_login_rejected_total", "Login attempts turned away",
+      () -> loginMetrics.snapshot().timedOut(), "reason", "timed_out");
+    registry.gauge("paymgmt_login_verifications_in_flight", "Password verifications queued or running",
+      passwordVerifier::inFlight);
+    registry.gauge("paymgmt_sessions_active", "Unexpired session tokens", sessionService::activeSessions);
+
+    for (WorkloadClass workloadClass : WorkloadClass.values()) {
+      String label = workloadClass.name();
+      registry.gauge("paymgmt_workload_running", "Tasks executing per workload class",
+        () -> workloadScheduler.snapshot(workloadClass).running(), "class", label);
+      registry.gauge("paymgmt_workload_queued", "Tasks waiting per workload class",
+        () -> workloadScheduler.snapshot(workloadClass).queued(), "class", label);
+      registry.counterFunction("paymgmt_workload_tasks_total", "Finished tasks per workload class and outcome",
+        () -> workloadScheduler.snapshot(workloadClass).completed(), "class", label, "outcome", "completed");
+      registry.counterFunction("paymgmt_workload_tasks_total", "Finished tasks per workload class and outcome",
+        () -> workloadScheduler.snapshot(workloadClass).failed(), "class", label, "outcome", "failed");
+      registry.counterFunction("paymgmt_workload_tasks_total", "Finished tasks per workload class and outcome",
+        () -> workloadScheduler.snapshot(workloadClass).rejected(), "class", label, "outcome", "rejected");
+      registry.counterFunction("paymgmt_workload_tasks_total", "Finished tasks per workload class and outcome",
+        () -> workloadScheduler.snapshot(workloadClass).timedOut(), "class", label, "outcome", "timed_out");
+    }
+
+    registry.counterFunction("paymgmt_ingest_payments_total", "Payments through the ingestion pipeline by outcome",
+      () -> paymentIngestionPipeline.getStats().accepted(), "outcome", "accepted");
+    registry.counterFunction("paymgmt_ingest_payments_total", "Payments through the ingestion pipeline by outcome",
+      () -> paymentIngestionPipeline.getStats().rejected(), "outcome", "rejected");
+    registry.counterFunction("paymgmt_ingest_payments_total", "Payments through the ingestion pipeline by outcome",
+      () -> paymentIngestionPipeline.getStats().committed(), "outcome", "committed");
+    registry.counterFunction("paymgmt_ingest_payments_total", "Payments through the ingestion pipeline by outcome",
+      () -> paymentIngestionPipeline.getStats().failed(), "outcome", "failed");
+    registry.gauge("paymgmt_ingest_backlog", "Payments accepted but not yet written",
+      () -> paymentIngestionPipeline.getStats().backlog());
+
+    ReplicaRouter router = DatabaseConfig.getRouter();
+    for (DataSourceRoute route : DataSourceRoute.values()) {
+      registry.counterFunction("paymgmt_db_connections_opened_total", "Connections opened per route",
+        () -> router.snapshot(route).connections(), "route", route.name());
+      registry.counterFunction("paymgmt_db_connection_failures_total", "Failed connection attempts per route",
+        () -> router.snapshot(route).failures(), "route", route.name());
+    }
+    registry.gauge("paymgmt_db_replica_healthy", "1 while reads may be served by the replica",
+      () -> router.replicaStatus().healthy() ? 1 : 0);
+    registry.gauge("paymgmt_db_replica_lag_seconds", "Replica replay lag at the last check, -1 if unknown",
+      () -> router.replicaStatus().lagMillis() < 0 ? -1 : router.replicaStatus().lagMillis() / 1000d);
+    registry.counterFunction("paymgmt_db_replica_fallbacks_total", "Replica reads sent to the primary",
+      () -> router.replicaStatus().fallbacks());
+
+    registry.gauge("paymgmt_column_store_payments", "Payments held by the column store",
+      paymentColumnStore::size);
+    registry.gauge("paymgmt_column_store_bytes", "Approximate heap used by the column store",
+      paymentColumnStore::memoryBytes);
+  }
+
+  /**
+   * Serves the registry on {@code paymgmt.metrics.port} (default 9404) and logs a
+   * summary every {@code paymgmt.metrics.logIntervalSeconds} (default 60); a
+   * value of 0 turns either off.
+   */
+  private static void startMetricsExport(MetricsRegistry registry) {
+    int port = Integer.getInteger("paymgmt.metrics.port", 9404);
+    if (port > 0) {
+      MetricsEndpoint endpoint = new MetricsEndpoint(registry, port);
+      endpoint.start();
+      Runtime.getRuntime().addShutdownHook(new Thread(endpoint::stop, "metrics-endpoint-stop"));
+    }
+    long logIntervalSeconds = Long.getLong("paymgmt.metrics.logIntervalSeconds", 60);
+    if (logIntervalSeconds > 0) {
+      new MetricsReporter(registry, DatabaseConfig.CONNECTION_WAIT_METRIC)
+        .start(Duration.ofSeconds(logIntervalSeconds));
+    }
+  }
+
   public MainMenu getMainMenu() {
     return this.mainMenu;
   }
+
+  /** Builds the HTTP API over the same services the console menus use. */
+  public ApiServer createApiServer(int port, int workerThreads) {
+    return new ApiServer(port, workerThreads, authService, paymentService, reportService,
+      auditService, employeeService, counterpartyService, paymentIngestionPipeline, workloadScheduler);
+  }
 }
 
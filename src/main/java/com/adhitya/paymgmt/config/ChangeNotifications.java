@@ -0,0 +1,112 @@
+package com.adhitya.paymgmt.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Cross-instance change notifications over PostgreSQL {@code NOTIFY}. Repositories
+ * publish the IDs of rows they wrote on the same connection as the write, so a
+ * notification inside a transaction is delivered only if, and when, it commits.
+ *
+ * <p>Payload format: {@code <node ID>:<entity>:<id>,<id>,...}. Every instance tags
+ * its notifications with its own node ID so it can skip the ones it sent itself.</p>
+ */
+public final class ChangeNotifications {
+  private static final Logger logger = LoggerFactory.getLogger(ChangeNotifications.class);
+
+  public static final String CHANNEL = "paymgmt_changes";
+
+  /** Identifies this process among the instances sharing the database. */
+  public static final String NODE_ID = UUID.randomUUID().toString().substring(0, 8);
+
+  // NOTIFY payloads are limited to 8000 bytes; leave room for the prefix
+  private static final int MAX_IDS_PER_NOTIFICATION = 600;
+
+  /** Kinds of rows whose changes are broadcast. */
+  public enum Entity {
+    PAYMENT,
+    USER,
+    EMPLOYEE,
+    COUNTERPARTY
+  }
+
+  /**
+   * A decoded notification.
+   *
+   * @param nodeId node that made the change
+   * @param entity kind of row changed
+   * @param ids    IDs of the changed rows
+   */
+  public record Change(String nodeId, Entity entity, int[] ids) {
+    public boolean isLocal() {
+      return NODE_ID.equals(nodeId);
+    }
+  }
+
+  private ChangeNotifications() {}
+
+  /** Publishes that the given rows changed. Sent at commit when the connection is in a transaction. */
+  public static void publish(Connection connection, Entity entity, int... ids) throws SQLException {
+    if (ids.length == 0) {
+      return;
+    }
+    try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+      for (int from = 0; from < ids.length; from += MAX_IDS_PER_NOTIFICATION) {
+        int[] chunk = Arrays.copyOfRange(ids, from, Math.min(ids.length, from + MAX_IDS_PER_NOTIFICATION));
+        statement.setString(1, CHANNEL);
+        statement.setString(2, encode(entity, chunk));
+        statement.executeQuery().close();
+      }
+    }
+  }
+
+  /**
+   * Publishes changes whose write has already been committed, e.g. in auto-commit
+   * mode. A failure is only logged: the write stands, and other instances catch up
+   * on their next reconnect flush.
+   */
+  public static void publishCommitted(Connection connection, Entity entity, int... ids) {
+    try {
+      publish(connection, entity, ids);
+    }
+    catch (SQLException ex) {
+      logger.warn("Failed to publish {} change notification for IDs {}", entity, Arrays.toString(ids), ex);
+    }
+  }
+
+  /** Decodes a payload; returns null if it is not in the expected format. */
+  public static Change parse(String payload) {
+    if (payload == null) {
+      return null;
+    }
+    String[] parts = payload.split(":", 3);
+    if (parts.length != 3) {
+      return null;
+    }
+    try {
+      Entity entity = Entity.valueOf(parts[1]);
+      int[] ids = Arrays.stream(parts[2].split(",")).mapToInt(Integer::parseInt).toArray();
+      return new Change(parts[0], entity, ids);
+    }
+    catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private static String encode(Entity entity, int[] ids) {
+    StringBuilder payload = new StringBuilder(NODE_ID).append(':').append(entity.name()).append(':');
+    for (int i = 0; i < ids.length; i++) {
+      if (i > 0) {
+        payload.append(',');
+      }
+      payload.append(ids[i]);
+    }
+    return payload.toString();
+  }
+}
@@ -0,0 +1,9 @@
+package com.adhitya.paymgmt.config;
+
+/** Database servers a connection can be routed to. */
+public enum DataSourceRoute {
+  /** The writable primary; all writes and read-your-writes lookups. */
+  PRIMARY,
+  /** A streaming read replica; reporting, listings and audit scans that tolerate bounded staleness. */
+  REPLICA
+}
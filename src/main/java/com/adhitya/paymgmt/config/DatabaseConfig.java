@@ -1,15 +1,84 @@
 package com.adhitya.paymgmt.config;
 
+import com.adhitya.paymgmt.metrics.LatencyHistogram;
+import com.adhitya.paymgmt.metrics.Metrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
 
+/**
+ * Opens database connections. The primary URL, an optional read-replica URL,
+ * credentials and the replica's allowed lag can be overridden with the system
+ * properties {@code paymgmt.db.url}, {@code paymgmt.db.replicaUrl},
+ * {@code paymgmt.db.user}, {@code paymgmt.db.password} and
+ * {@code paymgmt.db.replicaMaxLagMillis}.
+ *
+ * <p>Connections are wrapped by a {@link StatementInspector} unless
+ * {@code paymgmt.db.inspectStatements} is false. Statements slower than
+ * {@code paymgmt.db.slowQueryMillis} (default 500) are logged, with a plan when
+ * {@code paymgmt.db.explainSlowQueries} is PLAN or ANALYZE, and an operation
+ * repeating one statement {@code paymgmt.db.nPlusOneThreshold} times (default
+ * 10) is reported as a likely N+1.
+ */
 public class DatabaseConfig {
+  /** Histogram family timing how long callers wait for a connection, per requested route. */
+  public static final String CONNECTION_WAIT_METRIC = "paymgmt_db_connection_wait_seconds";
+
+  private static final String URL =
+    System.getProperty("paymgmt.db.url", "jdbc:postgresql://localhost:5432/miniproject1_test");
+  private static final String USER_NAME = System.getProperty("paymgmt.db.user", "postgres");
+  private static final String PASSWORD = System.getProperty("paymgmt.db.password", "Penguin@1804");
+
+  private static final ReplicaRouter ROUTER = new ReplicaRouter(URL, System.getProperty("paymgmt.db.replicaUrl"),
+    Duration.ofMillis(Long.getLong("paymgmt.db.replicaMaxLagMillis", 5_000)), credentials());
+  private static final StatementInspector INSPECTOR = Boolean.parseBoolean(
+    System.getProperty("paymgmt.db.inspectStatements", "true"))
+    ? new StatementInspector(Duration.ofMillis(Long.getLong("paymgmt.db.slowQueryMillis", 500)),
+      StatementInspector.Explain.valueOf(System.getProperty("paymgmt.db.explainSlowQueries", "OFF").toUpperCase()),
+      Integer.getInteger("paymgmt.db.nPlusOneThreshold", 10))
+    : null;
+  private static final Map<DataSourceRoute, LatencyHistogram> CONNECTION_WAIT = new EnumMap<>(DataSourceRoute.class);
+
+  static {
+    for (DataSourceRoute route : DataSourceRoute.values()) {
+      CONNECTION_WAIT.put(route, Metrics.registry().histogram(CONNECTION_WAIT_METRIC,
+        "Time taken to obtain a database connection", "route", route.name()));
+    }
+  }
+
   public static Connection getConnection() throws SQLException {
-    String url = "jdbc:postgresql://localhost:5432/miniproject1_test";
-    String userName = "postgres";
-    String password = "Penguin@1804";
+    Properties properties = credentials();
+
+    // Work scheduled under a workload class gets that class's statement timeout
+    Duration statementTimeout = WorkloadContext.currentStatementTimeout();
+    if (statementTimeout != null) {
+      properties.setProperty("options", "-c statement_timeout=" + statementTimeout.toMillis());
+    }
+
+    // Reporting and listing work may be served by the replica
+    DataSourceRoute route = ReadRouting.currentRoute();
+    long startNanos = System.nanoTime();
+    Connection connection = ROUTER.connect(route, properties);
+    CONNECTION_WAIT.get(route).record(System.nanoTime() - startNanos);
+    // Lets async callers cancel the statement running on this connection
+    QueryCancellation.track(connection);
+    // Counts statements per operation, flags N+1 lookups and logs slow statements
+    return INSPECTOR != null ? INSPECTOR.wrap(connection) : connection;
+  }
+
+  /** Returns the router choosing between the primary and the read replica. */
+  public static ReplicaRouter getRouter() {
+    return ROUTER;
+  }
 
-    return DriverManager.getConnection(url,userName,password);
+  private static Properties credentials() {
+    Properties properties = new Properties();
+    properties.setProperty("user", USER_NAME);
+    properties.setProperty("password", PASSWORD);
+    return properties;
   }
 }
@@ -0,0 +1,81 @@
+package com.adhitya.paymgmt.config;
+
+import org.postgresql.core.BaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cancellation scope for blocking repository calls. While work runs inside
+ * {@link #runWithin(Supplier)}, every connection handed out by
+ * {@link DatabaseConfig#getConnection()} on that thread is tracked, and
+ * {@link #cancel()} sends a PostgreSQL cancel request for whatever statement
+ * is executing on them (the same request {@code Statement.cancel()} issues).
+ */
+public final class QueryCancellation {
+  private static final Logger logger = LoggerFactory.getLogger(QueryCancellation.class);
+  private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+
+  private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+  private volatile boolean cancelled;
+
+  /** Runs the work with this scope bound to the current thread. */
+  public <T> T runWithin(Supplier<T> work) {
+    QueryCancellation previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return work.get();
+    }
+    finally {
+      CURRENT.set(previous);
+      connections.clear();
+    }
+  }
+
+  /** Cancels the statements currently running in this scope and rejects new connections. */
+  public void cancel() {
+    cancelled = true;
+    for (Connection connection : connections) {
+      try {
+        if (!connection.isClosed()) {
+          connection.unwrap(BaseConnection.class).cancelQuery();
+        }
+      }
+      catch (SQLException ex) {
+        logger.warn("Failed to cancel running query", ex);
+      }
+    }
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /** Tracks a freshly opened connection in the current thread's scope, if there is one. */
+  static void track(Connection connection) throws SQLException {
+    QueryCancellation scope = CURRENT.get();
+    if (scope == null) {
+      return;
+    }
+    if (scope.cancelled) {
+      connection.close();
+      throw new SQLException("Query cancelled", "57014");
+    }
+    scope.connections.removeIf(QueryCancellation::isClosedQuietly);
+    scope.connections.add(connection);
+  }
+
+  private static boolean isClosedQuietly(Connection connection) {
+    try {
+      return connection.isClosed();
+    }
+    catch (SQLException ex) {
+      return true;
+    }
+  }
+}
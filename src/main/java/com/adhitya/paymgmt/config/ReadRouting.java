@@ -0,0 +1,51 @@
+package com.adhitya.paymgmt.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Binds the preferred {@link DataSourceRoute} for connections opened on the
+ * current thread. Without an explicit preference, work scheduled in the
+ * {@link WorkloadClass#ANALYTICS} class prefers the replica and everything else
+ * uses the primary. A replica preference is only a hint: {@link ReplicaRouter}
+ * falls back to the primary when the replica is down or lagging.
+ */
+public final class ReadRouting {
+  private static final ThreadLocal<DataSourceRoute> CURRENT = new ThreadLocal<>();
+
+  private ReadRouting() {}
+
+  /** Runs read-only work that may be served by a replica. */
+  public static <T> T onReplica(Supplier<T> work) {
+    return runWith(DataSourceRoute.REPLICA, work);
+  }
+
+  /** Runs work that must see the latest committed data, even inside a replica scope. */
+  public static <T> T onPrimary(Supplier<T> work) {
+    return runWith(DataSourceRoute.PRIMARY, work);
+  }
+
+  /** Returns the route preferred by the work running on the current thread. */
+  public static DataSourceRoute currentRoute() {
+    DataSourceRoute route = CURRENT.get();
+    if (route != null) {
+      return route;
+    }
+    return WorkloadContext.currentClass() == WorkloadClass.ANALYTICS ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+  }
+
+  private static <T> T runWith(DataSourceRoute route, Supplier<T> work) {
+    DataSourceRoute previous = CURRENT.get();
+    CURRENT.set(route);
+    try {
+      return work.get();
+    }
+    finally {
+      if (previous == null) {
+        CURRENT.remove();
+      }
+      else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+}
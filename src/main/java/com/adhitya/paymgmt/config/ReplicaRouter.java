@@ -0,0 +1,197 @@
+package com.adhitya.paymgmt.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses between the primary and an optional read replica for each new
+ * connection. A background check measures the replica's replay lag; while the
+ * replica is unreachable, not yet checked, or lagging by more than the allowed
+ * maximum, replica-preferring work is sent to the primary instead. Connection
+ * counts, failures, fallbacks and connect latency are kept per route.
+ */
+public class ReplicaRouter {
+  private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+  // Zero when the replica has replayed everything it received, so an idle primary doesn't read as lag
+  private static final String LAG_SQL =
+    "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+    "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+    "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+  private final String primaryUrl;
+  private final String replicaUrl;
+  private final long maxLagMillis;
+  private final Properties credentials;
+  private final Map<DataSourceRoute, RouteStats> stats = new EnumMap<>(DataSourceRoute.class);
+  private final LongAdder fallbacks = new LongAdder();
+
+  private volatile boolean replicaHealthy;
+  private volatile long replicaLagMillis = -1;
+  private ScheduledExecutorService monitor;
+  private Connection monitorConnection;
+
+  /**
+   * Metrics for one route.
+   *
+   * @param route            route the metrics belong to
+   * @param connections      connections opened
+   * @param failures         connection attempts that failed
+   * @param avgConnectMillis mean time to open a connection
+   * @param maxConnectMillis longest time to open a connection
+   */
+  public record RouteSnapshot(DataSourceRoute route, long connections, long failures,
+                              double avgConnectMillis, double maxConnectMillis) {}
+
+  /**
+   * Replica state.
+   *
+   * @param configured whether a replica URL is set
+   * @param healthy    whether the last lag check succeeded within the allowed lag
+   * @param lagMillis  replay lag at the last successful check, or -1 if unknown
+   * @param fallbacks  replica-preferring connections that were sent to the primary
+   */
+  public record ReplicaStatus(boolean configured, boolean healthy, long lagMillis, long fallbacks) {}
+
+  private static final class RouteStats {
+    final LongAdder connections = new LongAdder();
+    final LongAdder failures = new LongAdder();
+    final LongAdder connectNanos = new LongAdder();
+    final LongAccumulator maxConnectNanos = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   * @param primaryUrl  JDBC URL of the primary
+   * @param replicaUrl  JDBC URL of the replica, or null to send everything to the primary
+   * @param maxLag      largest replay lag at which the replica is still used
+   * @param credentials user and password shared by both servers
+   */
+  public ReplicaRouter(String primaryUrl, String replicaUrl, Duration maxLag, Properties credentials) {
+    this.primaryUrl = primaryUrl;
+    this.replicaUrl = replicaUrl == null || replicaUrl.isBlank() ? null : replicaUrl;
+    this.maxLagMillis = maxLag.toMillis();
+    this.credentials = credentials;
+    for (DataSourceRoute route : DataSourceRoute.values()) {
+      stats.put(route, new RouteStats());
+    }
+  }
+
+  /** Opens a connection on the requested route, or on the primary if the replica is unusable. */
+  Connection connect(DataSourceRoute requested, Properties properties) throws SQLException {
+    if (requested == DataSourceRoute.REPLICA) {
+      if (replicaHealthy) {
+        try {
+          return open(DataSourceRoute.REPLICA, replicaUrl, properties);
+        }
+        catch (SQLException ex) {
+          replicaHealthy = false;
+          logger.warn("Replica connection failed; routing reads to the primary until it recovers", ex);
+        }
+      }
+      fallbacks.increment();
+    }
+    return open(DataSourceRoute.PRIMARY, primaryUrl, properties);
+  }
+
+  /** Starts checking the replica's lag at the given interval; does nothing without a replica. */
+  public synchronized void start(Duration interval) {
+    if (replicaUrl == null || monitor != null) {
+      return;
+    }
+    monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    monitor.scheduleWithFixedDelay(this::checkLag, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (monitor != null) {
+      monitor.shutdownNow();
+      monitor = null;
+    }
+  }
+
+  public RouteSnapshot snapshot(DataSourceRoute route) {
+    RouteStats routeStats = stats.get(route);
+    long opened = routeStats.connections.sum();
+    return new RouteSnapshot(route, opened, routeStats.failures.sum(),
+      routeStats.connectNanos.sum() / 1e6 / Math.max(1, opened), routeStats.maxConnectNanos.get() / 1e6);
+  }
+
+  public ReplicaStatus replicaStatus() {
+    return new ReplicaStatus(replicaUrl != null, replicaHealthy, replicaLagMillis, fallbacks.sum());
+  }
+
+  private Connection open(DataSourceRoute route, String url, Properties properties) throws SQLException {
+    RouteStats routeStats = stats.get(route);
+    long started = System.nanoTime();
+    try {
+      Connection connection = DriverManager.getConnection(url, properties);
+      long elapsed = System.nanoTime() - started;
+      routeStats.connections.increment();
+      routeStats.connectNanos.add(elapsed);
+      routeStats.maxConnectNanos.accumulate(elapsed);
+      return connection;
+    }
+    catch (SQLException ex) {
+      routeStats.failures.increment();
+      throw ex;
+    }
+  }
+
+  private void checkLag() {
+    try {
+      if (monitorConnection == null || monitorConnection.isClosed()) {
+        monitorConnection = DriverManager.getConnection(replicaUrl, credentials);
+      }
+      try (Statement statement = monitorConnection.createStatement();
+           ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+        resultSet.next();
+        long lag = (long) resultSet.getDouble(1);
+        boolean healthy = lag <= maxLagMillis;
+        if (healthy != replicaHealthy) {
+          logger.info("Replica {} reads (lag {} ms, limit {} ms)", healthy ? "resuming" : "suspending",
+            lag, maxLagMillis);
+        }
+        replicaLagMillis = lag;
+        replicaHealthy = healthy;
+      }
+    }
+    catch (SQLException | RuntimeException ex) {
+      if (replicaHealthy) {
+        logger.warn("Replica lag check failed; routing reads to the primary", ex);
+      }
+      replicaHealthy = false;
+      closeMonitorConnection();
+    }
+  }
+
+  private void closeMonitorConnection() {
+    if (monitorConnection != null) {
+      try {
+        monitorConnection.close();
+      }
+      catch (SQLException ex) {
+        logger.debug("Failed to close replica monitor connection", ex);
+      }
+      monitorConnection = null;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.adhitya.paymgmt.config;
+
+import com.adhitya.paymgmt.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies versioned SQL migrations from {@code db/migration} on the classpath.
+ * Applied versions are recorded in {@code schema_migrations}, so each script runs
+ * exactly once per database. Scripts run in their own transaction under an advisory
+ * lock, which keeps several instances starting at once from racing each other.
+ */
+public class SchemaMigrator {
+  private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+  // Arbitrary application-wide key for pg_advisory_xact_lock
+  private static final long MIGRATION_LOCK_KEY = 7_284_310_001L;
+
+  // Ordered list of migration scripts; append new versions at the end
+  private static final List<String> MIGRATIONS = List.of(
+    "V1__partition_audit_logs.sql",
+    "V2__payment_idempotency_keys.sql",
+    "V3__payments_updated_at_index.sql",
+    "V4__payment_search.sql",
+    "V5__scope_idempotency_keys.sql",
+    "V6__payments_created_at_index.sql",
+    "V7__payments_amount_scale.sql"
+  );
+
+  /** Applies every migration not yet recorded in schema_migrations. */
+  public void migrate() {
+    try (Connection connection = DatabaseConfig.getConnection()) {
+      ensureHistoryTable(connection);
+      Set<String> applied = findAppliedVersions(connection);
+
+      for (String script : MIGRATIONS) {
+        String version = script.substring(0, script.indexOf("__"));
+        if (!applied.contains(version)) {
+          apply(connection, version, script);
+        }
+      }
+    }
+    catch (SQLException ex) {
+      logger.error("Schema migration failed", ex);
+      throw new DataAccessException("Failed to migrate database schema", ex);
+    }
+  }
+
+  private void ensureHistoryTable(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                        "version varchar PRIMARY KEY, " +
+                        "script varchar NOT NULL, " +
+                        "applied_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+    }
+  }
+
+  private Set<String> findAppliedVersions(Connection connection) throws SQLException {
+    Set<String> versions = new HashSet<>();
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery("SELECT version FROM schema_migrations")) {
+      while (resultSet.next()) {
+        versions.add(resultSet.getString("version"));
+      }
+    }
+    return versions;
+  }
+
+  private void apply(Connection connection, String version, String script) throws SQLException {
+    String sql = readScript(script);
+    connection.setAutoCommit(false);
+
+    try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)");
+         PreparedStatement check = connection.prepareStatement("SELECT 1 FROM schema_migrations WHERE version = ?");
+         PreparedStatement record = connection.prepareStatement(
+           "INSERT INTO schema_migrations (version, script) VALUES (?, ?)");
+         Statement statement = connection.createStatement()
+    ) {
+      lock.setLong(1, MIGRATION_LOCK_KEY);
+      lock.execute();
+
+      // Another instance may have applied it while we waited for the lock
+      check.setString(1, version);
+      try (ResultSet resultSet = check.executeQuery()) {
+        if (resultSet.next()) {
+          connection.commit();
+          return;
+        }
+      }
+
+      logger.info("Applying schema migration {}", script);
+      statement.execute(sql);
+
+      record.setString(1, version);
+      record.setString(2, script);
+      record.executeUpdate();
+
+      connection.commit();
+    }
+    catch (SQLException ex) {
+      connection.rollback();
+      throw ex;
+    }
+    finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  private String readScript(String script) {
+    try (InputStream in = SchemaMigrator.class.getResourceAsStream("/db/migration/" + script)) {
+      if (in == null) {
+        throw new DataAccessException("Migration script not found: " + script);
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    catch (IOException ex) {
+      throw new DataAccessException("Failed to read migration script: " + script, ex);
+    }
+  }
+}
@@ -0,0 +1,392 @@
+package com.adhitya.paymgmt.config;
+
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wraps connections handed out by {@link DatabaseConfig} so every statement
+ * executed on them is counted against the operations open on the calling
+ * thread (see {@link OperationTimer}), repeated statements are flagged as
+ * likely N+1 patterns, and slow statements are logged with their parameters.
+ *
+ * <p>The logical operation is the outermost timing on the thread, e.g. an API
+ * request or a service call. When it executes the same SQL text
+ * {@code nPlusOneThreshold} times, typically a lookup per row of an outer
+ * query, one warning names the statement and the operations it ran under.
+ *
+ * <p>Only connections and statements are proxied, not result sets, so the cost
+ * is a few reflective calls per statement and nothing per row. Warnings and
+ * plans are logged at most once a minute per statement and operation.
+ */
+public class StatementInspector {
+  private static final Logger logger = LoggerFactory.getLogger(StatementInspector.class);
+
+  private static final long LOG_INTERVAL_NANOS = Duration.ofMinutes(1).toNanos();
+  // Operations issuing more distinct statements than this stop being tracked for N+1
+  private static final int MAX_TRACKED_SHAPES = 256;
+  private static final int MAX_PARAMETER_LENGTH = 100;
+  private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(select|with)\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern MODIFYING = Pattern.compile("\\b(insert|update|delete|merge)\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern QUOTED = Pattern.compile("'(?:[^']|'')*'|\"(?:[^\"]|\"\")*\"");
+  private static final Pattern CALL = Pattern.compile("\\b([a-z_][a-z0-9_]*)\\s*\\(", Pattern.CASE_INSENSITIVE);
+  // Keywords that precede a parenthesis and functions known to have no side effects. A
+  // SELECT calling anything else, e.g. pg_notify or pg_advisory_xact_lock, is not analyzed
+  private static final Set<String> SIDE_EFFECT_FREE = Set.of(
+    "select", "from", "join", "on", "using", "where", "and", "or", "not", "in", "exists", "any", "all", "as",
+    "values", "over", "filter", "partition", "case", "when", "then", "else", "is", "between", "like", "ilike",
+    "cast", "extract", "coalesce", "nullif", "greatest", "least", "numeric", "varchar", "timestamp", "interval",
+    "count", "sum", "avg", "min", "max", "bool_and", "bool_or", "array_agg", "string_agg",
+    "row_number", "rank", "dense_rank", "lower", "upper", "length", "substring", "trim", "abs", "round",
+    "now", "date_trunc", "to_tsvector", "to_tsquery", "plainto_tsquery", "websearch_to_tsquery",
+    "ts_rank", "ts_rank_cd", "similarity", "word_similarity");
+
+  /** What to run for a slow statement besides logging it. */
+  public enum Explain {
+    /** Log the statement and its parameters only. */
+    OFF,
+    /** Also log the planner's estimate from {@code EXPLAIN}; the statement is not run again. */
+    PLAN,
+    /**
+     * Also log {@code EXPLAIN (ANALYZE, BUFFERS)}, which runs the statement a second time.
+     * Statements calling functions that may have side effects get a plain {@code EXPLAIN}.
+     */
+    ANALYZE
+  }
+
+  private final long slowNanos;
+  private final Explain explain;
+  private final int nPlusOneThreshold;
+  private final ThreadLocal<OperationStatements> operations = ThreadLocal.withInitial(OperationStatements::new);
+  private final ConcurrentMap<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+  private final LongAdder statements;
+  private final LongAdder slowStatements;
+  private final ConcurrentMap<String, LongAdder> nPlusOneByOperation = new ConcurrentHashMap<>();
+
+  /**
+   * @param slowThreshold     statements running at least this long are logged
+   * @param explain           whether slow SELECTs are explained
+   * @param nPlusOneThreshold executions of the same statement within one operation that count as N+1
+   */
+  public StatementInspector(Duration slowThreshold, Explain explain, int nPlusOneThreshold) {
+    if (nPlusOneThreshold < 2) {
+      throw new IllegalArgumentException("N+1 threshold must be at least 2");
+    }
+    this.slowNanos = slowThreshold.toNanos();
+    this.explain = explain;
+    this.nPlusOneThreshold = nPlusOneThreshold;
+    this.statements = Metrics.registry().counter("paymgmt_db_statements_total", "Statements executed");
+    this.slowStatements = Metrics.registry().counter("paymgmt_db_slow_statements_total",
+      "Statements that ran longer than the slow-query threshold");
+  }
+
+  /** Returns a connection that inspects every statement executed through it. */
+  public Connection wrap(Connection connection) {
+    ConnectionHandler handler = new ConnectionHandler(connection);
+    handler.proxy = (Connection) Proxy.newProxyInstance(StatementInspector.class.getClassLoader(),
+      new Class<?>[] {Connection.class}, handler);
+    return handler.proxy;
+  }
+
+  // ---------- Execution ----------
+
+  private Object execute(StatementHandler statement, Method method, Object[] args) throws Throwable {
+    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : statement.sql;
+    long startNanos = System.nanoTime();
+    Object result;
+    try {
+      result = invoke(statement.target, method, args);
+    }
+    finally {
+      statements.increment();
+      OperationTimer.recordQuery();
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+
+    OperationTimer.Timing current = OperationTimer.current();
+    if (current != null && sql != null) {
+      trackRepetition(current, sql);
+    }
+    if (elapsedNanos >= slowNanos && sql != null) {
+      slowStatements.increment();
+      logSlow(statement, sql, elapsedNanos, current);
+    }
+    return result;
+  }
+
+  private void trackRepetition(OperationTimer.Timing current, String sql) {
+    OperationTimer.Timing root = current;
+    while (root.getParent() != null) {
+      root = root.getParent();
+    }
+    OperationStatements state = operations.get();
+    if (state.root != root) {
+      state.root = root;
+      state.counts.clear();
+    }
+
+    int[] count = state.counts.get(sql);
+    if (count == null) {
+      if (state.counts.size() < MAX_TRACKED_SHAPES) {
+        state.counts.put(sql, new int[] {1});
+      }
+      return;
+    }
+    if (++count[0] != nPlusOneThreshold) {
+      return;
+    }
+
+    // The loop issuing the lookups is in the operation around the one that ran the statement
+    OperationTimer.Timing caller = current.getParent() != null ? current.getParent() : current;
+    String operation = caller.getTimer().getLayer() + '/' + caller.getTimer().getOperation();
+    nPlusOneByOperation.computeIfAbsent(operation, key -> Metrics.registry().counter("paymgmt_db_n_plus_one_total",
+      "Operations that repeated one statement past the N+1 threshold", "operation", operation)).increment();
+    if (shouldLog("n+1|" + operation + '|' + sql)) {
+      logger.warn("Possible N+1: {} executions of the same statement within {}: {}",
+        nPlusOneThreshold, path(current), sql);
+    }
+  }
+
+  private void logSlow(StatementHandler statement, String sql, long elapsedNanos, OperationTimer.Timing current) {
+    String operation = current != null ? path(current) : "no operation";
+    if (!shouldLog("slow|" + operation + '|' + sql)) {
+      return;
+    }
+    StringBuilder message = new StringBuilder()
+      .append(String.format("Slow statement (%.1f ms) within %s: %s", elapsedNanos / 1e6, operation, sql));
+    if (!statement.bindings.isEmpty()) {
+      message.append("\n  parameters: ").append(formatParameters(sql, statement.bindings));
+    }
+    if (explain != Explain.OFF && statement.sql != null && EXPLAINABLE.matcher(sql).find()
+        && !MODIFYING.matcher(sql).find()) {
+      message.append('\n').append(explain(statement));
+    }
+    logger.warn(message.toString());
+  }
+
+  // Runs EXPLAIN on the raw connection with the statement's own parameters. Inside a
+  // transaction it runs in a savepoint that is rolled back afterwards, so neither a
+  // failing EXPLAIN nor the analyzed statement's work reaches the caller's transaction
+  private String explain(StatementHandler statement) {
+    boolean analyze = explain == Explain.ANALYZE && callsOnlySideEffectFree(statement.sql);
+    String prefix = analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ";
+    StringBuilder plan = new StringBuilder(analyze || explain == Explain.PLAN
+      ? "  plan:" : "  plan (not analyzed, the statement calls functions that may have side effects):");
+    Connection target = statement.connection.target;
+    try {
+      Savepoint savepoint = target.getAutoCommit() ? null : target.setSavepoint();
+      try (PreparedStatement explainStatement = target.prepareStatement(prefix + statement.sql)) {
+        for (Binding binding : statement.bindings) {
+          if (binding != null) {
+            binding.method().invoke(explainStatement, binding.args());
+          }
+        }
+        try (ResultSet resultSet = explainStatement.executeQuery()) {
+          while (resultSet.next()) {
+            plan.append("\n    ").append(resultSet.getString(1));
+          }
+        }
+      }
+      finally {
+        if (savepoint != null) {
+          target.rollback(savepoint);
+          target.releaseSavepoint(savepoint);
+        }
+      }
+    }
+    catch (SQLException | ReflectiveOperationException ex) {
+      plan.append(" unavailable (").append(ex.getMessage()).append(')');
+    }
+    return plan.toString();
+  }
+
+  private static boolean callsOnlySideEffectFree(String sql) {
+    Matcher call = CALL.matcher(QUOTED.matcher(sql).replaceAll("''"));
+    while (call.find()) {
+      if (!SIDE_EFFECT_FREE.contains(call.group(1).toLowerCase(Locale.ROOT))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean shouldLog(String key) {
+    long now = System.nanoTime();
+    Long previous = lastLogged.get(key);
+    if (previous != null && now - previous < LOG_INTERVAL_NANOS) {
+      return false;
+    }
+    return previous == null ? lastLogged.putIfAbsent(key, now) == null : lastLogged.replace(key, previous, now);
+  }
+
+  private static String path(OperationTimer.Timing timing) {
+    String name = timing.getTimer().getLayer() + '/' + timing.getTimer().getOperation();
+    return timing.getParent() == null ? name : path(timing.getParent()) + " > " + name;
+  }
+
+  // Values bound to statements touching passwords are never logged
+  private static String formatParameters(String sql, List<Binding> bindings) {
+    boolean masked = sql.toLowerCase(Locale.ROOT).contains("password");
+    StringBuilder text = new StringBuilder("[");
+    for (int i = 0; i < bindings.size(); i++) {
+      if (i > 0) {
+        text.append(", ");
+      }
+      Binding binding = bindings.get(i);
+      Object value = binding == null || binding.method().getName().equals("setNull") || binding.args().length < 2
+        ? null : binding.args()[1];
+      if (masked && value != null) {
+        text.append("***");
+      }
+      else if (value instanceof CharSequence || value instanceof Date) {
+        String string = value.toString();
+        text.append('\'')
+          .append(string.length() > MAX_PARAMETER_LENGTH ? string.substring(0, MAX_PARAMETER_LENGTH) + "..." : string)
+          .append('\'');
+      }
+      else {
+        text.append(value);
+      }
+    }
+    return text.append(']').toString();
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    }
+    catch (InvocationTargetException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  // Proxies answer unwrap for their own interface and delegate the rest, so driver extensions stay reachable
+  private static Object unwrapOrInvoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+    Class<?> type = (Class<?>) args[0];
+    if (type.isInstance(proxy)) {
+      return method.getName().equals("unwrap") ? proxy : Boolean.TRUE;
+    }
+    return invoke(target, method, args);
+  }
+
+  // ---------- Proxies ----------
+
+  /** Statements seen within the current logical operation on one thread. */
+  private static final class OperationStatements {
+    OperationTimer.Timing root;
+    final Map<String, int[]> counts = new HashMap<>();
+  }
+
+  /** One {@code setXxx(index, value...)} call on a prepared statement, replayable on another statement. */
+  private record Binding(Method method, Object[] args) {}
+
+  private final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+    private Connection proxy;
+
+    ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "createStatement":
+        case "prepareStatement":
+        case "prepareCall":
+          Statement statement = (Statement) StatementInspector.invoke(target, method, args);
+          String sql = method.getName().equals("createStatement") ? null : (String) args[0];
+          return Proxy.newProxyInstance(StatementInspector.class.getClassLoader(),
+            new Class<?>[] {method.getReturnType()}, new StatementHandler(this, statement, sql));
+        case "unwrap":
+        case "isWrapperFor":
+          return unwrapOrInvoke(proxy, target, method, args);
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return StatementInspector.invoke(target, method, args);
+      }
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+    private final ConnectionHandler connection;
+    private final Statement target;
+    private final String sql;
+    private final List<Binding> bindings = new ArrayList<>();
+
+    StatementHandler(ConnectionHandler connection, Statement target, String sql) {
+      this.connection = connection;
+      this.target = target;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      switch (name) {
+        case "execute":
+        case "executeQuery":
+        case "executeUpdate":
+        case "executeLargeUpdate":
+        case "executeBatch":
+        case "executeLargeBatch":
+          return StatementInspector.this.execute(this, method, args);
+        case "clearParameters":
+          bindings.clear();
+          return StatementInspector.invoke(target, method, args);
+        case "getConnection":
+          return connection.proxy;
+        case "unwrap":
+        case "isWrapperFor":
+          return unwrapOrInvoke(proxy, target, method, args);
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          // Parameter setters of prepared statements; named CallableStatement parameters are not recorded
+          if (sql != null && name.startsWith("set") && args != null && args.length >= 2
+              && args[0] instanceof Integer index) {
+            bind(index, method, args);
+          }
+          return StatementInspector.invoke(target, method, args);
+      }
+    }
+
+    private void bind(int index, Method method, Object[] args) {
+      while (bindings.size() < index) {
+        bindings.add(null);
+      }
+      bindings.set(index - 1, new Binding(method, args));
+    }
+  }
+}
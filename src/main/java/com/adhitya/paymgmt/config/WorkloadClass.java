@@ -0,0 +1,9 @@
+package com.adhitya.paymgmt.config;
+
+/** Classes of database work that are isolated from each other by the workload scheduler. */
+public enum WorkloadClass {
+  /** Short interactive operations: payment writes, status changes and lookups. */
+  OLTP,
+  /** Long-running reads: reports, exports and audit scans. */
+  ANALYTICS
+}
@@ -0,0 +1,50 @@
+package com.adhitya.paymgmt.config;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Binds the workload class and statement timeout of the work running on the
+ * current thread. {@link DatabaseConfig#getConnection()} applies the timeout as
+ * a session setting when connecting, so it costs no extra round trip.
+ */
+public final class WorkloadContext {
+  private static final ThreadLocal<WorkloadContext> CURRENT = new ThreadLocal<>();
+
+  private final WorkloadClass workloadClass;
+  private final Duration statementTimeout;
+
+  private WorkloadContext(WorkloadClass workloadClass, Duration statementTimeout) {
+    this.workloadClass = workloadClass;
+    this.statementTimeout = statementTimeout;
+  }
+
+  /** Runs the work with the given class and statement timeout (null for none) bound to this thread. */
+  public static <T> T run(WorkloadClass workloadClass, Duration statementTimeout, Supplier<T> work) {
+    WorkloadContext previous = CURRENT.get();
+    CURRENT.set(new WorkloadContext(workloadClass, statementTimeout));
+    try {
+      return work.get();
+    }
+    finally {
+      if (previous == null) {
+        CURRENT.remove();
+      }
+      else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /** Returns the workload class of the current thread, or null outside the scheduler. */
+  public static WorkloadClass currentClass() {
+    WorkloadContext context = CURRENT.get();
+    return context != null ? context.workloadClass : null;
+  }
+
+  /** Returns the statement timeout for connections opened on the current thread, or null for none. */
+  public static Duration currentStatementTimeout() {
+    WorkloadContext context = CURRENT.get();
+    return context != null ? context.statementTimeout : null;
+  }
+}
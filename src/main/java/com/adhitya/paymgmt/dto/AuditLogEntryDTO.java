@@ -0,0 +1,34 @@
+package com.adhitya.paymgmt.dto;
+
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.util.Lazy;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight, read-only view of an audit log row.
+ * Carries only the joined columns the audit views display; the full
+ * Payment is fetched on demand through the lazy {@code payment} handle.
+ *
+ * @param id                Audit log ID
+ * @param paymentId         ID of the payment that was changed
+ * @param amount            Amount of the payment at read time
+ * @param fieldChanged      Name of the changed field
+ * @param oldValue          Value before the change
+ * @param newValue          Value after the change
+ * @param changedByUsername Username of the user who made the change
+ * @param changedAt         Timestamp of the change, also used as the pagination key
+ * @param payment           Lazy handle that loads the full Payment on first access
+ */
+public record AuditLogEntryDTO(
+  int id,
+  int paymentId,
+  Money amount,
+  String fieldChanged,
+  String oldValue,
+  String newValue,
+  String changedByUsername,
+  LocalDateTime changedAt,
+  Lazy<Payment> payment
+) {}
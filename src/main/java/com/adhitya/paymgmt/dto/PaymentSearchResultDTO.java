@@ -0,0 +1,12 @@
+package com.adhitya.paymgmt.dto;
+
+import com.adhitya.paymgmt.model.Payment;
+
+/**
+ * One hit of a payment text search.
+ *
+ * @param payment the matching payment
+ * @param rank    relevance score; higher is better. Combines full-text rank with
+ *                fuzzy similarity to the description and counterparty name
+ */
+public record PaymentSearchResultDTO(Payment payment, double rank) {}
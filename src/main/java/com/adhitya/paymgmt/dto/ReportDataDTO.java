@@ -1,17 +1,19 @@
 package com.adhitya.paymgmt.dto;
 
+import com.adhitya.paymgmt.model.Money;
 import com.adhitya.paymgmt.model.Payment;
 import com.adhitya.paymgmt.model.enums.PaymentCategory;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Data Transfer Object encapsulating comprehensive report data
  * for a given reporting period. Includes aggregated financial
  * metrics, breakdowns by category and entities, and detailed transactions.
+ * The transaction listing is only fetched if something reads it.
  *
  * @param startDate          The inclusive start date of the report period
  * @param endDate            The inclusive end date of the report period
@@ -23,18 +25,32 @@ import java.util.Map;
  * @param categoryTotals     Map of payment categories to their aggregated totals
  * @param employeeTotals     Map of employee IDs to their associated payment totals
  * @param counterpartyTotals Map of counterparty IDs to their associated payment totals
- * @param transactions       Detailed list of payment transactions included in report
+ * @param transactionListing Supplies the payment transactions included in the report
  */
 public record ReportDataDTO(
   LocalDate startDate,
   LocalDate endDate,
   int transactionCount,
-  BigDecimal totalInflow,
-  BigDecimal totalOutflow,
-  BigDecimal netBalance,
-  BigDecimal avgTransactionValue,
-  Map<PaymentCategory, BigDecimal> categoryTotals,
-  Map<Integer, BigDecimal> employeeTotals,
-  Map<Integer, BigDecimal> counterpartyTotals,
-  List<Payment> transactions
-) {}
+  Money totalInflow,
+  Money totalOutflow,
+  Money netBalance,
+  Money avgTransactionValue,
+  Map<PaymentCategory, Money> categoryTotals,
+  Map<Integer, Money> employeeTotals,
+  Map<Integer, Money> counterpartyTotals,
+  Supplier<List<Payment>> transactionListing
+) {
+  /** Creates report data around an already fetched transaction listing. */
+  public ReportDataDTO(LocalDate startDate, LocalDate endDate, int transactionCount, Money totalInflow,
+                       Money totalOutflow, Money netBalance, Money avgTransactionValue,
+                       Map<PaymentCategory, Money> categoryTotals, Map<Integer, Money> employeeTotals,
+                       Map<Integer, Money> counterpartyTotals, List<Payment> transactions) {
+    this(startDate, endDate, transactionCount, totalInflow, totalOutflow, netBalance, avgTransactionValue,
+      categoryTotals, employeeTotals, counterpartyTotals, () -> transactions);
+  }
+
+  /** Detailed list of payment transactions included in the report, fetched on first use if needed. */
+  public List<Payment> transactions() {
+    return transactionListing.get();
+  }
+}
@@ -0,0 +1,15 @@
+package com.adhitya.paymgmt.exception;
+
+/** Thrown when an idempotency key is replayed with a request that differs from the one that first used it. */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+  /** Creates exception with error message. */
+  public IdempotencyKeyConflictException(String message) {
+    super(message);
+  }
+
+  /** Creates exception with message and cause. */
+  public IdempotencyKeyConflictException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,15 @@
+package com.adhitya.paymgmt.exception;
+
+/** Thrown when a login attempt is rejected by rate limiting or verification back-pressure. */
+public class LoginThrottledException extends RuntimeException {
+
+  /** Creates exception with error message. */
+  public LoginThrottledException(String message) {
+    super(message);
+  }
+
+  /** Creates exception with message and cause. */
+  public LoginThrottledException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
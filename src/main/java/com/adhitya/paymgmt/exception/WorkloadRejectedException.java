@@ -0,0 +1,15 @@
+package com.adhitya.paymgmt.exception;
+
+/** Thrown when a workload class's queue is full and new work is shed instead of queued. */
+public class WorkloadRejectedException extends RuntimeException {
+
+  /** Creates exception with error message. */
+  public WorkloadRejectedException(String message) {
+    super(message);
+  }
+
+  /** Creates exception with message and cause. */
+  public WorkloadRejectedException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
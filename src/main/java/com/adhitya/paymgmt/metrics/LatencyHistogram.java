@@ -0,0 +1,106 @@
+package com.adhitya.paymgmt.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed bucket bounds from half a millisecond
+ * to thirty seconds, the shape Prometheus expects for a {@code histogram}
+ * metric. Recording is one bucket search and three striped additions, so it
+ * can sit on every repository call.
+ */
+public class LatencyHistogram {
+  /** Upper bounds of the buckets in seconds; anything slower lands in the implicit +Inf bucket. */
+  static final double[] BOUNDS_SECONDS =
+    {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+  private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+
+  static {
+    for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+      BOUNDS_NANOS[i] = Math.round(BOUNDS_SECONDS[i] * 1e9);
+    }
+  }
+
+  private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(long nanos) {
+    int bucket = 0;
+    while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+      bucket++;
+    }
+    buckets[bucket].increment();
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  /**
+   * Returns a point-in-time copy. Concurrent recordings may be partly visible,
+   * so the bucket counts can disagree with {@code count} by a few in-flight
+   * samples.
+   */
+  public Snapshot snapshot() {
+    long[] counts = new long[buckets.length];
+    for (int i = 0; i < buckets.length; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return new Snapshot(counts, count.sum(), totalNanos.sum(), maxNanos.get());
+  }
+
+  /**
+   * Point-in-time view of a histogram.
+   *
+   * @param bucketCounts samples per bucket, not cumulative; the last entry is the +Inf bucket
+   * @param count        samples recorded
+   * @param totalNanos   sum of all samples
+   * @param maxNanos     largest sample since start
+   */
+  public record Snapshot(long[] bucketCounts, long count, long totalNanos, long maxNanos) {
+
+    /** Samples recorded between {@code earlier} and this snapshot; the max is kept as is. */
+    public Snapshot minus(Snapshot earlier) {
+      long[] counts = bucketCounts.clone();
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] -= earlier.bucketCounts[i];
+      }
+      return new Snapshot(counts, count - earlier.count, totalNanos - earlier.totalNanos, maxNanos);
+    }
+
+    public double meanMillis() {
+      return count == 0 ? 0 : totalNanos / 1e6 / count;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile, in milliseconds;
+     * for the +Inf bucket the largest sample seen is returned instead.
+     */
+    public double quantileMillis(double quantile) {
+      long total = 0;
+      for (long bucketCount : bucketCounts) {
+        total += bucketCount;
+      }
+      if (total == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(quantile * total);
+      long seen = 0;
+      for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+        seen += bucketCounts[i];
+        if (seen >= rank) {
+          return BOUNDS_SECONDS[i] * 1_000;
+        }
+      }
+      return maxNanos / 1e6;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.adhitya.paymgmt.metrics;
+
+/**
+ * The process-wide metrics registry, reachable from repositories and other
+ * code that is not wired through {@code AppConfig}, in the same way
+ * {@code DatabaseConfig} holds the connection router.
+ */
+public final class Metrics {
+  private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+  private Metrics() {
+  }
+
+  public static MetricsRegistry registry() {
+    return REGISTRY;
+  }
+
+  /** Timer for a repository method, named like {@code PaymentRepository.findById}. */
+  public static OperationTimer repository(Class<?> repository, String method) {
+    return REGISTRY.timer("repository", repository.getSimpleName() + '.' + method);
+  }
+
+  /** Timer for a service method, named like {@code PaymentService.addPayment}. */
+  public static OperationTimer service(Class<?> service, String method) {
+    return REGISTRY.timer("service", service.getSimpleName() + '.' + method);
+  }
+
+  /** Timer for a named operation in any other layer, e.g. {@code timer("report", "fetch")}. */
+  public static OperationTimer timer(String layer, String operation) {
+    return REGISTRY.timer(layer, operation);
+  }
+}
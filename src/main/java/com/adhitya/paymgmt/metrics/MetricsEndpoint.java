@@ -0,0 +1,63 @@
+package com.adhitya.paymgmt.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the registry at {@code GET /metrics} in the Prometheus text format.
+ * Binds to the loopback interface only; a scraper on another host reaches it
+ * through a local agent or an SSH tunnel.
+ */
+public class MetricsEndpoint {
+  private static final Logger logger = LoggerFactory.getLogger(MetricsEndpoint.class);
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final HttpServer server;
+
+  public MetricsEndpoint(MetricsRegistry registry, int port) {
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException("Failed to bind metrics endpoint on port " + port, ex);
+    }
+    server.createContext("/metrics", exchange -> serve(registry, exchange));
+  }
+
+  public void start() {
+    server.start();
+    logger.info("Metrics endpoint listening on {}:{}/metrics",
+      server.getAddress().getHostString(), server.getAddress().getPort());
+  }
+
+  public void stop() {
+    server.stop(0);
+  }
+
+  private static void serve(MetricsRegistry registry, HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", "GET");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      StringBuilder text = new StringBuilder(16 * 1024);
+      registry.writePrometheus(text);
+      byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.adhitya.paymgmt.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Named metric families with labelled series, written out in the Prometheus
+ * text exposition format. Series are created once, usually into static
+ * fields, and recorded into without touching the registry again.
+ */
+public class MetricsRegistry {
+  static final String OPERATION_DURATION = "paymgmt_operation_duration_seconds";
+  static final String OPERATION_ROWS = "paymgmt_operation_rows_total";
+  static final String OPERATION_QUERIES = "paymgmt_operation_queries_total";
+
+  private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, OperationTimer> timers = new ConcurrentHashMap<>();
+
+  private enum Type {
+    COUNTER, GAUGE, HISTOGRAM
+  }
+
+  private record Family(String name, String help, Type type, ConcurrentMap<String, Object> series) {}
+
+  /** Returns the timer for an operation, creating its latency, rows and query series on first use. */
+  public OperationTimer timer(String layer, String operation) {
+    return timers.computeIfAbsent(layer + '/' + operation, key -> new OperationTimer(layer, operation,
+      histogram(OPERATION_DURATION, "Latency of instrumented operations", "layer", layer, "operation", operation),
+      counter(OPERATION_ROWS, "Rows fetched by instrumented operations", "layer", layer, "operation", operation),
+      counter(OPERATION_QUERIES, "Statements issued while an operation was open",
+        "layer", layer, "operation", operation)));
+  }
+
+  /** Returns every operation timer created so far. */
+  public List<OperationTimer> timers() {
+    return new ArrayList<>(timers.values());
+  }
+
+  /**
+   * Returns the histogram series with the given labels, creating it on first use.
+   *
+   * @param labels alternating label names and values
+   */
+  public LatencyHistogram histogram(String name, String help, String... labels) {
+    return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series()
+      .computeIfAbsent(labelText(labels), key -> new LatencyHistogram());
+  }
+
+  /** Returns every series of a histogram family keyed by its label text, e.g. {@code route="PRIMARY"}. */
+  public Map<String, LatencyHistogram> histograms(String name) {
+    Map<String, LatencyHistogram> result = new TreeMap<>();
+    Family family = families.get(name);
+    if (family != null && family.type() == Type.HISTOGRAM) {
+      family.series().forEach((labels, series) -> result.put(labels, (LatencyHistogram) series));
+    }
+    return result;
+  }
+
+  /** Returns the counter series with the given labels, creating it on first use. */
+  public LongAdder counter(String name, String help, String... labels) {
+    return (LongAdder) family(name, help, Type.COUNTER).series()
+      .computeIfAbsent(labelText(labels), key -> new LongAdder());
+  }
+
+  /**
+   * Registers a value read at scrape time, such as a queue depth or a counter
+   * kept by another component. Registering the same series again replaces the
+   * supplier.
+   */
+  public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+    family(name, help, Type.GAUGE).series().put(labelText(labels), value);
+  }
+
+  /**
+   * Same as {@link #gauge} for a value that only ever grows, so Prometheus
+   * can apply {@code rate()} to it.
+   */
+  public void counterFunction(String name, String help, DoubleSupplier value, String... labels) {
+    family(name, help, Type.COUNTER).series().put(labelText(labels), value);
+  }
+
+  /** Writes all families in the Prometheus text format, version 0.0.4. */
+  public void writePrometheus(Appendable out) {
+    try {
+      for (Family family : new TreeMap<>(families).values()) {
+        out.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+        out.append("# TYPE ").append(family.name()).append(' ')
+          .append(family.type().name().toLowerCase()).append('\n');
+        for (Map.Entry<String, Object> series : new TreeMap<>(family.series()).entrySet()) {
+          writeSeries(out, family, series.getKey(), series.getValue());
+        }
+      }
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException("Failed to write metrics", ex);
+    }
+  }
+
+  private static void writeSeries(Appendable out, Family family, String labels, Object series) throws IOException {
+    if (series instanceof LatencyHistogram histogram) {
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      long cumulative = 0;
+      for (int i = 0; i <= LatencyHistogram.BOUNDS_SECONDS.length; i++) {
+        cumulative += snapshot.bucketCounts()[i];
+        String bound = i < LatencyHistogram.BOUNDS_SECONDS.length
+          ? BigDecimal.valueOf(LatencyHistogram.BOUNDS_SECONDS[i]).toPlainString() : "+Inf";
+        String bucketLabels = labels.isEmpty() ? "le=\"" + bound + '"' : labels + ",le=\"" + bound + '"';
+        sample(out, family.name() + "_bucket", bucketLabels, cumulative);
+      }
+      sample(out, family.name() + "_sum", labels, snapshot.totalNanos() / 1e9);
+      sample(out, family.name() + "_count", labels, cumulative);
+    }
+    else if (series instanceof LongAdder counter) {
+      sample(out, family.name(), labels, counter.sum());
+    }
+    else {
+      sample(out, family.name(), labels, ((DoubleSupplier) series).getAsDouble());
+    }
+  }
+
+  private static void sample(Appendable out, String name, String labels, double value) throws IOException {
+    out.append(name);
+    if (!labels.isEmpty()) {
+      out.append('{').append(labels).append('}');
+    }
+    out.append(' ');
+    if (value == Math.rint(value) && !Double.isInfinite(value)) {
+      out.append(Long.toString((long) value));
+    }
+    else {
+      out.append(Double.toString(value));
+    }
+    out.append('\n');
+  }
+
+  private Family family(String name, String help, Type type) {
+    Family family = families.computeIfAbsent(name, key -> new Family(name, help, type, new ConcurrentHashMap<>()));
+    if (family.type() != type) {
+      throw new IllegalArgumentException(name + " is already registered as a " + family.type());
+    }
+    return family;
+  }
+
+  private static String labelText(String... labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels must be name/value pairs");
+    }
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < labels.length; i += 2) {
+      if (i > 0) {
+        text.append(',');
+      }
+      text.append(labels[i]).append("=\"");
+      String value = labels[i + 1];
+      for (int j = 0; j < value.length(); j++) {
+        char c = value.charAt(j);
+        if (c == '\\' || c == '"') {
+          text.append('\\').append(c);
+        }
+        else if (c == '\n') {
+          text.append("\\n");
+        }
+        else {
+          text.append(c);
+        }
+      }
+      text.append('"');
+    }
+    return text.toString();
+  }
+}
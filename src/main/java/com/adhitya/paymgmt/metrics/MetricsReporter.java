@@ -0,0 +1,113 @@
+package com.adhitya.paymgmt.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs what happened since the previous report: for each operation that ran,
+ * its call rate, mean, p95 and max latency, rows fetched and statements issued,
+ * busiest operations first, followed by connection wait per route.
+ */
+public class MetricsReporter {
+  private static final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+
+  private final MetricsRegistry registry;
+  private final String connectionWaitFamily;
+  private final Map<OperationTimer, OperationTimer.Snapshot> previousTimers = new HashMap<>();
+  private final Map<String, LatencyHistogram.Snapshot> previousWaits = new HashMap<>();
+  private long previousNanos = System.nanoTime();
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * @param registry             registry to report on
+   * @param connectionWaitFamily histogram family holding connection wait, reported per series
+   */
+  public MetricsReporter(MetricsRegistry registry, String connectionWaitFamily) {
+    this.registry = registry;
+    this.connectionWaitFamily = connectionWaitFamily;
+  }
+
+  /** Starts reporting at the given interval on a daemon thread. */
+  public synchronized void start(Duration interval) {
+    if (scheduler != null) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "metrics-reporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleAtFixedRate(this::reportSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /** Logs the summary for the interval since the previous call. */
+  public synchronized void report() {
+    long now = System.nanoTime();
+    double seconds = Math.max(1e-9, (now - previousNanos) / 1e9);
+    previousNanos = now;
+
+    List<Map.Entry<OperationTimer, OperationTimer.Snapshot>> active = new ArrayList<>();
+    for (OperationTimer timer : registry.timers()) {
+      OperationTimer.Snapshot current = timer.snapshot();
+      OperationTimer.Snapshot previous = previousTimers.put(timer, current);
+      OperationTimer.Snapshot delta = previous == null ? current : current.minus(previous);
+      if (delta.latency().count() > 0) {
+        active.add(Map.entry(timer, delta));
+      }
+    }
+    if (active.isEmpty()) {
+      logger.info("Metrics: no instrumented operations ran in the last {}s", Math.round(seconds));
+    }
+    else {
+      active.sort(Comparator.comparingLong(
+        (Map.Entry<OperationTimer, OperationTimer.Snapshot> entry) -> entry.getValue().latency().totalNanos()).reversed());
+      StringBuilder summary = new StringBuilder("Metrics for the last ").append(Math.round(seconds)).append("s:");
+      for (Map.Entry<OperationTimer, OperationTimer.Snapshot> entry : active) {
+        OperationTimer.Snapshot delta = entry.getValue();
+        LatencyHistogram.Snapshot latency = delta.latency();
+        summary.append(String.format("%n  %-10s %-45s %8d calls %8.1f/s  mean %9.2f ms  p95 <= %8.1f ms  "
+            + "max %9.2f ms  rows %9d  queries %7d",
+          entry.getKey().getLayer(), entry.getKey().getOperation(), latency.count(), latency.count() / seconds,
+          latency.meanMillis(), latency.quantileMillis(0.95), latency.maxNanos() / 1e6, delta.rows(), delta.queries()));
+      }
+      logger.info(summary.toString());
+    }
+
+    registry.histograms(connectionWaitFamily).forEach((labels, histogram) -> {
+      LatencyHistogram.Snapshot current = histogram.snapshot();
+      LatencyHistogram.Snapshot previous = previousWaits.put(labels, current);
+      LatencyHistogram.Snapshot delta = previous == null ? current : current.minus(previous);
+      if (delta.count() > 0) {
+        logger.info("Connection wait {}: {} connections, mean {} ms, p95 <= {} ms, max {} ms", labels,
+          delta.count(), String.format("%.2f", delta.meanMillis()), delta.quantileMillis(0.95),
+          String.format("%.2f", delta.maxNanos() / 1e6));
+      }
+    });
+  }
+
+  private void reportSafely() {
+    try {
+      report();
+    }
+    catch (RuntimeException ex) {
+      logger.warn("Metrics report failed", ex);
+    }
+  }
+}
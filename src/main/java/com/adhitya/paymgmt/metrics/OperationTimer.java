@@ -0,0 +1,152 @@
+package com.adhitya.paymgmt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, rows and statement counts for one named operation, e.g. a
+ * repository method or a report phase. Callers hold a timer in a static field
+ * and open a {@link Timing} around each call with try-with-resources, or pass
+ * the call to {@link #time} or {@link #run} when they do not record rows.
+ *
+ * <p>Open timings form a per-thread stack, so a statement counted with
+ * {@link #recordQuery()} is attributed to every operation it runs under: the
+ * repository method that issued it and the service call and report phase
+ * around that. Work handed to another thread is not attributed to the caller.
+ */
+public class OperationTimer {
+  private static final ThreadLocal<Timing> CURRENT = new ThreadLocal<>();
+
+  private final String layer;
+  private final String operation;
+  private final LatencyHistogram latency;
+  private final LongAdder rows;
+  private final LongAdder queries;
+
+  OperationTimer(String layer, String operation, LatencyHistogram latency, LongAdder rows, LongAdder queries) {
+    this.layer = layer;
+    this.operation = operation;
+    this.latency = latency;
+    this.rows = rows;
+    this.queries = queries;
+  }
+
+  public String getLayer() {
+    return layer;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  /** Starts timing one call on the current thread. */
+  public Timing start() {
+    Timing timing = new Timing(this, CURRENT.get());
+    CURRENT.set(timing);
+    return timing;
+  }
+
+  /**
+   * Runs a call inside a timing, for callers that never use the {@link Timing}
+   * itself. Exceptions pass through unchanged.
+   */
+  @SuppressWarnings("try") // The timing is only opened and closed
+  public <T, E extends Exception> T time(Call<T, E> call) throws E {
+    try (Timing timing = start()) {
+      return call.call();
+    }
+  }
+
+  /** As {@link #time}, for calls that return nothing. */
+  @SuppressWarnings("try") // The timing is only opened and closed
+  public <E extends Exception> void run(Action<E> action) throws E {
+    try (Timing timing = start()) {
+      action.run();
+    }
+  }
+
+  /** A timed call returning a value; may throw the checked exception E. */
+  @FunctionalInterface
+  public interface Call<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  /** A timed call returning nothing; may throw the checked exception E. */
+  @FunctionalInterface
+  public interface Action<E extends Exception> {
+    void run() throws E;
+  }
+
+  /** Counts one statement against every operation open on the current thread. */
+  public static void recordQuery() {
+    for (Timing timing = CURRENT.get(); timing != null; timing = timing.parent) {
+      timing.timer.queries.increment();
+    }
+  }
+
+  /** Returns the innermost operation open on the current thread, or null outside any. */
+  public static Timing current() {
+    return CURRENT.get();
+  }
+
+  public Snapshot snapshot() {
+    return new Snapshot(latency.snapshot(), rows.sum(), queries.sum());
+  }
+
+  /**
+   * Point-in-time view of a timer.
+   *
+   * @param latency call latencies; its count is the number of calls
+   * @param rows    rows fetched by those calls
+   * @param queries statements issued while those calls were open
+   */
+  public record Snapshot(LatencyHistogram.Snapshot latency, long rows, long queries) {
+
+    public Snapshot minus(Snapshot earlier) {
+      return new Snapshot(latency.minus(earlier.latency), rows - earlier.rows, queries - earlier.queries);
+    }
+  }
+
+  /** One timed call; closing it records the elapsed time. Not shared between threads. */
+  public static final class Timing implements AutoCloseable {
+    private final OperationTimer timer;
+    private final Timing parent;
+    private final long startNanos = System.nanoTime();
+    private boolean closed;
+
+    private Timing(OperationTimer timer, Timing parent) {
+      this.timer = timer;
+      this.parent = parent;
+    }
+
+    public OperationTimer getTimer() {
+      return timer;
+    }
+
+    /** Returns the operation this call runs under, or null for a top-level call. */
+    public Timing getParent() {
+      return parent;
+    }
+
+    /** Adds to the rows fetched by this call. */
+    public void addRows(long count) {
+      timer.rows.add(count);
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      timer.latency.record(System.nanoTime() - startNanos);
+      if (CURRENT.get() == this) {
+        if (parent == null) {
+          CURRENT.remove();
+        }
+        else {
+          CURRENT.set(parent);
+        }
+      }
+    }
+  }
+}
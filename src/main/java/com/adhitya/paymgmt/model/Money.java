@@ -0,0 +1,221 @@
+package com.adhitya.paymgmt.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A monetary amount held as a whole number of minor units (paise) at the fixed
+ * scale of the {@code payments.amount} column, {@code numeric(18,2)}. Arithmetic is
+ * exact and throws {@link ArithmeticException} on overflow instead of wrapping.
+ *
+ * <p>Parsing and formatting work on characters directly, so reading an amount
+ * from JDBC text or writing one into a report allocates no {@link BigDecimal}.
+ * BigDecimal conversions are kept for the JDBC and API edges.</p>
+ *
+ * @param minorUnits the amount in minor units, e.g. 12345 for 123.45
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+  /** Decimal places of every amount. */
+  public static final int SCALE = 2;
+
+  public static final Money ZERO = new Money(0);
+
+  private static final long MINOR_PER_MAJOR = 100;
+
+  public static Money ofMinor(long minorUnits) {
+    return minorUnits == 0 ? ZERO : new Money(minorUnits);
+  }
+
+  /**
+   * Converts a decimal amount, rounding half up (away from zero) to two decimal
+   * places. This matches the cast to the {@code numeric(18,2)} amount column, so
+   * the value saved is the value read back.
+   *
+   * @throws ArithmeticException if the amount does not fit in a long of minor units
+   */
+  public static Money of(BigDecimal amount) {
+    return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+  }
+
+  /**
+   * Parses a plain decimal such as {@code 1234.5} or {@code -0.05}. Digits beyond
+   * the second decimal place are rounded half up (away from zero), as {@link #of}
+   * and the amount column round them.
+   *
+   * @throws NumberFormatException if text is not a plain decimal or is out of range
+   */
+  public static Money parse(CharSequence text) {
+    return ofMinor(parseMinorUnits(text));
+  }
+
+  /**
+   * Parses a plain decimal straight to minor units, as {@link #parse} does,
+   * without creating a Money.
+   *
+   * @throws NumberFormatException if text is not a plain decimal or is out of range
+   */
+  public static long parseMinorUnits(CharSequence text) {
+    if (text == null) {
+      throw new NumberFormatException("Amount cannot be null");
+    }
+    int length = text.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+      negative = text.charAt(0) == '-';
+      i++;
+    }
+
+    long units = 0;
+    int integerDigits = 0;
+    int fractionDigits = 0;
+    boolean roundUp = false;
+    boolean seenPoint = false;
+    try {
+      for (; i < length; i++) {
+        char c = text.charAt(i);
+        if (c == '.' && !seenPoint) {
+          seenPoint = true;
+          continue;
+        }
+        if (c < '0' || c > '9') {
+          throw new NumberFormatException("Invalid amount: " + text);
+        }
+        int digit = c - '0';
+        if (!seenPoint) {
+          units = Math.addExact(Math.multiplyExact(units, 10), digit);
+          integerDigits++;
+        }
+        else if (fractionDigits < SCALE) {
+          units = Math.addExact(Math.multiplyExact(units, 10), digit);
+          fractionDigits++;
+        }
+        else if (fractionDigits == SCALE) {
+          // Only the first dropped digit decides a half-up rounding
+          roundUp = digit >= 5;
+          fractionDigits++;
+        }
+      }
+      if (integerDigits == 0 && fractionDigits == 0) {
+        throw new NumberFormatException("Invalid amount: " + text);
+      }
+      for (int pad = fractionDigits; pad < SCALE; pad++) {
+        units = Math.multiplyExact(units, 10);
+      }
+      if (roundUp) {
+        units = Math.addExact(units, 1);
+      }
+    }
+    catch (ArithmeticException ex) {
+      throw new NumberFormatException("Amount out of range: " + text);
+    }
+    return negative ? -units : units;
+  }
+
+  public Money plus(Money other) {
+    return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+  }
+
+  public Money minus(Money other) {
+    return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+  }
+
+  public Money times(long factor) {
+    return ofMinor(Math.multiplyExact(minorUnits, factor));
+  }
+
+  /** Divides, rounding half up (away from zero) to the nearest minor unit. */
+  public Money dividedBy(long divisor) {
+    if (divisor == 0) {
+      throw new ArithmeticException("Division by zero");
+    }
+    long quotient = minorUnits / divisor;
+    long remainder = Math.abs(minorUnits % divisor);
+    if (remainder >= Math.abs(divisor) - remainder) {
+      quotient += (minorUnits < 0) == (divisor < 0) ? 1 : -1;
+    }
+    return ofMinor(quotient);
+  }
+
+  public Money negate() {
+    return ofMinor(Math.negateExact(minorUnits));
+  }
+
+  public int signum() {
+    return Long.signum(minorUnits);
+  }
+
+  public boolean isPositive() {
+    return minorUnits > 0;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  /** Appends the plain form, e.g. {@code -1234.50}. */
+  public StringBuilder appendTo(StringBuilder out) {
+    return append(out, minorUnits, false);
+  }
+
+  /** Appends the form with thousands separators, e.g. {@code -1,234.50}. */
+  public StringBuilder appendGroupedTo(StringBuilder out) {
+    return append(out, minorUnits, true);
+  }
+
+  /** Returns the form with thousands separators, e.g. {@code -1,234.50}. */
+  public String toGroupedString() {
+    return appendGroupedTo(new StringBuilder(24)).toString();
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  /** Returns the plain form, e.g. {@code -1234.50}. */
+  @Override
+  public String toString() {
+    return appendTo(new StringBuilder(20)).toString();
+  }
+
+  private static StringBuilder append(StringBuilder out, long minorUnits, boolean grouped) {
+    if (minorUnits < 0) {
+      out.append('-');
+    }
+    // Long.MIN_VALUE has no positive counterpart, so work on the negative magnitude
+    long negative = minorUnits < 0 ? minorUnits : -minorUnits;
+    long major = -(negative / MINOR_PER_MAJOR);
+    int minor = (int) -(negative % MINOR_PER_MAJOR);
+
+    if (!grouped || major < 1000) {
+      out.append(major);
+    }
+    else {
+      appendGrouped(out, major);
+    }
+    out.append('.');
+    if (minor < 10) {
+      out.append('0');
+    }
+    return out.append(minor);
+  }
+
+  private static void appendGrouped(StringBuilder out, long value) {
+    if (value >= 1000) {
+      appendGrouped(out, value / 1000);
+      out.append(',');
+      int group = (int) (value % 1000);
+      if (group < 100) {
+        out.append('0');
+      }
+      if (group < 10) {
+        out.append('0');
+      }
+      out.append(group);
+    }
+    else {
+      out.append(value);
+    }
+  }
+}
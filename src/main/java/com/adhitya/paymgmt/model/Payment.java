@@ -4,7 +4,6 @@ import com.adhitya.paymgmt.model.enums.PaymentCategory;
 import com.adhitya.paymgmt.model.enums.PaymentDirection;
 import com.adhitya.paymgmt.model.enums.Status;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -17,7 +16,7 @@ public class Payment {
   private int id;
 
   // Monetary amount involved in the payment
-  private BigDecimal amount;
+  private Money amount;
 
   // Direction of the payment (e.g., incoming or outgoing)
   private PaymentDirection paymentDirection;
@@ -65,7 +64,7 @@ public class Payment {
    * @param employee associated employee (nullable)
    * @param counterParty associated counterparty (nullable)
    */
-  public Payment(int id, BigDecimal amount, PaymentDirection paymentDirection, PaymentCategory category, Status status, String description, User createdBy, LocalDateTime createdAt, LocalDateTime updatedAt, Employee employee, Counterparty counterParty) {
+  public Payment(int id, Money amount, PaymentDirection paymentDirection, PaymentCategory category, Status status, String description, User createdBy, LocalDateTime createdAt, LocalDateTime updatedAt, Employee employee, Counterparty counterParty) {
     this.id = id;
     this.amount = amount;
     this.paymentDirection = paymentDirection;
@@ -89,11 +88,11 @@ public class Payment {
     this.id = id;
   }
 
-  public BigDecimal getAmount() {
+  public Money getAmount() {
     return amount;
   }
 
-  public void setAmount(BigDecimal amount) {
+  public void setAmount(Money amount) {
     this.amount = amount;
   }
 
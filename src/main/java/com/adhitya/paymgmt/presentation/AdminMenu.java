@@ -1,14 +1,16 @@
 package com.adhitya.paymgmt.presentation;
 
+import com.adhitya.paymgmt.dto.AuditLogEntryDTO;
 import com.adhitya.paymgmt.model.User;
 import com.adhitya.paymgmt.model.Counterparty;
 import com.adhitya.paymgmt.model.Employee;
 import com.adhitya.paymgmt.model.enums.Role;
 import com.adhitya.paymgmt.model.enums.PartyType;
+import com.adhitya.paymgmt.repository.AuditJournal;
 import com.adhitya.paymgmt.service.*;
 import com.adhitya.paymgmt.model.Payment;
-import com.adhitya.paymgmt.model.AuditLog;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,6 +23,9 @@ import java.util.Scanner;
  * viewing payments, report generation, and audit log viewing.
  */
 public class AdminMenu {
+  // Number of audit log rows fetched and shown per page
+  private static final int AUDIT_PAGE_SIZE = 50;
+
   private final Scanner scanner;
   // Injected services handling business logic
   private final AuthService authService;
@@ -65,11 +70,13 @@ public class AdminMenu {
       System.out.println("4. View All Payments");
       System.out.println("5. Generate Report");
       System.out.println("6. View Audit Logs");
-      System.out.println("7. Logout");
+      System.out.println("7. Verify / Export Audit Journal");
+      System.out.println("8. Change User Role / Password");
+      System.out.println("9. Logout");
       System.out.println("===================================");
-      System.out.print("Enter your choice (1–7): ");
+      System.out.print("Enter your choice (1–9): ");
 
-      int choice = readIntChoice(1, 7);
+      int choice = readIntChoice(1, 9);
       switch (choice) {
         case 1 -> handleUserRegistration();
         case 2 -> handleAddCounterparty();
@@ -77,7 +84,9 @@ public class AdminMenu {
         case 4 -> handleViewAllPayments();
         case 5 -> handleGenerateReport();
         case 6 -> handleViewAuditLogs();
-        case 7 -> {
+        case 7 -> handleAuditJournal();
+        case 8 -> handleChangeUserCredentials();
+        case 9 -> {
           System.out.println("Logging out...");
           return;
         }
@@ -114,6 +123,39 @@ public class AdminMenu {
     }
   }
 
+  /**
+   * Changes a user's role or resets their password.
+   * Either change revokes every open session of that user.
+   */
+  private void handleChangeUserCredentials() {
+    System.out.println("---- Change User Role / Password ----");
+    int userId = promptInt("Enter user ID: ");
+    System.out.println("1. Change Role");
+    System.out.println("2. Reset Password");
+    int choice = readIntChoice(1, 2);
+
+    try {
+      if (choice == 1) {
+        Role role = null;
+        while (role == null) {
+          System.out.print("Enter new role (ADMIN/FINANCE_MANAGER/VIEWER): ");
+          try {
+            role = Role.valueOf(scanner.nextLine().trim().toUpperCase());
+          } catch (IllegalArgumentException e) {
+            System.out.println("Invalid role.");
+          }
+        }
+        authService.changeRole(userId, role);
+        System.out.println("✅ Role updated; the user's sessions were revoked.");
+      } else {
+        authService.changePassword(userId, promptString("Enter new password: "));
+        System.out.println("✅ Password reset; the user's sessions were revoked.");
+      }
+    } catch (Exception ex) {
+      System.out.println("❌ Update failed: " + ex.getMessage());
+    }
+  }
+
   /** Handles adding a new counterparty after taking input and validating type. */
   private void handleAddCounterparty() {
     System.out.println("---- Add Counterparty ----");
@@ -175,7 +217,7 @@ public class AdminMenu {
       "ID", "Amount", "Direction", "Category","Status", "CreatedBy", "CreatedAt");
     System.out.println("-".repeat(80));
     for (Payment p : payments) {
-      System.out.printf("%-5d ₹%10.2f %-10s %-12s %-12s %-10s %-15s%n",
+      System.out.printf("%-5d ₹%10s %-10s %-12s %-12s %-10s %-15s%n",
         p.getId(),
         p.getAmount(),
         p.getPaymentDirection(),
@@ -204,27 +246,87 @@ public class AdminMenu {
     }
   }
 
-  /** Displays all audit logs with summary info in tabular form. */
+  /**
+   * Displays audit logs with summary info in tabular form, newest first,
+   * one page at a time so large histories never have to be loaded at once.
+   */
   private void handleViewAuditLogs() {
     System.out.println("---- Audit Logs ----");
-    List<AuditLog> logs = auditService.getAllAuditLogs();
-    if (logs.isEmpty()) {
+    String daysInput = promptString("Show last N days (Enter for full history): ");
+    LocalDateTime since = null;
+    if (!daysInput.isEmpty()) {
+      try {
+        int days = Integer.parseInt(daysInput);
+        if (days < 1) {
+          throw new NumberFormatException("N must be at least 1");
+        }
+        since = LocalDate.now().minusDays(days - 1L).atStartOfDay();
+      } catch (NumberFormatException e) {
+        System.out.println("Invalid number, showing full history.");
+      }
+    }
+    List<AuditLogEntryDTO> page = auditService.getAuditLogPage(since, null, 0, AUDIT_PAGE_SIZE);
+    if (page.isEmpty()) {
       System.out.println("(No audit logs found.)");
       return;
     }
-    System.out.printf("%-5s %-12s %-20s %-20s %-10s %-19s%n",
-      "ID", "PaymentID", "Field", "By", "Old->New", "When");
-    System.out.println("-".repeat(90));
-    for (AuditLog log : logs) {
-      String by = log.getChangedBy() != null ? log.getChangedBy().getUsername() : "-";
-      String oldnew = (log.getOldValue() + " → " + log.getNewValue());
-      System.out.printf("%-5d %-12s %-20s %-20s %-10s %-19s%n",
-        log.getId(),
-        log.getPayment() != null ? log.getPayment().getId() : "-",
-        log.getFieldChanged(),
-        by,
-        oldnew,
-        log.getChangedAt());
+    System.out.printf("%-5s %-12s %-12s %-20s %-20s %-10s %-19s%n",
+      "ID", "PaymentID", "Amount", "Field", "By", "Old->New", "When");
+    System.out.println("-".repeat(103));
+    while (true) {
+      for (AuditLogEntryDTO log : page) {
+        String by = log.changedByUsername() != null ? log.changedByUsername() : "-";
+        String oldnew = (log.oldValue() + " → " + log.newValue());
+        System.out.printf("%-5d %-12s %-12s %-20s %-20s %-10s %-19s%n",
+          log.id(),
+          log.paymentId() > 0 ? log.paymentId() : "-",
+          log.amount() != null ? "₹" + log.amount() : "-",
+          log.fieldChanged(),
+          by,
+          oldnew,
+          log.changedAt());
+      }
+      if (page.size() < AUDIT_PAGE_SIZE) {
+        return;
+      }
+      System.out.print("Press Enter for more, or 0 to return: ");
+      if ("0".equals(scanner.nextLine().trim())) {
+        return;
+      }
+      AuditLogEntryDTO last = page.get(page.size() - 1);
+      page = auditService.getAuditLogPage(since, last.changedAt(), last.id(), AUDIT_PAGE_SIZE);
+      if (page.isEmpty()) {
+        System.out.println("(End of audit logs.)");
+        return;
+      }
+    }
+  }
+
+  /**
+   * Verifies the local audit journal's hash chain and optionally
+   * dumps all journal entries to a file for regulators.
+   */
+  private void handleAuditJournal() {
+    System.out.println("---- Audit Journal ----");
+    System.out.println("1. Verify integrity");
+    System.out.println("2. Verify and export to file");
+    int choice = readIntChoice(1, 2);
+
+    try {
+      AuditJournal.VerificationResult result;
+      if (choice == 1) {
+        result = auditService.verifyJournal();
+      } else {
+        String path = promptString("Enter export file path (e.g., audit-journal.tsv): ");
+        result = auditService.exportJournal(Path.of(path));
+        System.out.println("Exported " + result.records() + " entries to: " + path);
+      }
+
+      System.out.println((result.valid() ? "✅ Journal intact" : "❌ Journal tampered: " + result.failure()));
+      System.out.println("Segments: " + result.segments() + ", records verified: " + result.records());
+      System.out.println("Head hash: " + result.headHash());
+    } catch (Exception ex) {
+      System.out.println("❌ Journal check failed: " + ex.getMessage());
     }
   }
 
@@ -0,0 +1,187 @@
+package com.adhitya.paymgmt.presentation;
+
+import com.adhitya.paymgmt.analytics.PaymentFilter;
+import com.adhitya.paymgmt.dto.PaymentSearchResultDTO;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Function;
+
+/**
+ * Input prompts shared by the role menus: the multi-criteria payment filter
+ * and the paged text search. Every prompt re-asks until the input is valid.
+ */
+class ConsolePrompts {
+  private static final int SEARCH_PAGE_SIZE = 20;
+
+  private final Scanner scanner;
+
+  /** Fetches one page of text search results. */
+  @FunctionalInterface
+  interface SearchPageLoader {
+    List<PaymentSearchResultDTO> load(String text, LocalDate from, LocalDate to, PaymentCategory category,
+                                      int page, int pageSize);
+  }
+
+  ConsolePrompts(Scanner scanner) {
+    this.scanner = scanner;
+  }
+
+  /** Prompts for a comma-separated list of enum names; blank input yields an empty list. */
+  <T extends Enum<T>> List<T> promptEnumList(String label, Class<T> enumClass) {
+    String options = options(enumClass);
+    while (true) {
+      System.out.print(label + " (" + options + "): ");
+      String input = scanner.nextLine().trim().toUpperCase();
+      try {
+        List<T> values = new ArrayList<>();
+        for (String part : input.split(",")) {
+          if (!part.isBlank()) {
+            values.add(Enum.valueOf(enumClass, part.trim()));
+          }
+        }
+        return values;
+      } catch (Exception e) {
+        System.out.println("Invalid input. Options: " + options);
+      }
+    }
+  }
+
+  /** Prompts for a comma-separated list of months in YYYY-MM format; blank input yields an empty list. */
+  List<YearMonth> promptMonths(String label) {
+    while (true) {
+      System.out.print(label);
+      String input = scanner.nextLine().trim();
+      try {
+        List<YearMonth> months = new ArrayList<>();
+        for (String part : input.split(",")) {
+          if (!part.isBlank()) {
+            months.add(YearMonth.parse(part.trim()));
+          }
+        }
+        return months;
+      } catch (Exception e) {
+        System.out.println("Invalid month (use YYYY-MM).");
+      }
+    }
+  }
+
+  /**
+   * Prompts for optional values of each payment attribute and combines them into
+   * one filter: values of one attribute are ORed, attributes are ANDed.
+   */
+  PaymentFilter promptCriteria() {
+    System.out.println("Leave a field blank to match any value; separate several values with commas.");
+    List<PaymentFilter> criteria = new ArrayList<>();
+    addAnyOf(criteria, promptEnumList("Categories", PaymentCategory.class), PaymentFilter::category);
+    addAnyOf(criteria, promptEnumList("Directions", PaymentDirection.class), PaymentFilter::direction);
+    addAnyOf(criteria, promptEnumList("Statuses", Status.class), PaymentFilter::status);
+    addAnyOf(criteria, promptMonths("Months (YYYY-MM): "), PaymentFilter::month);
+    return PaymentFilter.and(criteria);
+  }
+
+  /**
+   * Prompts for search text, an optional date range and category, then shows
+   * ranked results a page at a time for as long as the user asks for more.
+   */
+  void searchPayments(SearchPageLoader loader) {
+    System.out.println("---- Search Payments ----");
+    String text = promptString("Search for: ");
+    LocalDate start = promptOptionalDate("From date (YYYY-MM-DD, blank for any): ");
+    LocalDate end = promptOptionalDate("To date (YYYY-MM-DD, blank for any): ");
+    PaymentCategory category = promptOptionalEnum("Category, blank for any", PaymentCategory.class);
+
+    int page = 0;
+    while (true) {
+      List<PaymentSearchResultDTO> results = loader.load(text, start, end, category, page, SEARCH_PAGE_SIZE);
+      if (results.isEmpty()) {
+        System.out.println("No more results.");
+        return;
+      }
+
+      System.out.printf("%-6s %-10s %-10s %-14s %-10s %-30s %-20s%n",
+        "ID", "Date", "Amount", "Category", "Status", "Description", "Counterparty");
+      for (PaymentSearchResultDTO result : results) {
+        Payment p = result.payment();
+        System.out.printf("%-6d %-10s ₹%8s %-14s %-10s %-30s %-20s%n",
+          p.getId(),
+          p.getCreatedAt().toLocalDate(),
+          p.getAmount(),
+          p.getCategory(),
+          p.getStatus(),
+          truncate(p.getDescription(), 30),
+          p.getCounterParty() != null ? truncate(p.getCounterParty().getName(), 20) : "-"
+        );
+      }
+
+      if (results.size() < SEARCH_PAGE_SIZE
+        || !promptString("Show more results? (y/n): ").equalsIgnoreCase("y")) {
+        return;
+      }
+      page++;
+    }
+  }
+
+  /** Prompts for a String input with a message. */
+  private String promptString(String label) {
+    System.out.print(label);
+    return scanner.nextLine().trim();
+  }
+
+  /** Prompts for an optional LocalDate in YYYY-MM-DD format; blank input yields null. */
+  private LocalDate promptOptionalDate(String label) {
+    while (true) {
+      System.out.print(label);
+      String input = scanner.nextLine().trim();
+      if (input.isEmpty()) {
+        return null;
+      }
+      try {
+        return LocalDate.parse(input);
+      } catch (Exception e) {
+        System.out.println("Invalid date (use YYYY-MM-DD).");
+      }
+    }
+  }
+
+  /** Prompts for one enum value by its name; blank input yields null. */
+  private <T extends Enum<T>> T promptOptionalEnum(String label, Class<T> enumClass) {
+    String options = options(enumClass);
+    while (true) {
+      System.out.print(label + " (" + options + "): ");
+      String value = scanner.nextLine().trim().toUpperCase();
+      if (value.isEmpty()) {
+        return null;
+      }
+      try {
+        return Enum.valueOf(enumClass, value);
+      } catch (Exception e) {
+        System.out.println("Invalid input. Options: " + options);
+      }
+    }
+  }
+
+  /** Truncates a string to specified length, appending ellipsis if truncated. */
+  private static String truncate(String str, int length) {
+    if (str == null) return "-";
+    return str.length() > length ? str.substring(0, length - 3) + "..." : str;
+  }
+
+  private static <T> void addAnyOf(List<PaymentFilter> criteria, List<T> values, Function<T, PaymentFilter> toFilter) {
+    if (!values.isEmpty()) {
+      criteria.add(PaymentFilter.or(values.stream().map(toFilter).toList()));
+    }
+  }
+
+  private static String options(Class<? extends Enum<?>> enumClass) {
+    return String.join("/", Arrays.stream(enumClass.getEnumConstants()).map(Enum::name).toArray(String[]::new));
+  }
+}
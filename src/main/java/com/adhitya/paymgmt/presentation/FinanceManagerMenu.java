@@ -9,7 +9,6 @@ import com.adhitya.paymgmt.repository.CounterpartyRepository;
 import com.adhitya.paymgmt.repository.EmployeeRepository;
 
 import java.io.FileWriter;
-import java.math.BigDecimal;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -22,6 +21,7 @@ import java.util.Scanner;
  */
 public class FinanceManagerMenu {
   private final Scanner scanner;
+  private final ConsolePrompts prompts;
   private final PaymentService paymentService;
   private final ReportService reportService;
   private final CounterpartyRepository counterpartyRepo;
@@ -38,6 +38,7 @@ public class FinanceManagerMenu {
     EmployeeRepository employeeRepo
   ) {
     this.scanner = scanner;
+    this.prompts = new ConsolePrompts(scanner);
     this.paymentService = paymentService;
     this.reportService = reportService;
     this.counterpartyRepo = counterpartyRepo;
@@ -54,17 +55,19 @@ public class FinanceManagerMenu {
       System.out.println("2. Update Payment Status");
       System.out.println("3. View Payments");
       System.out.println("4. Generate Report");
-      System.out.println("5. Logout");
+      System.out.println("5. Search Payments");
+      System.out.println("6. Logout");
       System.out.println("=========================================");
-      System.out.print("Enter your choice (1–5): ");
+      System.out.print("Enter your choice (1–6): ");
 
-      int choice = readIntChoice(1, 5);
+      int choice = readIntChoice(1, 6);
       switch (choice) {
         case 1 -> handleAddPayment(manager);
         case 2 -> handleUpdatePaymentStatus(manager);
         case 3 -> handleViewPayments(manager);
         case 4 -> handleGenerateReport();
-        case 5 -> {
+        case 5 -> prompts.searchPayments(paymentService::searchByText);
+        case 6 -> {
           System.out.println("Logging out...");
           return;
         }
@@ -81,7 +84,7 @@ public class FinanceManagerMenu {
   private void handleAddPayment(User manager) {
     System.out.println("---- Add Payment ----");
 
-    BigDecimal amount = promptBigDecimal("Amount: ₹");
+    Money amount = promptAmount("Amount: ₹");
     PaymentDirection direction = promptEnumSelection("Direction", PaymentDirection.class);
     PaymentCategory category = promptEnumSelection("Category", PaymentCategory.class);
 
@@ -154,7 +157,7 @@ public class FinanceManagerMenu {
     System.out.println("Payment List:");
     System.out.printf("%-5s %-10s %-10s %-12s %-10s%n", "ID", "Amount", "Category", "Status", "Date");
     for (Payment p : list) {
-      System.out.printf("%-5d ₹%8.2f %-10s %-12s %-10s%n",
+      System.out.printf("%-5d ₹%8s %-10s %-12s %-10s%n",
         p.getId(), p.getAmount(), p.getCategory(), p.getStatus(), p.getCreatedAt().toLocalDate());
     }
 
@@ -185,8 +188,9 @@ public class FinanceManagerMenu {
     System.out.println("2. Date Range");
     System.out.println("3. Direction");
     System.out.println("4. Category");
-    System.out.print("Enter choice (1-4): ");
-    int choice = readIntChoice(1, 4);
+    System.out.println("5. Multiple Criteria");
+    System.out.print("Enter choice (1-5): ");
+    int choice = readIntChoice(1, 5);
     List<Payment> payments;
 
     switch (choice) {
@@ -204,6 +208,7 @@ public class FinanceManagerMenu {
         PaymentCategory cat = promptEnumSelection("Category", PaymentCategory.class);
         payments = paymentService.getPaymentsByCategory(cat);
       }
+      case 5 -> payments = paymentService.searchPayments(prompts.promptCriteria());
       default -> payments = paymentService.getAllPayments();
     }
 
@@ -213,7 +218,7 @@ public class FinanceManagerMenu {
       System.out.printf("%-5s %-10s %-10s %-10s %-10s %-10s %-20s%n",
         "ID", "Amount", "Direction", "Category", "Status", "By", "Date");
       for (Payment p : payments) {
-        System.out.printf("%-5d ₹%8.2f %-10s %-10s %-10s %-10s %-20s%n",
+        System.out.printf("%-5d ₹%8s %-10s %-10s %-10s %-10s %-20s%n",
           p.getId(), p.getAmount(), p.getPaymentDirection(), p.getCategory(),
           p.getStatus(), p.getCreatedBy().getUsername(), p.getCreatedAt());
       }
@@ -252,9 +257,9 @@ public class FinanceManagerMenu {
     ReportDataDTO reportData;
 
     try {
-      reportData = reportService.getCalculator().calculateReport(start, end);
+      reportData = reportService.generateReportData(start, end);
 
-      if (reportData == null || reportData.transactions().isEmpty()) {
+      if (reportData == null || reportData.transactionCount() == 0) {
         System.out.println("No payments found for the selected period.");
         return;
       }
@@ -326,12 +331,12 @@ public class FinanceManagerMenu {
     }
   }
 
-  private BigDecimal promptBigDecimal(String label) {
+  private Money promptAmount(String label) {
     while (true) {
       System.out.print(label);
       String input = scanner.nextLine().trim().replace(",", "");
       try {
-        return new BigDecimal(input);
+        return Money.parse(input);
       } catch (Exception e) {
         System.out.println("Invalid amount.");
       }
@@ -367,6 +372,7 @@ public class FinanceManagerMenu {
     }
   }
 
+
   private <T extends Enum<T>> T promptEnumSelection(String label, Class<T> enumClass) {
     while (true) {
       System.out.print(label + " ");
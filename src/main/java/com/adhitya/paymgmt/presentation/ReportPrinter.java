@@ -68,10 +68,10 @@ public class ReportPrinter {
   private void printAggregates(ReportDataDTO data) {
     System.out.println("\n💰 AGGREGATE TOTALS");
     System.out.println(SECTION_BORDER);
-    System.out.printf("%-20s ₹%,12.2f%n", "Total Inflow:", data.totalInflow());
-    System.out.printf("%-20s ₹%,12.2f%n", "Total Outflow:", data.totalOutflow());
-    System.out.printf("%-20s ₹%,12.2f%n", "Net Balance:", data.netBalance());
-    System.out.printf("%-20s ₹%,12.2f%n", "Avg Daily Value:", data.avgTransactionValue());
+    System.out.printf("%-20s ₹%12s%n", "Total Inflow:", data.totalInflow().toGroupedString());
+    System.out.printf("%-20s ₹%12s%n", "Total Outflow:", data.totalOutflow().toGroupedString());
+    System.out.printf("%-20s ₹%12s%n", "Net Balance:", data.netBalance().toGroupedString());
+    System.out.printf("%-20s ₹%12s%n", "Avg Daily Value:", data.avgTransactionValue().toGroupedString());
     System.out.println(SECTION_BORDER);
   }
 
@@ -79,7 +79,7 @@ public class ReportPrinter {
     System.out.println("\n📊 CATEGORY BREAKDOWN");
     System.out.println(SECTION_BORDER);
     data.categoryTotals().forEach((category, amount) ->
-      System.out.printf("%-20s ₹%,12.2f%n", category + ":", amount));
+      System.out.printf("%-20s ₹%12s%n", category + ":", amount.toGroupedString()));
     System.out.println(SECTION_BORDER);
   }
 
@@ -90,14 +90,14 @@ public class ReportPrinter {
     System.out.println("EMPLOYEES:");
     data.employeeTotals().forEach((id, amount) -> {
       String name = employeeRepository.findById(id).getName();
-      System.out.printf("- %-20s ₹%,12.2f%n", name + ":", amount);
+      System.out.printf("- %-20s ₹%12s%n", name + ":", amount.toGroupedString());
     });
 
     System.out.println("\nCOUNTERPARTIES:");
     data.counterpartyTotals().forEach((id, amount) -> {
       Counterparty cp = counterpartyRepository.findById(id);
-      System.out.printf("- %-20s (%s) ₹%,12.2f%n",
-        cp.getName(), cp.getPartyType(), amount);
+      System.out.printf("- %-20s (%s) ₹%12s%n",
+        cp.getName(), cp.getPartyType(), amount.toGroupedString());
     });
     System.out.println(SECTION_BORDER);
   }
@@ -114,9 +114,9 @@ public class ReportPrinter {
         ? employeeRepository.findById(p.getEmployee().getId()).getName()
         : counterpartyRepository.findById(p.getCounterParty().getId()).getName();
 
-      System.out.printf("%-10s ₹%,9.2f %-10s %-15s %-20s %-20s %-10s%n",
+      System.out.printf("%-10s ₹%9s %-10s %-15s %-20s %-20s %-10s%n",
         formatDate(p.getCreatedAt().toLocalDate()),
-        p.getAmount(),
+        p.getAmount().toGroupedString(),
         p.getPaymentDirection(),
         p.getCategory(),
         truncate(p.getDescription(), 18),
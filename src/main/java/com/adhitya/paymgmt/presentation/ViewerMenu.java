@@ -1,5 +1,7 @@
 package com.adhitya.paymgmt.presentation;
 
+import com.adhitya.paymgmt.analytics.PaymentFilter;
+import com.adhitya.paymgmt.config.ReadRouting;
 import com.adhitya.paymgmt.dto.ReportDataDTO;
 import com.adhitya.paymgmt.exception.EmptyResultException;
 import com.adhitya.paymgmt.model.*;
@@ -19,6 +21,7 @@ import java.util.Scanner;
  */
 public class ViewerMenu {
   private final Scanner scanner;
+  private final ConsolePrompts prompts;
   private final PaymentService paymentService;
   private final ReportService reportService;
 
@@ -27,6 +30,7 @@ public class ViewerMenu {
    */
   public ViewerMenu(Scanner scanner, PaymentService paymentService, ReportService reportService) {
     this.scanner = scanner;
+    this.prompts = new ConsolePrompts(scanner);
     this.paymentService = paymentService;
     this.reportService = reportService;
   }
@@ -39,14 +43,18 @@ public class ViewerMenu {
       System.out.println("========== Viewer Dashboard ==========");
       System.out.println("1. View Payments");
       System.out.println("2. Generate Report");
-      System.out.println("3. Logout");
+      System.out.println("3. Search Payments");
+      System.out.println("4. Logout");
       System.out.println("======================================");
-      System.out.print("Enter your choice (1–3): ");
-      int choice = readIntChoice(1, 3);
+      System.out.print("Enter your choice (1–4): ");
+      int choice = readIntChoice(1, 4);
       switch (choice) {
         case 1 -> handleViewPayments();
         case 2 -> handleGenerateReport();
-        case 3 -> {
+        // Search results are read from the replica when one is available
+        case 3 -> prompts.searchPayments((text, from, to, category, page, size) ->
+          ReadRouting.onReplica(() -> paymentService.searchByText(text, from, to, category, page, size)));
+        case 4 -> {
           System.out.println("Logging out...");
           return;
         }
@@ -56,7 +64,8 @@ public class ViewerMenu {
   }
 
   /**
-   * Handles viewing payments with filtering by all, date range, or category.
+   * Handles viewing payments with filtering by all, date range, category, or a
+   * combination of criteria. Listings are read from the replica when one is available.
    * Displays payments in a neatly formatted tabular form.
    */
   private void handleViewPayments() {
@@ -65,20 +74,25 @@ public class ViewerMenu {
     System.out.println("1. All");
     System.out.println("2. Date Range");
     System.out.println("3. Category");
-    System.out.print("Choose filter [1-3]: ");
-    int filter = readIntChoice(1, 3);
+    System.out.println("4. Multiple Criteria");
+    System.out.print("Choose filter [1-4]: ");
+    int filter = readIntChoice(1, 4);
 
     List<Payment> payments;
     switch (filter) {
-      case 1 -> payments = paymentService.getAllPayments();
+      case 1 -> payments = ReadRouting.onReplica(paymentService::getAllPayments);
       case 2 -> {
         LocalDate start = promptDate("From date (YYYY-MM-DD): ");
         LocalDate end = promptDate("To date (YYYY-MM-DD): ");
-        payments = paymentService.getPaymentsByDateRange(start, end);
+        payments = ReadRouting.onReplica(() -> paymentService.getPaymentsByDateRange(start, end));
       }
       case 3 -> {
         PaymentCategory cat = promptEnumSelection("Category", PaymentCategory.class);
-        payments = paymentService.getPaymentsByCategory(cat);
+        payments = ReadRouting.onReplica(() -> paymentService.getPaymentsByCategory(cat));
+      }
+      case 4 -> {
+        PaymentFilter criteria = prompts.promptCriteria();
+        payments = ReadRouting.onReplica(() -> paymentService.searchPayments(criteria));
       }
       default -> payments = paymentService.getAllPayments();
     }
@@ -89,7 +103,7 @@ public class ViewerMenu {
       System.out.printf("%-10s %-10s %-10s %-12s %-16s %-12s %-10s%n",
         "Date", "Amount", "Direction", "Category", "Description", "Status", "By");
       for (Payment p : payments) {
-        System.out.printf("%-10s ₹%8.2f %-10s %-12s %-16s %-12s %-10s%n",
+        System.out.printf("%-10s ₹%8s %-10s %-12s %-16s %-12s %-10s%n",
           p.getCreatedAt().toLocalDate(),
           p.getAmount(),
           p.getPaymentDirection(),
@@ -138,14 +152,6 @@ public class ViewerMenu {
     }
   }
 
-  /**
-   * Prompts for a String input with a message.
-   */
-  private String promptString(String label) {
-    System.out.print(label);
-    return scanner.nextLine().trim();
-  }
-
   /**
    * Prompts for an integer input with validation.
    */
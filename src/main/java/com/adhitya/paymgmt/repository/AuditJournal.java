@@ -0,0 +1,414 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, tamper-evident audit journal stored as memory-mapped segment files.
+ *
+ * <p>Each segment starts with a fixed header (magic, version, segment index, first sequence
+ * number and the hash that closed the previous segment) followed by records laid out as
+ * {@code [int payloadLength][long seq][long epochMillis][payload][32-byte hash]}.
+ * A record's hash is SHA-256 over the previous record's hash, its sequence number, timestamp
+ * and payload, so altering, removing or reordering any record breaks every hash after it.
+ * A zero length marks the end of the written data. Segments roll over once full.
+ *
+ * <p>Writes land directly in the page cache through the mapping, so they survive a JVM crash;
+ * {@link #flush()} forces them to disk. Scans read up to the end position committed when they
+ * start and do not block appends. Only one process may open a journal directory at a time.
+ */
+public class AuditJournal implements Closeable {
+  private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+
+  private static final int MAGIC = 0x4155444A; // "AUDJ"
+  private static final int VERSION = 1;
+  private static final int HASH_LENGTH = 32;
+  private static final int HEADER_LENGTH = 64;
+  private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES + Long.BYTES + HASH_LENGTH;
+  private static final String SEGMENT_PREFIX = "audit-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final String LOCK_FILE = "journal.lock";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final MessageDigest digest;
+  private final FileChannel lockChannel;
+  private final FileLock lock;
+
+  private MappedByteBuffer segment;
+  private long segmentIndex;
+  private long nextSeq;
+  private byte[] lastHash = new byte[HASH_LENGTH];
+
+  /**
+   * Opens (or creates) the journal in the given directory and positions at the end of the newest segment.
+   * Fails if another process already has the directory open, as two writers would fork the hash chain.
+   *
+   * @param directory   directory holding the segment files
+   * @param segmentSize size in bytes of each mapped segment
+   */
+  public AuditJournal(Path directory, int segmentSize) {
+    if (segmentSize < HEADER_LENGTH + RECORD_OVERHEAD + Integer.BYTES) {
+      throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.digest = newDigest();
+
+    try {
+      Files.createDirectories(directory);
+      this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      this.lock = tryLock(lockChannel);
+      if (lock == null) {
+        lockChannel.close();
+        throw new DataAccessException("Audit journal in " + directory + " is in use by another process");
+      }
+    }
+    catch (IOException ex) {
+      throw new DataAccessException("Failed to lock audit journal in " + directory, ex);
+    }
+
+    try {
+      List<Path> segments = listSegments();
+      if (segments.isEmpty()) {
+        openNewSegment(1, 1);
+      }
+      else {
+        recoverTail(segments.get(segments.size() - 1));
+      }
+    }
+    catch (IOException | RuntimeException ex) {
+      releaseLock();
+      throw new DataAccessException("Failed to open audit journal in " + directory, ex);
+    }
+  }
+
+  /** Appends an audit entry to the journal and returns its sequence number. */
+  public synchronized long append(AuditLog auditLog) {
+    return append(encode(auditLog), System.currentTimeMillis());
+  }
+
+  /** Forces all written records of the active segment to disk. */
+  public synchronized void flush() {
+    segment.force();
+  }
+
+  @Override
+  public synchronized void close() {
+    flush();
+    releaseLock();
+  }
+
+  /**
+   * Scans every segment sequentially and recomputes the hash chain.
+   * Stops at the first inconsistency and reports where it happened.
+   * Records appended while the scan runs are not covered.
+   */
+  public VerificationResult verify() {
+    return scan(committedEnd(), null);
+  }
+
+  /**
+   * Verifies the journal while writing every payload, one per line, to the given stream.
+   * Used for bulk audit dumps; the returned result covers the records written.
+   * Records appended while the export runs are not included.
+   */
+  public VerificationResult export(OutputStream out) {
+    return scan(committedEnd(), out);
+  }
+
+  /**
+   * Outcome of a journal scan.
+   *
+   * @param valid    true if every header, sequence number and hash checked out
+   * @param segments number of segments scanned
+   * @param records  number of records verified
+   * @param headHash hex hash of the last verified record, usable as an integrity proof
+   * @param failure  description of the first inconsistency, or null when valid
+   */
+  public record VerificationResult(boolean valid, int segments, long records, String headHash, String failure) {}
+
+  // ---------- Writing ----------
+
+  private long append(byte[] payload, long epochMillis) {
+    int recordLength = RECORD_OVERHEAD + payload.length;
+    if (HEADER_LENGTH + recordLength + Integer.BYTES > segmentSize) {
+      throw new IllegalArgumentException("Audit record too large for journal segment: " + payload.length);
+    }
+    // Always keep room for the zero-length end marker
+    if (segment.position() + recordLength + Integer.BYTES > segmentSize) {
+      rollOver();
+    }
+
+    long seq = nextSeq++;
+    byte[] hash = hash(digest, lastHash, seq, epochMillis, payload);
+
+    // Write the body first and the length last, so a torn write never looks like a complete record
+    int start = segment.position();
+    segment.position(start + Integer.BYTES);
+    segment.putLong(seq);
+    segment.putLong(epochMillis);
+    segment.put(payload);
+    segment.put(hash);
+    segment.putInt(segment.position(), 0);
+    segment.putInt(start, payload.length);
+
+    lastHash = hash;
+    return seq;
+  }
+
+  private void rollOver() {
+    segment.force();
+    try {
+      openNewSegment(segmentIndex + 1, nextSeq);
+    }
+    catch (IOException ex) {
+      throw new DataAccessException("Failed to roll over audit journal segment", ex);
+    }
+  }
+
+  private void openNewSegment(long index, long firstSeq) throws IOException {
+    Path path = segmentPath(index);
+    try (FileChannel channel = FileChannel.open(path,
+      StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segment.putInt(MAGIC);
+    segment.putInt(VERSION);
+    segment.putLong(index);
+    segment.putLong(firstSeq);
+    segment.put(lastHash);
+    segment.position(HEADER_LENGTH);
+    segment.putInt(HEADER_LENGTH, 0);
+
+    segmentIndex = index;
+    nextSeq = firstSeq;
+    logger.info("Opened audit journal segment {}", path);
+  }
+
+  private void recoverTail(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    Header header = readHeader(segment, path);
+    segmentIndex = header.index();
+    nextSeq = header.firstSeq();
+    lastHash = header.prevHash();
+
+    segment.position(HEADER_LENGTH);
+    while (true) {
+      int length = segment.getInt(segment.position());
+      if (length <= 0 || segment.position() + RECORD_OVERHEAD + length > segmentSize) {
+        break;
+      }
+      segment.position(segment.position() + Integer.BYTES);
+      nextSeq = segment.getLong() + 1;
+      segment.position(segment.position() + Long.BYTES + length);
+      lastHash = new byte[HASH_LENGTH];
+      segment.get(lastHash);
+    }
+  }
+
+  // ---------- Scanning ----------
+
+  // End of the last complete record: the segment being written and the offset of its end marker
+  private record Position(Path segment, int offset) {}
+
+  private synchronized Position committedEnd() {
+    return new Position(segmentPath(segmentIndex), segment.position());
+  }
+
+  // Runs without the monitor, so appends continue; everything before the end position is immutable
+  private VerificationResult scan(Position end, OutputStream out) {
+    MessageDigest scanDigest = newDigest();
+    byte[] expectedPrev = new byte[HASH_LENGTH];
+    long expectedSeq = 1;
+    long records = 0;
+    int segments = 0;
+
+    try {
+      for (Path path : listSegments()) {
+        if (path.compareTo(end.segment()) > 0) {
+          break;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+          buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        segments++;
+
+        Header header = readHeader(buffer, path);
+        if (header.firstSeq() != expectedSeq || !MessageDigest.isEqual(header.prevHash(), expectedPrev)) {
+          return failure(segments, records, expectedPrev, "Chain broken at start of " + path.getFileName());
+        }
+
+        buffer.position(HEADER_LENGTH);
+        if (path.equals(end.segment())) {
+          buffer.limit(end.offset());
+        }
+        while (buffer.remaining() >= RECORD_OVERHEAD) {
+          int length = buffer.getInt();
+          if (length == 0) {
+            break;
+          }
+          if (length < 0 || length > buffer.remaining() - RECORD_OVERHEAD + Integer.BYTES) {
+            return failure(segments, records, expectedPrev, "Corrupt record length in " + path.getFileName());
+          }
+          long seq = buffer.getLong();
+          long epochMillis = buffer.getLong();
+          byte[] payload = new byte[length];
+          buffer.get(payload);
+          byte[] storedHash = new byte[HASH_LENGTH];
+          buffer.get(storedHash);
+
+          if (seq != expectedSeq) {
+            return failure(segments, records, expectedPrev, "Expected sequence " + expectedSeq + " but found " + seq);
+          }
+          byte[] computed = hash(scanDigest, expectedPrev, seq, epochMillis, payload);
+          if (!MessageDigest.isEqual(computed, storedHash)) {
+            return failure(segments, records, expectedPrev, "Hash mismatch at sequence " + seq);
+          }
+
+          if (out != null) {
+            out.write(payload);
+            out.write('\n');
+          }
+          expectedPrev = storedHash;
+          expectedSeq++;
+          records++;
+        }
+      }
+    }
+    catch (IOException ex) {
+      throw new DataAccessException("Failed to scan audit journal", ex);
+    }
+
+    return new VerificationResult(true, segments, records, HexFormat.of().formatHex(expectedPrev), null);
+  }
+
+  private VerificationResult failure(int segments, long records, byte[] lastGood, String message) {
+    logger.warn("Audit journal verification failed: {}", message);
+    return new VerificationResult(false, segments, records, HexFormat.of().formatHex(lastGood), message);
+  }
+
+  private record Header(long index, long firstSeq, byte[] prevHash) {}
+
+  private Header readHeader(ByteBuffer buffer, Path path) {
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new DataAccessException("Not an audit journal segment: " + path);
+    }
+    byte[] prevHash = new byte[HASH_LENGTH];
+    buffer.get(24, prevHash);
+    return new Header(buffer.getLong(8), buffer.getLong(16), prevHash);
+  }
+
+  // ---------- Helpers ----------
+
+  private static byte[] hash(MessageDigest digest, byte[] prevHash, long seq, long epochMillis, byte[] payload) {
+    digest.reset();
+    digest.update(prevHash);
+    digest.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(seq).putLong(epochMillis).array());
+    digest.update(payload);
+    return digest.digest();
+  }
+
+  /** Encodes an entry as a single tab-separated line, escaping tabs, newlines and backslashes. */
+  private byte[] encode(AuditLog auditLog) {
+    StringBuilder line = new StringBuilder(128);
+    line.append(auditLog.getId()).append('\t')
+      .append(auditLog.getPayment() != null ? auditLog.getPayment().getId() : "").append('\t');
+    appendEscaped(line, auditLog.getFieldChanged()).append('\t');
+    appendEscaped(line, auditLog.getOldValue()).append('\t');
+    appendEscaped(line, auditLog.getNewValue()).append('\t');
+    line.append(auditLog.getChangedBy() != null ? auditLog.getChangedBy().getId() : "").append('\t');
+    appendEscaped(line, auditLog.getChangedBy() != null ? auditLog.getChangedBy().getUsername() : null).append('\t')
+      .append(auditLog.getChangedAt());
+    return line.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private StringBuilder appendEscaped(StringBuilder line, String value) {
+    if (value == null) {
+      return line;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\t' -> line.append("\\t");
+        case '\n' -> line.append("\\n");
+        case '\r' -> line.append("\\r");
+        case '\\' -> line.append("\\\\");
+        default -> line.append(c);
+      }
+    }
+    return line;
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+        .filter(p -> {
+          String name = p.getFileName().toString();
+          return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+        })
+        .sorted()
+        .collect(Collectors.toList());
+    }
+  }
+
+  private Path segmentPath(long index) {
+    return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+  }
+
+  // Null when another process, or another journal in this JVM, holds the lock
+  private static FileLock tryLock(FileChannel channel) throws IOException {
+    try {
+      return channel.tryLock();
+    }
+    catch (OverlappingFileLockException ex) {
+      return null;
+    }
+  }
+
+  private void releaseLock() {
+    try {
+      if (lock.isValid()) {
+        lock.release();
+      }
+      lockChannel.close();
+    }
+    catch (IOException ex) {
+      logger.warn("Failed to release audit journal lock in {}", directory, ex);
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.dto.AuditLogEntryDTO;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.util.Lazy;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.IntFunction;
+
+/**
+ * Maps rows selected with {@link #SELECT}, in that order, to audit log entries.
+ * The full payment is only loaded, through the given lookup, if an entry's lazy
+ * handle is used.
+ */
+public final class AuditLogEntryRowMapper implements RowMapper<AuditLogEntryDTO> {
+  // Joins in only the columns the audit views display, instead of hydrating full entities per row
+  public static final String SELECT =
+    "SELECT a.id, a.payment_id, p.amount, a.field_changed, a.old_value, a.new_value, u.username, a.changed_at " +
+    "FROM audit_logs a " +
+    "LEFT JOIN payments p ON p.id = a.payment_id " +
+    "LEFT JOIN users u ON u.id = a.changed_by ";
+
+  private final IntFunction<Payment> payments;
+
+  public AuditLogEntryRowMapper(IntFunction<Payment> payments) {
+    this.payments = payments;
+  }
+
+  @Override
+  public AuditLogEntryDTO map(ResultSet resultSet) throws SQLException {
+    int paymentId = resultSet.getInt(2);
+    String amount = resultSet.getString(3);
+    return new AuditLogEntryDTO(
+      resultSet.getInt(1),
+      paymentId,
+      amount != null ? Money.parse(amount) : null,
+      resultSet.getString(4),
+      resultSet.getString(5),
+      resultSet.getString(6),
+      resultSet.getString(7),
+      resultSet.getTimestamp(8).toLocalDateTime(),
+      new Lazy<>(() -> payments.apply(paymentId))
+    );
+  }
+}
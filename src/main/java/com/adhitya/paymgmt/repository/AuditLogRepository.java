@@ -1,8 +1,14 @@
 package com.adhitya.paymgmt.repository;
 
 import com.adhitya.paymgmt.config.DatabaseConfig;
+import com.adhitya.paymgmt.dto.AuditLogEntryDTO;
 import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.AuditLog;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.util.Lazy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,43 +16,55 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AuditLogRepository {
   private static final Logger logger = LoggerFactory.getLogger(AuditLogRepository.class);
+  private static final OperationTimer FIND_BY_PAYMENT_ID = Metrics.repository(AuditLogRepository.class, "findByPaymentId");
+  private static final OperationTimer FIND_ALL = Metrics.repository(AuditLogRepository.class, "findAll");
+  private static final OperationTimer FIND_ENTRIES_BEFORE = Metrics.repository(AuditLogRepository.class, "findEntriesBefore");
+  private static final OperationTimer FIND_ENTRIES_BY_PAYMENT_ID = Metrics.repository(AuditLogRepository.class, "findEntriesByPaymentId");
+  private static final OperationTimer SAVE = Metrics.repository(AuditLogRepository.class, "save");
+
   private final PaymentRepository paymentRepository;
   private final UserRepository userRepository;
+  private final AuditLogEntryRowMapper entryMapper;
 
   public AuditLogRepository(PaymentRepository paymentRepository, UserRepository userRepository) {
     this.paymentRepository = paymentRepository;
     this.userRepository = userRepository;
+    this.entryMapper = new AuditLogEntryRowMapper(paymentRepository::findById);
   }
 
   public List<AuditLog> findByPaymentId(int paymentId) {
-    String sql = "SELECT id, payment_id, field_changed, old_value, new_value, changed_by, changed_at" +
+    String sql = "SELECT " + AuditLogRowMapper.COLUMNS + " " +
                  "FROM audit_logs " +
                  "WHERE payment_id = ?";
     List<AuditLog> auditLogList = new ArrayList<>();
-
-    try(Connection connection = DatabaseConfig.getConnection();
+    Map<Integer, User> userCache = new HashMap<>();
+    // Every row shares the same payment, so it is loaded once for the whole result
+    Lazy<Payment> payment = new Lazy<>(() -> paymentRepository.findById(paymentId));
+    AuditLogRowMapper mapper = new AuditLogRowMapper(
+      ignored -> payment.get(),
+      id -> userCache.computeIfAbsent(id, userRepository::findById));
+
+    try(OperationTimer.Timing timing = FIND_BY_PAYMENT_ID.start();
+        Connection connection = DatabaseConfig.getConnection();
         PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,paymentId);
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        auditLogList.add(new AuditLog(
-          resultSet.getInt("id"),
-          paymentRepository.findById(resultSet.getInt("payment_id")),
-          resultSet.getString("field_changed"),
-          resultSet.getString("old_value"),
-          resultSet.getString("new_value"),
-          userRepository.findById(resultSet.getInt("changed_by")),
-          resultSet.getTimestamp("changed_at").toLocalDateTime()
-        ));
+        auditLogList.add(mapper.map(resultSet));
       }
+      timing.addRows(auditLogList.size());
     }
     catch(SQLException ex) {
       logger.error("Error finding audit logs by paymentId: " + paymentId, ex);
@@ -57,25 +75,24 @@ public class AuditLogRepository {
   }
 
   public List<AuditLog> findAll() {
-    String sql = "SELECT id, payment_id, field_changed, old_value, new_value, changed_by, changed_at " +
+    String sql = "SELECT " + AuditLogRowMapper.COLUMNS + " " +
                  "FROM audit_logs";
     List<AuditLog> auditLogList = new ArrayList<>();
-
-    try(Connection connection = DatabaseConfig.getConnection();
+    Map<Integer, Payment> paymentCache = new HashMap<>();
+    Map<Integer, User> userCache = new HashMap<>();
+    AuditLogRowMapper mapper = new AuditLogRowMapper(
+      id -> paymentCache.computeIfAbsent(id, paymentRepository::findById),
+      id -> userCache.computeIfAbsent(id, userRepository::findById));
+
+    try(OperationTimer.Timing timing = FIND_ALL.start();
+        Connection connection = DatabaseConfig.getConnection();
         PreparedStatement preparedStatement = connection.prepareStatement(sql);
         ResultSet resultSet = preparedStatement.executeQuery();
     ) {
       while(resultSet.next()) {
-        auditLogList.add(new AuditLog(
-          resultSet.getInt("id"),
-          paymentRepository.findById(resultSet.getInt("payment_id")),
-          resultSet.getString("field_changed"),
-          resultSet.getString("old_value"),
-          resultSet.getString("new_value"),
-          userRepository.findById(resultSet.getInt("changed_by")),
-          resultSet.getTimestamp("changed_at").toLocalDateTime()
-        ));
+        auditLogList.add(mapper.map(resultSet));
       }
+      timing.addRows(auditLogList.size());
     }
     catch(SQLException ex) {
       logger.error("Error finding audit logs", ex);
@@ -85,6 +102,88 @@ public class AuditLogRepository {
     return auditLogList;
   }
 
+  /**
+   * Returns one page of audit log entries, newest first, using keyset pagination
+   * over (changed_at, id). Pass a null {@code beforeChangedAt} for the first page and
+   * the last entry of the previous page for subsequent pages. An optional
+   * {@code since} lower bound limits the scan to recent history.
+   * Both bounds are plain range predicates on changed_at so the planner can
+   * prune monthly partitions outside the requested window.
+   */
+  public List<AuditLogEntryDTO> findEntriesBefore(LocalDateTime since, LocalDateTime beforeChangedAt,
+                                                  int beforeId, int limit) {
+    List<String> conditions = new ArrayList<>();
+    if (since != null) {
+      conditions.add("a.changed_at >= ?");
+    }
+    if (beforeChangedAt != null) {
+      conditions.add("a.changed_at <= ?");
+      conditions.add("(a.changed_at, a.id) < (?, ?)");
+    }
+    String sql = AuditLogEntryRowMapper.SELECT +
+                 (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ") +
+                 "ORDER BY a.changed_at DESC, a.id DESC " +
+                 "LIMIT ?";
+    List<AuditLogEntryDTO> entries = new ArrayList<>();
+
+    try(OperationTimer.Timing timing = FIND_ENTRIES_BEFORE.start();
+        Connection connection = DatabaseConfig.getConnection();
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+    ) {
+      int index = 1;
+      if (since != null) {
+        preparedStatement.setTimestamp(index++, Timestamp.valueOf(since));
+      }
+      if (beforeChangedAt != null) {
+        Timestamp before = Timestamp.valueOf(beforeChangedAt);
+        preparedStatement.setTimestamp(index++, before);
+        preparedStatement.setTimestamp(index++, before);
+        preparedStatement.setInt(index++, beforeId);
+      }
+      preparedStatement.setInt(index, limit);
+
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while(resultSet.next()) {
+          entries.add(entryMapper.map(resultSet));
+        }
+        timing.addRows(entries.size());
+      }
+    }
+    catch(SQLException ex) {
+      logger.error("Error finding audit log entries before: " + beforeChangedAt, ex);
+      throw new DataAccessException("Failed to find audit log/logs", ex);
+    }
+
+    return entries;
+  }
+
+  public List<AuditLogEntryDTO> findEntriesByPaymentId(int paymentId) {
+    String sql = AuditLogEntryRowMapper.SELECT +
+                 "WHERE a.payment_id = ? " +
+                 "ORDER BY a.changed_at DESC, a.id DESC";
+    List<AuditLogEntryDTO> entries = new ArrayList<>();
+
+    try(OperationTimer.Timing timing = FIND_ENTRIES_BY_PAYMENT_ID.start();
+        Connection connection = DatabaseConfig.getConnection();
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+    ) {
+      preparedStatement.setInt(1, paymentId);
+
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while(resultSet.next()) {
+          entries.add(entryMapper.map(resultSet));
+        }
+        timing.addRows(entries.size());
+      }
+    }
+    catch(SQLException ex) {
+      logger.error("Error finding audit log entries by paymentId: " + paymentId, ex);
+      throw new DataAccessException("Failed to find audit log/logs", ex);
+    }
+
+    return entries;
+  }
+
   public void save(AuditLog auditLog) {
     if (auditLog.getPayment() == null || auditLog.getChangedBy() == null) {
       throw new IllegalArgumentException("Payment/changedBy cannot be null");
@@ -94,31 +193,33 @@ public class AuditLogRepository {
                  "(payment_id, field_changed, old_value, new_value, changed_by, changed_at) \n" +
                  "VALUES (?, ?, ?, ?, ?, ?)";
 
-    try(Connection connection = DatabaseConfig.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(sql);
-    ) {
-      preparedStatement.setInt(1,auditLog.getPayment().getId());
-      preparedStatement.setString(2, auditLog.getFieldChanged());
-      preparedStatement.setString(3,auditLog.getOldValue());
-      preparedStatement.setString(4,auditLog.getNewValue());
-      preparedStatement.setInt(5,auditLog.getChangedBy().getId());
-      preparedStatement.setTimestamp(6, Timestamp.valueOf(auditLog.getChangedAt()));
-
-      int affectedRows = preparedStatement.executeUpdate();
-
-      if (affectedRows == 0) {
-        throw new DataAccessException("Failed to save audit log 0 rows affected");
-      }
+    SAVE.run(() -> {
+      try(Connection connection = DatabaseConfig.getConnection();
+          PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+      ) {
+        preparedStatement.setInt(1,auditLog.getPayment().getId());
+        preparedStatement.setString(2, auditLog.getFieldChanged());
+        preparedStatement.setString(3,auditLog.getOldValue());
+        preparedStatement.setString(4,auditLog.getNewValue());
+        preparedStatement.setInt(5,auditLog.getChangedBy().getId());
+        preparedStatement.setTimestamp(6, Timestamp.valueOf(auditLog.getChangedAt()));
+
+        int affectedRows = preparedStatement.executeUpdate();
+
+        if (affectedRows == 0) {
+          throw new DataAccessException("Failed to save audit log 0 rows affected");
+        }
 
-      try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
-        if (rs.next()) {
-          auditLog.setId(rs.getInt(1));
+        try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+          if (rs.next()) {
+            auditLog.setId(rs.getInt(1));
+          }
         }
       }
-    }
-    catch(SQLException ex) {
-      logger.error("Error saving audit log for payment ID: " + auditLog.getPayment().getId(), ex);
-      throw new DataAccessException("Failed to save audit log", ex);
-    }
+      catch(SQLException ex) {
+        logger.error("Error saving audit log for payment ID: " + auditLog.getPayment().getId(), ex);
+        throw new DataAccessException("Failed to save audit log", ex);
+      }
+    });
   }
 }
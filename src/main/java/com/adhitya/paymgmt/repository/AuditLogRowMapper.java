@@ -0,0 +1,38 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.model.AuditLog;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.IntFunction;
+
+/**
+ * Maps rows selected with {@link #COLUMNS}, in that order, to audit logs. The
+ * payment and the user who made the change are resolved through the given lookups.
+ */
+public final class AuditLogRowMapper implements RowMapper<AuditLog> {
+  public static final String COLUMNS = "id, payment_id, field_changed, old_value, new_value, changed_by, changed_at";
+
+  private final IntFunction<Payment> payments;
+  private final IntFunction<User> users;
+
+  public AuditLogRowMapper(IntFunction<Payment> payments, IntFunction<User> users) {
+    this.payments = payments;
+    this.users = users;
+  }
+
+  @Override
+  public AuditLog map(ResultSet resultSet) throws SQLException {
+    return new AuditLog(
+      resultSet.getInt(1),
+      payments.apply(resultSet.getInt(2)),
+      resultSet.getString(3),
+      resultSet.getString(4),
+      resultSet.getString(5),
+      users.apply(resultSet.getInt(6)),
+      resultSet.getTimestamp(7).toLocalDateTime()
+    );
+  }
+}
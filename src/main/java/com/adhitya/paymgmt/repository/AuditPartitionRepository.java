@@ -0,0 +1,149 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.config.DatabaseConfig;
+import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manages the monthly range partitions of {@code audit_logs}.
+ * Partitions are named {@code audit_logs_pYYYY_MM} and cover one calendar month of changed_at.
+ */
+public class AuditPartitionRepository {
+  private static final Logger logger = LoggerFactory.getLogger(AuditPartitionRepository.class);
+  private static final OperationTimer IS_PARTITIONED = Metrics.repository(AuditPartitionRepository.class, "isPartitioned");
+  private static final OperationTimer FIND_PARTITION_MONTHS = Metrics.repository(AuditPartitionRepository.class, "findPartitionMonths");
+  private static final OperationTimer CREATE_PARTITION = Metrics.repository(AuditPartitionRepository.class, "createPartition");
+  private static final OperationTimer DETACH_PARTITION = Metrics.repository(AuditPartitionRepository.class, "detachPartition");
+  private static final OperationTimer EXPORT_PARTITION = Metrics.repository(AuditPartitionRepository.class, "exportPartition");
+  private static final OperationTimer DROP_PARTITION = Metrics.repository(AuditPartitionRepository.class, "dropPartition");
+  private static final String PARTITION_PREFIX = "audit_logs_p";
+  private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  /** Returns true once audit_logs has been converted to a partitioned table. */
+  public boolean isPartitioned() {
+    String sql = "SELECT 1 FROM pg_partitioned_table pt " +
+                 "JOIN pg_class c ON c.oid = pt.partrelid " +
+                 "WHERE c.relname = 'audit_logs'";
+
+    return IS_PARTITIONED.time(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql);
+           ResultSet resultSet = preparedStatement.executeQuery()
+      ) {
+        return resultSet.next();
+      }
+      catch (SQLException ex) {
+        logger.error("Failed to inspect audit_logs partitioning", ex);
+        throw new DataAccessException("Database error while inspecting audit partitions", ex);
+      }
+    });
+  }
+
+  /** Lists the months that currently have an attached monthly partition. */
+  public List<YearMonth> findPartitionMonths() {
+    String sql = "SELECT c.relname FROM pg_inherits i " +
+                 "JOIN pg_class c ON c.oid = i.inhrelid " +
+                 "JOIN pg_class p ON p.oid = i.inhparent " +
+                 "WHERE p.relname = 'audit_logs' AND c.relname LIKE 'audit\\_logs\\_p%' " +
+                 "ORDER BY c.relname";
+    List<YearMonth> months = new ArrayList<>();
+
+    try (OperationTimer.Timing timing = FIND_PARTITION_MONTHS.start();
+         Connection connection = DatabaseConfig.getConnection();
+         PreparedStatement preparedStatement = connection.prepareStatement(sql);
+         ResultSet resultSet = preparedStatement.executeQuery()
+    ) {
+      while (resultSet.next()) {
+        String name = resultSet.getString("relname");
+        months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX_FORMAT));
+      }
+      timing.addRows(months.size());
+    }
+    catch (SQLException ex) {
+      logger.error("Failed to list audit partitions", ex);
+      throw new DataAccessException("Database error while listing audit partitions", ex);
+    }
+
+    return months;
+  }
+
+  /** Creates the partition for the given month if it does not already exist. */
+  public void createPartition(YearMonth month) {
+    String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                 " PARTITION OF audit_logs FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                 month.plusMonths(1).atDay(1) + "')";
+
+    CREATE_PARTITION.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           Statement statement = connection.createStatement()
+      ) {
+        statement.execute(sql);
+      }
+      catch (SQLException ex) {
+        logger.error("Failed to create audit partition for " + month, ex);
+        throw new DataAccessException("Failed to create audit partition", ex);
+      }
+    });
+  }
+
+  /** Detaches the partition for the given month; it stays queryable as a standalone table. */
+  public void detachPartition(YearMonth month) {
+    executeDdl(DETACH_PARTITION, "ALTER TABLE audit_logs DETACH PARTITION " + partitionName(month), month);
+  }
+
+  /** Streams a detached partition as CSV (with header) into the given stream using COPY. */
+  public long exportPartition(YearMonth month, OutputStream out) {
+    String sql = "COPY " + partitionName(month) + " TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    try (OperationTimer.Timing timing = EXPORT_PARTITION.start();
+         Connection connection = DatabaseConfig.getConnection()) {
+      long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+      timing.addRows(rows);
+      return rows;
+    }
+    catch (SQLException | IOException ex) {
+      logger.error("Failed to export audit partition for " + month, ex);
+      throw new DataAccessException("Failed to export audit partition", ex);
+    }
+  }
+
+  /** Drops a detached partition table. */
+  public void dropPartition(YearMonth month) {
+    executeDdl(DROP_PARTITION, "DROP TABLE IF EXISTS " + partitionName(month), month);
+  }
+
+  /** Returns the table name used for the given month's partition. */
+  public String partitionName(YearMonth month) {
+    return PARTITION_PREFIX + month.format(SUFFIX_FORMAT);
+  }
+
+  private void executeDdl(OperationTimer timer, String sql, YearMonth month) {
+    timer.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           Statement statement = connection.createStatement()
+      ) {
+        statement.execute(sql);
+      }
+      catch (SQLException ex) {
+        logger.error("Failed partition DDL for " + month + ": " + sql, ex);
+        throw new DataAccessException("Failed to manage audit partition", ex);
+      }
+    });
+  }
+}
@@ -1,7 +1,10 @@
 package com.adhitya.paymgmt.repository;
 
+import com.adhitya.paymgmt.config.ChangeNotifications;
 import com.adhitya.paymgmt.config.DatabaseConfig;
 import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.Counterparty;
 import com.adhitya.paymgmt.model.enums.PartyType;
 import org.slf4j.Logger;
@@ -13,33 +16,29 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CounterpartyRepository {
   private static final Logger logger = LoggerFactory.getLogger(CounterpartyRepository.class);
+  private static final OperationTimer FIND_BY_ID = Metrics.repository(CounterpartyRepository.class, "findById");
+  private static final OperationTimer FIND_ALL_BY_TYPE = Metrics.repository(CounterpartyRepository.class, "findAllByType");
+  private static final OperationTimer FIND_ALL = Metrics.repository(CounterpartyRepository.class, "findAll");
+  private static final OperationTimer SAVE = Metrics.repository(CounterpartyRepository.class, "save");
 
   public Counterparty findById(int id) {
-    String sql = "SELECT id, name, type, mobile, created_at FROM counterparties WHERE id = ?";
+    String sql = "SELECT " + CounterpartyRowMapper.COLUMNS + " FROM counterparties WHERE id = ?";
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_BY_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,id);
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (resultSet.next()) {
-          Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-          LocalDateTime createdAt = (createdAtTs != null) ? createdAtTs.toLocalDateTime() : null;
-
-          return new Counterparty(
-            resultSet.getInt("id"),
-            resultSet.getString("name"),
-            PartyType.valueOf(resultSet.getString("type")),
-            resultSet.getString("mobile"),
-            createdAt
-          );
+          timing.addRows(1);
+          return CounterpartyRowMapper.INSTANCE.map(resultSet);
         }
       }
     }
@@ -52,29 +51,20 @@ public class CounterpartyRepository {
   }
 
   public List<Counterparty> findAllByType(PartyType type) {
-    String sql = "SELECT id, name, type, mobile, created_at FROM counterparties WHERE type = ?";
+    String sql = "SELECT " + CounterpartyRowMapper.COLUMNS + " FROM counterparties WHERE type = ?";
     List<Counterparty> counterpartyList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_ALL_BY_TYPE.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setString(1,type.getDbValue());
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-        LocalDateTime createdAt = (createdAtTs != null) ? createdAtTs.toLocalDateTime() : null;
-
-        counterpartyList.add(
-          new Counterparty(
-            resultSet.getInt("id"),
-            resultSet.getString("name"),
-            PartyType.valueOf(resultSet.getString("type")),
-            resultSet.getString("mobile"),
-            createdAt
-          )
-        );
+        counterpartyList.add(CounterpartyRowMapper.INSTANCE.map(resultSet));
       }
+      timing.addRows(counterpartyList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve counterparties", ex);
@@ -85,28 +75,19 @@ public class CounterpartyRepository {
   }
 
   public List<Counterparty> findAll() {
-    String sql = "SELECT id, name, type, mobile, created_at FROM counterparties";
+    String sql = "SELECT " + CounterpartyRowMapper.COLUMNS + " FROM counterparties";
     List<Counterparty> counterpartyList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_ALL.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
          ResultSet resultSet = preparedStatement.executeQuery();
     )
     {
       while(resultSet.next()) {
-        Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-        LocalDateTime createdAt = (createdAtTs != null) ? createdAtTs.toLocalDateTime() : null;
-
-        counterpartyList.add(
-          new Counterparty(
-            resultSet.getInt("id"),
-            resultSet.getString("name"),
-            PartyType.valueOf(resultSet.getString("type")),
-            resultSet.getString("mobile"),
-            createdAt
-          )
-        );
+        counterpartyList.add(CounterpartyRowMapper.INSTANCE.map(resultSet));
       }
+      timing.addRows(counterpartyList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve counterparties", ex);
@@ -128,35 +109,38 @@ public class CounterpartyRepository {
 
     String sql = "INSERT INTO counterparties (name, type, mobile, created_at) VALUES (?, ?, ?, ?)";
 
-    try(Connection connection = DatabaseConfig.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-    ) {
-      preparedStatement.setString(1, counterparty.getName());
-      preparedStatement.setString(2,counterparty.getPartyType().getDbValue());
-      preparedStatement.setString(3,counterparty.getMobile());
+    SAVE.run(() -> {
+      try(Connection connection = DatabaseConfig.getConnection();
+          PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+      ) {
+        preparedStatement.setString(1, counterparty.getName());
+        preparedStatement.setString(2,counterparty.getPartyType().getDbValue());
+        preparedStatement.setString(3,counterparty.getMobile());
 
-      if (counterparty.getCreatedAt() != null) {
-        preparedStatement.setTimestamp(4, Timestamp.valueOf(counterparty.getCreatedAt()));
-      }
-      else {
-        preparedStatement.setTimestamp(4, null);
-      }
+        if (counterparty.getCreatedAt() != null) {
+          preparedStatement.setTimestamp(4, Timestamp.valueOf(counterparty.getCreatedAt()));
+        }
+        else {
+          preparedStatement.setTimestamp(4, null);
+        }
 
-      int affectedRows = preparedStatement.executeUpdate();
+        int affectedRows = preparedStatement.executeUpdate();
 
-      if (affectedRows == 0) {
-        throw new DataAccessException("Failed to save counterparty: 0 rows affected");
-      }
+        if (affectedRows == 0) {
+          throw new DataAccessException("Failed to save counterparty: 0 rows affected");
+        }
 
-      try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
-        if (rs.next()) {
-          counterparty.setId(rs.getInt(1));
+        try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+          if (rs.next()) {
+            counterparty.setId(rs.getInt(1));
+          }
         }
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.COUNTERPARTY, counterparty.getId());
       }
-    }
-    catch (SQLException ex) {
-      logger.error("Error saving counterparty: " + counterparty.getName(), ex);
-      throw new DataAccessException("Failed to save counterparty", ex);
-    }
+      catch (SQLException ex) {
+        logger.error("Error saving counterparty: " + counterparty.getName(), ex);
+        throw new DataAccessException("Failed to save counterparty", ex);
+      }
+    });
   }
 }
@@ -0,0 +1,29 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.enums.PartyType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps rows selected with {@link #COLUMNS}, in that order, to counterparties. */
+public final class CounterpartyRowMapper implements RowMapper<Counterparty> {
+  public static final String COLUMNS = "id, name, type, mobile, created_at";
+
+  public static final CounterpartyRowMapper INSTANCE = new CounterpartyRowMapper();
+
+  private static final EnumColumn<PartyType> PARTY_TYPES = EnumColumn.of(PartyType.class, PartyType::getDbValue);
+
+  private CounterpartyRowMapper() {}
+
+  @Override
+  public Counterparty map(ResultSet resultSet) throws SQLException {
+    return new Counterparty(
+      resultSet.getInt(1),
+      resultSet.getString(2),
+      PARTY_TYPES.decode(resultSet.getString(3)),
+      resultSet.getString(4),
+      RowMapper.toLocalDateTime(resultSet.getTimestamp(5))
+    );
+  }
+}
@@ -1,7 +1,10 @@
 package com.adhitya.paymgmt.repository;
 
+import com.adhitya.paymgmt.config.ChangeNotifications;
 import com.adhitya.paymgmt.config.DatabaseConfig;
 import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.Employee;
 
 import org.slf4j.Logger;
@@ -13,32 +16,28 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class EmployeeRepository {
   private static final Logger logger = LoggerFactory.getLogger(EmployeeRepository.class);
+  private static final OperationTimer FIND_BY_ID = Metrics.repository(EmployeeRepository.class, "findById");
+  private static final OperationTimer FIND_ALL = Metrics.repository(EmployeeRepository.class, "findAll");
+  private static final OperationTimer SAVE = Metrics.repository(EmployeeRepository.class, "save");
 
   public Employee findById(int id) {
-    String sql = "SELECT id, name, department, created_at FROM employees WHERE id = ?";
+    String sql = "SELECT " + EmployeeRowMapper.COLUMNS + " FROM employees WHERE id = ?";
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_BY_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,id);
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (resultSet.next()) {
-          Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-          LocalDateTime createdAt = (createdAtTs != null) ? createdAtTs.toLocalDateTime() : null;
-
-          return new Employee(
-            resultSet.getInt("id"),
-            resultSet.getString("name"),
-            resultSet.getString("department"),
-            createdAt
-          );
+          timing.addRows(1);
+          return EmployeeRowMapper.INSTANCE.map(resultSet);
         }
       }
     }
@@ -51,25 +50,19 @@ public class EmployeeRepository {
   }
 
   public List<Employee> findAll() {
-    String sql = "SELECT id, name, department, created_at FROM employees";
+    String sql = "SELECT " + EmployeeRowMapper.COLUMNS + " FROM employees";
     List<Employee> employeeList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_ALL.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
          ResultSet resultSet = preparedStatement.executeQuery();
     ) {
 
       while(resultSet.next()) {
-        Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-        LocalDateTime createdAt = (createdAtTs != null) ? createdAtTs.toLocalDateTime() : null;
-
-        employeeList.add(new Employee(
-          resultSet.getInt("id"),
-          resultSet.getString("name"),
-          resultSet.getString("department"),
-          createdAt
-        ));
+        employeeList.add(EmployeeRowMapper.INSTANCE.map(resultSet));
       }
+      timing.addRows(employeeList.size());
     }
     catch (SQLException ex) {
       logger.error("Failed to retrieve employees", ex);
@@ -87,28 +80,31 @@ public class EmployeeRepository {
 
     String sql = "INSERT INTO employees (name, department, created_at) VALUES (?, ?, ?)";
 
-    try(Connection connection = DatabaseConfig.getConnection();
-        PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-    ) {
-      preparedStatement.setString(1,employee.getName());
-      preparedStatement.setString(2, employee.getDepartment() != null ? employee.getDepartment() : null);
-      preparedStatement.setTimestamp(3, employee.getCreatedAt() != null ? Timestamp.valueOf(employee.getCreatedAt()) : null);
+    SAVE.run(() -> {
+      try(Connection connection = DatabaseConfig.getConnection();
+          PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+      ) {
+        preparedStatement.setString(1,employee.getName());
+        preparedStatement.setString(2, employee.getDepartment() != null ? employee.getDepartment() : null);
+        preparedStatement.setTimestamp(3, employee.getCreatedAt() != null ? Timestamp.valueOf(employee.getCreatedAt()) : null);
 
-      int affectedRows = preparedStatement.executeUpdate();
+        int affectedRows = preparedStatement.executeUpdate();
 
-      if (affectedRows == 0) {
-        throw new DataAccessException("Failed to save employee: 0 rows affected");
-      }
+        if (affectedRows == 0) {
+          throw new DataAccessException("Failed to save employee: 0 rows affected");
+        }
 
-      try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
-        if (rs.next()) {
-          employee.setId(rs.getInt(1));
+        try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+          if (rs.next()) {
+            employee.setId(rs.getInt(1));
+          }
         }
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.EMPLOYEE, employee.getId());
       }
-    }
-    catch (SQLException ex) {
-      logger.error("Error saving employee: " + employee.getName(), ex);
-      throw new DataAccessException("Failed to save employee", ex);
-    }
+      catch (SQLException ex) {
+        logger.error("Error saving employee: " + employee.getName(), ex);
+        throw new DataAccessException("Failed to save employee", ex);
+      }
+    });
   }
 }
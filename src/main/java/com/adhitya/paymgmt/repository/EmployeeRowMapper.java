@@ -0,0 +1,25 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.model.Employee;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps rows selected with {@link #COLUMNS}, in that order, to employees. */
+public final class EmployeeRowMapper implements RowMapper<Employee> {
+  public static final String COLUMNS = "id, name, department, created_at";
+
+  public static final EmployeeRowMapper INSTANCE = new EmployeeRowMapper();
+
+  private EmployeeRowMapper() {}
+
+  @Override
+  public Employee map(ResultSet resultSet) throws SQLException {
+    return new Employee(
+      resultSet.getInt(1),
+      resultSet.getString(2),
+      resultSet.getString(3),
+      RowMapper.toLocalDateTime(resultSet.getTimestamp(4))
+    );
+  }
+}
@@ -0,0 +1,51 @@
+package com.adhitya.paymgmt.repository;
+
+import java.util.function.Function;
+
+/**
+ * Decodes an enum stored as text through a table of its database values built
+ * once, instead of {@code Enum.valueOf} or a {@code fromDbValue} search per row.
+ * The enums mapped here have a handful of constants, so a scan of the table
+ * with {@link String#equals} beats hashing the driver's fresh string.
+ *
+ * @param <E> the enum type
+ */
+public final class EnumColumn<E extends Enum<E>> {
+  private final Class<E> type;
+  private final String[] dbValues;
+  private final E[] constants;
+
+  private EnumColumn(Class<E> type, Function<E, String> dbValue) {
+    this.type = type;
+    this.constants = type.getEnumConstants();
+    this.dbValues = new String[constants.length];
+    for (int i = 0; i < constants.length; i++) {
+      dbValues[i] = dbValue.apply(constants[i]);
+    }
+  }
+
+  /**
+   * @param type    the enum class
+   * @param dbValue gives the text stored for each constant
+   */
+  public static <E extends Enum<E>> EnumColumn<E> of(Class<E> type, Function<E, String> dbValue) {
+    return new EnumColumn<>(type, dbValue);
+  }
+
+  /**
+   * Returns the constant stored as the given text, or null for SQL NULL.
+   *
+   * @throws IllegalArgumentException if the text matches no constant
+   */
+  public E decode(String value) {
+    if (value == null) {
+      return null;
+    }
+    for (int i = 0; i < dbValues.length; i++) {
+      if (dbValues[i].equals(value)) {
+        return constants[i];
+      }
+    }
+    throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+  }
+}
@@ -1,8 +1,17 @@
 package com.adhitya.paymgmt.repository;
 
+import com.adhitya.paymgmt.config.ChangeNotifications;
 import com.adhitya.paymgmt.config.DatabaseConfig;
+import com.adhitya.paymgmt.dto.PaymentSearchResultDTO;
 import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.exception.IdempotencyKeyConflictException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
 import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
 
 import com.adhitya.paymgmt.model.enums.PaymentCategory;
 import com.adhitya.paymgmt.model.enums.PaymentDirection;
@@ -14,18 +23,43 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PaymentRepository {
   private static final Logger logger = LoggerFactory.getLogger(PaymentRepository.class);
+  private static final OperationTimer FIND_BY_ID = Metrics.repository(PaymentRepository.class, "findById");
+  private static final OperationTimer FIND_ALL = Metrics.repository(PaymentRepository.class, "findAll");
+  private static final OperationTimer FIND_BY_USER_ID = Metrics.repository(PaymentRepository.class, "findByUserId");
+  private static final OperationTimer FIND_BY_COUNTERPARTY_ID = Metrics.repository(PaymentRepository.class, "findByCounterpartyId");
+  private static final OperationTimer FIND_BY_EMPLOYEE_ID = Metrics.repository(PaymentRepository.class, "findByEmployeeId");
+  private static final OperationTimer FIND_BY_CATEGORY = Metrics.repository(PaymentRepository.class, "findByCategory");
+  private static final OperationTimer FIND_BY_DIRECTION = Metrics.repository(PaymentRepository.class, "findByDirection");
+  private static final OperationTimer FIND_BY_DATE_RANGE = Metrics.repository(PaymentRepository.class, "findByDateRange");
+  private static final OperationTimer FIND_BY_IDS = Metrics.repository(PaymentRepository.class, "findByIds");
+  private static final OperationTimer SEARCH = Metrics.repository(PaymentRepository.class, "search");
+  private static final OperationTimer SCAN_COLUMNS = Metrics.repository(PaymentRepository.class, "scanColumns");
+  private static final OperationTimer SAVE = Metrics.repository(PaymentRepository.class, "save");
+  private static final OperationTimer SAVE_BATCH = Metrics.repository(PaymentRepository.class, "saveBatch");
+  private static final OperationTimer SAVE_IDEMPOTENT = Metrics.repository(PaymentRepository.class, "saveIdempotent");
+  private static final OperationTimer DELETE_IDEMPOTENCY_KEYS_BEFORE = Metrics.repository(PaymentRepository.class, "deleteIdempotencyKeysBefore");
+  private static final OperationTimer UPDATE_STATUS = Metrics.repository(PaymentRepository.class, "updateStatus");
   private final UserRepository userRepository;
   private final EmployeeRepository employeeRepository;
   private final CounterpartyRepository counterpartyRepository;
 
+  private static final int SCAN_FETCH_SIZE = 10_000;
+  private static final String INSERT_SQL = "INSERT INTO payments " +
+    "(amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id) \n" +
+    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
   public PaymentRepository(
     UserRepository userRepository,
     EmployeeRepository employeeRepository,
@@ -36,33 +70,33 @@ public class PaymentRepository {
     this.counterpartyRepository = counterpartyRepository;
   }
 
+  // Related entities are looked up once per distinct ID within a query, not once per row
+  private PaymentRowMapper newRowMapper() {
+    Map<Integer, User> users = new HashMap<>();
+    Map<Integer, Employee> employees = new HashMap<>();
+    Map<Integer, Counterparty> counterparties = new HashMap<>();
+    return new PaymentRowMapper(
+      id -> users.computeIfAbsent(id, userRepository::findById),
+      id -> employees.computeIfAbsent(id, employeeRepository::findById),
+      id -> counterparties.computeIfAbsent(id, counterpartyRepository::findById));
+  }
 
   public Payment findById(int id) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
                  "WHERE id = ?";
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,id);
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (resultSet.next()) {
-          return new Payment(
-            resultSet.getInt("id"),
-            resultSet.getBigDecimal("amount"),
-            PaymentDirection.valueOf(resultSet.getString("direction")),
-            PaymentCategory.valueOf(resultSet.getString("category")),
-            Status.valueOf(resultSet.getString("status")),
-            resultSet.getString("description"),
-            userRepository.findById(resultSet.getInt("created_by")),
-            resultSet.getTimestamp("created_at").toLocalDateTime(),
-            resultSet.getTimestamp("updated_at") != null ?
-              resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-            employeeRepository.findById(resultSet.getInt("employee_id")),
-            counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-          );
+          timing.addRows(1);
+          return mapper.map(resultSet);
         }
       }
     }
@@ -75,30 +109,20 @@ public class PaymentRepository {
   }
 
   public List<Payment> findAll() {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments";
     List<Payment> paymentList = new ArrayList<>();
 
-    try(Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try(OperationTimer.Timing timing = FIND_ALL.start();
+        Connection connection = DatabaseConfig.getConnection();
         PreparedStatement preparedStatement = connection.prepareStatement(sql);
         ResultSet resultSet = preparedStatement.executeQuery();
     ) {
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -109,33 +133,23 @@ public class PaymentRepository {
   }
 
   public List<Payment> findByUserId(int userId) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
                  "WHERE created_by = ?";
     List<Payment> paymentList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_USER_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,userId);
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -146,33 +160,23 @@ public class PaymentRepository {
   }
 
   public List<Payment> findByCounterpartyId(int counterpartyId) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
                  "WHERE counterparty_id = ?";
     List<Payment> paymentList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_COUNTERPARTY_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,counterpartyId);
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -183,33 +187,23 @@ public class PaymentRepository {
   }
 
   public List<Payment> findByEmployeeId(int employeeId) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
                  "WHERE employee_id = ?";
     List<Payment> paymentList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_EMPLOYEE_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,employeeId);
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -220,33 +214,23 @@ public class PaymentRepository {
   }
 
   public List<Payment> findByCategory(PaymentCategory category) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
                  "WHERE category = ?";
     List<Payment> paymentList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_CATEGORY.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setString(1,category.getDbValue());
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -257,33 +241,23 @@ public class PaymentRepository {
   }
 
   public List<Payment> findByDirection(PaymentDirection direction) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
                  "WHERE direction = ?";
     List<Payment> paymentList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_DIRECTION.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setString(1,direction.getDbValue());
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -294,34 +268,24 @@ public class PaymentRepository {
   }
 
   public List<Payment> findByDateRange(LocalDate start, LocalDate end) {
-    String sql = "SELECT id, amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id " +
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
                  "FROM payments " +
-                 "WHERE created_at BETWEEN ? AND ?";
+                 "WHERE created_at >= ? AND created_at < ?";
     List<Payment> paymentList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_DATE_RANGE.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setTimestamp(1, Timestamp.valueOf(start.atStartOfDay()));
-      preparedStatement.setTimestamp(2, Timestamp.valueOf(end.atTime(23, 59, 59)));
+      preparedStatement.setTimestamp(2, Timestamp.valueOf(end.plusDays(1).atStartOfDay()));
       ResultSet resultSet = preparedStatement.executeQuery();
 
       while(resultSet.next()) {
-        paymentList.add(new Payment(
-          resultSet.getInt("id"),
-          resultSet.getBigDecimal("amount"),
-          PaymentDirection.valueOf(resultSet.getString("direction")),
-          PaymentCategory.valueOf(resultSet.getString("category")),
-          Status.valueOf(resultSet.getString("status")),
-          resultSet.getString("description"),
-          userRepository.findById(resultSet.getInt("created_by")),
-          resultSet.getTimestamp("created_at").toLocalDateTime(),
-          resultSet.getTimestamp("updated_at") != null ?
-            resultSet.getTimestamp("updated_at").toLocalDateTime() : null,
-          employeeRepository.findById(resultSet.getInt("employee_id")),
-          counterpartyRepository.findById(resultSet.getInt("counterparty_id"))
-        ));
+        paymentList.add(mapper.map(resultSet));
       }
+      timing.addRows(paymentList.size());
     }
     catch(SQLException ex) {
       logger.error("Failed to retrieve payments", ex);
@@ -331,61 +295,407 @@ public class PaymentRepository {
     return paymentList;
   }
 
-  public void save(Payment payment) {
-    String sql = "INSERT INTO payments " +
-                 "(amount, direction, category, status, description, created_by, created_at, updated_at, employee_id, counterparty_id) \n" +
-                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  /**
+   * Loads the payments with the given IDs, ordered by ID. IDs that do not exist
+   * are skipped.
+   */
+  public List<Payment> findByIds(int[] ids) {
+    String sql = "SELECT " + PaymentRowMapper.COLUMNS + " " +
+                 "FROM payments " +
+                 "WHERE id = ANY(?) " +
+                 "ORDER BY id";
+    List<Payment> paymentList = new ArrayList<>(ids.length);
+    if (ids.length == 0) {
+      return paymentList;
+    }
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = FIND_BY_IDS.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
-      preparedStatement.setBigDecimal(1, payment.getAmount());
-      preparedStatement.setString(2, payment.getPaymentDirection().getDbValue());
-      preparedStatement.setString(3, payment.getCategory().getDbValue());
-      preparedStatement.setString(4, payment.getStatus().getDbValue());
-      preparedStatement.setString(5, payment.getDescription());
-      preparedStatement.setInt(6, payment.getCreatedBy().getId());
-      preparedStatement.setTimestamp(7, Timestamp.valueOf(payment.getCreatedAt()));
-      preparedStatement.setTimestamp(8, payment.getUpdatedAt() != null ? Timestamp.valueOf(payment.getUpdatedAt()) : null);
-      preparedStatement.setObject(9, payment.getEmployee() != null ? payment.getEmployee().getId() : null, Types.INTEGER);
-      preparedStatement.setObject(10, payment.getCounterParty() != null ? payment.getCounterParty().getId() : null, Types.INTEGER);
+      Integer[] boxed = new Integer[ids.length];
+      for (int i = 0; i < ids.length; i++) {
+        boxed[i] = ids[i];
+      }
+      preparedStatement.setArray(1, connection.createArrayOf("integer", boxed));
 
-      int affectedRows = preparedStatement.executeUpdate();
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while(resultSet.next()) {
+          paymentList.add(mapper.map(resultSet));
+        }
+        timing.addRows(paymentList.size());
+      }
+    }
+    catch(SQLException ex) {
+      logger.error("Failed to retrieve payments by IDs", ex);
+      throw new DataAccessException("Database error while fetching payments", ex);
+    }
 
-      if (affectedRows == 0) {
-        throw new DataAccessException("Failed to save payment: 0 rows affected");
+    return paymentList;
+  }
+
+  /**
+   * Ranked text search over payment descriptions and counterparty names. Matches
+   * every word of {@code text} as a (stemmed) prefix, or fuzzily through trigram
+   * word similarity, so "march retai" and "mrach retainer" both find
+   * "March retainer". Results are ordered by relevance, then newest first.
+   *
+   * @param text     search text
+   * @param from     inclusive start date of creation, or null for no lower bound
+   * @param to       inclusive end date of creation, or null for no upper bound
+   * @param category category to restrict to, or null for any
+   * @param limit    maximum number of results
+   * @param offset   number of results to skip
+   */
+  public List<PaymentSearchResultDTO> search(String text, LocalDate from, LocalDate to, PaymentCategory category,
+                                             int limit, int offset) {
+    String prefixQuery = toPrefixQuery(text);
+    // Each branch uses its own GIN index; the union yields the candidate IDs
+    StringBuilder sql = new StringBuilder(
+      "WITH matches AS (" +
+      "  SELECT id FROM payments WHERE description_tsv @@ to_tsquery('english', ?) " +
+      "  UNION " +
+      "  SELECT id FROM payments WHERE ? <% description " +
+      "  UNION " +
+      "  SELECT p.id FROM payments p JOIN counterparties c ON c.id = p.counterparty_id WHERE ? <% c.name" +
+      ") " +
+      "SELECT " + PaymentRowMapper.columns("p") + ", " +
+      "ts_rank_cd(p.description_tsv, to_tsquery('english', ?)) " +
+      "+ word_similarity(?, coalesce(p.description, '')) " +
+      "+ 0.5 * word_similarity(?, coalesce(c.name, '')) AS rank " +
+      "FROM matches m " +
+      "JOIN payments p ON p.id = m.id " +
+      "LEFT JOIN counterparties c ON c.id = p.counterparty_id " +
+      "WHERE TRUE");
+    List<Object> parameters = new ArrayList<>(List.of(prefixQuery, text, text, prefixQuery, text, text));
+    if (from != null) {
+      sql.append(" AND p.created_at >= ?");
+      parameters.add(Timestamp.valueOf(from.atStartOfDay()));
+    }
+    if (to != null) {
+      sql.append(" AND p.created_at < ?");
+      parameters.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+    if (category != null) {
+      sql.append(" AND p.category = ?");
+      parameters.add(category.getDbValue());
+    }
+    sql.append(" ORDER BY rank DESC, p.created_at DESC, p.id DESC LIMIT ? OFFSET ?");
+    parameters.add(limit);
+    parameters.add(offset);
+
+    List<PaymentSearchResultDTO> results = new ArrayList<>();
+    PaymentRowMapper mapper = newRowMapper();
+    try (OperationTimer.Timing timing = SEARCH.start();
+         Connection connection = DatabaseConfig.getConnection();
+         PreparedStatement preparedStatement = connection.prepareStatement(sql.toString());
+    ) {
+      for (int i = 0; i < parameters.size(); i++) {
+        preparedStatement.setObject(i + 1, parameters.get(i));
       }
 
-      try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
-        if (rs.next()) {
-          payment.setId(rs.getInt(1));
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while(resultSet.next()) {
+          Payment payment = mapper.map(resultSet);
+          results.add(new PaymentSearchResultDTO(payment, resultSet.getDouble(PaymentRowMapper.COLUMN_COUNT + 1)));
+        }
+        timing.addRows(results.size());
+      }
+    }
+    catch(SQLException ex) {
+      logger.error("Failed to search payments for: " + text, ex);
+      throw new DataAccessException("Database error while searching payments", ex);
+    }
+
+    return results;
+  }
+
+  // "March retai" -> "march:* & retai:*"; only letters and digits reach the query parser
+  private static String toPrefixQuery(String text) {
+    StringBuilder query = new StringBuilder();
+    for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+      if (!word.isEmpty()) {
+        if (query.length() > 0) {
+          query.append(" & ");
+        }
+        query.append(word).append(":*");
+      }
+    }
+    return query.toString();
+  }
+
+  /**
+   * Receives one payment row as raw column values: the amount in minor units and 0
+   * for a missing foreign key.
+   */
+  @FunctionalInterface
+  public interface ColumnVisitor {
+    void visit(int id, long amountMinorUnits, PaymentDirection direction, PaymentCategory category, Status status,
+               int createdBy, LocalDateTime createdAt, LocalDateTime updatedAt, int employeeId, int counterpartyId);
+  }
+
+  /**
+   * Streams every payment with an ID above {@code afterId}, or created or updated
+   * after {@code changedSince} when that is not null, in ID order to the visitor
+   * without building Payment objects or resolving related entities. Inserts leave
+   * updated_at null, so created_at is what finds a row that took its ID below
+   * {@code afterId} but committed later.
+   * Rows are fetched from a server-side cursor, so memory stays flat for large tables.
+   */
+  public void scanColumns(int afterId, LocalDateTime changedSince, ColumnVisitor visitor) {
+    String sql = "SELECT id, amount, direction, category, status, created_by, created_at, updated_at, employee_id, counterparty_id " +
+                 "FROM payments " +
+                 "WHERE id > ? " + (changedSince != null ? "OR created_at > ? OR updated_at > ? " : "") +
+                 "ORDER BY id";
+
+    try (OperationTimer.Timing timing = SCAN_COLUMNS.start();
+         Connection connection = DatabaseConfig.getConnection()) {
+      // PgJDBC only uses a cursor (honours the fetch size) inside a transaction
+      connection.setAutoCommit(false);
+      try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        preparedStatement.setFetchSize(SCAN_FETCH_SIZE);
+        preparedStatement.setInt(1, afterId);
+        if (changedSince != null) {
+          preparedStatement.setTimestamp(2, Timestamp.valueOf(changedSince));
+          preparedStatement.setTimestamp(3, Timestamp.valueOf(changedSince));
+        }
+
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+          long rows = 0;
+          while (resultSet.next()) {
+            rows++;
+            Timestamp updatedAt = resultSet.getTimestamp(8);
+            visitor.visit(
+              resultSet.getInt(1),
+              Money.parseMinorUnits(resultSet.getString(2)),
+              PaymentRowMapper.DIRECTIONS.decode(resultSet.getString(3)),
+              PaymentRowMapper.CATEGORIES.decode(resultSet.getString(4)),
+              PaymentRowMapper.STATUSES.decode(resultSet.getString(5)),
+              resultSet.getInt(6),
+              resultSet.getTimestamp(7).toLocalDateTime(),
+              updatedAt != null ? updatedAt.toLocalDateTime() : null,
+              resultSet.getInt(9),
+              resultSet.getInt(10)
+            );
+          }
+          timing.addRows(rows);
         }
       }
+      connection.commit();
     }
     catch(SQLException ex) {
-      logger.error("Error saving payment: ", ex);
-      throw new DataAccessException("Failed to save payment", ex);
+      logger.error("Failed to scan payments after ID " + afterId, ex);
+      throw new DataAccessException("Database error while scanning payments", ex);
     }
   }
 
+  public void save(Payment payment) {
+    SAVE.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection()) {
+        insert(connection, payment);
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.PAYMENT, payment.getId());
+      }
+      catch(SQLException ex) {
+        logger.error("Error saving payment: ", ex);
+        throw new DataAccessException("Failed to save payment", ex);
+      }
+    });
+  }
+
+  /**
+   * Inserts all payments as one JDBC batch in a single transaction and sets their
+   * generated IDs. Either every payment is saved or none is.
+   */
+  public void saveBatch(List<Payment> payments) {
+    if (payments.isEmpty()) {
+      return;
+    }
+
+    SAVE_BATCH.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection()) {
+        connection.setAutoCommit(false);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+          for (Payment payment : payments) {
+            bindInsert(preparedStatement, payment);
+            preparedStatement.addBatch();
+          }
+          preparedStatement.executeBatch();
+
+          // Keys come back in batch order
+          try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+            for (Payment payment : payments) {
+              if (!rs.next()) {
+                throw new DataAccessException("Missing generated key in payment batch");
+              }
+              payment.setId(rs.getInt(1));
+            }
+          }
+          ChangeNotifications.publish(connection, ChangeNotifications.Entity.PAYMENT,
+            payments.stream().mapToInt(Payment::getId).toArray());
+          connection.commit();
+        }
+        catch (SQLException | RuntimeException ex) {
+          connection.rollback();
+          throw ex;
+        }
+      }
+      catch(SQLException ex) {
+        logger.error("Error saving payment batch of " + payments.size(), ex);
+        throw new DataAccessException("Failed to save payment batch", ex);
+      }
+    });
+  }
+
+  /**
+   * Saves a payment at most once per user and idempotency key. The key is claimed
+   * with an upsert on its primary key in the same transaction as the payment insert,
+   * so a concurrent retry blocks until the first attempt commits and then sees its
+   * payment. A key older than {@code expiredBefore} is treated as free and reclaimed.
+   *
+   * The payment's ID is set in both cases.
+   *
+   * @param requestHash hash of the submitted request, compared against the one stored with the key
+   * @return true if the payment was inserted, false if the key resolved to an earlier payment
+   * @throws IdempotencyKeyConflictException if the key was first used with a different request
+   */
+  public boolean saveIdempotent(Payment payment, int userId, String idempotencyKey, String requestHash,
+                                LocalDateTime expiredBefore) {
+    String claimSql = "INSERT INTO payment_idempotency_keys (user_id, idempotency_key, request_hash) VALUES (?, ?, ?) " +
+                      "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET payment_id = NULL, " +
+                      "request_hash = EXCLUDED.request_hash, created_at = CURRENT_TIMESTAMP " +
+                      "WHERE payment_idempotency_keys.created_at < ?";
+    String lookupSql = "SELECT payment_id, request_hash FROM payment_idempotency_keys " +
+                       "WHERE user_id = ? AND idempotency_key = ?";
+    String linkSql = "UPDATE payment_idempotency_keys SET payment_id = ? WHERE user_id = ? AND idempotency_key = ?";
+
+    return SAVE_IDEMPOTENT.time(() -> {
+      try (Connection connection = DatabaseConfig.getConnection()) {
+        connection.setAutoCommit(false);
+        try {
+          int claimed;
+          try (PreparedStatement claim = connection.prepareStatement(claimSql)) {
+            claim.setInt(1, userId);
+            claim.setString(2, idempotencyKey);
+            claim.setString(3, requestHash);
+            claim.setTimestamp(4, Timestamp.valueOf(expiredBefore));
+            claimed = claim.executeUpdate();
+          }
+
+          if (claimed == 0) {
+            // Key already used by a committed submission; return its payment
+            try (PreparedStatement lookup = connection.prepareStatement(lookupSql)) {
+              lookup.setInt(1, userId);
+              lookup.setString(2, idempotencyKey);
+              try (ResultSet resultSet = lookup.executeQuery()) {
+                if (!resultSet.next() || resultSet.getObject("payment_id") == null) {
+                  throw new DataAccessException("Idempotency key has no payment: " + idempotencyKey);
+                }
+                // Keys claimed before request hashes were recorded have none to compare
+                String storedHash = resultSet.getString("request_hash");
+                if (storedHash != null && !storedHash.equals(requestHash)) {
+                  throw new IdempotencyKeyConflictException("Idempotency key was already used for a different payment");
+                }
+                payment.setId(resultSet.getInt("payment_id"));
+              }
+            }
+            connection.commit();
+            return false;
+          }
+
+          insert(connection, payment);
+          try (PreparedStatement link = connection.prepareStatement(linkSql)) {
+            link.setInt(1, payment.getId());
+            link.setInt(2, userId);
+            link.setString(3, idempotencyKey);
+            link.executeUpdate();
+          }
+          ChangeNotifications.publish(connection, ChangeNotifications.Entity.PAYMENT, payment.getId());
+          connection.commit();
+          return true;
+        }
+        catch (SQLException | RuntimeException ex) {
+          connection.rollback();
+          throw ex;
+        }
+      }
+      catch(SQLException ex) {
+        logger.error("Error saving payment with idempotency key: " + idempotencyKey, ex);
+        throw new DataAccessException("Failed to save payment", ex);
+      }
+    });
+  }
+
+  /** Deletes idempotency keys created before the cutoff; returns the number removed. */
+  public int deleteIdempotencyKeysBefore(LocalDateTime cutoff) {
+    String sql = "DELETE FROM payment_idempotency_keys WHERE created_at < ? AND payment_id IS NOT NULL";
+
+    return DELETE_IDEMPOTENCY_KEYS_BEFORE.time(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql);
+      ) {
+        preparedStatement.setTimestamp(1, Timestamp.valueOf(cutoff));
+        return preparedStatement.executeUpdate();
+      }
+      catch(SQLException ex) {
+        logger.error("Error deleting expired idempotency keys: ", ex);
+        throw new DataAccessException("Failed to delete expired idempotency keys", ex);
+      }
+    });
+  }
+
   public void updateStatus(int paymentId, Status newStatus) {
-    String sql = "UPDATE payments SET status = ? WHERE id = ?";
+    String sql = "UPDATE payments SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
 
-    try (Connection connection = DatabaseConfig.getConnection();
-         PreparedStatement preparedStatement = connection.prepareStatement(sql);
-    ) {
-      preparedStatement.setString(1,newStatus.getDbValue());
-      preparedStatement.setInt(2,paymentId);
+    UPDATE_STATUS.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql);
+      ) {
+        preparedStatement.setString(1,newStatus.getDbValue());
+        preparedStatement.setInt(2,paymentId);
+
+        int affectedRows = preparedStatement.executeUpdate();
+
+        if (affectedRows == 0) {
+          throw new DataAccessException("Failed to update payment: 0 rows affected");
+        }
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.PAYMENT, paymentId);
+      }
+      catch(SQLException ex) {
+        logger.error("Error updating payment: ", ex);
+        throw new DataAccessException("Failed to update payment", ex);
+      }
+    });
+  }
+
+  private void insert(Connection connection, Payment payment) throws SQLException {
+    try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+      bindInsert(preparedStatement, payment);
 
       int affectedRows = preparedStatement.executeUpdate();
 
       if (affectedRows == 0) {
-        throw new DataAccessException("Failed to update payment: 0 rows affected");
+        throw new DataAccessException("Failed to save payment: 0 rows affected");
+      }
+
+      try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+        if (rs.next()) {
+          payment.setId(rs.getInt(1));
+        }
       }
     }
-    catch(SQLException ex) {
-      logger.error("Error updating payment: ", ex);
-      throw new DataAccessException("Failed to update payment", ex);
-    }
+  }
+
+  private void bindInsert(PreparedStatement preparedStatement, Payment payment) throws SQLException {
+    preparedStatement.setBigDecimal(1, payment.getAmount().toBigDecimal());
+    preparedStatement.setString(2, payment.getPaymentDirection().getDbValue());
+    preparedStatement.setString(3, payment.getCategory().getDbValue());
+    preparedStatement.setString(4, payment.getStatus().getDbValue());
+    preparedStatement.setString(5, payment.getDescription());
+    preparedStatement.setInt(6, payment.getCreatedBy().getId());
+    preparedStatement.setTimestamp(7, Timestamp.valueOf(payment.getCreatedAt()));
+    preparedStatement.setTimestamp(8, payment.getUpdatedAt() != null ? Timestamp.valueOf(payment.getUpdatedAt()) : null);
+    preparedStatement.setObject(9, payment.getEmployee() != null ? payment.getEmployee().getId() : null, Types.INTEGER);
+    preparedStatement.setObject(10, payment.getCounterParty() != null ? payment.getCounterParty().getId() : null, Types.INTEGER);
   }
 }
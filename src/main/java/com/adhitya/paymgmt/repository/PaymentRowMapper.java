@@ -0,0 +1,70 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.IntFunction;
+
+/**
+ * Maps rows selected with {@link #COLUMNS}, in that order, to payments. The
+ * creator, employee and counterparty are resolved through the given lookups;
+ * a missing (NULL) foreign key yields null without a lookup.
+ */
+public final class PaymentRowMapper implements RowMapper<Payment> {
+  public static final String COLUMNS =
+    "id, amount, direction, category, status, description, created_by, created_at, updated_at, " +
+    "employee_id, counterparty_id";
+
+  /** Number of columns in {@link #COLUMNS}; extra selected columns start after it. */
+  public static final int COLUMN_COUNT = 11;
+
+  static final EnumColumn<PaymentDirection> DIRECTIONS =
+    EnumColumn.of(PaymentDirection.class, PaymentDirection::getDbValue);
+  static final EnumColumn<PaymentCategory> CATEGORIES =
+    EnumColumn.of(PaymentCategory.class, PaymentCategory::getDbValue);
+  static final EnumColumn<Status> STATUSES = EnumColumn.of(Status.class, Status::getDbValue);
+
+  private final IntFunction<User> users;
+  private final IntFunction<Employee> employees;
+  private final IntFunction<Counterparty> counterparties;
+
+  public PaymentRowMapper(IntFunction<User> users, IntFunction<Employee> employees,
+                          IntFunction<Counterparty> counterparties) {
+    this.users = users;
+    this.employees = employees;
+    this.counterparties = counterparties;
+  }
+
+  /** Returns {@link #COLUMNS} qualified with a table alias, for joins. */
+  public static String columns(String alias) {
+    return RowMapper.qualify(COLUMNS, alias);
+  }
+
+  @Override
+  public Payment map(ResultSet resultSet) throws SQLException {
+    int createdBy = resultSet.getInt(7);
+    int employeeId = resultSet.getInt(10);
+    int counterpartyId = resultSet.getInt(11);
+    return new Payment(
+      resultSet.getInt(1),
+      Money.parse(resultSet.getString(2)),
+      DIRECTIONS.decode(resultSet.getString(3)),
+      CATEGORIES.decode(resultSet.getString(4)),
+      STATUSES.decode(resultSet.getString(5)),
+      resultSet.getString(6),
+      createdBy != 0 ? users.apply(createdBy) : null,
+      RowMapper.toLocalDateTime(resultSet.getTimestamp(8)),
+      RowMapper.toLocalDateTime(resultSet.getTimestamp(9)),
+      employeeId != 0 ? employees.apply(employeeId) : null,
+      counterpartyId != 0 ? counterparties.apply(counterpartyId) : null
+    );
+  }
+}
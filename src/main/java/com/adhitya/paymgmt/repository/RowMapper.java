@@ -0,0 +1,28 @@
+package com.adhitya.paymgmt.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Maps the current row of a result set to an object. Each implementation is
+ * written for one entity against the select list it publishes, so columns are
+ * read by position: no name lookups, reflection or per-row enum searches.
+ *
+ * @param <T> the mapped type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+  T map(ResultSet resultSet) throws SQLException;
+
+  /** Converts a nullable timestamp column value. */
+  static LocalDateTime toLocalDateTime(Timestamp value) {
+    return value != null ? value.toLocalDateTime() : null;
+  }
+
+  /** Prefixes every column of a comma-separated select list with a table alias. */
+  static String qualify(String columns, String alias) {
+    return alias + "." + columns.replace(", ", ", " + alias + ".");
+  }
+}
@@ -1,7 +1,10 @@
 package com.adhitya.paymgmt.repository;
 
+import com.adhitya.paymgmt.config.ChangeNotifications;
 import com.adhitya.paymgmt.config.DatabaseConfig;
 import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.User;
 import com.adhitya.paymgmt.model.enums.Role;
 
@@ -14,32 +17,109 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.adhitya.paymgmt.util.BloomFilter;
 import com.adhitya.paymgmt.util.PasswordUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class UserRepository {
   private static final Logger logger = LoggerFactory.getLogger(UserRepository.class);
+  private static final OperationTimer LOAD_USERNAME_FILTER = Metrics.repository(UserRepository.class, "loadUsernameFilter");
+  private static final OperationTimer FIND_BY_ID = Metrics.repository(UserRepository.class, "findById");
+  private static final OperationTimer FIND_BY_USERNAME = Metrics.repository(UserRepository.class, "findByUsername");
+  private static final OperationTimer FIND_ALL = Metrics.repository(UserRepository.class, "findAll");
+  private static final OperationTimer SAVE = Metrics.repository(UserRepository.class, "save");
+  private static final OperationTimer UPDATE_PASSWORD = Metrics.repository(UserRepository.class, "updatePassword");
+  private static final OperationTimer UPDATE_ROLE = Metrics.repository(UserRepository.class, "updateRole");
+  private static final OperationTimer REPLACE_PASSWORD_HASH = Metrics.repository(UserRepository.class, "replacePasswordHash");
+
+  // Sizing of the known-username filter; 0 expected usernames disables it
+  private final int expectedUsernames;
+  private final double usernameFalsePositiveRate;
+  private volatile BloomFilter usernameFilter;
+
+  /** Creates a repository without a username filter; every lookup goes to the database. */
+  public UserRepository() {
+    this(0, 0);
+  }
+
+  /**
+   * Creates a repository that screens {@link #findByUsername(String)} through a Bloom filter
+   * of known usernames. Call {@link #loadUsernameFilter()} once at startup to populate it.
+   *
+   * @param expectedUsernames         number of usernames the filter is sized for
+   * @param usernameFalsePositiveRate target false-positive rate at that size
+   */
+  public UserRepository(int expectedUsernames, double usernameFalsePositiveRate) {
+    this.expectedUsernames = expectedUsernames;
+    this.usernameFalsePositiveRate = usernameFalsePositiveRate;
+  }
+
+  /**
+   * Builds a fresh username filter from the users table and swaps it in.
+   * Safe to call again later to pick up users created by other instances.
+   */
+  public void loadUsernameFilter() {
+    if (expectedUsernames <= 0) {
+      return;
+    }
+
+    String sql = "SELECT username FROM users";
+    BloomFilter filter = new BloomFilter(expectedUsernames, usernameFalsePositiveRate);
+    int count = 0;
+
+    try (OperationTimer.Timing timing = LOAD_USERNAME_FILTER.start();
+         Connection connection = DatabaseConfig.getConnection();
+         PreparedStatement preparedStatement = connection.prepareStatement(sql);
+         ResultSet resultSet = preparedStatement.executeQuery()) {
+
+      while (resultSet.next()) {
+        filter.add(resultSet.getString(1));
+        count++;
+      }
+      timing.addRows(count);
+    }
+    catch (SQLException ex) {
+      logger.error("Failed to load username filter", ex);
+      throw new DataAccessException("Database error while loading usernames", ex);
+    }
+
+    usernameFilter = filter;
+    logger.info("Username filter loaded: {} users, {} bits ({} KiB), {} hashes, target fpp {}, estimated fpp {}",
+      count, filter.getBitCount(), filter.getMemoryBytes() / 1024, filter.getHashCount(),
+      usernameFalsePositiveRate, String.format("%.6f", filter.estimatedFalsePositiveRate()));
+    if (count > expectedUsernames) {
+      logger.warn("Username filter holds {} users but is sized for {}; raise the expected size",
+        count, expectedUsernames);
+    }
+  }
+
+  /** Returns the active username filter, or null when disabled or not yet loaded. */
+  public BloomFilter getUsernameFilter() {
+    return usernameFilter;
+  }
+
+  /** Adds a username created elsewhere to the username filter, if one is loaded. */
+  public void rememberUsername(String username) {
+    BloomFilter filter = usernameFilter;
+    if (filter != null && username != null) {
+      filter.add(username);
+    }
+  }
 
   public User findById(int id) {
-    String sql = "SELECT id, username, password, role, email, created_at FROM users WHERE id = ?";
+    String sql = "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE id = ?";
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_BY_ID.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
     ) {
       preparedStatement.setInt(1,id);
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (resultSet.next()) {
-          Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-          return new User(
-            resultSet.getInt("id"),
-            resultSet.getString("username"),
-            resultSet.getString("password"),
-            Role.valueOf(resultSet.getString("role")),
-            resultSet.getString("email"),
-            createdAtTs != null ? createdAtTs.toLocalDateTime() : null
-          );
+          timing.addRows(1);
+          return UserRowMapper.INSTANCE.map(resultSet);
         }
 
       }
@@ -52,10 +132,24 @@ public class UserRepository {
     return null;
   }
 
+  /**
+   * Finds a user by username, or returns null. With a username filter loaded, names
+   * the filter has never seen are answered without a query. A user created by another
+   * instance reaches this filter through a change notification, so for a short delay
+   * after that commit (the listener's batch window, longer while it is reconnecting)
+   * this method can still return null for the new username.
+   */
   public User findByUsername(String username) {
-    String sql = "SELECT id, username, password, role, email, created_at FROM users WHERE username = ?";
+    BloomFilter filter = usernameFilter;
+    if (filter != null && !filter.mightContain(username)) {
+      // Definitely unknown: answer without opening a connection
+      return null;
+    }
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    String sql = "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE username = ?";
+
+    try (OperationTimer.Timing timing = FIND_BY_USERNAME.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
          ) {
 
@@ -63,15 +157,8 @@ public class UserRepository {
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (resultSet.next()) {
-          Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-          return new User(
-            resultSet.getInt("id"),
-            resultSet.getString("username"),
-            resultSet.getString("password"),
-            Role.valueOf(resultSet.getString("role")),
-            resultSet.getString("email"),
-            createdAtTs != null ? createdAtTs.toLocalDateTime() : null
-          );
+          timing.addRows(1);
+          return UserRowMapper.INSTANCE.map(resultSet);
         }
       }
 
@@ -85,24 +172,18 @@ public class UserRepository {
   }
 
   public List<User> findAll() {
-    String sql = "SELECT id, username, password, role, email, created_at FROM users";
+    String sql = "SELECT " + UserRowMapper.COLUMNS + " FROM users";
     List<User> userList = new ArrayList<>();
 
-    try (Connection connection = DatabaseConfig.getConnection();
+    try (OperationTimer.Timing timing = FIND_ALL.start();
+         Connection connection = DatabaseConfig.getConnection();
          PreparedStatement preparedStatement = connection.prepareStatement(sql);
          ResultSet resultSet = preparedStatement.executeQuery()) {
 
       while (resultSet.next()) {
-        Timestamp createdAtTs = resultSet.getTimestamp("created_at");
-        userList.add(new User(
-          resultSet.getInt("id"),
-          resultSet.getString("username"),
-          resultSet.getString("password"),
-          Role.valueOf(resultSet.getString("role")),
-          resultSet.getString("email"),
-          createdAtTs != null ? createdAtTs.toLocalDateTime() : null
-        ));
+        userList.add(UserRowMapper.INSTANCE.map(resultSet));
       }
+      timing.addRows(userList.size());
     }
     catch (SQLException ex) {
       logger.error("Failed to retrieve users", ex);
@@ -126,31 +207,104 @@ public class UserRepository {
 
     String sql = "INSERT INTO users (username, password, role, email, created_at) VALUES (?, ?, ?, ?, ?)";
 
-    try (Connection connection = DatabaseConfig.getConnection();
-         PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    SAVE.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+        preparedStatement.setString(1, user.getUsername());
+        preparedStatement.setString(2, PasswordUtil.hashPassword(user.getPassword()));
+        preparedStatement.setString(3, user.getRole().name());
+        preparedStatement.setString(4, user.getEmail());
+        preparedStatement.setTimestamp(5, Timestamp.valueOf(user.getCreatedAt()));
+
+        if (preparedStatement.executeUpdate() == 0) {
+          throw new DataAccessException("Failed to save user: 0 rows affected");
+        }
+
+        try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
+          if (rs.next()) {
+            user.setId(rs.getInt(1));
+          }
+        }
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.USER, user.getId());
+
+        rememberUsername(user.getUsername());
+
+      } catch (SQLException ex) {
+        if (ex.getMessage().contains("unique constraint")) {
+          throw new DataAccessException("Username already exists: " + user.getUsername(), ex);
+        }
+        logger.error("Failed to save user: {}", user.getUsername(), ex);
+        throw new DataAccessException("Database error while saving user", ex);
+      }
+    });
+  }
+
+  public void updatePassword(int userId, String hashedPassword) {
+    String sql = "UPDATE users SET password = ? WHERE id = ?";
+
+    UPDATE_PASSWORD.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
-      preparedStatement.setString(1, user.getUsername());
-      preparedStatement.setString(2, PasswordUtil.hashPassword(user.getPassword()));
-      preparedStatement.setString(3, user.getRole().name());
-      preparedStatement.setString(4, user.getEmail());
-      preparedStatement.setTimestamp(5, Timestamp.valueOf(user.getCreatedAt()));
+        preparedStatement.setString(1, hashedPassword);
+        preparedStatement.setInt(2, userId);
 
-      if (preparedStatement.executeUpdate() == 0) {
-        throw new DataAccessException("Failed to save user: 0 rows affected");
+        if (preparedStatement.executeUpdate() == 0) {
+          throw new DataAccessException("Failed to update password: 0 rows affected");
+        }
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.USER, userId);
+      }
+      catch (SQLException ex) {
+        logger.error("Failed to update password for user id: " + userId, ex);
+        throw new DataAccessException("Database error while updating password", ex);
       }
+    });
+  }
+
+  public void updateRole(int userId, Role role) {
+    String sql = "UPDATE users SET role = ? WHERE id = ?";
 
-      try (ResultSet rs = preparedStatement.getGeneratedKeys()) {
-        if (rs.next()) {
-          user.setId(rs.getInt(1));
+    UPDATE_ROLE.run(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+        preparedStatement.setString(1, role.getDbValue());
+        preparedStatement.setInt(2, userId);
+
+        if (preparedStatement.executeUpdate() == 0) {
+          throw new DataAccessException("Failed to update role: 0 rows affected");
         }
+        ChangeNotifications.publishCommitted(connection, ChangeNotifications.Entity.USER, userId);
+      }
+      catch (SQLException ex) {
+        logger.error("Failed to update role for user id: " + userId, ex);
+        throw new DataAccessException("Database error while updating role", ex);
       }
+    });
+  }
+
+  /**
+   * Replaces the stored hash only if it still equals {@code expectedHash}.
+   * Returns false when the password was changed concurrently.
+   */
+  public boolean replacePasswordHash(int userId, String expectedHash, String newHash) {
+    String sql = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+
+    return REPLACE_PASSWORD_HASH.time(() -> {
+      try (Connection connection = DatabaseConfig.getConnection();
+           PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
-    } catch (SQLException ex) {
-      if (ex.getMessage().contains("unique constraint")) {
-        throw new DataAccessException("Username already exists: " + user.getUsername(), ex);
+        preparedStatement.setString(1, newHash);
+        preparedStatement.setInt(2, userId);
+        preparedStatement.setString(3, expectedHash);
+
+        return preparedStatement.executeUpdate() > 0;
       }
-      logger.error("Failed to save user: {}", user.getUsername(), ex);
-      throw new DataAccessException("Database error while saving user", ex);
-    }
+      catch (SQLException ex) {
+        logger.error("Failed to rehash password for user id: " + userId, ex);
+        throw new DataAccessException("Database error while rehashing password", ex);
+      }
+    });
   }
 }
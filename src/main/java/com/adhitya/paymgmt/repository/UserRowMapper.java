@@ -0,0 +1,30 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.Role;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps rows selected with {@link #COLUMNS}, in that order, to users. */
+public final class UserRowMapper implements RowMapper<User> {
+  public static final String COLUMNS = "id, username, password, role, email, created_at";
+
+  public static final UserRowMapper INSTANCE = new UserRowMapper();
+
+  private static final EnumColumn<Role> ROLES = EnumColumn.of(Role.class, Role::getDbValue);
+
+  private UserRowMapper() {}
+
+  @Override
+  public User map(ResultSet resultSet) throws SQLException {
+    return new User(
+      resultSet.getInt(1),
+      resultSet.getString(2),
+      resultSet.getString(3),
+      ROLES.decode(resultSet.getString(4)),
+      resultSet.getString(5),
+      RowMapper.toLocalDateTime(resultSet.getTimestamp(6))
+    );
+  }
+}
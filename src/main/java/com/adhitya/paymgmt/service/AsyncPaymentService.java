@@ -0,0 +1,202 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.config.QueryCancellation;
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link PaymentService} and the report/reference-data
+ * services. Each call runs on the supplied executor and returns a
+ * {@link CompletableFuture} that times out after the configured duration.
+ * Cancelling a future, or letting it time out, interrupts the worker and
+ * cancels the SQL statement it is executing. Composite operations fan out
+ * their independent parts in parallel and fail as soon as one part fails.
+ */
+public class AsyncPaymentService {
+  private final PaymentService paymentService;
+  private final ReportService reportService;
+  private final EmployeeService employeeService;
+  private final CounterpartyService counterpartyService;
+  private final Executor executor;
+  private final Duration defaultTimeout;
+
+  /**
+   * @param executor       executor running the blocking calls; sizes how many queries overlap
+   * @param defaultTimeout time after which a pending future fails with a TimeoutException
+   */
+  public AsyncPaymentService(PaymentService paymentService, ReportService reportService,
+                             EmployeeService employeeService, CounterpartyService counterpartyService,
+                             Executor executor, Duration defaultTimeout) {
+    if (defaultTimeout.isNegative() || defaultTimeout.isZero()) {
+      throw new IllegalArgumentException("Timeout must be positive");
+    }
+    this.paymentService = paymentService;
+    this.reportService = reportService;
+    this.employeeService = employeeService;
+    this.counterpartyService = counterpartyService;
+    this.executor = executor;
+    this.defaultTimeout = defaultTimeout;
+  }
+
+  /**
+   * Report data for a period together with the reference data needed to render it.
+   *
+   * @param report         aggregated report data
+   * @param employees      all employees
+   * @param counterparties all counterparties
+   */
+  public record ReportBundle(ReportDataDTO report, List<Employee> employees, List<Counterparty> counterparties) {}
+
+  // ---------- Single operations ----------
+
+  public CompletableFuture<Void> addPayment(Payment payment) {
+    return submit(() -> {
+      paymentService.addPayment(payment);
+      return null;
+    });
+  }
+
+  public CompletableFuture<Integer> addPayment(Payment payment, String idempotencyKey) {
+    return submit(() -> paymentService.addPayment(payment, idempotencyKey));
+  }
+
+  public CompletableFuture<Void> updatePaymentStatus(int paymentId, Status newStatus, int changedByUserId) {
+    return submit(() -> {
+      paymentService.updatePaymentStatus(paymentId, newStatus, changedByUserId);
+      return null;
+    });
+  }
+
+  public CompletableFuture<Payment> findById(int id) {
+    return submit(() -> paymentService.findById(id));
+  }
+
+  public CompletableFuture<List<Payment>> getAllPayments() {
+    return submit(paymentService::getAllPayments);
+  }
+
+  public CompletableFuture<List<Payment>> getPaymentsByDateRange(LocalDate start, LocalDate end) {
+    return submit(() -> paymentService.getPaymentsByDateRange(start, end));
+  }
+
+  public CompletableFuture<List<Payment>> getPaymentsByCategory(PaymentCategory category) {
+    return submit(() -> paymentService.getPaymentsByCategory(category));
+  }
+
+  public CompletableFuture<List<Payment>> getPaymentsByUser(int userId) {
+    return submit(() -> paymentService.getPaymentsByUser(userId));
+  }
+
+  public CompletableFuture<ReportDataDTO> generateReportData(LocalDate start, LocalDate end) {
+    return submit(() -> reportService.generateReportData(start, end));
+  }
+
+  // ---------- Composite operations ----------
+
+  /** Computes the report while employees and counterparties load in parallel. */
+  public CompletableFuture<ReportBundle> loadReportBundle(LocalDate start, LocalDate end) {
+    CompletableFuture<ReportDataDTO> report = generateReportData(start, end);
+    CompletableFuture<List<Employee>> employees = submit(employeeService::getAll);
+    CompletableFuture<List<Counterparty>> counterparties = submit(counterpartyService::getAll);
+
+    return allOrFirstFailure(() -> new ReportBundle(report.join(), employees.join(), counterparties.join()),
+      report, employees, counterparties);
+  }
+
+  /** Looks up several payments concurrently; fails if any of them is missing. */
+  public CompletableFuture<List<Payment>> findAllByIds(Collection<Integer> ids) {
+    List<CompletableFuture<Payment>> lookups = new ArrayList<>(ids.size());
+    for (int id : ids) {
+      lookups.add(findById(id));
+    }
+
+    return allOrFirstFailure(() -> {
+      List<Payment> payments = new ArrayList<>(lookups.size());
+      lookups.forEach(lookup -> payments.add(lookup.join()));
+      return payments;
+    }, lookups.toArray(new CompletableFuture<?>[0]));
+  }
+
+  /** Runs arbitrary blocking service work with this facade's executor, timeout and cancellation. */
+  public <T> CompletableFuture<T> submit(Supplier<T> work) {
+    return submit(work, defaultTimeout);
+  }
+
+  /** Same as {@link #submit(Supplier)} with an explicit timeout. */
+  public <T> CompletableFuture<T> submit(Supplier<T> work, Duration timeout) {
+    QueryCancellation scope = new QueryCancellation();
+    CompletableFuture<T> result = new CompletableFuture<>();
+
+    FutureTask<Void> task = new FutureTask<>(() -> {
+      if (result.isDone()) {
+        return null;
+      }
+      try {
+        result.complete(scope.runWithin(work));
+      }
+      catch (Throwable ex) {
+        result.completeExceptionally(ex);
+      }
+      return null;
+    });
+    executor.execute(task);
+
+    // Timeout or cancel() both complete the future exceptionally before the task does
+    result.whenComplete((value, ex) -> {
+      if (ex != null && !task.isDone()) {
+        scope.cancel();
+        task.cancel(true);
+      }
+    });
+    return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Combines the parts once every one has completed, but fails as soon as the
+   * first part fails rather than waiting for the slowest sibling. When the
+   * result fails or is cancelled, the parts still running are cancelled.
+   */
+  private static <T> CompletableFuture<T> allOrFirstFailure(Supplier<T> combine, CompletableFuture<?>... parts) {
+    CompletableFuture<T> composite = new CompletableFuture<>();
+    for (CompletableFuture<?> part : parts) {
+      part.whenComplete((value, ex) -> {
+        if (ex != null) {
+          composite.completeExceptionally(ex);
+        }
+      });
+    }
+    CompletableFuture.allOf(parts).thenRun(() -> {
+      try {
+        composite.complete(combine.get());
+      }
+      catch (Throwable ex) {
+        composite.completeExceptionally(ex);
+      }
+    });
+
+    composite.whenComplete((value, ex) -> {
+      if (ex != null) {
+        for (Future<?> part : parts) {
+          part.cancel(true);
+        }
+      }
+    });
+    return composite;
+  }
+}
@@ -0,0 +1,129 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.repository.AuditPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background job that keeps the monthly audit_logs partitions in shape.
+ * Each run pre-creates partitions for upcoming months and archives partitions
+ * that have fallen out of the retention window to gzip-compressed CSV files,
+ * then detaches and drops them so recent-activity queries only touch live months.
+ */
+public class AuditPartitionMaintenance {
+  private static final Logger logger = LoggerFactory.getLogger(AuditPartitionMaintenance.class);
+
+  private final AuditPartitionRepository partitionRepository;
+  private final Path archiveDirectory;
+  private final int monthsAhead;
+  private final int retentionMonths;
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * @param partitionRepository repository managing the audit partitions
+   * @param archiveDirectory    local directory receiving archived partitions
+   * @param monthsAhead         number of future months to keep pre-created
+   * @param retentionMonths     number of past months kept attached, including the current one
+   */
+  public AuditPartitionMaintenance(AuditPartitionRepository partitionRepository, Path archiveDirectory,
+                                   int monthsAhead, int retentionMonths) {
+    if (monthsAhead < 1 || retentionMonths < 1) {
+      throw new IllegalArgumentException("monthsAhead and retentionMonths must be positive");
+    }
+    this.partitionRepository = partitionRepository;
+    this.archiveDirectory = archiveDirectory;
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+  }
+
+  /** Starts running maintenance immediately and then at the given interval on a daemon thread. */
+  public synchronized void start(Duration interval) {
+    if (scheduler != null) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "audit-partition-maintenance");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the background schedule. */
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /**
+   * Runs one maintenance pass: creates missing future partitions and archives
+   * expired ones. Does nothing until the audit_logs migration has been applied.
+   */
+  public void runOnce() {
+    if (!partitionRepository.isPartitioned()) {
+      logger.debug("audit_logs is not partitioned yet; skipping maintenance");
+      return;
+    }
+
+    YearMonth current = YearMonth.now();
+    for (int i = 0; i <= monthsAhead; i++) {
+      partitionRepository.createPartition(current.plusMonths(i));
+    }
+
+    YearMonth oldestRetained = current.minusMonths(retentionMonths - 1L);
+    List<YearMonth> months = partitionRepository.findPartitionMonths();
+    for (YearMonth month : months) {
+      if (month.isBefore(oldestRetained)) {
+        archive(month);
+      }
+    }
+  }
+
+  private void runSafely() {
+    try {
+      runOnce();
+    }
+    catch (RuntimeException ex) {
+      // Keep the schedule alive; the next run retries
+      logger.error("Audit partition maintenance failed", ex);
+    }
+  }
+
+  private void archive(YearMonth month) {
+    String name = partitionRepository.partitionName(month);
+    Path target = archiveDirectory.resolve(name + ".csv.gz");
+    Path temp = archiveDirectory.resolve(name + ".csv.gz.tmp");
+
+    try {
+      Files.createDirectories(archiveDirectory);
+      long rows;
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+        rows = partitionRepository.exportPartition(month, out);
+      }
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      // Only drop once the archive is safely on disk
+      partitionRepository.detachPartition(month);
+      partitionRepository.dropPartition(month);
+      logger.info("Archived {} audit rows from {} to {}", rows, name, target);
+    }
+    catch (IOException ex) {
+      logger.error("Failed to archive audit partition " + name, ex);
+    }
+  }
+}
@@ -1,52 +1,170 @@
 package com.adhitya.paymgmt.service;
 
+import com.adhitya.paymgmt.config.ReadRouting;
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.dto.AuditLogEntryDTO;
 import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.AuditLog;
+import com.adhitya.paymgmt.repository.AuditJournal;
 import com.adhitya.paymgmt.repository.AuditLogRepository;
+import com.adhitya.paymgmt.service.WorkloadScheduler.Priority;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
-/** Service for handling audit log operations. */
+/** Service for handling audit log operations. History reads are served by the read replica when available. */
 public class AuditService {
+  private static final OperationTimer LOG_CHANGE = Metrics.service(AuditService.class, "logChange");
+  private static final OperationTimer VERIFY_JOURNAL = Metrics.service(AuditService.class, "verifyJournal");
+  private static final OperationTimer EXPORT_JOURNAL = Metrics.service(AuditService.class, "exportJournal");
+  private static final OperationTimer GET_ALL_AUDIT_LOGS = Metrics.service(AuditService.class, "getAllAuditLogs");
+  private static final OperationTimer GET_LOGS_BY_PAYMENT = Metrics.service(AuditService.class, "getLogsByPayment");
+  private static final OperationTimer GET_AUDIT_LOG_PAGE = Metrics.service(AuditService.class, "getAuditLogPage");
+  private static final OperationTimer GET_ENTRIES_BY_PAYMENT = Metrics.service(AuditService.class, "getEntriesByPayment");
+
   private final AuditLogRepository auditLogRepository;
+  private final AuditJournal auditJournal;
+  private volatile WorkloadScheduler scheduler;
 
-  /** Creates service with the required repository. */
+  /** Creates service with the required repository and no local journal. */
   public AuditService(AuditLogRepository auditLogRepository) {
+    this(auditLogRepository, null);
+  }
+
+  /** Creates service that also appends every entry to the given tamper-evident journal. */
+  public AuditService(AuditLogRepository auditLogRepository, AuditJournal auditJournal) {
     this.auditLogRepository = auditLogRepository;
+    this.auditJournal = auditJournal;
   }
 
-  /** Records a new audit log entry. */
+  /**
+   * Runs journal scans and audit history reads in the scheduler's analytics
+   * class at low priority, so console and API callers share one session quota.
+   */
+  public void useScheduler(WorkloadScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /** Records a new audit log entry in the database and, once saved, in the local journal. */
   public void logChange(AuditLog auditLog) {
-    if(auditLog == null) {
-      throw new IllegalArgumentException("AuditLog cannot be null");
-    }
+    LOG_CHANGE.run(() -> {
+      if(auditLog == null) {
+        throw new IllegalArgumentException("AuditLog cannot be null");
+      }
+
+      auditLogRepository.save(auditLog);
+
+      if(auditJournal != null) {
+        auditJournal.append(auditLog);
+      }
+    });
+  }
+
+  /** Recomputes the journal's hash chain end to end. Throws if no journal is configured. */
+  public AuditJournal.VerificationResult verifyJournal() {
+    return auditScan(() -> VERIFY_JOURNAL.time(() -> requireJournal().verify()));
+  }
+
+  /**
+   * Verifies the journal while dumping every entry, one per line, to the given file.
+   * Throws if no journal is configured.
+   */
+  public AuditJournal.VerificationResult exportJournal(Path outputPath) {
+    return auditScan(() -> EXPORT_JOURNAL.time(() -> {
+      AuditJournal journal = requireJournal();
+
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outputPath), 1 << 16)) {
+        return journal.export(out);
+      }
+      catch (IOException ex) {
+        throw new RuntimeException("Audit journal export failed: " + ex.getMessage(), ex);
+      }
+    }));
+  }
 
-    auditLogRepository.save(auditLog);
+  private AuditJournal requireJournal() {
+    if(auditJournal == null) {
+      throw new IllegalStateException("Audit journal is not enabled");
+    }
+    return auditJournal;
   }
 
   /** Retrieves all audit logs. Throws if none found. */
   public List<AuditLog> getAllAuditLogs() {
-    List<AuditLog> auditLogs = auditLogRepository.findAll();
+    return auditScan(() -> GET_ALL_AUDIT_LOGS.time(() -> {
+      List<AuditLog> auditLogs = ReadRouting.onReplica(auditLogRepository::findAll);
 
-    if(auditLogs.isEmpty()) {
-      throw new EmptyResultException("No AuditLogs found");
-    }
+      if(auditLogs.isEmpty()) {
+        throw new EmptyResultException("No AuditLogs found");
+      }
 
-    return auditLogs;
+      return auditLogs;
+    }));
   }
 
   /** Gets audit logs for a specific payment. Throws if invalid ID or none found. */
   public List<AuditLog> getLogsByPayment(int paymentId) {
-    if(paymentId <= 0) {
-      throw new IllegalArgumentException("Invalid payment ID: " + paymentId);
-    }
+    return auditScan(() -> GET_LOGS_BY_PAYMENT.time(() -> {
+      if(paymentId <= 0) {
+        throw new IllegalArgumentException("Invalid payment ID: " + paymentId);
+      }
 
-    List<AuditLog> auditLogs = auditLogRepository.findByPaymentId(paymentId);
+      List<AuditLog> auditLogs = ReadRouting.onReplica(() -> auditLogRepository.findByPaymentId(paymentId));
 
-    if(auditLogs.isEmpty()) {
-      throw new EmptyResultException("No AuditLogs found for payment ID: " + paymentId);
-    }
+      if(auditLogs.isEmpty()) {
+        throw new EmptyResultException("No AuditLogs found for payment ID: " + paymentId);
+      }
+
+      return auditLogs;
+    }));
+  }
+
+  /**
+   * Retrieves one page of lightweight audit entries, newest first.
+   * Pass null for {@code beforeChangedAt} to get the first page, then the
+   * changedAt/id of the last entry returned to get the next one.
+   * A non-null {@code since} restricts results to entries changed at or after it.
+   * Returns an empty list once history is exhausted.
+   */
+  public List<AuditLogEntryDTO> getAuditLogPage(LocalDateTime since, LocalDateTime beforeChangedAt,
+                                                int beforeId, int pageSize) {
+    return auditScan(() -> GET_AUDIT_LOG_PAGE.time(() -> {
+      if(pageSize <= 0) {
+        throw new IllegalArgumentException("Invalid page size: " + pageSize);
+      }
+
+      return ReadRouting.onReplica(
+        () -> auditLogRepository.findEntriesBefore(since, beforeChangedAt, beforeId, pageSize));
+    }));
+  }
+
+  /** Gets lightweight audit entries for a specific payment. Throws if invalid ID or none found. */
+  public List<AuditLogEntryDTO> getEntriesByPayment(int paymentId) {
+    return auditScan(() -> GET_ENTRIES_BY_PAYMENT.time(() -> {
+      if(paymentId <= 0) {
+        throw new IllegalArgumentException("Invalid payment ID: " + paymentId);
+      }
+
+      List<AuditLogEntryDTO> entries = ReadRouting.onReplica(
+        () -> auditLogRepository.findEntriesByPaymentId(paymentId));
+
+      if(entries.isEmpty()) {
+        throw new EmptyResultException("No AuditLogs found for payment ID: " + paymentId);
+      }
+
+      return entries;
+    }));
+  }
 
-    return auditLogs;
+  private <T> T auditScan(Supplier<T> work) {
+    return WorkloadScheduler.callOrRun(scheduler, WorkloadClass.ANALYTICS, Priority.LOW, work);
   }
-}
\ No newline at end of file
+}
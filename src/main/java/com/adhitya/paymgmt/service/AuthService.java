@@ -3,69 +3,233 @@ package com.adhitya.paymgmt.service;
 import com.adhitya.paymgmt.exception.EmptyResultException;
 import com.adhitya.paymgmt.exception.InvalidCredentialsException;
 import com.adhitya.paymgmt.exception.UserNotFoundException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.Role;
 import com.adhitya.paymgmt.repository.UserRepository;
 import com.adhitya.paymgmt.util.PasswordUtil;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class AuthService {
-  private final UserRepository userRepository;
+  private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+  private static final OperationTimer LOGIN = Metrics.service(AuthService.class, "login");
+  private static final OperationTimer CHANGE_PASSWORD = Metrics.service(AuthService.class, "changePassword");
+  private static final OperationTimer CHANGE_ROLE = Metrics.service(AuthService.class, "changeRole");
+  private static final OperationTimer REGISTER = Metrics.service(AuthService.class, "register");
+  private static final OperationTimer FIND_BY_ID = Metrics.service(AuthService.class, "findById");
+  private static final OperationTimer GET_ALL_USERS = Metrics.service(AuthService.class, "getAllUsers");
 
-  public AuthService(UserRepository userRepository) {
+  private final UserRepository userRepository;
+  private final LoginRateLimiter rateLimiter;
+  private final PasswordVerifier passwordVerifier;
+  private final LoginMetrics loginMetrics;
+  private final SessionService sessionService;
+  // Verified against when the username is unknown, so both failure paths cost one bcrypt check
+  private final String dummyHash = PasswordUtil.hashPassword("timing-equalizer");
+  // Best-effort background rehashing; work is dropped rather than queued without bound
+  private final ThreadPoolExecutor rehashExecutor = new ThreadPoolExecutor(
+    1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+    runnable -> {
+      Thread thread = new Thread(runnable, "password-rehash");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    },
+    new ThreadPoolExecutor.DiscardPolicy()
+  );
+
+  /**
+   * Creates the service with a pre-authentication rate limiter, a bounded
+   * verification pool and the session store used for token authentication.
+   * The limiter and verifier should report into the same {@code loginMetrics} instance.
+   */
+  public AuthService(UserRepository userRepository, LoginRateLimiter rateLimiter,
+                     PasswordVerifier passwordVerifier, LoginMetrics loginMetrics,
+                     SessionService sessionService) {
     this.userRepository = userRepository;
+    this.rateLimiter = rateLimiter;
+    this.passwordVerifier = passwordVerifier;
+    this.loginMetrics = loginMetrics;
+    this.sessionService = sessionService;
   }
 
   public User login(String userName, String password) {
-    if (userName == null || userName.trim().isEmpty()) {
-      throw new IllegalArgumentException("Username cannot be null or empty");
-    }
-    if (password == null || password.isEmpty()) {
-      throw new IllegalArgumentException("Password cannot be null or empty");
-    }
+    return LOGIN.time(() -> {
+      if (userName == null || userName.trim().isEmpty()) {
+        throw new IllegalArgumentException("Username cannot be null or empty");
+      }
+      if (password == null || password.isEmpty()) {
+        throw new IllegalArgumentException("Password cannot be null or empty");
+      }
+
+      // Throttle before touching the database or spending CPU on bcrypt
+      rateLimiter.acquire(userName);
+
+      User user = userRepository.findByUsername(userName);
+
+      if(user == null) {
+        passwordVerifier.verify(password, dummyHash);
+        throw new UserNotFoundException("Invalid Credentials");
+      }
+      if(!passwordVerifier.verify(password,user.getPassword())) {
+        throw new InvalidCredentialsException("Invalid Credentials");
+      }
+
+      if (PasswordUtil.needsRehash(user.getPassword())) {
+        rehashAsync(user.getId(), user.getPassword(), password);
+      }
+
+      return user;
+    });
+  }
 
-    User user = userRepository.findByUsername(userName);
+  /**
+   * Re-hashes a just-verified password at the calibrated cost off the login path.
+   * The update only applies if the stored hash is unchanged, so a concurrent
+   * password change always wins, and never lowers the stored cost.
+   */
+  private void rehashAsync(int userId, String currentHash, String plainPassword) {
+    rehashExecutor.execute(() -> {
+      try {
+        String newHash = PasswordUtil.hashPassword(plainPassword);
+        // The target may have been recalibrated down since the login check
+        if (PasswordUtil.getRounds(newHash) <= PasswordUtil.getRounds(currentHash)) {
+          return;
+        }
+        if (userRepository.replacePasswordHash(userId, currentHash, newHash)) {
+          logger.info("Rehashed password for user id {} at cost {}", userId, PasswordUtil.getRounds());
+        }
+      }
+      catch (RuntimeException ex) {
+        logger.warn("Background password rehash failed for user id " + userId, ex);
+      }
+    });
+  }
 
-    if(user == null) {
-      throw new UserNotFoundException("Invalid Credentials");
+  /**
+   * Logs in with username and password and issues a short-lived session token,
+   * so subsequent calls can authenticate with {@link #authenticate(String)}.
+   */
+  public SessionService.Session openSession(String userName, String password) {
+    return sessionService.issue(login(userName, password));
+  }
+
+  /**
+   * Resolves a session token without touching the database or bcrypt.
+   * @throws InvalidCredentialsException if the token is unknown, revoked or expired
+   */
+  public SessionService.Session authenticate(String token) {
+    SessionService.Session session = sessionService.validate(token);
+
+    if (session == null) {
+      throw new InvalidCredentialsException("Session expired or invalid");
     }
-    if(!PasswordUtil.verifyPassword(password,user.getPassword())) {
-      throw new InvalidCredentialsException("Invalid Credentials");
+
+    return session;
+  }
+
+  public void logout(String token) {
+    sessionService.revoke(token);
+  }
+
+  /** Sets a new password for the user and revokes all of their sessions. */
+  public void changePassword(int userId, String newPassword) {
+    CHANGE_PASSWORD.run(() -> {
+      if (newPassword == null || newPassword.isEmpty()) {
+        throw new IllegalArgumentException("Password cannot be null or empty");
+      }
+
+      findById(userId);
+      userRepository.updatePassword(userId, PasswordUtil.hashPassword(newPassword));
+      sessionService.revokeUser(userId);
+    });
+  }
+
+  /** Changes the user's role and revokes all of their sessions, so the new role applies immediately. */
+  public void changeRole(int userId, Role newRole) {
+    CHANGE_ROLE.run(() -> {
+      if (newRole == null) {
+        throw new IllegalArgumentException("Role cannot be null");
+      }
+
+      findById(userId);
+      userRepository.updateRole(userId, newRole);
+      sessionService.revokeUser(userId);
+    });
+  }
+
+  /**
+   * Applies user changes made by another instance: ends the users' sessions on this
+   * instance, since their role or password may have changed, and learns new usernames.
+   */
+  public void refreshUsers(int[] userIds) {
+    for (int userId : userIds) {
+      sessionService.revokeUser(userId);
+      User user = userRepository.findById(userId);
+      if (user != null) {
+        userRepository.rememberUsername(user.getUsername());
+      }
     }
+  }
 
-    return user;
+  /**
+   * Discards all user-derived state after remote changes may have been missed:
+   * reloads the username filter and revokes every session.
+   */
+  public void reloadUserCaches() {
+    userRepository.loadUsernameFilter();
+    sessionService.revokeAll();
   }
 
   public void register(User user) {
-    if (user == null) {
-      throw new IllegalArgumentException("User cannot be null");
-    }
+    REGISTER.run(() -> {
+      if (user == null) {
+        throw new IllegalArgumentException("User cannot be null");
+      }
 
-    userRepository.save(user);
+      userRepository.save(user);
+    });
   }
 
   public User findById(int id) {
-    if (id <= 0) {
-      throw new IllegalArgumentException("Invalid user ID: " + id);
-    }
+    return FIND_BY_ID.time(() -> {
+      if (id <= 0) {
+        throw new IllegalArgumentException("Invalid user ID: " + id);
+      }
 
-    User user = userRepository.findById(id);
+      User user = userRepository.findById(id);
 
-    if (user == null) {
-      throw new UserNotFoundException("User not found with ID: " + id);
-    }
+      if (user == null) {
+        throw new UserNotFoundException("User not found with ID: " + id);
+      }
 
-    return user;
+      return user;
+    });
   }
 
 
   public List<User> getAllUsers() {
-    List<User> users = userRepository.findAll();
+    return GET_ALL_USERS.time(() -> {
+      List<User> users = userRepository.findAll();
 
-    if (users.isEmpty()) {
-      throw new EmptyResultException("No users found");
-    }
+      if (users.isEmpty()) {
+        throw new EmptyResultException("No users found");
+      }
+
+      return users;
+    });
+  }
 
-    return users;
+  /** Returns current login latency and rejection counters. */
+  public LoginMetrics.Snapshot getLoginMetrics() {
+    return loginMetrics.snapshot();
   }
 }
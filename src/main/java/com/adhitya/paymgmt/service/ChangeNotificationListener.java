@@ -0,0 +1,252 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.config.ChangeNotifications;
+import com.adhitya.paymgmt.config.DatabaseConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps this instance's in-process caches coherent with writes made by other
+ * instances. Holds one dedicated connection that {@code LISTEN}s on
+ * {@link ChangeNotifications#CHANNEL}, collects incoming notifications for a
+ * short window, de-duplicates their IDs per entity and hands each batch to the
+ * handlers registered for that entity.
+ *
+ * <p>Notifications sent while the connection is down are lost, so after every
+ * reconnect each handler is asked to flush its cache completely. Caches should
+ * be loaded only once {@link #awaitListening(Duration)} confirms the first
+ * {@code LISTEN}; if that wait gives up, the first {@code LISTEN} flushes too.</p>
+ */
+public class ChangeNotificationListener {
+  private static final Logger logger = LoggerFactory.getLogger(ChangeNotificationListener.class);
+  private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+  private static final int IDLE_CHECK_MILLIS = 10_000;
+
+  private final Duration batchWindow;
+  private final Duration reconnectDelay;
+  private final Map<ChangeNotifications.Entity, List<Handler>> handlers =
+    new EnumMap<>(ChangeNotifications.Entity.class);
+
+  private volatile boolean running;
+  private volatile Connection connection;
+  private Thread thread;
+  private final CountDownLatch firstListen = new CountDownLatch(1);
+  // Guarded by this: whether the first LISTEN succeeded, and whether a caller stopped waiting for it
+  private boolean listening;
+  private boolean loadedBeforeListen;
+
+  private record Handler(Consumer<int[]> onChanged, Runnable onFlush) {}
+
+  /**
+   * @param batchWindow    how long to gather notifications before applying them
+   * @param reconnectDelay initial wait before reconnecting; doubles up to 30 seconds
+   */
+  public ChangeNotificationListener(Duration batchWindow, Duration reconnectDelay) {
+    this.batchWindow = batchWindow;
+    this.reconnectDelay = reconnectDelay;
+    for (ChangeNotifications.Entity entity : ChangeNotifications.Entity.values()) {
+      handlers.put(entity, new CopyOnWriteArrayList<>());
+    }
+  }
+
+  /**
+   * Registers cache invalidation for one entity.
+   *
+   * @param onChanged receives the distinct IDs changed by other instances
+   * @param onFlush   drops or reloads everything cached for the entity
+   */
+  public void register(ChangeNotifications.Entity entity, Consumer<int[]> onChanged, Runnable onFlush) {
+    handlers.get(entity).add(new Handler(onChanged, onFlush));
+  }
+
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, "change-notification-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Waits until the first {@code LISTEN} is in place, so caches loaded afterwards
+   * cannot miss a change. Returns false on timeout, in which case the caches are
+   * flushed as soon as the listener does connect.
+   */
+  public boolean awaitListening(Duration timeout) {
+    try {
+      if (firstListen.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      if (!listening) {
+        logger.warn("Not listening for change notifications yet; caches will be flushed once connected");
+        loadedBeforeListen = true;
+      }
+      return listening;
+    }
+  }
+
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    thread.interrupt();
+    closeConnection();
+  }
+
+  private void run() {
+    Duration delay = reconnectDelay;
+    boolean connectedBefore = false;
+    while (running) {
+      try {
+        connection = DatabaseConfig.getConnection();
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + ChangeNotifications.CHANNEL);
+        }
+        logger.info("Listening for change notifications as node {}", ChangeNotifications.NODE_ID);
+        if (connectedBefore || firstListenAfterLoad()) {
+          // Anything sent while we were not listening is gone
+          flushAll();
+        }
+        connectedBefore = true;
+        delay = reconnectDelay;
+        listen(connection);
+      }
+      catch (SQLException | RuntimeException ex) {
+        if (!running) {
+          break;
+        }
+        logger.warn("Change notification connection lost; reconnecting in {} ms", delay.toMillis(), ex);
+      }
+      finally {
+        closeConnection();
+      }
+
+      try {
+        Thread.sleep(delay.toMillis());
+      }
+      catch (InterruptedException ex) {
+        break;
+      }
+      Duration doubled = delay.multipliedBy(2);
+      delay = doubled.compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : doubled;
+    }
+  }
+
+  private void listen(Connection listenConnection) throws SQLException {
+    PGConnection pgConnection = listenConnection.unwrap(PGConnection.class);
+    Map<ChangeNotifications.Entity, Set<Integer>> pending = new EnumMap<>(ChangeNotifications.Entity.class);
+    long windowEnds = 0;
+    while (running) {
+      int waitMillis = pending.isEmpty()
+        ? IDLE_CHECK_MILLIS
+        : (int) Math.max(1, (windowEnds - System.nanoTime()) / 1_000_000);
+      // Blocks until a notification arrives or the wait elapses
+      PGNotification[] notifications = pgConnection.getNotifications(waitMillis);
+
+      if ((notifications == null || notifications.length == 0) && pending.isEmpty()
+        && !listenConnection.isValid(5)) {
+        // A silently dropped connection would otherwise look like a quiet channel
+        throw new SQLException("Change notification connection is no longer valid");
+      }
+
+      if (notifications != null) {
+        for (PGNotification notification : notifications) {
+          ChangeNotifications.Change change = ChangeNotifications.parse(notification.getParameter());
+          if (change == null) {
+            logger.warn("Ignoring malformed change notification: {}", notification.getParameter());
+            continue;
+          }
+          if (change.isLocal()) {
+            continue;
+          }
+          if (pending.isEmpty()) {
+            windowEnds = System.nanoTime() + batchWindow.toNanos();
+          }
+          Set<Integer> ids = pending.computeIfAbsent(change.entity(), ignored -> new LinkedHashSet<>());
+          for (int id : change.ids()) {
+            ids.add(id);
+          }
+        }
+      }
+
+      if (!pending.isEmpty() && System.nanoTime() - windowEnds >= 0) {
+        apply(pending);
+        pending.clear();
+      }
+    }
+  }
+
+  private void apply(Map<ChangeNotifications.Entity, Set<Integer>> pending) {
+    pending.forEach((entity, ids) -> {
+      int[] changed = ids.stream().mapToInt(Integer::intValue).toArray();
+      logger.debug("Applying {} remote {} changes", changed.length, entity);
+      for (Handler handler : handlers.get(entity)) {
+        try {
+          handler.onChanged().accept(changed);
+        }
+        catch (RuntimeException ex) {
+          // A handler that cannot apply a targeted invalidation must not keep stale data
+          logger.warn("Failed to apply {} change notifications; flushing instead", entity, ex);
+          flush(entity, handler);
+        }
+      }
+    });
+  }
+
+  private synchronized boolean firstListenAfterLoad() {
+    listening = true;
+    firstListen.countDown();
+    return loadedBeforeListen;
+  }
+
+  private void flushAll() {
+    logger.info("Flushing caches after (re)connecting to change notifications");
+    handlers.forEach((entity, entityHandlers) -> entityHandlers.forEach(handler -> flush(entity, handler)));
+  }
+
+  private void flush(ChangeNotifications.Entity entity, Handler handler) {
+    try {
+      handler.onFlush().run();
+    }
+    catch (RuntimeException ex) {
+      logger.error("Failed to flush {} cache", entity, ex);
+    }
+  }
+
+  private void closeConnection() {
+    Connection current = connection;
+    connection = null;
+    if (current != null) {
+      try {
+        current.close();
+      }
+      catch (SQLException ex) {
+        logger.debug("Failed to close change notification connection", ex);
+      }
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package com.adhitya.paymgmt.service;
 
 import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.Counterparty;
 import com.adhitya.paymgmt.model.enums.PartyType;
 import com.adhitya.paymgmt.repository.CounterpartyRepository;
@@ -8,6 +10,11 @@ import com.adhitya.paymgmt.repository.CounterpartyRepository;
 import java.util.List;
 
 public class CounterpartyService {
+  private static final OperationTimer ADD_COUNTERPARTY = Metrics.service(CounterpartyService.class, "addCounterparty");
+  private static final OperationTimer FIND_BY_ID = Metrics.service(CounterpartyService.class, "findById");
+  private static final OperationTimer GET_ALL = Metrics.service(CounterpartyService.class, "getAll");
+  private static final OperationTimer GET_BY_TYPE = Metrics.service(CounterpartyService.class, "getByType");
+
   private final CounterpartyRepository counterpartyRepository;
 
   public CounterpartyService(CounterpartyRepository counterpartyRepository) {
@@ -15,48 +22,56 @@ public class CounterpartyService {
   }
 
   public void addCounterparty(Counterparty counterparty) {
-    if(counterparty == null) {
-      throw new IllegalArgumentException("Counterparty cannot be null");
-    }
+    ADD_COUNTERPARTY.run(() -> {
+      if(counterparty == null) {
+        throw new IllegalArgumentException("Counterparty cannot be null");
+      }
 
-    counterpartyRepository.save(counterparty);
+      counterpartyRepository.save(counterparty);
+    });
   }
 
   public Counterparty findById(int id) {
-    if(id <= 0) {
-      throw new IllegalArgumentException("Invalid counterparty ID: " + id);
-    }
+    return FIND_BY_ID.time(() -> {
+      if(id <= 0) {
+        throw new IllegalArgumentException("Invalid counterparty ID: " + id);
+      }
 
-    Counterparty counterparty =  counterpartyRepository.findById(id);
+      Counterparty counterparty =  counterpartyRepository.findById(id);
 
-    if(counterparty == null) {
-      throw new EmptyResultException("No Counterparty Found for id: " + id);
-    }
+      if(counterparty == null) {
+        throw new EmptyResultException("No Counterparty Found for id: " + id);
+      }
 
-    return counterparty;
+      return counterparty;
+    });
   }
 
   public List<Counterparty> getAll() {
-    List<Counterparty> counterparties = counterpartyRepository.findAll();
+    return GET_ALL.time(() -> {
+      List<Counterparty> counterparties = counterpartyRepository.findAll();
 
-    if(counterparties.isEmpty()) {
-      throw new EmptyResultException("No Counterparties Found");
-    }
+      if(counterparties.isEmpty()) {
+        throw new EmptyResultException("No Counterparties Found");
+      }
 
-    return counterparties;
+      return counterparties;
+    });
   }
 
   public List<Counterparty> getByType(PartyType type) {
-    if(type == null) {
-      throw new IllegalArgumentException("Counterparty Type cannot be null");
-    }
+    return GET_BY_TYPE.time(() -> {
+      if(type == null) {
+        throw new IllegalArgumentException("Counterparty Type cannot be null");
+      }
 
-    List<Counterparty> counterparties = counterpartyRepository.findAllByType(type);
+      List<Counterparty> counterparties = counterpartyRepository.findAllByType(type);
 
-    if(counterparties.isEmpty()) {
-      throw new EmptyResultException("No Counterparties Found for Counterparty Type: " + type);
-    }
+      if(counterparties.isEmpty()) {
+        throw new EmptyResultException("No Counterparties Found for Counterparty Type: " + type);
+      }
 
-    return counterparties;
+      return counterparties;
+    });
   }
 }
@@ -1,12 +1,18 @@
 package com.adhitya.paymgmt.service;
 
 import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.Employee;
 import com.adhitya.paymgmt.repository.EmployeeRepository;
 
 import java.util.List;
 
 public class EmployeeService {
+  private static final OperationTimer ADD_EMPLOYEE = Metrics.service(EmployeeService.class, "addEmployee");
+  private static final OperationTimer FIND_BY_ID = Metrics.service(EmployeeService.class, "findById");
+  private static final OperationTimer GET_ALL = Metrics.service(EmployeeService.class, "getAll");
+
   private final EmployeeRepository employeeRepository;
 
   public EmployeeService(EmployeeRepository employeeRepository) {
@@ -14,34 +20,40 @@ public class EmployeeService {
   }
 
   public void addEmployee(Employee employee) {
-    if(employee == null) {
-      throw new IllegalArgumentException("Employee cannot be null");
-    }
+    ADD_EMPLOYEE.run(() -> {
+      if(employee == null) {
+        throw new IllegalArgumentException("Employee cannot be null");
+      }
 
-    employeeRepository.save(employee);
+      employeeRepository.save(employee);
+    });
   }
 
   public Employee findById(int id) {
-    if(id <= 0) {
-      throw new IllegalArgumentException("Invalid employee ID: " + id);
-    }
+    return FIND_BY_ID.time(() -> {
+      if(id <= 0) {
+        throw new IllegalArgumentException("Invalid employee ID: " + id);
+      }
 
-    Employee employee = employeeRepository.findById(id);
+      Employee employee = employeeRepository.findById(id);
 
-    if(employee == null) {
-      throw new EmptyResultException("No Employee Found for employee ID: " + id);
-    }
+      if(employee == null) {
+        throw new EmptyResultException("No Employee Found for employee ID: " + id);
+      }
 
-    return employee;
+      return employee;
+    });
   }
 
   public List<Employee> getAll() {
-    List<Employee> employees = employeeRepository.findAll();
+    return GET_ALL.time(() -> {
+      List<Employee> employees = employeeRepository.findAll();
 
-    if(employees.isEmpty()) {
-      throw new EmptyResultException("No Employees Found");
-    }
+      if(employees.isEmpty()) {
+        throw new EmptyResultException("No Employees Found");
+      }
 
-    return employees;
+      return employees;
+    });
   }
 }
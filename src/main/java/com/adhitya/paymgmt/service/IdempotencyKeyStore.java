@@ -0,0 +1,161 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.exception.IdempotencyKeyConflictException;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cache of recently used payment idempotency keys in front of the
+ * {@code payment_idempotency_keys} table. A retry hitting this instance resolves
+ * with one map lookup; the table stays authoritative across instances and restarts.
+ * Keys expire after the TTL, and a background job purges them from both places.
+ *
+ * <p>Keys are scoped to the user submitting the payment, and each remembers a
+ * hash of the request that first used it. Replaying a key with a different
+ * request is rejected rather than answered with the original payment.
+ */
+public class IdempotencyKeyStore {
+  private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyStore.class);
+
+  private final PaymentRepository paymentRepository;
+  private final ConcurrentMap<ScopedKey, CachedKey> recentKeys = new ConcurrentHashMap<>();
+  private final Duration ttl;
+  private final long ttlNanos;
+  private final int maxCachedKeys;
+  private ScheduledExecutorService cleaner;
+
+  private record ScopedKey(int userId, String key) {}
+
+  private record CachedKey(int paymentId, String requestHash, long expiresAtNanos) {}
+
+  /**
+   * @param paymentRepository repository owning the idempotency key table
+   * @param ttl               how long a key keeps resolving to its payment
+   * @param maxCachedKeys     upper bound on keys held in memory; beyond it lookups fall through to the table
+   */
+  public IdempotencyKeyStore(PaymentRepository paymentRepository, Duration ttl, int maxCachedKeys) {
+    if (ttl.isNegative() || ttl.isZero() || maxCachedKeys <= 0) {
+      throw new IllegalArgumentException("TTL and cache size must be positive");
+    }
+    this.paymentRepository = paymentRepository;
+    this.ttl = ttl;
+    this.ttlNanos = ttl.toNanos();
+    this.maxCachedKeys = maxCachedKeys;
+  }
+
+  /**
+   * Returns the cached payment ID for the user's key, or null if it is not cached or has expired.
+   *
+   * @throws IdempotencyKeyConflictException if the key was first used with a different request
+   */
+  public Integer lookup(int userId, String key, String requestHash) {
+    ScopedKey scopedKey = new ScopedKey(userId, key);
+    CachedKey cached = recentKeys.get(scopedKey);
+    if (cached == null) {
+      return null;
+    }
+    if (System.nanoTime() - cached.expiresAtNanos() > 0) {
+      recentKeys.remove(scopedKey, cached);
+      return null;
+    }
+    if (!cached.requestHash().equals(requestHash)) {
+      throw new IdempotencyKeyConflictException("Idempotency key was already used for a different payment");
+    }
+    return cached.paymentId();
+  }
+
+  /** Caches the payment a user's key resolved to, along with the hash of the request that used it. */
+  public void remember(int userId, String key, String requestHash, int paymentId) {
+    if (recentKeys.size() >= maxCachedKeys) {
+      purgeExpiredFromMemory();
+      if (recentKeys.size() >= maxCachedKeys) {
+        return;
+      }
+    }
+    recentKeys.put(new ScopedKey(userId, key), new CachedKey(paymentId, requestHash, System.nanoTime() + ttlNanos));
+  }
+
+  /**
+   * Hashes the fields a client chooses when submitting a payment, as 64 hex
+   * characters. The creator and timestamps are left out: the creator scopes
+   * the key, and timestamps are assigned again on every retry.
+   */
+  public static String requestHash(Payment payment) {
+    // The description goes last, so a newline inside it cannot shift another field
+    String canonical = String.join("\n",
+      payment.getAmount() == null ? "" : Long.toString(payment.getAmount().minorUnits()),
+      String.valueOf(payment.getPaymentDirection()),
+      String.valueOf(payment.getCategory()),
+      String.valueOf(payment.getStatus()),
+      payment.getEmployee() == null ? "" : Integer.toString(payment.getEmployee().getId()),
+      payment.getCounterParty() == null ? "" : Integer.toString(payment.getCounterParty().getId()),
+      String.valueOf(payment.getDescription()));
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    }
+    catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  /** Returns the timestamp before which stored keys count as expired. */
+  public LocalDateTime expiredBefore() {
+    return LocalDateTime.now().minus(ttl);
+  }
+
+  /** Starts purging expired keys at the given interval on a daemon thread. */
+  public synchronized void start(Duration cleanupInterval) {
+    if (cleaner != null) {
+      return;
+    }
+    cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "idempotency-key-cleanup");
+      thread.setDaemon(true);
+      return thread;
+    });
+    cleaner.scheduleWithFixedDelay(this::purgeExpired,
+      cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the background cleanup. */
+  public synchronized void stop() {
+    if (cleaner != null) {
+      cleaner.shutdownNow();
+      cleaner = null;
+    }
+  }
+
+  private void purgeExpired() {
+    purgeExpiredFromMemory();
+    try {
+      int removed = paymentRepository.deleteIdempotencyKeysBefore(expiredBefore());
+      if (removed > 0) {
+        logger.debug("Purged {} expired idempotency keys", removed);
+      }
+    }
+    catch (RuntimeException ex) {
+      // Keep the schedule alive; the next run retries
+      logger.error("Idempotency key cleanup failed", ex);
+    }
+  }
+
+  private void purgeExpiredFromMemory() {
+    long now = System.nanoTime();
+    recentKeys.values().removeIf(cached -> now - cached.expiresAtNanos() > 0);
+  }
+}
@@ -0,0 +1,76 @@
+package com.adhitya.paymgmt.service;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters describing the login path: password verification
+ * latency and the reasons attempts were turned away before or during verification.
+ */
+public class LoginMetrics {
+  private final LongAdder verifications = new LongAdder();
+  private final LongAdder verificationNanos = new LongAdder();
+  private final LongAccumulator maxVerificationNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder rateLimitedGlobal = new LongAdder();
+  private final LongAdder rateLimitedUser = new LongAdder();
+  private final LongAdder rejectedQueueFull = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+
+  void recordVerification(long nanos) {
+    verifications.increment();
+    verificationNanos.add(nanos);
+    maxVerificationNanos.accumulate(nanos);
+  }
+
+  void recordRateLimitedGlobal() {
+    rateLimitedGlobal.increment();
+  }
+
+  void recordRateLimitedUser() {
+    rateLimitedUser.increment();
+  }
+
+  void recordQueueFull() {
+    rejectedQueueFull.increment();
+  }
+
+  void recordTimeout() {
+    timedOut.increment();
+  }
+
+  /** Returns a point-in-time copy of all counters. */
+  public Snapshot snapshot() {
+    long count = verifications.sum();
+    long total = verificationNanos.sum();
+    return new Snapshot(
+      count,
+      count == 0 ? 0 : total / count / 1_000_000d,
+      maxVerificationNanos.get() / 1_000_000d,
+      rateLimitedGlobal.sum(),
+      rateLimitedUser.sum(),
+      rejectedQueueFull.sum(),
+      timedOut.sum()
+    );
+  }
+
+  /**
+   * Point-in-time view of the login metrics.
+   *
+   * @param verifications         completed password verifications
+   * @param avgVerificationMillis mean verification latency, including executor queueing
+   * @param maxVerificationMillis worst verification latency observed
+   * @param rateLimitedGlobal     attempts rejected by the global token bucket
+   * @param rateLimitedUser       attempts rejected by a per-username token bucket
+   * @param rejectedQueueFull     attempts rejected because the verification queue was full
+   * @param timedOut              verifications abandoned after the timeout
+   */
+  public record Snapshot(
+    long verifications,
+    double avgVerificationMillis,
+    double maxVerificationMillis,
+    long rateLimitedGlobal,
+    long rateLimitedUser,
+    long rejectedQueueFull,
+    long timedOut
+  ) {}
+}
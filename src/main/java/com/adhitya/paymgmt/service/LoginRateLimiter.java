@@ -0,0 +1,65 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.exception.LoginThrottledException;
+import com.adhitya.paymgmt.util.TokenBucket;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pre-authentication rate limiter applied before any database lookup or hashing.
+ * A global token bucket caps total login throughput, and a per-username bucket
+ * stops a single account from being hammered.
+ */
+public class LoginRateLimiter {
+  // Idle buckets are pruned once the map grows past this many usernames
+  private static final int PRUNE_THRESHOLD = 10_000;
+
+  private final TokenBucket globalBucket;
+  private final int userCapacity;
+  private final double userRefillPerSecond;
+  private final ConcurrentMap<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+  private final LoginMetrics metrics;
+
+  /**
+   * @param globalCapacity      burst size of the global bucket
+   * @param globalPerSecond     sustained logins per second across all users
+   * @param userCapacity        burst size per username
+   * @param userRefillPerSecond sustained attempts per second per username
+   * @param metrics             metrics receiving rejection counts
+   */
+  public LoginRateLimiter(int globalCapacity, double globalPerSecond,
+                          int userCapacity, double userRefillPerSecond, LoginMetrics metrics) {
+    this.globalBucket = new TokenBucket(globalCapacity, globalPerSecond);
+    this.userCapacity = userCapacity;
+    this.userRefillPerSecond = userRefillPerSecond;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Takes a token for the given username from both buckets, or from neither.
+   * @throws LoginThrottledException if either bucket is empty
+   */
+  public void acquire(String username) {
+    String key = username.trim().toLowerCase(Locale.ROOT);
+    TokenBucket userBucket = userBuckets.computeIfAbsent(key,
+      k -> new TokenBucket(userCapacity, userRefillPerSecond));
+
+    if (!userBucket.tryAcquire()) {
+      metrics.recordRateLimitedUser();
+      throw new LoginThrottledException("Too many login attempts for this user. Please wait and try again.");
+    }
+    // The user bucket goes first so one user's flood cannot drain the global bucket;
+    // an attempt the global bucket turns away must not count against the user
+    if (!globalBucket.tryAcquire()) {
+      userBucket.release();
+      metrics.recordRateLimitedGlobal();
+      throw new LoginThrottledException("Login service is busy. Please try again shortly.");
+    }
+
+    if (userBuckets.size() > PRUNE_THRESHOLD) {
+      userBuckets.values().removeIf(TokenBucket::isFull);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.exception.LoginThrottledException;
+import com.adhitya.paymgmt.util.PasswordUtil;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bcrypt verification on a dedicated, bounded thread pool so that a burst
+ * of logins can only ever occupy a fixed number of cores. Attempts are rejected
+ * when the queue is full and abandoned when they wait longer than the timeout.
+ */
+public class PasswordVerifier {
+  private final ThreadPoolExecutor executor;
+  private final long timeoutNanos;
+  private final LoginMetrics metrics;
+
+  /**
+   * @param threads       number of verification threads
+   * @param queueCapacity maximum verifications waiting for a thread
+   * @param timeout       maximum time a caller waits for a result
+   * @param metrics       metrics receiving latency and rejection counts
+   */
+  public PasswordVerifier(int threads, int queueCapacity, Duration timeout, LoginMetrics metrics) {
+    AtomicInteger counter = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+      threads, threads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      runnable -> {
+        Thread thread = new Thread(runnable, "password-verifier-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+      },
+      new ThreadPoolExecutor.AbortPolicy()
+    );
+    this.timeoutNanos = timeout.toNanos();
+    this.metrics = metrics;
+  }
+
+  /**
+   * Verifies a plaintext password against a bcrypt hash on the verification pool.
+   * @throws LoginThrottledException if the pool is saturated or the verification times out
+   */
+  public boolean verify(String plainPassword, String hashedPassword) {
+    long start = System.nanoTime();
+    Future<Boolean> result;
+
+    try {
+      result = executor.submit(() -> PasswordUtil.verifyPassword(plainPassword, hashedPassword));
+    }
+    catch (RejectedExecutionException ex) {
+      metrics.recordQueueFull();
+      throw new LoginThrottledException("Login service is busy. Please try again shortly.", ex);
+    }
+
+    try {
+      boolean matches = result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      metrics.recordVerification(System.nanoTime() - start);
+      return matches;
+    }
+    catch (TimeoutException ex) {
+      result.cancel(true);
+      metrics.recordTimeout();
+      throw new LoginThrottledException("Login timed out. Please try again.", ex);
+    }
+    catch (InterruptedException ex) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new LoginThrottledException("Login interrupted", ex);
+    }
+    catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password verification failed", cause);
+    }
+  }
+
+  /** Returns the number of verifications currently queued or running. */
+  public int inFlight() {
+    return executor.getQueue().size() + executor.getActiveCount();
+  }
+
+  /** Stops accepting work and lets queued verifications finish. */
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,16 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.Status;
+
+import java.time.LocalDateTime;
+
+/** Receives payment writes after they have been committed, e.g. to keep in-memory replicas current. */
+public interface PaymentChangeListener {
+
+  /** Called once a new payment (with its generated ID) has been committed. */
+  void onPaymentSaved(Payment payment);
+
+  /** Called once a payment's status change has been committed. */
+  void onStatusChanged(int paymentId, Status newStatus, LocalDateTime changedAt);
+}
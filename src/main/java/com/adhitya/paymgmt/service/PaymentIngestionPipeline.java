@@ -0,0 +1,399 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind pipeline for high-rate payment creation (payroll runs, imports,
+ * API bursts). Producers claim slots in a preallocated ring buffer with a CAS
+ * and return immediately with a future; a validation stage checks each payment,
+ * and a writer stage drains validated payments into JDBC batches. A payment's
+ * future completes once the batch holding it commits, so acceptance latency is
+ * decoupled from commit latency.
+ *
+ * <p>Producers block while the buffer is full, which applies back-pressure
+ * instead of growing memory without bound.</p>
+ *
+ * <p>The pipeline runs once: after {@link #stop} or the death of either stage it
+ * rejects new payments, and every payment accepted but not written has its
+ * future completed exceptionally.</p>
+ */
+public class PaymentIngestionPipeline {
+  private static final Logger logger = LoggerFactory.getLogger(PaymentIngestionPipeline.class);
+  private static final long IDLE_PARK_NANOS = 50_000;
+
+  private final PaymentRepository paymentRepository;
+  private final int maxBatchSize;
+  private final int mask;
+  private final Slot[] slots;
+
+  // Sequence of the last slot claimed by a producer
+  private final AtomicLong claimed = new AtomicLong(-1);
+  // Per-slot sequence a producer last published into it
+  private final AtomicLongArray published;
+  // Last sequence processed by each stage; written only by that stage's thread
+  private volatile long validated = -1;
+  private volatile long written = -1;
+
+  private final List<PaymentChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder committed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+
+  private volatile boolean running;
+  // Set once both stages have exited; a producer publishing after that fails its own future
+  private volatile boolean closed;
+  // Why a stage died, or null while both are healthy
+  private volatile RuntimeException failure;
+  private final AtomicInteger liveStages = new AtomicInteger();
+  private Thread validatorThread;
+  private Thread writerThread;
+
+  private static final class Slot {
+    Payment payment;
+    CompletableFuture<Payment> future;
+    RuntimeException rejection;
+  }
+
+  /**
+   * Snapshot of pipeline counters.
+   *
+   * @param accepted  payments accepted into the buffer
+   * @param rejected  payments that failed validation
+   * @param committed payments saved by a committed batch
+   * @param failed    payments whose insert failed
+   * @param batches   batches written
+   * @param backlog   payments accepted but not yet written
+   */
+  public record Stats(long accepted, long rejected, long committed, long failed, long batches, long backlog) {}
+
+  /**
+   * @param paymentRepository repository receiving the batched inserts
+   * @param capacity          ring buffer size; must be a power of two
+   * @param maxBatchSize      maximum number of payments per JDBC batch
+   */
+  public PaymentIngestionPipeline(PaymentRepository paymentRepository, int capacity, int maxBatchSize) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two");
+    }
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.paymentRepository = paymentRepository;
+    this.maxBatchSize = maxBatchSize;
+    this.mask = capacity - 1;
+    this.slots = new Slot[capacity];
+    this.published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new Slot();
+      published.set(i, -1);
+    }
+  }
+
+  /** Registers a listener notified for each payment once its batch commits. */
+  public void addChangeListener(PaymentChangeListener listener) {
+    changeListeners.add(listener);
+  }
+
+  /**
+   * Starts the validation and writer stages.
+   *
+   * @throws IllegalStateException if the pipeline was already stopped
+   */
+  public synchronized void start() {
+    if (validatorThread != null) {
+      if (running) {
+        return;
+      }
+      throw new IllegalStateException("Payment ingestion pipeline cannot be restarted");
+    }
+    running = true;
+    liveStages.set(2);
+    validatorThread = startStage("payment-ingest-validator", this::runValidator);
+    writerThread = startStage("payment-ingest-writer", this::runWriter);
+  }
+
+  /**
+   * Stops accepting payments, waits up to the timeout for the buffer to drain,
+   * then stops both stages.
+   */
+  public synchronized void stop(Duration timeout) {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      validatorThread.join(timeout.toMillis());
+      writerThread.join(timeout.toMillis());
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    validatorThread.interrupt();
+    writerThread.interrupt();
+  }
+
+  /**
+   * Accepts a payment for asynchronous insertion, blocking while the buffer is full.
+   *
+   * @return future completing with the saved payment (ID set) once its batch commits,
+   *         or exceptionally if validation or the insert fails
+   * @throws IllegalStateException if the pipeline is not running, or stops while the buffer is full
+   */
+  public CompletableFuture<Payment> submit(Payment payment) {
+    if (!running) {
+      throw notRunning();
+    }
+
+    long sequence = claim();
+    Slot slot = slots[(int) (sequence & mask)];
+    CompletableFuture<Payment> future = new CompletableFuture<>();
+    slot.payment = payment;
+    slot.future = future;
+    slot.rejection = null;
+    published.set((int) (sequence & mask), sequence);
+    accepted.increment();
+    // The stages may have exited after the running check; if close() missed this slot, fail it here
+    if (closed && future.completeExceptionally(notRunning())) {
+      failed.increment();
+    }
+    return future;
+  }
+
+  /** Submits every payment and returns a future completing when all of them have been saved. */
+  public CompletableFuture<List<Payment>> submitAll(List<Payment> payments) {
+    List<CompletableFuture<Payment>> futures = new ArrayList<>(payments.size());
+    for (Payment payment : payments) {
+      futures.add(submit(payment));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+      .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+  }
+
+  public Stats getStats() {
+    return new Stats(accepted.sum(), rejected.sum(), committed.sum(), failed.sum(), batches.sum(),
+      claimed.get() - written);
+  }
+
+  // ---------- Producer side ----------
+
+  private long claim() {
+    while (true) {
+      long current = claimed.get();
+      long next = current + 1;
+      // The slot is free once the writer has moved past the sequence one lap earlier
+      if (next - slots.length > written) {
+        // Also set when a stage dies, so producers never wait on a writer that is gone
+        if (!running) {
+          throw notRunning();
+        }
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+      if (claimed.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  // ---------- Validation stage ----------
+
+  private void runValidator() {
+    long next = validated + 1;
+    while (failure == null && (running || next <= claimed.get())) {
+      if (published.get((int) (next & mask)) != next) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+      Slot slot = slots[(int) (next & mask)];
+      try {
+        validate(slot.payment);
+      }
+      catch (RuntimeException ex) {
+        slot.rejection = ex;
+      }
+      validated = next++;
+    }
+  }
+
+  private void validate(Payment payment) {
+    if (payment == null) {
+      throw new IllegalArgumentException("Payment cannot be null");
+    }
+    if (payment.getAmount() == null || !payment.getAmount().isPositive()) {
+      throw new IllegalArgumentException("Amount must be positive");
+    }
+    if (payment.getPaymentDirection() == null || payment.getCategory() == null) {
+      throw new IllegalArgumentException("Direction and category are required");
+    }
+    if (payment.getCreatedBy() == null || payment.getCreatedBy().getId() <= 0) {
+      throw new IllegalArgumentException("Payment must have a creating user");
+    }
+    if (payment.getCategory() == PaymentCategory.SALARY && payment.getEmployee() == null) {
+      throw new IllegalArgumentException("Salary payments require an employee");
+    }
+    if (payment.getCategory() != PaymentCategory.SALARY && payment.getCounterParty() == null) {
+      throw new IllegalArgumentException("Non-salary payments require a counterparty");
+    }
+    if (payment.getStatus() == null) {
+      payment.setStatus(Status.PENDING);
+    }
+    if (payment.getCreatedAt() == null) {
+      payment.setCreatedAt(LocalDateTime.now());
+    }
+  }
+
+  // ---------- Writer stage ----------
+
+  private void runWriter() {
+    List<Slot> batch = new ArrayList<>(maxBatchSize);
+    while (failure == null && (running || written < claimed.get())) {
+      long available = validated;
+      if (available <= written) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+
+      long end = Math.min(available, written + maxBatchSize);
+      for (long sequence = written + 1; sequence <= end; sequence++) {
+        Slot slot = slots[(int) (sequence & mask)];
+        if (slot.rejection != null) {
+          rejected.increment();
+          slot.future.completeExceptionally(slot.rejection);
+        }
+        else {
+          batch.add(slot);
+        }
+      }
+
+      write(batch);
+
+      for (long sequence = written + 1; sequence <= end; sequence++) {
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.payment = null;
+        slot.future = null;
+        slot.rejection = null;
+      }
+      batch.clear();
+      // Releases the slots to producers
+      written = end;
+    }
+  }
+
+  private void write(List<Slot> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    List<Payment> payments = new ArrayList<>(batch.size());
+    for (Slot slot : batch) {
+      payments.add(slot.payment);
+    }
+
+    try {
+      paymentRepository.saveBatch(payments);
+      batches.increment();
+      committed.add(batch.size());
+      for (Slot slot : batch) {
+        notifySaved(slot.payment);
+        slot.future.complete(slot.payment);
+      }
+    }
+    catch (RuntimeException batchFailure) {
+      logger.warn("Payment batch of {} failed; retrying individually", batch.size(), batchFailure);
+      // Isolate the offending rows so one bad payment doesn't fail the whole batch
+      for (Slot slot : batch) {
+        try {
+          paymentRepository.save(slot.payment);
+          committed.increment();
+          notifySaved(slot.payment);
+          slot.future.complete(slot.payment);
+        }
+        catch (RuntimeException ex) {
+          failed.increment();
+          slot.future.completeExceptionally(ex);
+        }
+      }
+    }
+  }
+
+  private void notifySaved(Payment payment) {
+    for (PaymentChangeListener listener : changeListeners) {
+      try {
+        listener.onPaymentSaved(payment);
+      }
+      catch (RuntimeException ex) {
+        logger.warn("Payment change listener failed for payment {}", payment.getId(), ex);
+      }
+    }
+  }
+
+  // ---------- Shutdown ----------
+
+  private Thread startStage(String name, Runnable stage) {
+    Thread thread = new Thread(() -> {
+      try {
+        stage.run();
+      }
+      catch (RuntimeException | Error ex) {
+        logger.error("Payment ingestion stage {} died", name, ex);
+        // Stops the other stage and rejects producers, including those waiting for a free slot
+        failure = new IllegalStateException("Payment ingestion stage " + name + " died", ex);
+        running = false;
+      }
+      finally {
+        if (liveStages.decrementAndGet() == 0) {
+          close();
+        }
+      }
+    }, name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  // Runs once both stages have exited, so nothing else touches the unwritten slots
+  private void close() {
+    closed = true;
+    RuntimeException cause = notRunning();
+    long last = claimed.get();
+    int abandoned = 0;
+    for (long sequence = written + 1; sequence <= last; sequence++) {
+      int index = (int) (sequence & mask);
+      // Slots claimed but not yet published are failed by their producer once it sees closed
+      if (published.get(index) == sequence && slots[index].future.completeExceptionally(cause)) {
+        abandoned++;
+      }
+    }
+    if (abandoned > 0) {
+      failed.add(abandoned);
+      logger.warn("Payment ingestion pipeline stopped with {} payments unwritten", abandoned);
+    }
+  }
+
+  private IllegalStateException notRunning() {
+    RuntimeException cause = failure;
+    return cause == null
+      ? new IllegalStateException("Payment ingestion pipeline is not running")
+      : new IllegalStateException("Payment ingestion pipeline failed", cause);
+  }
+}
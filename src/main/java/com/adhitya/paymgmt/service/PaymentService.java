@@ -1,18 +1,26 @@
 package com.adhitya.paymgmt.service;
 
+import com.adhitya.paymgmt.analytics.PaymentBitmapIndex;
+import com.adhitya.paymgmt.analytics.PaymentColumnStore;
+import com.adhitya.paymgmt.analytics.PaymentFilter;
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.dto.PaymentSearchResultDTO;
 import com.adhitya.paymgmt.exception.EmptyResultException;
+import com.adhitya.paymgmt.exception.IdempotencyKeyConflictException;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
 import com.adhitya.paymgmt.model.AuditLog;
 import com.adhitya.paymgmt.model.Payment;
 import com.adhitya.paymgmt.model.enums.PaymentCategory;
 import com.adhitya.paymgmt.model.enums.PaymentDirection;
 import com.adhitya.paymgmt.model.enums.Status;
-import com.adhitya.paymgmt.repository.AuditLogRepository;
 import com.adhitya.paymgmt.repository.PaymentRepository;
 import com.adhitya.paymgmt.repository.UserRepository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Service class responsible for managing Payment operations,
@@ -20,21 +28,113 @@ import java.util.List;
  * Also handles audit logging on status changes.
  */
 public class PaymentService {
+  private static final OperationTimer ADD_PAYMENT = Metrics.service(PaymentService.class, "addPayment");
+  private static final OperationTimer ADD_PAYMENT_IDEMPOTENT = Metrics.service(PaymentService.class, "addPaymentIdempotent");
+  private static final OperationTimer UPDATE_PAYMENT_STATUS = Metrics.service(PaymentService.class, "updatePaymentStatus");
+  private static final OperationTimer FIND_BY_ID = Metrics.service(PaymentService.class, "findById");
+  private static final OperationTimer GET_ALL_PAYMENTS = Metrics.service(PaymentService.class, "getAllPayments");
+  private static final OperationTimer GET_PAYMENTS_BY_USER = Metrics.service(PaymentService.class, "getPaymentsByUser");
+  private static final OperationTimer GET_PAYMENTS_BY_DATE_RANGE = Metrics.service(PaymentService.class, "getPaymentsByDateRange");
+  private static final OperationTimer GET_PAYMENTS_BY_CATEGORY = Metrics.service(PaymentService.class, "getPaymentsByCategory");
+  private static final OperationTimer GET_PAYMENTS_BY_PAYMENT_DIRECTION = Metrics.service(PaymentService.class, "getPaymentsByPaymentDirection");
+  private static final OperationTimer GET_PAYMENTS_BY_COUNTERPARTY = Metrics.service(PaymentService.class, "getPaymentsByCounterparty");
+  private static final OperationTimer GET_PAYMENTS_BY_EMPLOYEE = Metrics.service(PaymentService.class, "getPaymentsByEmployee");
+  private static final OperationTimer SEARCH_PAYMENTS = Metrics.service(PaymentService.class, "searchPayments");
+  private static final OperationTimer SEARCH_BY_TEXT = Metrics.service(PaymentService.class, "searchByText");
+
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+  private static final int MAX_SEARCH_TEXT_LENGTH = 200;
+  private static final int MAX_SEARCH_PAGE_SIZE = 100;
+  // Deep offsets get slower with every page; nobody reads past this many hits
+  private static final int MAX_SEARCH_RESULTS = 10_000;
+
   private final PaymentRepository paymentRepository;
-  private final AuditLogRepository auditLogRepository;
+  private final AuditService auditService;
   private final UserRepository userRepository;
+  private final IdempotencyKeyStore idempotencyKeys;
+  private final List<PaymentChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+  private volatile PaymentColumnStore columnStore;
+  private volatile PaymentBitmapIndex bitmapIndex;
+  private volatile WorkloadScheduler scheduler;
 
   /**
    * Constructs PaymentService with required repository dependencies.
    *
    * @param paymentRepository  repository for payment persistence
-   * @param auditLogRepository repository for audit log persistence
+   * @param auditService       service recording audit log entries
    * @param userRepository     repository to retrieve user info for audit logging
+   * @param idempotencyKeys    cache of recently used payment idempotency keys
    */
-  public PaymentService(PaymentRepository paymentRepository, AuditLogRepository auditLogRepository, UserRepository userRepository) {
+  public PaymentService(PaymentRepository paymentRepository, AuditService auditService, UserRepository userRepository,
+                        IdempotencyKeyStore idempotencyKeys) {
     this.paymentRepository = paymentRepository;
-    this.auditLogRepository = auditLogRepository;
+    this.auditService = auditService;
     this.userRepository = userRepository;
+    this.idempotencyKeys = idempotencyKeys;
+  }
+
+  /** Registers a listener notified after each committed payment write. */
+  public void addChangeListener(PaymentChangeListener listener) {
+    changeListeners.add(listener);
+  }
+
+  /**
+   * Serves the date-range, category and direction filters from the column store
+   * once it is loaded, fetching only the matching rows from the database.
+   * The store is also registered as a change listener.
+   */
+  public void useColumnStore(PaymentColumnStore store) {
+    addChangeListener(store);
+    this.columnStore = store;
+  }
+
+  /**
+   * Runs status changes in the scheduler's OLTP class at high priority, so
+   * console and API callers share one session quota.
+   */
+  public void useScheduler(WorkloadScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /** Returns the attached column store, or null if none is attached. */
+  public PaymentColumnStore getColumnStore() {
+    return columnStore;
+  }
+
+  /**
+   * Answers {@link #searchPayments} from the bitmap indexes once they are built.
+   * The index is also registered as a change listener.
+   */
+  public void useBitmapIndex(PaymentBitmapIndex index) {
+    addChangeListener(index);
+    this.bitmapIndex = index;
+  }
+
+  /**
+   * Applies payments written by another instance to the change listeners,
+   * re-reading the rows so inserts and status changes are handled alike.
+   * @param paymentIds IDs of the changed payments
+   */
+  public void refreshPayments(int[] paymentIds) {
+    for (Payment payment : paymentRepository.findByIds(paymentIds)) {
+      changeListeners.forEach(listener -> listener.onPaymentSaved(payment));
+    }
+  }
+
+  /**
+   * Reloads the column store and rebuilds the bitmap indexes from the database,
+   * after remote changes may have been missed.
+   */
+  public void reloadPaymentCaches() {
+    PaymentColumnStore store = columnStore;
+    if (store == null) {
+      return;
+    }
+    store.load(paymentRepository);
+    PaymentBitmapIndex index = bitmapIndex;
+    if (index != null) {
+      index.build(store);
+    }
   }
 
   /**
@@ -43,11 +143,54 @@ public class PaymentService {
    * @throws IllegalArgumentException if payment is null
    */
   public void addPayment(Payment payment) {
-    if (payment == null) {
-      throw new IllegalArgumentException("Payment cannot be null");
-    }
+    ADD_PAYMENT.run(() -> {
+      if (payment == null) {
+        throw new IllegalArgumentException("Payment cannot be null");
+      }
+
+      paymentRepository.save(payment);
+      changeListeners.forEach(listener -> listener.onPaymentSaved(payment));
+    });
+  }
 
-    paymentRepository.save(payment);
+  /**
+   * Adds a payment at most once per idempotency key. Keys are scoped to the
+   * payment's creator. A retry with a key that creator already used returns the
+   * original payment's ID without inserting again.
+   *
+   * @param payment        payment object to save
+   * @param idempotencyKey client-chosen key identifying this submission, e.g. a UUID
+   * @return ID of the payment created for this key
+   * @throws IllegalArgumentException        if payment or its creator is null, or the key is blank or too long
+   * @throws IdempotencyKeyConflictException if the key was already used for a different payment
+   */
+  public int addPayment(Payment payment, String idempotencyKey) {
+    return ADD_PAYMENT_IDEMPOTENT.time(() -> {
+      if (payment == null) {
+        throw new IllegalArgumentException("Payment cannot be null");
+      }
+      if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+        throw new IllegalArgumentException("Idempotency key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+      }
+      if (payment.getCreatedBy() == null) {
+        throw new IllegalArgumentException("Payment creator cannot be null");
+      }
+
+      int userId = payment.getCreatedBy().getId();
+      String requestHash = IdempotencyKeyStore.requestHash(payment);
+      Integer existingId = idempotencyKeys.lookup(userId, idempotencyKey, requestHash);
+      if (existingId != null) {
+        payment.setId(existingId);
+        return existingId;
+      }
+
+      if (paymentRepository.saveIdempotent(payment, userId, idempotencyKey, requestHash,
+          idempotencyKeys.expiredBefore())) {
+        changeListeners.forEach(listener -> listener.onPaymentSaved(payment));
+      }
+      idempotencyKeys.remember(userId, idempotencyKey, requestHash, payment.getId());
+      return payment.getId();
+    });
   }
 
   /**
@@ -61,32 +204,43 @@ public class PaymentService {
    * @throws EmptyResultException     if payment is not found
    */
   public void updatePaymentStatus(int paymentId, Status newStatus, int changedByUserId) {
-    if (paymentId <= 0 || changedByUserId <= 0) {
-      throw new IllegalArgumentException("Invalid ID(s) provided");
-    }
-    if (newStatus == null) {
-      throw new IllegalArgumentException("Payment status cannot be null");
-    }
-
-    Payment oldPayment = paymentRepository.findById(paymentId);
-
-    if (oldPayment == null) {
-      throw new EmptyResultException("Payment not found with ID: " + paymentId);
-    }
+    WorkloadScheduler.callOrRun(scheduler, WorkloadClass.OLTP, WorkloadScheduler.Priority.HIGH, () -> {
+      changeStatus(paymentId, newStatus, changedByUserId);
+      return null;
+    });
+  }
 
-    // Update payment status in repository
-    paymentRepository.updateStatus(paymentId, newStatus);
-
-    // Record audit log capturing the status change
-    auditLogRepository.save(new AuditLog(
-      0,
-      oldPayment,
-      "status",
-      oldPayment.getStatus().getDbValue(),
-      newStatus.getDbValue(),
-      userRepository.findById(changedByUserId),
-      LocalDateTime.now()
-    ));
+  private void changeStatus(int paymentId, Status newStatus, int changedByUserId) {
+    UPDATE_PAYMENT_STATUS.run(() -> {
+      if (paymentId <= 0 || changedByUserId <= 0) {
+        throw new IllegalArgumentException("Invalid ID(s) provided");
+      }
+      if (newStatus == null) {
+        throw new IllegalArgumentException("Payment status cannot be null");
+      }
+
+      Payment oldPayment = paymentRepository.findById(paymentId);
+
+      if (oldPayment == null) {
+        throw new EmptyResultException("Payment not found with ID: " + paymentId);
+      }
+
+      // Update payment status in repository
+      paymentRepository.updateStatus(paymentId, newStatus);
+      LocalDateTime changedAt = LocalDateTime.now();
+      changeListeners.forEach(listener -> listener.onStatusChanged(paymentId, newStatus, changedAt));
+
+      // Record audit log capturing the status change
+      auditService.logChange(new AuditLog(
+        0,
+        oldPayment,
+        "status",
+        oldPayment.getStatus().getDbValue(),
+        newStatus.getDbValue(),
+        userRepository.findById(changedByUserId),
+        LocalDateTime.now()
+      ));
+    });
   }
 
   /**
@@ -97,17 +251,19 @@ public class PaymentService {
    * @throws EmptyResultException     if payment not found
    */
   public Payment findById(int id) {
-    if(id <= 0) {
-      throw new IllegalArgumentException("Invalid payment ID: " + id);
-    }
+    return FIND_BY_ID.time(() -> {
+      if(id <= 0) {
+        throw new IllegalArgumentException("Invalid payment ID: " + id);
+      }
 
-    Payment payment = paymentRepository.findById(id);
+      Payment payment = paymentRepository.findById(id);
 
-    if(payment == null) {
-      throw new EmptyResultException("Payment not found with ID: " + id);
-    }
+      if(payment == null) {
+        throw new EmptyResultException("Payment not found with ID: " + id);
+      }
 
-    return payment;
+      return payment;
+    });
   }
 
   /**
@@ -116,13 +272,15 @@ public class PaymentService {
    * @throws EmptyResultException if no payments are present
    */
   public List<Payment> getAllPayments() {
-    List<Payment> payments = paymentRepository.findAll();
+    return GET_ALL_PAYMENTS.time(() -> {
+      List<Payment> payments = paymentRepository.findAll();
 
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No Payments Found Yet");
-    }
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No Payments Found Yet");
+      }
 
-    return payments;
+      return payments;
+    });
   }
 
   /**
@@ -133,17 +291,19 @@ public class PaymentService {
    * @throws EmptyResultException     if no payments found for user
    */
   public List<Payment> getPaymentsByUser(int userId) {
-    if(userId <= 0) {
-      throw new IllegalArgumentException("Invalid user ID: " + userId);
-    }
+    return GET_PAYMENTS_BY_USER.time(() -> {
+      if(userId <= 0) {
+        throw new IllegalArgumentException("Invalid user ID: " + userId);
+      }
 
-    List<Payment> payments = paymentRepository.findByUserId(userId);
+      List<Payment> payments = paymentRepository.findByUserId(userId);
 
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No Payments Found for userId: " + userId);
-    }
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No Payments Found for userId: " + userId);
+      }
 
-    return payments;
+      return payments;
+    });
   }
 
   /**
@@ -156,20 +316,25 @@ public class PaymentService {
    * @throws EmptyResultException     if none found
    */
   public List<Payment> getPaymentsByDateRange(LocalDate start, LocalDate end) {
-    if(start == null || end == null) {
-      throw new IllegalArgumentException("Start/end dates cannot be null");
-    }
-    if (end.isBefore(start)) {
-      throw new IllegalArgumentException("End date must be after start date");
-    }
-
-    List<Payment> payments = paymentRepository.findByDateRange(start, end);
-
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No payments found between " + start + " and " + end);
-    }
-
-    return payments;
+    return GET_PAYMENTS_BY_DATE_RANGE.time(() -> {
+      if(start == null || end == null) {
+        throw new IllegalArgumentException("Start/end dates cannot be null");
+      }
+      if (end.isBefore(start)) {
+        throw new IllegalArgumentException("End date must be after start date");
+      }
+
+      PaymentColumnStore store = columnStore;
+      List<Payment> payments = store != null && store.isLoaded()
+        ? paymentRepository.findByIds(store.findIdsByDateRange(start, end))
+        : paymentRepository.findByDateRange(start, end);
+
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No payments found between " + start + " and " + end);
+      }
+
+      return payments;
+    });
   }
 
   /**
@@ -180,17 +345,22 @@ public class PaymentService {
    * @throws EmptyResultException     if none found
    */
   public List<Payment> getPaymentsByCategory(PaymentCategory category) {
-    if(category == null) {
-      throw new IllegalArgumentException("Payment Category cannot be null");
-    }
-
-    List<Payment> payments = paymentRepository.findByCategory(category);
-
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No payments found for category: " + category.name());
-    }
-
-    return payments;
+    return GET_PAYMENTS_BY_CATEGORY.time(() -> {
+      if(category == null) {
+        throw new IllegalArgumentException("Payment Category cannot be null");
+      }
+
+      PaymentColumnStore store = columnStore;
+      List<Payment> payments = store != null && store.isLoaded()
+        ? paymentRepository.findByIds(store.findIdsByCategory(category))
+        : paymentRepository.findByCategory(category);
+
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No payments found for category: " + category.name());
+      }
+
+      return payments;
+    });
   }
 
   /**
@@ -201,17 +371,22 @@ public class PaymentService {
    * @throws EmptyResultException     if no payments found
    */
   public List<Payment> getPaymentsByPaymentDirection(PaymentDirection direction) {
-    if(direction == null) {
-      throw new IllegalArgumentException("Payment Direction cannot be null");
-    }
-
-    List<Payment> payments = paymentRepository.findByDirection(direction);
-
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No payments found for Payment Direction: " + direction.name());
-    }
-
-    return payments;
+    return GET_PAYMENTS_BY_PAYMENT_DIRECTION.time(() -> {
+      if(direction == null) {
+        throw new IllegalArgumentException("Payment Direction cannot be null");
+      }
+
+      PaymentColumnStore store = columnStore;
+      List<Payment> payments = store != null && store.isLoaded()
+        ? paymentRepository.findByIds(store.findIdsByDirection(direction))
+        : paymentRepository.findByDirection(direction);
+
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No payments found for Payment Direction: " + direction.name());
+      }
+
+      return payments;
+    });
   }
 
   /**
@@ -222,17 +397,19 @@ public class PaymentService {
    * @throws EmptyResultException     if none found
    */
   public List<Payment> getPaymentsByCounterparty(int counterpartyId) {
-    if(counterpartyId <= 0) {
-      throw new IllegalArgumentException("Invalid counterparty ID: " + counterpartyId);
-    }
+    return GET_PAYMENTS_BY_COUNTERPARTY.time(() -> {
+      if(counterpartyId <= 0) {
+        throw new IllegalArgumentException("Invalid counterparty ID: " + counterpartyId);
+      }
 
-    List<Payment> payments = paymentRepository.findByCounterpartyId(counterpartyId);
+      List<Payment> payments = paymentRepository.findByCounterpartyId(counterpartyId);
 
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No payments found for counterparty ID: " + counterpartyId);
-    }
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No payments found for counterparty ID: " + counterpartyId);
+      }
 
-    return payments;
+      return payments;
+    });
   }
 
   /**
@@ -243,16 +420,90 @@ public class PaymentService {
    * @throws EmptyResultException     if none found
    */
   public List<Payment> getPaymentsByEmployee(int employeeId) {
-    if(employeeId <= 0) {
-      throw new IllegalArgumentException("Invalid employee ID: " + employeeId);
-    }
+    return GET_PAYMENTS_BY_EMPLOYEE.time(() -> {
+      if(employeeId <= 0) {
+        throw new IllegalArgumentException("Invalid employee ID: " + employeeId);
+      }
 
-    List<Payment> payments = paymentRepository.findByEmployeeId(employeeId);
+      List<Payment> payments = paymentRepository.findByEmployeeId(employeeId);
 
-    if(payments.isEmpty()) {
-      throw new EmptyResultException("No payments found for employee Id: " + employeeId);
-    }
+      if(payments.isEmpty()) {
+        throw new EmptyResultException("No payments found for employee Id: " + employeeId);
+      }
 
-    return payments;
+      return payments;
+    });
+  }
+
+  /**
+   * Retrieves payments matching a combination of attribute filters.
+   * Uses the bitmap indexes when built, fetching only the matching rows;
+   * otherwise filters every payment in memory.
+   * @param filter filter to evaluate
+   * @return list of matching payments, ordered by ID
+   * @throws IllegalArgumentException if filter is null
+   * @throws EmptyResultException     if none found
+   */
+  public List<Payment> searchPayments(PaymentFilter filter) {
+    return SEARCH_PAYMENTS.time(() -> {
+      if (filter == null) {
+        throw new IllegalArgumentException("Filter cannot be null");
+      }
+
+      PaymentBitmapIndex index = bitmapIndex;
+      List<Payment> payments = index != null && index.isLoaded()
+        ? paymentRepository.findByIds(index.search(filter))
+        : paymentRepository.findAll().stream().filter(filter::matches).toList();
+
+      if (payments.isEmpty()) {
+        throw new EmptyResultException("No payments found matching the filter");
+      }
+
+      return payments;
+    });
+  }
+
+  /**
+   * Searches payment descriptions and counterparty names for the given text,
+   * with prefix and typo-tolerant matching, optionally restricted by creation
+   * date and category. Results are ranked by relevance.
+   * @param text     words to search for
+   * @param start    inclusive start date, or null
+   * @param end      inclusive end date, or null
+   * @param category category to restrict to, or null
+   * @param page     zero-based page number
+   * @param pageSize results per page (1-100)
+   * @return one page of results, best match first
+   * @throws IllegalArgumentException for blank or overlong text, start > end, or invalid paging
+   * @throws EmptyResultException     if nothing matches on the first page
+   */
+  public List<PaymentSearchResultDTO> searchByText(String text, LocalDate start, LocalDate end,
+                                                  PaymentCategory category, int page, int pageSize) {
+    return SEARCH_BY_TEXT.time(() -> {
+      if (text == null || text.isBlank()) {
+        throw new IllegalArgumentException("Search text cannot be empty");
+      }
+      if (text.length() > MAX_SEARCH_TEXT_LENGTH) {
+        throw new IllegalArgumentException("Search text must be at most " + MAX_SEARCH_TEXT_LENGTH + " characters");
+      }
+      if (start != null && end != null && end.isBefore(start)) {
+        throw new IllegalArgumentException("End date must be after start date");
+      }
+      if (page < 0 || pageSize <= 0 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+        throw new IllegalArgumentException("Page must be non-negative and page size 1-" + MAX_SEARCH_PAGE_SIZE);
+      }
+      if ((long) page * pageSize >= MAX_SEARCH_RESULTS) {
+        throw new IllegalArgumentException("Only the first " + MAX_SEARCH_RESULTS + " results can be paged through");
+      }
+
+      List<PaymentSearchResultDTO> results =
+        paymentRepository.search(text.trim(), start, end, category, pageSize, page * pageSize);
+
+      if (results.isEmpty() && page == 0) {
+        throw new EmptyResultException("No payments found matching: " + text.trim());
+      }
+
+      return results;
+    });
   }
 }
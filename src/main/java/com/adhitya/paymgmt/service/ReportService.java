@@ -1,10 +1,16 @@
 package com.adhitya.paymgmt.service;
 
+import com.adhitya.paymgmt.config.ReadRouting;
+import com.adhitya.paymgmt.config.WorkloadClass;
 import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import com.adhitya.paymgmt.model.Money;
 import com.adhitya.paymgmt.model.Payment;
 import com.adhitya.paymgmt.presentation.ReportPrinter;
 import com.adhitya.paymgmt.repository.CounterpartyRepository;
 import com.adhitya.paymgmt.repository.EmployeeRepository;
+import com.adhitya.paymgmt.service.WorkloadScheduler.Priority;
 import com.adhitya.paymgmt.util.ReportCalculator;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -15,17 +21,26 @@ import java.io.FileWriter;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Service class responsible for handling report generation,
  * export (PDF, CSV, HTML), and printing tasks related to payment summaries.
+ * Report queries are served by the read replica when one is available.
  */
 public class ReportService {
+  private static final OperationTimer GENERATE_REPORT_DATA = Metrics.service(ReportService.class, "generateReportData");
+  private static final OperationTimer RENDER_HTML = Metrics.timer("report", "render.html");
+  private static final OperationTimer RENDER_CONSOLE = Metrics.timer("report", "render.console");
+  private static final OperationTimer EXPORT_PDF = Metrics.timer("export", "pdf");
+  private static final OperationTimer EXPORT_CSV = Metrics.timer("export", "csv");
+
   private final PaymentService paymentService;
   private final EmployeeRepository employeeRepository;
   private final CounterpartyRepository counterpartyRepository;
   private final ReportCalculator calculator;
   private final ReportPrinter printer;
+  private volatile WorkloadScheduler scheduler;
 
   /**
    * Constructs ReportService with required services and repositories.
@@ -45,6 +60,14 @@ public class ReportService {
     this.printer = new ReportPrinter(employeeRepository, counterpartyRepository);
   }
 
+  /**
+   * Runs report generation, printing and exports in the scheduler's analytics
+   * class, so console and API callers share one session quota.
+   */
+  public void useScheduler(WorkloadScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
   /**
    * Generates and prints a monthly report for the specified year and month.
    * @param year  the year for the report period
@@ -54,11 +77,13 @@ public class ReportService {
     LocalDate start = LocalDate.of(year, month, 1);
     LocalDate end = start.plusMonths(1).minusDays(1);
 
-    ReportDataDTO reportData = calculator.calculateReport(start, end);
+    analytics(Priority.NORMAL, () -> {
+      ReportDataDTO reportData = ReadRouting.onReplica(() -> calculator.calculateReport(start, end));
 
-    // Use a new printer instance to output the report data to console
-    ReportPrinter printer = new ReportPrinter(employeeRepository, counterpartyRepository);
-    printer.printReport(reportData);
+      // Use a new printer instance to output the report data to console
+      ReportPrinter printer = new ReportPrinter(employeeRepository, counterpartyRepository);
+      printer.printReport(reportData);
+    });
   }
 
   /**
@@ -70,11 +95,13 @@ public class ReportService {
     LocalDate start = LocalDate.of(year, (quarter - 1) * 3 + 1, 1);
     LocalDate end = start.plusMonths(3).minusDays(1);
 
-    ReportDataDTO reportData = calculator.calculateReport(start, end);
+    analytics(Priority.NORMAL, () -> {
+      ReportDataDTO reportData = ReadRouting.onReplica(() -> calculator.calculateReport(start, end));
 
-    // Console print of report data
-    ReportPrinter printer = new ReportPrinter(employeeRepository, counterpartyRepository);
-    printer.printReport(reportData);
+      // Console print of report data
+      ReportPrinter printer = new ReportPrinter(employeeRepository, counterpartyRepository);
+      printer.printReport(reportData);
+    });
   }
 
   /**
@@ -84,14 +111,16 @@ public class ReportService {
    * @param outputPath  filesystem path to save PDF file
    */
   public void exportReportAsPdf(String htmlContent, String outputPath) {
-    try (FileOutputStream os = new FileOutputStream(outputPath)) {
-      ITextRenderer renderer = new ITextRenderer();
-      renderer.setDocumentFromString(htmlContent);
-      renderer.layout();
-      renderer.createPDF(os);
-    } catch (Exception e) {
-      throw new RuntimeException("PDF export failed: " + e.getMessage(), e);
-    }
+    analytics(Priority.LOW, () -> EXPORT_PDF.run(() -> {
+      try (FileOutputStream os = new FileOutputStream(outputPath)) {
+        ITextRenderer renderer = new ITextRenderer();
+        renderer.setDocumentFromString(htmlContent);
+        renderer.layout();
+        renderer.createPDF(os);
+      } catch (Exception e) {
+        throw new RuntimeException("PDF export failed: " + e.getMessage(), e);
+      }
+    }));
   }
 
   /**
@@ -103,13 +132,19 @@ public class ReportService {
    * @param outputPath Path to write the CSV file
    */
   public void exportReportAsCsv(ReportDataDTO data, String outputPath) {
+    analytics(Priority.LOW, () -> writeCsv(data, outputPath));
+  }
+
+  private void writeCsv(ReportDataDTO data, String outputPath) {
     CSVFormat sectionFormat = CSVFormat.DEFAULT.builder().build(); // No header for section rows
     CSVFormat tableFormat = CSVFormat.DEFAULT.builder()
       .setHeader("Date", "Amount", "Direction", "Category", "Description", "Party", "Status")
       .build();
 
-    try (FileWriter out = new FileWriter(outputPath);
+    try (OperationTimer.Timing timing = EXPORT_CSV.start();
+         FileWriter out = new FileWriter(outputPath);
          CSVPrinter sectionPrinter = new CSVPrinter(out, sectionFormat)) {
+      timing.addRows(data.transactions().size());
 
       // Section 1: Report metadata
       sectionPrinter.printRecord("Section", "Key", "Value");
@@ -182,6 +217,15 @@ public class ReportService {
    * @return HTML string representing the full report
    */
   public String buildHtmlReport(ReportDataDTO data, String title) {
+    return analytics(Priority.LOW, () -> {
+      try (OperationTimer.Timing timing = RENDER_HTML.start()) {
+        timing.addRows(data.transactions().size());
+        return renderHtml(data, title);
+      }
+    });
+  }
+
+  private String renderHtml(ReportDataDTO data, String title) {
     StringBuilder html = new StringBuilder();
     html.append("<html><head><title>").append(title).append("</title>");
     html.append("<style>")
@@ -209,12 +253,12 @@ public class ReportService {
     html.append("<div class='section'>💰 AGGREGATE TOTALS</div>");
     html.append("<table>")
       .append("<tr><th>Total Inflow</th><th>Total Outflow</th><th>Net Balance</th><th>Avg Daily Value</th></tr>")
-      .append("<tr>")
-      .append("<td>₹").append(data.totalInflow()).append("</td>")
-      .append("<td>₹").append(data.totalOutflow()).append("</td>")
-      .append("<td>₹").append(data.netBalance()).append("</td>")
-      .append("<td>₹").append(data.avgTransactionValue()).append("</td>")
-      .append("</tr></table>");
+      .append("<tr>");
+    appendAmountCell(html, data.totalInflow());
+    appendAmountCell(html, data.totalOutflow());
+    appendAmountCell(html, data.netBalance());
+    appendAmountCell(html, data.avgTransactionValue());
+    html.append("</tr></table>");
 
     // Category breakdown
     html.append("<div class='section'>📊 CATEGORY BREAKDOWN</div>");
@@ -224,7 +268,7 @@ public class ReportService {
     }
     html.append("</tr><tr>");
     for (var amt : data.categoryTotals().values()) {
-      html.append("<td>₹").append(amt).append("</td>");
+      appendAmountCell(html, amt);
     }
     html.append("</tr></table>");
 
@@ -233,7 +277,9 @@ public class ReportService {
     html.append("<table><tr><th>EMPLOYEES</th><th>AMOUNT</th></tr>");
     data.employeeTotals().forEach((id, amt) -> {
       String name = employeeRepository.findById(id).getName();
-      html.append("<tr><td>").append(name).append("</td><td>₹").append(amt).append("</td></tr>");
+      html.append("<tr><td>").append(name).append("</td>");
+      appendAmountCell(html, amt);
+      html.append("</tr>");
     });
     html.append("</table>");
 
@@ -241,7 +287,9 @@ public class ReportService {
     html.append("<table><tr><th>COUNTERPARTIES</th><th>AMOUNT</th></tr>");
     data.counterpartyTotals().forEach((id, amt) -> {
       String name = counterpartyRepository.findById(id).getName();
-      html.append("<tr><td>").append(name).append("</td><td>₹").append(amt).append("</td></tr>");
+      html.append("<tr><td>").append(name).append("</td>");
+      appendAmountCell(html, amt);
+      html.append("</tr>");
     });
     html.append("</table>");
 
@@ -255,9 +303,9 @@ public class ReportService {
         ? p.getEmployee().getName()
         : (p.getCounterParty() != null ? p.getCounterParty().getName() : "-");
       html.append("<tr>");
-      html.append("<td>").append(p.getCreatedAt().toLocalDate()).append("</td>")
-        .append("<td>₹").append(p.getAmount()).append("</td>")
-        .append("<td>").append(p.getPaymentDirection()).append("</td>")
+      html.append("<td>").append(p.getCreatedAt().toLocalDate()).append("</td>");
+      appendAmountCell(html, p.getAmount());
+      html.append("<td>").append(p.getPaymentDirection()).append("</td>")
         .append("<td>").append(p.getCategory()).append("</td>")
         .append("<td>").append(Optional.ofNullable(p.getDescription()).orElse("-")).append("</td>")
         .append("<td>").append(party).append("</td>")
@@ -270,6 +318,11 @@ public class ReportService {
     return html.toString();
   }
 
+  // Writes the amount's digits straight into the report buffer
+  private static void appendAmountCell(StringBuilder html, Money amount) {
+    amount.appendTo(html.append("<td>₹")).append("</td>");
+  }
+
   /**
    * Returns the internal ReportCalculator instance.
    * Useful for clients needing direct access to calculation methods.
@@ -283,7 +336,8 @@ public class ReportService {
    * Delegates to the internal ReportCalculator.
    */
   public ReportDataDTO generateReportData(LocalDate start, LocalDate end) {
-    return calculator.calculateReport(start, end);
+    return analytics(Priority.NORMAL,
+      () -> GENERATE_REPORT_DATA.time(() -> ReadRouting.onReplica(() -> calculator.calculateReport(start, end))));
   }
 
   /**
@@ -291,6 +345,22 @@ public class ReportService {
    * @param reportData the report DTO to be printed
    */
   public void printReport(ReportDataDTO reportData) {
-    printer.printReport(reportData);
+    analytics(Priority.NORMAL, () -> {
+      try (OperationTimer.Timing timing = RENDER_CONSOLE.start()) {
+        timing.addRows(reportData.transactions().size());
+        printer.printReport(reportData);
+      }
+    });
+  }
+
+  private <T> T analytics(Priority priority, Supplier<T> work) {
+    return WorkloadScheduler.callOrRun(scheduler, WorkloadClass.ANALYTICS, priority, work);
+  }
+
+  private void analytics(Priority priority, Runnable work) {
+    analytics(priority, () -> {
+      work.run();
+      return null;
+    });
   }
 }
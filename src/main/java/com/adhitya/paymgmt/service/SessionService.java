@@ -0,0 +1,117 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.Role;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and validates short-lived opaque session tokens so authenticated
+ * callers don't pay for a user lookup and bcrypt check on every request.
+ * Tokens live in a concurrent map; validation is a single hash lookup plus an
+ * expiry check and allocates nothing. Expired sessions are swept in the background.
+ */
+public class SessionService {
+  private static final int TOKEN_BYTES = 32;
+
+  private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+  private final SecureRandom random = new SecureRandom();
+  private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+  private final long ttlNanos;
+  private final ScheduledExecutorService sweeper;
+
+  /**
+   * @param ttl           lifetime of each issued token
+   * @param sweepInterval how often expired sessions are purged from memory
+   */
+  public SessionService(Duration ttl, Duration sweepInterval) {
+    this.ttlNanos = ttl.toNanos();
+    this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "session-sweeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    sweeper.scheduleWithFixedDelay(this::sweepExpired,
+      sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * An authenticated session.
+   *
+   * @param token          opaque bearer token
+   * @param userId         ID of the authenticated user
+   * @param username       username of the authenticated user
+   * @param role           role at the time the session was issued
+   * @param expiresAtNanos {@link System#nanoTime()} deadline after which the token is rejected
+   */
+  public record Session(String token, int userId, String username, Role role, long expiresAtNanos) {}
+
+  /** Issues a new session token for an already authenticated user. */
+  public Session issue(User user) {
+    if (user == null) {
+      throw new IllegalArgumentException("User cannot be null");
+    }
+
+    byte[] bytes = new byte[TOKEN_BYTES];
+    random.nextBytes(bytes);
+    Session session = new Session(encoder.encodeToString(bytes), user.getId(), user.getUsername(),
+      user.getRole(), System.nanoTime() + ttlNanos);
+    sessions.put(session.token(), session);
+    return session;
+  }
+
+  /** Returns the live session for the token, or null if it is unknown, revoked or expired. */
+  public Session validate(String token) {
+    if (token == null) {
+      return null;
+    }
+    Session session = sessions.get(token);
+    if (session == null) {
+      return null;
+    }
+    if (System.nanoTime() - session.expiresAtNanos() > 0) {
+      sessions.remove(token, session);
+      return null;
+    }
+    return session;
+  }
+
+  /** Revokes a single token, e.g. on logout. */
+  public void revoke(String token) {
+    if (token != null) {
+      sessions.remove(token);
+    }
+  }
+
+  /** Revokes every session of a user; called when their role or password changes. */
+  public void revokeUser(int userId) {
+    sessions.values().removeIf(session -> session.userId() == userId);
+  }
+
+  /** Revokes every session, forcing all users to log in again. */
+  public void revokeAll() {
+    sessions.clear();
+  }
+
+  /** Returns the number of sessions currently held in memory. */
+  public int activeSessions() {
+    return sessions.size();
+  }
+
+  /** Stops the background sweeper. */
+  public void shutdown() {
+    sweeper.shutdownNow();
+  }
+
+  private void sweepExpired() {
+    long now = System.nanoTime();
+    sessions.values().removeIf(session -> now - session.expiresAtNanos() > 0);
+  }
+}
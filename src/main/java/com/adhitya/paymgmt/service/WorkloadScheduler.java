@@ -0,0 +1,251 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.config.WorkloadContext;
+import com.adhitya.paymgmt.exception.WorkloadRejectedException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead scheduler that runs database work on a separate bounded executor per
+ * {@link WorkloadClass}. Each class has its own worker count (its share of
+ * concurrent database sessions), a bounded priority queue that sheds load when
+ * full, a statement timeout applied to the connections its work opens, and its
+ * own metrics. A burst of reports can then only exhaust the analytics quota,
+ * leaving interactive status changes and lookups their own workers.
+ *
+ * <p>The report, export and audit scan entry points of {@link ReportService} and
+ * {@link AuditService}, and {@link PaymentService#updatePaymentStatus}, schedule
+ * themselves, so the console menus and the HTTP API share the same quotas. Work
+ * already running in a class calls further work of that class inline.</p>
+ *
+ * <p>A worker caps concurrent tasks, not connections: a task holds one connection
+ * per open statement, and row mappers that resolve related users, employees or
+ * counterparties open a nested connection while the outer one is still open.</p>
+ */
+public class WorkloadScheduler {
+  private static final String QUERY_CANCELED_STATE = "57014";
+
+  private final Map<WorkloadClass, Lane> lanes = new EnumMap<>(WorkloadClass.class);
+  private final AtomicLong sequence = new AtomicLong();
+
+  /** Relative urgency of queued work within a workload class. */
+  public enum Priority {
+    HIGH,
+    NORMAL,
+    LOW
+  }
+
+  /**
+   * Limits for one workload class.
+   *
+   * @param workers          concurrently running tasks, and so concurrent database sessions
+   * @param queueCapacity    tasks allowed to wait; further submissions are rejected
+   * @param statementTimeout server-side statement timeout for this class, or null for none
+   */
+  public record ClassConfig(int workers, int queueCapacity, Duration statementTimeout) {
+    public ClassConfig {
+      if (workers <= 0 || queueCapacity < 0) {
+        throw new IllegalArgumentException("Workers must be positive and queue capacity non-negative");
+      }
+    }
+  }
+
+  /**
+   * Metrics for one workload class.
+   *
+   * @param workloadClass   class the metrics belong to
+   * @param running         tasks currently executing
+   * @param queued          tasks currently waiting
+   * @param completed       tasks finished successfully
+   * @param failed          tasks finished with an exception
+   * @param rejected        tasks shed because the queue was full
+   * @param timedOut        tasks cancelled by the statement timeout
+   * @param avgQueueMillis  mean time spent waiting for a worker
+   * @param maxQueueMillis  longest time spent waiting for a worker
+   * @param avgRunMillis    mean execution time
+   * @param maxRunMillis    longest execution time
+   */
+  public record Snapshot(WorkloadClass workloadClass, int running, int queued, long completed, long failed,
+                         long rejected, long timedOut, double avgQueueMillis, double maxQueueMillis,
+                         double avgRunMillis, double maxRunMillis) {}
+
+  public WorkloadScheduler(ClassConfig oltp, ClassConfig analytics) {
+    lanes.put(WorkloadClass.OLTP, new Lane(WorkloadClass.OLTP, oltp));
+    lanes.put(WorkloadClass.ANALYTICS, new Lane(WorkloadClass.ANALYTICS, analytics));
+  }
+
+  /**
+   * Queues work in the given class.
+   *
+   * @throws WorkloadRejectedException if the class's queue is full
+   */
+  public <T> CompletableFuture<T> submit(WorkloadClass workloadClass, Priority priority, Supplier<T> work) {
+    return lanes.get(workloadClass).submit(priority, work);
+  }
+
+  /**
+   * Runs work in the given class and waits for its result, rethrowing any
+   * runtime exception it raised. Called from work already running in that
+   * class, it runs inline instead of waiting for a second worker.
+   *
+   * @throws WorkloadRejectedException if the class's queue is full
+   */
+  public <T> T call(WorkloadClass workloadClass, Priority priority, Supplier<T> work) {
+    if (WorkloadContext.currentClass() == workloadClass) {
+      return work.get();
+    }
+    try {
+      return submit(workloadClass, priority, work).join();
+    }
+    catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Runs work through the scheduler with {@link #call}, or directly on the
+   * calling thread when no scheduler is configured.
+   */
+  public static <T> T callOrRun(WorkloadScheduler scheduler, WorkloadClass workloadClass, Priority priority,
+                                Supplier<T> work) {
+    return scheduler != null ? scheduler.call(workloadClass, priority, work) : work.get();
+  }
+
+  public Snapshot snapshot(WorkloadClass workloadClass) {
+    return lanes.get(workloadClass).snapshot();
+  }
+
+  /** Stops all workers; queued work is abandoned. */
+  public void shutdown() {
+    lanes.values().forEach(lane -> lane.executor.shutdownNow());
+  }
+
+  private final class Lane {
+    private final WorkloadClass workloadClass;
+    private final ClassConfig config;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    // Tasks waiting or running
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+    Lane(WorkloadClass workloadClass, ClassConfig config) {
+      this.workloadClass = workloadClass;
+      this.config = config;
+      AtomicInteger counter = new AtomicInteger();
+      String prefix = "workload-" + workloadClass.name().toLowerCase() + "-";
+      this.executor = new ThreadPoolExecutor(config.workers(), config.workers(), 0L, TimeUnit.MILLISECONDS,
+        new PriorityBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+      this.executor.prestartAllCoreThreads();
+    }
+
+    <T> CompletableFuture<T> submit(Priority priority, Supplier<T> work) {
+      // The priority queue itself is unbounded; the capacity is enforced here. The executor's
+      // active count lags thread start-up and task completion, so running tasks are counted here too
+      if (admitted.incrementAndGet() > config.workers() + config.queueCapacity()) {
+        admitted.decrementAndGet();
+        rejected.increment();
+        throw new WorkloadRejectedException(workloadClass + " workload queue is full");
+      }
+      queued.incrementAndGet();
+
+      CompletableFuture<T> result = new CompletableFuture<>();
+      long enqueuedAt = System.nanoTime();
+      executor.execute(new Task(priority, sequence.getAndIncrement(), () -> {
+        queued.decrementAndGet();
+        long startedAt = System.nanoTime();
+        record(queueNanos, maxQueueNanos, startedAt - enqueuedAt);
+        T value = null;
+        RuntimeException failure = null;
+        try {
+          value = WorkloadContext.run(workloadClass, config.statementTimeout(), work);
+          completed.increment();
+        }
+        catch (RuntimeException ex) {
+          failed.increment();
+          if (isStatementTimeout(ex)) {
+            timedOut.increment();
+          }
+          failure = ex;
+        }
+        finally {
+          // Free the slot before the caller sees the outcome, so its next submission is admitted
+          admitted.decrementAndGet();
+          record(runNanos, maxRunNanos, System.nanoTime() - startedAt);
+        }
+        if (failure == null) {
+          result.complete(value);
+        }
+        else {
+          result.completeExceptionally(failure);
+        }
+      }));
+      return result;
+    }
+
+    Snapshot snapshot() {
+      long done = Math.max(1, completed.sum() + failed.sum());
+      return new Snapshot(workloadClass, executor.getActiveCount(), Math.max(0, queued.get()),
+        completed.sum(), failed.sum(), rejected.sum(), timedOut.sum(),
+        queueNanos.sum() / 1e6 / done, maxQueueNanos.get() / 1e6,
+        runNanos.sum() / 1e6 / done, maxRunNanos.get() / 1e6);
+    }
+
+    private void record(LongAdder total, LongAccumulator max, long nanos) {
+      total.add(nanos);
+      max.accumulate(nanos);
+    }
+  }
+
+  private static boolean isStatementTimeout(Throwable ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sql && QUERY_CANCELED_STATE.equals(sql.getSQLState())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Orders by priority, then FIFO within a priority
+  private record Task(Priority priority, long sequence, Runnable body) implements Runnable, Comparable<Task> {
+    @Override
+    public void run() {
+      body.run();
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      int byPriority = priority.compareTo(other.priority);
+      return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+  }
+}
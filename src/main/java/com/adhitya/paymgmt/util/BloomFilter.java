@@ -0,0 +1,107 @@
+package com.adhitya.paymgmt.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. It answers "definitely absent" or
+ * "possibly present"; false positives occur at roughly the configured rate,
+ * false negatives never do. Sized from the expected number of insertions.
+ */
+public class BloomFilter {
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+  private final int expectedInsertions;
+
+  /**
+   * @param expectedInsertions number of elements the filter is sized for
+   * @param falsePositiveRate  target false-positive probability at that size, e.g. 0.01
+   */
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("Expected insertions must be positive");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+    }
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int wordCount = (int) Math.max(1, (bits + 63) / 64);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = wordCount * 64L;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    this.expectedInsertions = expectedInsertions;
+  }
+
+  public void add(String value) {
+    long hash = hash64(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current;
+      do {
+        current = words.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  /** Returns false if the value was definitely never added. */
+  public boolean mightContain(String value) {
+    long hash = hash64(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Estimates the current false-positive probability from the fraction of bits set. */
+  public double estimatedFalsePositiveRate() {
+    long set = 0;
+    for (int i = 0; i < words.length(); i++) {
+      set += Long.bitCount(words.get(i));
+    }
+    return Math.pow((double) set / bitCount, hashCount);
+  }
+
+  public long getBitCount() {
+    return bitCount;
+  }
+
+  public int getHashCount() {
+    return hashCount;
+  }
+
+  public long getMemoryBytes() {
+    return bitCount / 8;
+  }
+
+  public int getExpectedInsertions() {
+    return expectedInsertions;
+  }
+
+  // 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 mix to spread the bits
+  private static long hash64(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
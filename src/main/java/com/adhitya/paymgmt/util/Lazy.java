@@ -0,0 +1,42 @@
+package com.adhitya.paymgmt.util;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe, memoizing handle around an expensive lookup.
+ * The loader runs at most once, on the first call to {@link #get()}.
+ *
+ * @param <T> type of the loaded value
+ */
+public final class Lazy<T> implements Supplier<T> {
+  private Supplier<? extends T> loader;
+  private volatile boolean loaded;
+  private T value;
+
+  public Lazy(Supplier<? extends T> loader) {
+    if (loader == null) {
+      throw new IllegalArgumentException("Loader cannot be null");
+    }
+    this.loader = loader;
+  }
+
+  /** Returns the loaded value, invoking the loader on first access. */
+  @Override
+  public T get() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          value = loader.get();
+          loaded = true;
+          loader = null; // release captured state once loaded
+        }
+      }
+    }
+    return value;
+  }
+
+  /** Returns true once the underlying value has been loaded. */
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
@@ -1,15 +1,80 @@
 package com.adhitya.paymgmt.util;
 
 import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
 
 public class PasswordUtil {
-  private static final int BCRYPT_ROUNDS = 12;
+  private static final Logger logger = LoggerFactory.getLogger(PasswordUtil.class);
+
+  // Calibration only ever raises the cost above this floor
+  private static final int MIN_BCRYPT_ROUNDS = 12;
+  private static final int MAX_BCRYPT_ROUNDS = 16;
+
+  private static volatile int bcryptRounds = MIN_BCRYPT_ROUNDS;
 
   public static String hashPassword(String plainPassword) {
-    return BCrypt.hashpw(plainPassword, BCrypt.gensalt(BCRYPT_ROUNDS));
+    return BCrypt.hashpw(plainPassword, BCrypt.gensalt(bcryptRounds));
   }
 
   public static boolean verifyPassword(String plainPassword, String hashedPassword) {
     return BCrypt.checkpw(plainPassword, hashedPassword);
   }
+
+  /**
+   * Benchmarks bcrypt on this host and picks the highest cost whose verification
+   * stays within the target latency, never going below the 12-round floor.
+   * Each extra round doubles the work, so one timed hash at the floor is enough
+   * to extrapolate the others.
+   *
+   * @param targetLatency desired time for a single verification
+   * @return the cost now used for new hashes
+   */
+  public static int calibrate(Duration targetLatency) {
+    // Warm up the JIT on a cheap hash so the measurement reflects steady state
+    BCrypt.hashpw("calibration", BCrypt.gensalt(6));
+
+    long start = System.nanoTime();
+    BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_BCRYPT_ROUNDS));
+    long floorNanos = Math.max(1, System.nanoTime() - start);
+
+    int rounds = MIN_BCRYPT_ROUNDS;
+    while (rounds < MAX_BCRYPT_ROUNDS && floorNanos << (rounds + 1 - MIN_BCRYPT_ROUNDS) <= targetLatency.toNanos()) {
+      rounds++;
+    }
+
+    bcryptRounds = rounds;
+    logger.info("bcrypt calibrated: cost {} at ~{} ms per verification (floor cost {} took {} ms)",
+      rounds, (floorNanos << (rounds - MIN_BCRYPT_ROUNDS)) / 1_000_000, MIN_BCRYPT_ROUNDS, floorNanos / 1_000_000);
+    return rounds;
+  }
+
+  /** Returns the cost used for new hashes. */
+  public static int getRounds() {
+    return bcryptRounds;
+  }
+
+  /** Extracts the cost factor from a bcrypt hash such as {@code $2a$12$...}, or -1 if unparseable. */
+  public static int getRounds(String hashedPassword) {
+    if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+      return -1;
+    }
+    int costStart = hashedPassword.indexOf('$', 1) + 1;
+    try {
+      return Integer.parseInt(hashedPassword.substring(costStart, costStart + 2));
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Returns true if the hash was made with a lower cost than the current target.
+   * A stored cost above the target is kept: calibration on a slow host or another
+   * node must never weaken an existing hash.
+   */
+  public static boolean needsRehash(String hashedPassword) {
+    return getRounds(hashedPassword) < bcryptRounds;
+  }
 }
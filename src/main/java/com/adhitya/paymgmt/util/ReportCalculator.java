@@ -1,6 +1,11 @@
 package com.adhitya.paymgmt.util;
 
+import com.adhitya.paymgmt.analytics.PaymentColumnStore;
+import com.adhitya.paymgmt.config.ReadRouting;
 import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.metrics.Metrics;
+import com.adhitya.paymgmt.metrics.OperationTimer;
+import com.adhitya.paymgmt.model.Money;
 import com.adhitya.paymgmt.model.Payment;
 import com.adhitya.paymgmt.model.enums.PaymentCategory;
 import com.adhitya.paymgmt.model.enums.PaymentDirection;
@@ -8,13 +13,12 @@ import com.adhitya.paymgmt.repository.CounterpartyRepository;
 import com.adhitya.paymgmt.repository.EmployeeRepository;
 import com.adhitya.paymgmt.service.PaymentService;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Utility class responsible for calculating detailed financial reports
@@ -23,6 +27,9 @@ import java.util.stream.Collectors;
  * category, and entities (employees, counterparties).
  */
 public class ReportCalculator {
+  private static final OperationTimer FETCH = Metrics.timer("report", "fetch");
+  private static final OperationTimer AGGREGATE = Metrics.timer("report", "aggregate");
+
   private final PaymentService paymentService;
   private final EmployeeRepository employeeRepository;
   private final CounterpartyRepository counterpartyRepository;
@@ -51,27 +58,55 @@ public class ReportCalculator {
    * @return assembled ReportDataDTO containing all computed summary data
    */
   public ReportDataDTO calculateReport(LocalDate startDate, LocalDate endDate) {
+    // Aggregate over the column store's primitive arrays when it is available;
+    // the payments themselves are then only fetched if the listing is read.
+    PaymentColumnStore store = paymentService.getColumnStore();
+    if (store != null && store.isLoaded()) {
+      try (OperationTimer.Timing timing = AGGREGATE.start()) {
+        ReportDataDTO report = calculateFromColumnStore(store, startDate, endDate);
+        timing.addRows(report.transactionCount());
+        return report;
+      }
+    }
+
     // 1. Fetch all payments within the specified date range.
-    List<Payment> payments = paymentService.getPaymentsByDateRange(startDate, endDate);
+    List<Payment> payments = fetch(startDate, endDate);
+
+    try (OperationTimer.Timing timing = AGGREGATE.start()) {
+      timing.addRows(payments.size());
+      return aggregate(payments, startDate, endDate);
+    }
+  }
+
+  private List<Payment> fetch(LocalDate startDate, LocalDate endDate) {
+    try (OperationTimer.Timing timing = FETCH.start()) {
+      List<Payment> payments = paymentService.getPaymentsByDateRange(startDate, endDate);
+      timing.addRows(payments.size());
+      return payments;
+    }
+  }
+
+  /** Computes totals and breakdowns over the fetched payments. */
+  private ReportDataDTO aggregate(List<Payment> payments, LocalDate startDate, LocalDate endDate) {
 
     // 2. Calculate total inflow and outflow based on payment direction.
-    BigDecimal totalInflow = calculateTotal(payments, PaymentDirection.INCOMING);
-    BigDecimal totalOutflow = calculateTotal(payments, PaymentDirection.OUTGOING);
+    Money totalInflow = calculateTotal(payments, PaymentDirection.INCOMING);
+    Money totalOutflow = calculateTotal(payments, PaymentDirection.OUTGOING);
 
     // Net balance is inflow minus outflow.
-    BigDecimal netBalance = totalInflow.subtract(totalOutflow);
+    Money netBalance = totalInflow.minus(totalOutflow);
 
     // Average daily transaction value over the period.
-    BigDecimal avgTransaction = calculateAverage(payments, startDate, endDate);
+    Money avgTransaction = calculateAverage(payments, startDate, endDate);
 
     // 3. Compute totals by payment category for breakdown analysis.
-    Map<PaymentCategory, BigDecimal> categoryTotals = calculateCategoryTotals(payments);
+    Map<PaymentCategory, Money> categoryTotals = calculateCategoryTotals(payments);
 
     // 4. Compute totals by employee (internal payments).
-    Map<Integer, BigDecimal> employeeTotals = calculateEmployeeTotals(payments);
+    Map<Integer, Money> employeeTotals = calculateEmployeeTotals(payments);
 
     // 5. Compute totals by counterparty (external payments).
-    Map<Integer, BigDecimal> counterpartyTotals = calculateCounterpartyTotals(payments);
+    Map<Integer, Money> counterpartyTotals = calculateCounterpartyTotals(payments);
 
     // Assemble and return the full report data transfer object.
     return new ReportDataDTO(
@@ -89,6 +124,46 @@ public class ReportCalculator {
     );
   }
 
+  /**
+   * Builds the report from column store aggregates. The count comes from the store
+   * too, so it always agrees with the totals; the transaction listing is fetched,
+   * from the replica where available, the first time it is read.
+   */
+  private ReportDataDTO calculateFromColumnStore(PaymentColumnStore store, LocalDate startDate, LocalDate endDate) {
+    PaymentColumnStore.Aggregates aggregates = store.aggregate(startDate, endDate);
+
+    Money totalInflow = Money.ofMinor(aggregates.inflow());
+    Money totalOutflow = Money.ofMinor(aggregates.outflow());
+    Money avgTransaction = aggregates.count() == 0 ? Money.ZERO
+      : Money.ofMinor(aggregates.total()).dividedBy(ChronoUnit.DAYS.between(startDate, endDate) + 1);
+
+    Map<PaymentCategory, Money> categoryTotals = new EnumMap<>(PaymentCategory.class);
+    for (PaymentCategory category : PaymentCategory.values()) {
+      long total = aggregates.categoryTotals()[category.ordinal()];
+      if (total != 0) {
+        categoryTotals.put(category, Money.ofMinor(total));
+      }
+    }
+    Map<Integer, Money> employeeTotals = new HashMap<>(aggregates.employeeTotals().size() * 2);
+    aggregates.employeeTotals().forEach((id, total) -> employeeTotals.put(id, Money.ofMinor(total)));
+    Map<Integer, Money> counterpartyTotals = new HashMap<>(aggregates.counterpartyTotals().size() * 2);
+    aggregates.counterpartyTotals().forEach((id, total) -> counterpartyTotals.put(id, Money.ofMinor(total)));
+
+    return new ReportDataDTO(
+      startDate,
+      endDate,
+      aggregates.count(),
+      totalInflow,
+      totalOutflow,
+      totalInflow.minus(totalOutflow),
+      avgTransaction,
+      categoryTotals,
+      employeeTotals,
+      counterpartyTotals,
+      new Lazy<>(() -> ReadRouting.onReplica(() -> fetch(startDate, endDate)))
+    );
+  }
+
   /**
    * Helper method to calculate total payments for a given direction (INCOMING or OUTGOING).
    *
@@ -96,11 +171,14 @@ public class ReportCalculator {
    * @param direction  payment direction to filter by
    * @return sum of amounts matching the direction
    */
-  private BigDecimal calculateTotal(List<Payment> payments, PaymentDirection direction) {
-    return payments.stream()
-      .filter(p -> p.getPaymentDirection() == direction)
-      .map(Payment::getAmount)
-      .reduce(BigDecimal.ZERO, BigDecimal::add);
+  private Money calculateTotal(List<Payment> payments, PaymentDirection direction) {
+    long total = 0;
+    for (Payment payment : payments) {
+      if (payment.getPaymentDirection() == direction) {
+        total = Math.addExact(total, payment.getAmount().minorUnits());
+      }
+    }
+    return Money.ofMinor(total);
   }
 
   /**
@@ -110,15 +188,16 @@ public class ReportCalculator {
    * @param payments list of Payment entities
    * @param start    inclusive start date of period
    * @param end      inclusive end date of period
-   * @return average daily amount rounded to two decimal places
+   * @return average daily amount rounded half up to the minor unit
    */
-  private BigDecimal calculateAverage(List<Payment> payments, LocalDate start, LocalDate end) {
-    if (payments.isEmpty()) return BigDecimal.ZERO;
+  private Money calculateAverage(List<Payment> payments, LocalDate start, LocalDate end) {
+    if (payments.isEmpty()) return Money.ZERO;
     long days = ChronoUnit.DAYS.between(start, end) + 1;
-    BigDecimal total = payments.stream()
-      .map(Payment::getAmount)
-      .reduce(BigDecimal.ZERO, BigDecimal::add);
-    return total.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+    long total = 0;
+    for (Payment payment : payments) {
+      total = Math.addExact(total, payment.getAmount().minorUnits());
+    }
+    return Money.ofMinor(total).dividedBy(days);
   }
 
   /**
@@ -127,16 +206,22 @@ public class ReportCalculator {
    * @param payments list of Payment entities
    * @return map of PaymentCategory to total amount in that category
    */
-  private Map<PaymentCategory, BigDecimal> calculateCategoryTotals(List<Payment> payments) {
-    return payments.stream()
-      .collect(Collectors.groupingBy(
-        Payment::getCategory,
-        Collectors.reducing(
-          BigDecimal.ZERO,
-          Payment::getAmount,
-          BigDecimal::add
-        )
-      ));
+  private Map<PaymentCategory, Money> calculateCategoryTotals(List<Payment> payments) {
+    long[] totals = new long[PaymentCategory.values().length];
+    boolean[] present = new boolean[totals.length];
+    for (Payment payment : payments) {
+      int ordinal = payment.getCategory().ordinal();
+      totals[ordinal] = Math.addExact(totals[ordinal], payment.getAmount().minorUnits());
+      present[ordinal] = true;
+    }
+
+    Map<PaymentCategory, Money> categoryTotals = new EnumMap<>(PaymentCategory.class);
+    for (PaymentCategory category : PaymentCategory.values()) {
+      if (present[category.ordinal()]) {
+        categoryTotals.put(category, Money.ofMinor(totals[category.ordinal()]));
+      }
+    }
+    return categoryTotals;
   }
 
   /**
@@ -146,14 +231,14 @@ public class ReportCalculator {
    * @param payments list of Payment entities
    * @return map of employee ID to total payment amount
    */
-  private Map<Integer, BigDecimal> calculateEmployeeTotals(List<Payment> payments) {
-    return payments.stream()
-      .filter(p -> p.getEmployee() != null)
-      .collect(Collectors.toMap(
-        p -> p.getEmployee().getId(),
-        Payment::getAmount,
-        BigDecimal::add
-      ));
+  private Map<Integer, Money> calculateEmployeeTotals(List<Payment> payments) {
+    Map<Integer, Long> totals = new HashMap<>();
+    for (Payment payment : payments) {
+      if (payment.getEmployee() != null) {
+        totals.merge(payment.getEmployee().getId(), payment.getAmount().minorUnits(), Math::addExact);
+      }
+    }
+    return toMoney(totals);
   }
 
   /**
@@ -163,13 +248,20 @@ public class ReportCalculator {
    * @param payments list of Payment entities
    * @return map of counterparty ID to total payment amount
    */
-  private Map<Integer, BigDecimal> calculateCounterpartyTotals(List<Payment> payments) {
-    return payments.stream()
-      .filter(p -> p.getCounterParty() != null)
-      .collect(Collectors.toMap(
-        p -> p.getCounterParty().getId(),
-        Payment::getAmount,
-        BigDecimal::add
-      ));
+  private Map<Integer, Money> calculateCounterpartyTotals(List<Payment> payments) {
+    Map<Integer, Long> totals = new HashMap<>();
+    for (Payment payment : payments) {
+      if (payment.getCounterParty() != null) {
+        totals.merge(payment.getCounterParty().getId(), payment.getAmount().minorUnits(), Math::addExact);
+      }
+    }
+    return toMoney(totals);
+  }
+
+  // Wraps minor-unit totals once per key rather than once per payment
+  private static Map<Integer, Money> toMoney(Map<Integer, Long> totals) {
+    Map<Integer, Money> result = new HashMap<>();
+    totals.forEach((id, total) -> result.put(id, Money.ofMinor(total)));
+    return result;
   }
 }
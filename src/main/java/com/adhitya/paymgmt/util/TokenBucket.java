@@ -0,0 +1,50 @@
+package com.adhitya.paymgmt.util;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills
+ * continuously at {@code refillPerSecond}. Each permitted action takes one token.
+ */
+public class TokenBucket {
+  private final double capacity;
+  private final double refillPerNano;
+  private double tokens;
+  private long lastRefillNanos;
+
+  public TokenBucket(int capacity, double refillPerSecond) {
+    if (capacity <= 0 || refillPerSecond <= 0) {
+      throw new IllegalArgumentException("Capacity and refill rate must be positive");
+    }
+    this.capacity = capacity;
+    this.refillPerNano = refillPerSecond / 1_000_000_000d;
+    this.tokens = capacity;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /** Takes one token if available. Returns false when the bucket is empty. */
+  public synchronized boolean tryAcquire() {
+    refill();
+    if (tokens >= 1) {
+      tokens -= 1;
+      return true;
+    }
+    return false;
+  }
+
+  /** Gives back a token taken by {@link #tryAcquire()} whose action did not go ahead. */
+  public synchronized void release() {
+    refill();
+    tokens = Math.min(capacity, tokens + 1);
+  }
+
+  /** Returns true when the bucket has refilled completely, i.e. it has been idle long enough to forget. */
+  public synchronized boolean isFull() {
+    refill();
+    return tokens >= capacity;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+    lastRefillNanos = now;
+  }
+}
@@ -0,0 +1,61 @@
+--
+-- Converts audit_logs into a table range-partitioned by month on changed_at.
+-- Existing rows are copied into monthly partitions; the default partition only
+-- catches rows that arrive before the maintenance job has created their month.
+--
+
+ALTER TABLE public.audit_logs RENAME TO audit_logs_legacy;
+ALTER TABLE public.audit_logs_legacy RENAME CONSTRAINT audit_logs_pkey TO audit_logs_legacy_pkey;
+ALTER INDEX IF EXISTS public.audit_logs_changed_at_id_idx RENAME TO audit_logs_legacy_changed_at_id_idx;
+ALTER INDEX IF EXISTS public.audit_logs_payment_id_idx RENAME TO audit_logs_legacy_payment_id_idx;
+
+-- Keep the id sequence alive when the legacy table is dropped
+ALTER TABLE public.audit_logs_legacy ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE public.audit_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE public.audit_logs (
+    id int4 DEFAULT nextval('public.audit_logs_id_seq'::regclass) NOT NULL,
+    payment_id int4 NULL,
+    field_changed varchar NOT NULL,
+    old_value text NULL,
+    new_value text NULL,
+    changed_by int4 NULL,
+    changed_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT audit_logs_pkey PRIMARY KEY (id, changed_at),
+    CONSTRAINT audit_logs_changed_by_fkey FOREIGN KEY (changed_by) REFERENCES public.users(id),
+    CONSTRAINT audit_logs_payment_id_fkey FOREIGN KEY (payment_id) REFERENCES public.payments(id)
+) PARTITION BY RANGE (changed_at);
+
+ALTER SEQUENCE public.audit_logs_id_seq OWNED BY public.audit_logs.id;
+
+CREATE INDEX audit_logs_changed_at_id_idx ON public.audit_logs (changed_at DESC, id DESC);
+CREATE INDEX audit_logs_payment_id_idx ON public.audit_logs (payment_id);
+
+CREATE TABLE public.audit_logs_default PARTITION OF public.audit_logs DEFAULT;
+
+-- One partition per month from the oldest existing row up to three months ahead
+DO $$
+DECLARE
+    month_start timestamp;
+    last_month timestamp := date_trunc('month', CURRENT_TIMESTAMP) + interval '3 months';
+BEGIN
+    SELECT date_trunc('month', COALESCE(min(changed_at), CURRENT_TIMESTAMP))
+      INTO month_start
+      FROM public.audit_logs_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE public.%I PARTITION OF public.audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_p' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    END LOOP;
+END
+$$;
+
+INSERT INTO public.audit_logs (id, payment_id, field_changed, old_value, new_value, changed_by, changed_at)
+SELECT id, payment_id, field_changed, old_value, new_value, changed_by, changed_at
+FROM public.audit_logs_legacy;
+
+DROP TABLE public.audit_logs_legacy;
@@ -0,0 +1,16 @@
+--
+-- Idempotency keys for payment submission. A retried request carrying the same
+-- key resolves to the payment created by the first attempt instead of inserting
+-- a duplicate. payment_id is NULL only while the claiming transaction is open.
+--
+
+CREATE TABLE public.payment_idempotency_keys (
+    idempotency_key varchar(128) NOT NULL,
+    payment_id int4 NULL,
+    created_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT payment_idempotency_keys_pkey PRIMARY KEY (idempotency_key),
+    CONSTRAINT payment_idempotency_keys_payment_id_fkey FOREIGN KEY (payment_id) REFERENCES public.payments(id)
+);
+
+-- Supports the TTL cleanup job
+CREATE INDEX payment_idempotency_keys_created_at_idx ON public.payment_idempotency_keys (created_at);
@@ -0,0 +1,6 @@
+--
+-- Supports catching an analytics snapshot up with rows changed since it was
+-- written (id > high-water mark OR updated_at > snapshot time).
+--
+
+CREATE INDEX IF NOT EXISTS payments_updated_at_idx ON public.payments (updated_at);
@@ -0,0 +1,18 @@
+--
+-- Text search over payment descriptions and counterparty names.
+--   description_tsv: stemmed full-text vector for ranked word and prefix matches
+--   trigram indexes: fuzzy (typo-tolerant) matches via word_similarity (<%)
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE public.payments
+    ADD COLUMN description_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('english', coalesce(description, ''))) STORED;
+
+CREATE INDEX payments_description_tsv_idx ON public.payments USING gin (description_tsv);
+CREATE INDEX payments_description_trgm_idx ON public.payments USING gin (description gin_trgm_ops);
+CREATE INDEX counterparties_name_trgm_idx ON public.counterparties USING gin (name gin_trgm_ops);
+
+-- Expands counterparty name matches to their payments
+CREATE INDEX IF NOT EXISTS payments_counterparty_id_idx ON public.payments (counterparty_id);
@@ -0,0 +1,24 @@
+--
+-- Scopes payment idempotency keys to the submitting user and records a hash of
+-- the request, so a key reused by another user or with a different payload no
+-- longer resolves to the original payment.
+--
+
+ALTER TABLE public.payment_idempotency_keys
+    ADD COLUMN user_id int4 NULL,
+    ADD COLUMN request_hash char(64) NULL;
+
+-- Existing keys belong to the user who created their payment. Their request hash
+-- is unknown, so replays of them are not checked until they expire.
+UPDATE public.payment_idempotency_keys k
+SET user_id = p.created_by
+FROM public.payments p
+WHERE p.id = k.payment_id;
+
+DELETE FROM public.payment_idempotency_keys WHERE user_id IS NULL;
+
+ALTER TABLE public.payment_idempotency_keys
+    ALTER COLUMN user_id SET NOT NULL,
+    DROP CONSTRAINT payment_idempotency_keys_pkey,
+    ADD CONSTRAINT payment_idempotency_keys_pkey PRIMARY KEY (user_id, idempotency_key),
+    ADD CONSTRAINT payment_idempotency_keys_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.users(id);
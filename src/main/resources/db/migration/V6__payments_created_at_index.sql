@@ -0,0 +1,7 @@
+--
+-- Supports catching an analytics snapshot up with rows inserted by transactions
+-- that took their ID before the snapshot's high-water mark but committed after it
+-- (created_at > snapshot time), alongside date-range reports.
+--
+
+CREATE INDEX IF NOT EXISTS payments_created_at_idx ON public.payments (created_at);
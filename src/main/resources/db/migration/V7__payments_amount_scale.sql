@@ -0,0 +1,10 @@
+--
+-- Fixes payments.amount at two decimal places. The application holds amounts as
+-- whole minor units (Money) and rounds extra digits half up; the bare numeric
+-- column stored them as given, so a row could hold a value the application would
+-- read back differently. numeric rounds half away from zero on the cast, which is
+-- what Money does for both signs. 18 digits keep every stored amount within a
+-- long of minor units.
+--
+
+ALTER TABLE public.payments ALTER COLUMN amount TYPE numeric(18, 2);
@@ -0,0 +1,50 @@
+package com.adhitya.paymgmt.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntLongSumMapTest {
+
+  @Test
+  void sumsPerKeyAcrossGrowth() {
+    IntLongSumMap sums = new IntLongSumMap(4);
+    Map<Integer, Long> expected = new HashMap<>();
+    Random random = new Random(11);
+    for (int i = 0; i < 50_000; i++) {
+      int key = 1 + random.nextInt(5_000);
+      long amount = random.nextInt(1_000_000);
+      sums.add(key, amount);
+      expected.merge(key, amount, Long::sum);
+    }
+
+    assertEquals(expected.size(), sums.size());
+    Map<Integer, Long> visited = new HashMap<>();
+    sums.forEach(visited::put);
+    assertEquals(expected, visited);
+    assertEquals(expected.get(42), sums.get(42));
+    assertEquals(0, sums.get(9_999));
+  }
+
+  @Test
+  void overflowFailsInsteadOfWrapping() {
+    IntLongSumMap sums = new IntLongSumMap();
+    sums.add(7, Long.MAX_VALUE);
+
+    assertThrows(ArithmeticException.class, () -> sums.add(7, 1));
+    assertEquals(Long.MAX_VALUE, sums.get(7));
+  }
+
+  @Test
+  void rejectsNonPositiveKeys() {
+    IntLongSumMap sums = new IntLongSumMap();
+
+    assertThrows(IllegalArgumentException.class, () -> sums.add(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> sums.add(-3, 1));
+  }
+}
@@ -0,0 +1,132 @@
+package com.adhitya.paymgmt.analytics;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentBitmapIndexTest {
+  // Enough payments that the common attribute bitmaps hold dense chunks
+  private static final int PAYMENTS = 30_000;
+
+  private final List<Payment> payments = new ArrayList<>();
+  private final PaymentBitmapIndex index = new PaymentBitmapIndex();
+
+  @BeforeEach
+  void indexPayments() {
+    Random random = new Random(7);
+    for (int id = 1; id <= PAYMENTS; id++) {
+      Payment payment = new Payment();
+      payment.setId(id);
+      payment.setAmount(Money.ofMinor(random.nextInt(1_000_000)));
+      payment.setPaymentDirection(pick(PaymentDirection.values(), random));
+      payment.setCategory(pick(PaymentCategory.values(), random));
+      payment.setStatus(pick(Status.values(), random));
+      payment.setCreatedBy(user(1 + random.nextInt(5)));
+      if (random.nextBoolean()) {
+        payment.setEmployee(new Employee(1 + random.nextInt(50), "e", "d", null));
+      }
+      else {
+        payment.setCounterParty(new Counterparty(1 + random.nextInt(50), "c", null, null, null));
+      }
+      payment.setCreatedAt(LocalDateTime.of(2025, 1 + random.nextInt(12), 1 + random.nextInt(28), 12, 0));
+      payments.add(payment);
+      index.onPaymentSaved(payment);
+    }
+  }
+
+  @Test
+  void leafFiltersMatchThePayments() {
+    assertSearch(PaymentFilter.category(PaymentCategory.SALARY));
+    assertSearch(PaymentFilter.direction(PaymentDirection.INCOMING));
+    assertSearch(PaymentFilter.status(Status.COMPLETED));
+    assertSearch(PaymentFilter.counterparty(17));
+    assertSearch(PaymentFilter.employee(3));
+    assertSearch(PaymentFilter.createdBy(2));
+    assertSearch(PaymentFilter.month(YearMonth.of(2025, 6)));
+    assertSearch(PaymentFilter.counterparty(999));
+  }
+
+  @Test
+  void combinedFiltersMatchThePayments() {
+    assertSearch(PaymentFilter.and(
+      PaymentFilter.or(PaymentFilter.category(PaymentCategory.SALARY), PaymentFilter.category(PaymentCategory.VENDOR_PAYMENT)),
+      PaymentFilter.direction(PaymentDirection.OUTGOING),
+      PaymentFilter.not(PaymentFilter.status(Status.PENDING))));
+    assertSearch(PaymentFilter.or(
+      PaymentFilter.and(PaymentFilter.employee(3), PaymentFilter.month(YearMonth.of(2025, 2))),
+      PaymentFilter.counterparty(17)));
+    assertSearch(PaymentFilter.not(PaymentFilter.or(
+      PaymentFilter.createdBy(1), PaymentFilter.createdBy(2), PaymentFilter.createdBy(3))));
+    assertSearch(PaymentFilter.and(PaymentFilter.employee(3), PaymentFilter.counterparty(17)));
+    assertSearch(PaymentFilter.and(List.of()));
+    assertSearch(PaymentFilter.or(List.of()));
+  }
+
+  @Test
+  void statusChangesMoveThePaymentBetweenStatusBitmaps() {
+    for (Payment payment : payments) {
+      if (payment.getId() % 3 == 0) {
+        payment.setStatus(Status.COMPLETED);
+        index.onStatusChanged(payment.getId(), Status.COMPLETED, LocalDateTime.now());
+      }
+    }
+    index.onStatusChanged(PAYMENTS + 1, Status.COMPLETED, LocalDateTime.now());
+
+    for (Status status : Status.values()) {
+      assertSearch(PaymentFilter.status(status));
+    }
+    assertEquals(PAYMENTS, index.cardinality());
+  }
+
+  @Test
+  void resavingAPaymentReplacesItsStatus() {
+    Payment payment = payments.get(0);
+    Status other = payment.getStatus() == Status.PENDING ? Status.PROCESSING : Status.PENDING;
+    payment.setStatus(other);
+    index.onPaymentSaved(payment);
+
+    for (Status status : Status.values()) {
+      assertSearch(PaymentFilter.status(status));
+    }
+  }
+
+  @Test
+  void rejectsANullFilter() {
+    assertThrows(IllegalArgumentException.class, () -> index.search(null));
+  }
+
+  private void assertSearch(PaymentFilter filter) {
+    int[] expected = payments.stream()
+      .filter(filter::matches)
+      .mapToInt(Payment::getId)
+      .toArray();
+    assertArrayEquals(expected, index.search(filter), filter.toString());
+  }
+
+  private static User user(int id) {
+    User user = new User();
+    user.setId(id);
+    return user;
+  }
+
+  private static <T> T pick(T[] values, Random random) {
+    return values[random.nextInt(values.length)];
+  }
+}
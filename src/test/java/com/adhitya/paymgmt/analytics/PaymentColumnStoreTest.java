@@ -0,0 +1,73 @@
+package com.adhitya.paymgmt.analytics;
+
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentColumnStoreTest {
+  private final PaymentColumnStore store = new PaymentColumnStore(16);
+
+  @Test
+  void aggregatesByDirectionCategoryAndParty() {
+    save(1, 10_000, PaymentDirection.INCOMING, PaymentCategory.SALARY, 3, 0, LocalDate.of(2025, 3, 1));
+    save(2, 2_550, PaymentDirection.OUTGOING, PaymentCategory.SALARY, 3, 0, LocalDate.of(2025, 3, 31));
+    save(3, 700, PaymentDirection.OUTGOING, PaymentCategory.VENDOR_PAYMENT, 0, 9, LocalDate.of(2025, 3, 15));
+    save(4, 99_999, PaymentDirection.INCOMING, PaymentCategory.SALARY, 3, 0, LocalDate.of(2025, 4, 1));
+
+    PaymentColumnStore.Aggregates aggregates = store.aggregate(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+    assertEquals(3, aggregates.count());
+    assertEquals(10_000, aggregates.inflow());
+    assertEquals(3_250, aggregates.outflow());
+    assertEquals(13_250, aggregates.total());
+    assertEquals(12_550, aggregates.categoryTotals()[PaymentCategory.SALARY.ordinal()]);
+    assertEquals(700, aggregates.categoryTotals()[PaymentCategory.VENDOR_PAYMENT.ordinal()]);
+    assertEquals(1, aggregates.employeeTotals().size());
+    assertEquals(12_550, aggregates.employeeTotals().get(3));
+    assertEquals(700, aggregates.counterpartyTotals().get(9));
+  }
+
+  @Test
+  void overflowingTotalsFail() {
+    save(1, Long.MAX_VALUE, PaymentDirection.INCOMING, PaymentCategory.SALARY, 3, 0, LocalDate.of(2025, 3, 1));
+    save(2, 1, PaymentDirection.INCOMING, PaymentCategory.SALARY, 3, 0, LocalDate.of(2025, 3, 2));
+
+    assertThrows(ArithmeticException.class,
+      () -> store.aggregate(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+  }
+
+  private void save(int id, long minorUnits, PaymentDirection direction, PaymentCategory category,
+                    int employeeId, int counterpartyId, LocalDate createdOn) {
+    Payment payment = new Payment();
+    payment.setId(id);
+    payment.setAmount(Money.ofMinor(minorUnits));
+    payment.setPaymentDirection(direction);
+    payment.setCategory(category);
+    payment.setStatus(Status.PENDING);
+    User createdBy = new User();
+    createdBy.setId(1);
+    payment.setCreatedBy(createdBy);
+    if (employeeId != 0) {
+      payment.setEmployee(new Employee(employeeId, "e", "d", null));
+    }
+    if (counterpartyId != 0) {
+      payment.setCounterParty(new Counterparty(counterpartyId, "c", null, null, null));
+    }
+    LocalDateTime createdAt = createdOn.atTime(12, 0);
+    payment.setCreatedAt(createdAt);
+    payment.setUpdatedAt(createdAt);
+    store.onPaymentSaved(payment);
+  }
+}
@@ -0,0 +1,211 @@
+package com.adhitya.paymgmt.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoaringBitmapTest {
+  // Values per chunk at which the sparse array container turns into a bitmap
+  private static final int ARRAY_MAX = 4096;
+  private static final long BITMAP_CONTAINER_BYTES = 16L + 1024 * 8;
+
+  @Test
+  void keepsEveryValueAcrossTheArrayToBitmapBoundary() {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    BitSet expected = new BitSet();
+    for (int i = 0; i < ARRAY_MAX; i++) {
+      bitmap.add(i * 3);
+      expected.set(i * 3);
+    }
+    assertMatches(expected, bitmap);
+
+    bitmap.add(ARRAY_MAX * 3);
+    expected.set(ARRAY_MAX * 3);
+    assertMatches(expected, bitmap);
+    assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+  }
+
+  @Test
+  void addingAPresentValueToAFullArrayDoesNotGrowIt() {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    for (int i = 0; i < ARRAY_MAX; i++) {
+      bitmap.add(i);
+    }
+    bitmap.add(0);
+    bitmap.add(ARRAY_MAX - 1);
+
+    assertEquals(ARRAY_MAX, bitmap.cardinality());
+  }
+
+  @Test
+  void shrinksBackToAnArrayWhenHalfEmpty() {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    BitSet expected = new BitSet();
+    for (int i = 0; i <= ARRAY_MAX; i++) {
+      bitmap.add(i);
+      expected.set(i);
+    }
+    assertTrue(bitmap.memoryBytes() >= BITMAP_CONTAINER_BYTES);
+
+    for (int i = 0; i <= ARRAY_MAX / 2; i++) {
+      bitmap.remove(i);
+      expected.clear(i);
+    }
+    assertMatches(expected, bitmap);
+    assertTrue(bitmap.memoryBytes() < BITMAP_CONTAINER_BYTES);
+
+    // The converted array accepts further adds and removes
+    bitmap.add(7);
+    expected.set(7);
+    bitmap.remove(ARRAY_MAX);
+    expected.clear(ARRAY_MAX);
+    assertMatches(expected, bitmap);
+  }
+
+  @Test
+  void dropsChunksThatBecomeEmpty() {
+    RoaringBitmap bitmap = RoaringBitmap.of(5, 70_000, 140_000);
+    bitmap.remove(70_000);
+    bitmap.remove(70_000);
+    bitmap.remove(-1);
+
+    assertArrayEquals(new int[] {5, 140_000}, bitmap.toArray());
+    assertFalse(bitmap.contains(70_000));
+
+    bitmap.remove(5);
+    bitmap.remove(140_000);
+    assertTrue(bitmap.isEmpty());
+  }
+
+  @Test
+  void rejectsNegativeValues() {
+    assertThrows(IllegalArgumentException.class, () -> new RoaringBitmap().add(-1));
+    assertFalse(RoaringBitmap.of(1).contains(-1));
+  }
+
+  @Test
+  void setOperationsMatchBitSetForEveryContainerPairing() {
+    // Chunk 0 is dense on both sides, chunk 1 sparse on both, chunk 2 dense on the
+    // left and sparse on the right, chunk 3 the reverse; chunks 4 and 5 are one-sided
+    BitSet left = new BitSet();
+    BitSet right = new BitSet();
+    Random random = new Random(42);
+    fill(left, random, 0, 20_000);
+    fill(right, random, 0, 20_000);
+    fill(left, random, 1, 500);
+    fill(right, random, 1, 500);
+    fill(left, random, 2, 20_000);
+    fill(right, random, 2, 1_000);
+    fill(left, random, 3, 1_000);
+    fill(right, random, 3, 20_000);
+    fill(left, random, 4, 300);
+    fill(right, random, 5, 10_000);
+
+    RoaringBitmap a = toBitmap(left);
+    RoaringBitmap b = toBitmap(right);
+
+    BitSet and = (BitSet) left.clone();
+    and.and(right);
+    BitSet or = (BitSet) left.clone();
+    or.or(right);
+    BitSet andNot = (BitSet) left.clone();
+    andNot.andNot(right);
+    BitSet reverseAndNot = (BitSet) right.clone();
+    reverseAndNot.andNot(left);
+
+    assertMatches(and, RoaringBitmap.and(a, b));
+    assertMatches(and, RoaringBitmap.and(b, a));
+    assertMatches(or, RoaringBitmap.or(a, b));
+    assertMatches(or, RoaringBitmap.or(b, a));
+    assertMatches(andNot, RoaringBitmap.andNot(a, b));
+    assertMatches(reverseAndNot, RoaringBitmap.andNot(b, a));
+
+    // The operands are left untouched
+    assertMatches(left, a);
+    assertMatches(right, b);
+  }
+
+  @Test
+  void unionOfTwoArraysPastTheLimitBecomesABitmap() {
+    RoaringBitmap evens = new RoaringBitmap();
+    RoaringBitmap odds = new RoaringBitmap();
+    BitSet expected = new BitSet();
+    for (int i = 0; i < ARRAY_MAX; i++) {
+      evens.add(i * 2);
+      odds.add(i * 2 + 1);
+      expected.set(i * 2);
+      expected.set(i * 2 + 1);
+    }
+
+    RoaringBitmap union = RoaringBitmap.or(evens, odds);
+
+    assertMatches(expected, union);
+    union.remove(0);
+    expected.clear(0);
+    assertMatches(expected, union);
+  }
+
+  @Test
+  void operationsOnDenseChunksReturnArraysWhenTheResultIsSmall() {
+    RoaringBitmap left = new RoaringBitmap();
+    RoaringBitmap right = new RoaringBitmap();
+    for (int i = 0; i < 10_000; i++) {
+      left.add(i);
+      right.add(i + 9_000);
+    }
+
+    RoaringBitmap and = RoaringBitmap.and(left, right);
+    assertEquals(1_000, and.cardinality());
+    assertTrue(and.memoryBytes() < BITMAP_CONTAINER_BYTES);
+
+    RoaringBitmap andNot = RoaringBitmap.andNot(left, RoaringBitmap.andNot(left, and));
+    assertArrayEquals(and.toArray(), andNot.toArray());
+    assertTrue(andNot.memoryBytes() < BITMAP_CONTAINER_BYTES);
+  }
+
+  @Test
+  void copyIsIndependent() {
+    RoaringBitmap original = new RoaringBitmap();
+    for (int i = 0; i <= ARRAY_MAX; i++) {
+      original.add(i);
+    }
+    original.add(100_000);
+    RoaringBitmap copy = original.copy();
+
+    copy.remove(0);
+    copy.remove(100_000);
+    copy.add(200_000);
+
+    assertTrue(original.contains(0));
+    assertTrue(original.contains(100_000));
+    assertFalse(original.contains(200_000));
+    assertEquals(ARRAY_MAX + 2, original.cardinality());
+  }
+
+  private static void fill(BitSet set, Random random, int chunk, int count) {
+    for (int i = 0; i < count; i++) {
+      set.set((chunk << 16) | random.nextInt(1 << 16));
+    }
+  }
+
+  private static RoaringBitmap toBitmap(BitSet set) {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    set.stream().forEach(bitmap::add);
+    return bitmap;
+  }
+
+  private static void assertMatches(BitSet expected, RoaringBitmap actual) {
+    assertArrayEquals(expected.stream().toArray(), actual.toArray());
+    assertEquals(expected.cardinality(), actual.cardinality());
+    for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+      assertTrue(actual.contains(value), "missing " + value);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.adhitya.paymgmt.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OperationTimerTest {
+  private final MetricsRegistry registry = new MetricsRegistry();
+
+  @Test
+  void timeRecordsOneCallAndReturnsTheResult() {
+    OperationTimer timer = registry.timer("service", "time");
+
+    assertEquals(42, timer.time(() -> 42));
+    assertEquals(1, timer.snapshot().latency().count());
+    assertNull(OperationTimer.current());
+  }
+
+  @Test
+  void runRecordsACallThatThrowsAndPassesTheExceptionThrough() {
+    OperationTimer timer = registry.timer("repository", "run");
+    IOException failure = new IOException("disk full");
+
+    IOException thrown = assertThrows(IOException.class, () -> timer.run(() -> {
+      throw failure;
+    }));
+
+    assertSame(failure, thrown);
+    assertEquals(1, timer.snapshot().latency().count());
+    assertNull(OperationTimer.current());
+  }
+
+  @Test
+  void nestedCallsSeeTheOuterOperationAsParent() {
+    OperationTimer outer = registry.timer("service", "outer");
+    OperationTimer inner = registry.timer("repository", "inner");
+    AtomicReference<OperationTimer.Timing> seen = new AtomicReference<>();
+
+    outer.run(() -> inner.run(() -> {
+      seen.set(OperationTimer.current());
+      OperationTimer.recordQuery();
+    }));
+
+    assertSame(inner, seen.get().getTimer());
+    assertSame(outer, seen.get().getParent().getTimer());
+    assertEquals(1, outer.snapshot().queries());
+    assertEquals(1, inner.snapshot().queries());
+    assertNull(OperationTimer.current());
+  }
+}
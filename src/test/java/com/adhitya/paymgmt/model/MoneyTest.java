@@ -0,0 +1,113 @@
+package com.adhitya.paymgmt.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+  @Test
+  void roundsHalfAwayFromZeroToTwoPlaces() {
+    assertEquals(101, Money.of(new BigDecimal("1.005")).minorUnits());
+    assertEquals(100, Money.of(new BigDecimal("1.0049")).minorUnits());
+    assertEquals(-101, Money.of(new BigDecimal("-1.005")).minorUnits());
+    assertEquals(-100, Money.of(new BigDecimal("-1.0049")).minorUnits());
+    assertEquals(1234500, Money.of(new BigDecimal("1.2345E+4")).minorUnits());
+
+    assertEquals(101, Money.parseMinorUnits("1.005"));
+    assertEquals(100, Money.parseMinorUnits("1.0049"));
+    assertEquals(-101, Money.parseMinorUnits("-1.005"));
+    assertEquals(-1, Money.parseMinorUnits("-0.005"));
+    assertEquals(0, Money.parseMinorUnits("0.0049"));
+  }
+
+  @Test
+  void parseAgreesWithBigDecimalRounding() {
+    Random random = new Random(11);
+    for (int i = 0; i < 10_000; i++) {
+      BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, random.nextInt(6));
+      String text = amount.toPlainString();
+      long expected = amount.setScale(Money.SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+      assertEquals(expected, Money.parseMinorUnits(text), text);
+      assertEquals(Money.of(amount), Money.parse(text), text);
+    }
+  }
+
+  @Test
+  void acceptsSignsAndPartialForms() {
+    assertEquals(500, Money.parseMinorUnits("5"));
+    assertEquals(500, Money.parseMinorUnits("+5."));
+    assertEquals(50, Money.parseMinorUnits(".5"));
+    assertEquals(-50, Money.parseMinorUnits("-.5"));
+    assertSame(Money.ZERO, Money.parse("-0.00"));
+  }
+
+  @Test
+  void rejectsMalformedText() {
+    for (String text : new String[] {"", "-", ".", "+.", "1.2.3", "1e5", "1,000", " 1", "abc"}) {
+      assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+    }
+    assertThrows(NumberFormatException.class, () -> Money.parse(null));
+  }
+
+  @Test
+  void rejectsAmountsBeyondALongOfMinorUnits() {
+    assertEquals(Long.MAX_VALUE, Money.parseMinorUnits("92233720368547758.07"));
+    assertEquals(-Long.MAX_VALUE, Money.parseMinorUnits("-92233720368547758.07"));
+    assertThrows(NumberFormatException.class, () -> Money.parse("92233720368547758.08"));
+    assertThrows(NumberFormatException.class, () -> Money.parse("92233720368547758.075"));
+    assertThrows(NumberFormatException.class, () -> Money.parse("1000000000000000000"));
+
+    assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+    assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("-92233720368547758.09")));
+  }
+
+  @Test
+  void arithmeticThrowsInsteadOfWrapping() {
+    Money max = Money.ofMinor(Long.MAX_VALUE);
+    Money min = Money.ofMinor(Long.MIN_VALUE);
+
+    assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+    assertThrows(ArithmeticException.class, () -> min.minus(Money.ofMinor(1)));
+    assertThrows(ArithmeticException.class, () -> max.times(2));
+    assertThrows(ArithmeticException.class, min::negate);
+    assertThrows(ArithmeticException.class, () -> max.dividedBy(0));
+  }
+
+  @Test
+  void dividesRoundingHalfAwayFromZero() {
+    assertEquals(Money.ofMinor(3), Money.ofMinor(10).dividedBy(3));
+    assertEquals(Money.ofMinor(7), Money.ofMinor(20).dividedBy(3));
+    assertEquals(Money.ofMinor(3), Money.ofMinor(5).dividedBy(2));
+    assertEquals(Money.ofMinor(-3), Money.ofMinor(-5).dividedBy(2));
+    assertEquals(Money.ofMinor(-3), Money.ofMinor(5).dividedBy(-2));
+    assertEquals(Money.ofMinor(2), Money.ofMinor(-7).dividedBy(-4));
+  }
+
+  @Test
+  void formatsNegativeAndExtremeAmounts() {
+    assertEquals("0.00", Money.ZERO.toString());
+    assertEquals("-0.05", Money.ofMinor(-5).toString());
+    assertEquals("-1234.50", Money.ofMinor(-123450).toString());
+    assertEquals("-1,234.50", Money.ofMinor(-123450).toGroupedString());
+    assertEquals("1,000,000.07", Money.ofMinor(100000007).toGroupedString());
+    assertEquals("-92233720368547758.08", Money.ofMinor(Long.MIN_VALUE).toString());
+    assertEquals("92,233,720,368,547,758.07", Money.ofMinor(Long.MAX_VALUE).toGroupedString());
+  }
+
+  @Test
+  void roundTripsThroughTextAndBigDecimal() {
+    Random random = new Random(3);
+    for (int i = 0; i < 10_000; i++) {
+      Money money = Money.ofMinor(random.nextLong());
+      assertEquals(money, Money.parse(money.toString()));
+      assertEquals(money, Money.of(money.toBigDecimal()));
+      assertEquals(money.toBigDecimal().toPlainString(), money.toString());
+    }
+  }
+}
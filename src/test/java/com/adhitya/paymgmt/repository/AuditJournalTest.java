@@ -0,0 +1,99 @@
+package com.adhitya.paymgmt.repository;
+
+import com.adhitya.paymgmt.exception.DataAccessException;
+import com.adhitya.paymgmt.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalTest {
+  private static final int SEGMENT_SIZE = 4096;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void verifiesRecordsAcrossSegments() {
+    try (AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE)) {
+      for (int i = 1; i <= 200; i++) {
+        journal.append(entry(i));
+      }
+
+      AuditJournal.VerificationResult result = journal.verify();
+
+      assertTrue(result.valid(), result.failure());
+      assertEquals(200, result.records());
+      assertTrue(result.segments() > 1);
+    }
+  }
+
+  @Test
+  void appendsProceedWhileAnExportIsBlocked() throws Exception {
+    try (AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE)) {
+      for (int i = 1; i <= 10; i++) {
+        journal.append(entry(i));
+      }
+
+      CountDownLatch writing = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      OutputStream slowSink = new ByteArrayOutputStream() {
+        @Override
+        public synchronized void write(byte[] bytes, int off, int len) {
+          writing.countDown();
+          try {
+            release.await();
+          }
+          catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          super.write(bytes, off, len);
+        }
+      };
+      CompletableFuture<AuditJournal.VerificationResult> export =
+        CompletableFuture.supplyAsync(() -> journal.export(slowSink));
+      assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+      // Would deadlock if the export held the journal's monitor
+      CompletableFuture<Void> appends = CompletableFuture.runAsync(() -> {
+        for (int i = 11; i <= 200; i++) {
+          journal.append(entry(i));
+        }
+      });
+      appends.get(5, TimeUnit.SECONDS);
+      release.countDown();
+
+      AuditJournal.VerificationResult exported = export.get(5, TimeUnit.SECONDS);
+      assertTrue(exported.valid(), exported.failure());
+      assertEquals(10, exported.records());
+      assertEquals(200, journal.verify().records());
+    }
+  }
+
+  @Test
+  void refusesADirectoryAlreadyOpen() {
+    try (AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE)) {
+      journal.append(entry(1));
+
+      assertThrows(DataAccessException.class, () -> new AuditJournal(directory, SEGMENT_SIZE));
+    }
+
+    try (AuditJournal reopened = new AuditJournal(directory, SEGMENT_SIZE)) {
+      assertEquals(1, reopened.verify().records());
+    }
+  }
+
+  private static AuditLog entry(int id) {
+    return new AuditLog(id, null, "status", "PENDING", "COMPLETED", null, LocalDateTime.of(2024, 1, 1, 12, 0));
+  }
+}
@@ -0,0 +1,110 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncPaymentServiceTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final CountDownLatch reportStarted = new CountDownLatch(1);
+  private final CountDownLatch reportInterrupted = new CountDownLatch(1);
+
+  @AfterEach
+  void shutDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void bundleFailsOnFirstFailureWithoutWaitingForBlockedSibling() throws Exception {
+    AsyncPaymentService service = new AsyncPaymentService(null, blockingReports(),
+      new EmployeeService(null) {
+        @Override
+        public List<Employee> getAll() {
+          awaitQuietly(reportStarted);
+          throw new IllegalStateException("employees unavailable");
+        }
+      },
+      new CounterpartyService(null) {
+        @Override
+        public List<Counterparty> getAll() {
+          return List.of();
+        }
+      },
+      executor, Duration.ofMinutes(1));
+
+    CompletableFuture<AsyncPaymentService.ReportBundle> bundle =
+      service.loadReportBundle(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+
+    ExecutionException failure = assertThrows(ExecutionException.class, () -> bundle.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, failure.getCause());
+    assertTrue(reportInterrupted.await(5, TimeUnit.SECONDS), "blocked report should be cancelled");
+  }
+
+  @Test
+  void cancellingTheBundleCancelsItsParts() throws Exception {
+    AsyncPaymentService service = new AsyncPaymentService(null, blockingReports(),
+      new EmployeeService(null) {
+        @Override
+        public List<Employee> getAll() {
+          return List.of();
+        }
+      },
+      new CounterpartyService(null) {
+        @Override
+        public List<Counterparty> getAll() {
+          return List.of();
+        }
+      },
+      executor, Duration.ofMinutes(1));
+
+    CompletableFuture<AsyncPaymentService.ReportBundle> bundle =
+      service.loadReportBundle(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+    assertTrue(reportStarted.await(5, TimeUnit.SECONDS));
+
+    bundle.cancel(true);
+
+    assertTrue(reportInterrupted.await(5, TimeUnit.SECONDS), "blocked report should be cancelled");
+  }
+
+  // Report generation that blocks until its worker is interrupted
+  private ReportService blockingReports() {
+    return new ReportService(null, null, null) {
+      @Override
+      public ReportDataDTO generateReportData(LocalDate start, LocalDate end) {
+        reportStarted.countDown();
+        try {
+          new CountDownLatch(1).await();
+        }
+        catch (InterruptedException ex) {
+          reportInterrupted.countDown();
+        }
+        return null;
+      }
+    };
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
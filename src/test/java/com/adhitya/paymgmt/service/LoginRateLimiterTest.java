@@ -0,0 +1,35 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.exception.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginRateLimiterTest {
+  // Refill slowly enough that no token comes back during the test
+  private static final double NO_REFILL = 1e-9;
+
+  private final LoginMetrics metrics = new LoginMetrics();
+
+  @Test
+  void userOverLimitIsRejectedByTheUserBucket() {
+    LoginRateLimiter limiter = new LoginRateLimiter(10, NO_REFILL, 1, NO_REFILL, metrics);
+    limiter.acquire("alice");
+
+    LoginThrottledException ex = assertThrows(LoginThrottledException.class, () -> limiter.acquire("Alice "));
+    assertEquals("Too many login attempts for this user. Please wait and try again.", ex.getMessage());
+  }
+
+  @Test
+  void globalRejectionDoesNotUseTheUserToken() {
+    LoginRateLimiter limiter = new LoginRateLimiter(1, NO_REFILL, 1, NO_REFILL, metrics);
+    limiter.acquire("alice");
+
+    // bob's single token is given back each time, so both attempts fail on the global bucket
+    for (int attempt = 0; attempt < 2; attempt++) {
+      LoginThrottledException ex = assertThrows(LoginThrottledException.class, () -> limiter.acquire("bob"));
+      assertEquals("Login service is busy. Please try again shortly.", ex.getMessage());
+    }
+  }
+}
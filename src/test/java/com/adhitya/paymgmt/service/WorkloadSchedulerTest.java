@@ -0,0 +1,61 @@
+package com.adhitya.paymgmt.service;
+
+import com.adhitya.paymgmt.config.WorkloadClass;
+import com.adhitya.paymgmt.config.WorkloadContext;
+import com.adhitya.paymgmt.service.WorkloadScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorkloadSchedulerTest {
+  private final WorkloadScheduler scheduler = new WorkloadScheduler(
+    new WorkloadScheduler.ClassConfig(1, 0, Duration.ofSeconds(5)),
+    new WorkloadScheduler.ClassConfig(1, 0, Duration.ofSeconds(5)));
+
+  @AfterEach
+  void shutDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void nestedCallInTheSameClassRunsInline() throws Exception {
+    // With a single worker, waiting for a second task of the same class would never finish
+    String result = CompletableFuture.supplyAsync(() ->
+      scheduler.call(WorkloadClass.ANALYTICS, Priority.NORMAL, () ->
+        scheduler.call(WorkloadClass.ANALYTICS, Priority.LOW, () -> Thread.currentThread().getName())))
+      .get(5, TimeUnit.SECONDS);
+
+    assertEquals("workload-analytics-1", result);
+  }
+
+  @Test
+  void nestedCallInAnotherClassUsesThatClassesWorkers() {
+    WorkloadClass inner = scheduler.call(WorkloadClass.ANALYTICS, Priority.NORMAL, () ->
+      scheduler.call(WorkloadClass.OLTP, Priority.HIGH, WorkloadContext::currentClass));
+
+    assertEquals(WorkloadClass.OLTP, inner);
+  }
+
+  @Test
+  void backToBackCallsFitOneWorkerWithNoQueue() {
+    // Each task frees its slot before its caller resumes, so the next call is never turned away
+    for (int i = 0; i < 1_000; i++) {
+      int n = i;
+      assertEquals(n, scheduler.call(WorkloadClass.ANALYTICS, Priority.NORMAL, () -> n));
+    }
+  }
+
+  @Test
+  void callOrRunWithoutSchedulerRunsOnTheCaller() {
+    WorkloadClass current = WorkloadScheduler.callOrRun(null, WorkloadClass.ANALYTICS, Priority.NORMAL,
+      WorkloadContext::currentClass);
+
+    assertNull(current);
+  }
+}
@@ -0,0 +1,47 @@
+package com.adhitya.paymgmt.util;
+
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordUtilTest {
+  // Cost and salt prefix only; needsRehash reads nothing past the cost
+  private static String hashWithCost(int rounds) {
+    return String.format("$2a$%02d$abcdefghijklmnopqrstuv", rounds);
+  }
+
+  @Test
+  void readsTheCostFromAHash() {
+    assertEquals(12, PasswordUtil.getRounds(hashWithCost(12)));
+    assertEquals(-1, PasswordUtil.getRounds("plain"));
+    assertEquals(-1, PasswordUtil.getRounds(null));
+  }
+
+  @Test
+  void rehashesHashesBelowTheTargetCost() {
+    int target = PasswordUtil.getRounds();
+
+    assertTrue(PasswordUtil.needsRehash(hashWithCost(target - 1)));
+    assertTrue(PasswordUtil.needsRehash("plain"));
+  }
+
+  @Test
+  void keepsHashesAtOrAboveTheTargetCost() {
+    int target = PasswordUtil.getRounds();
+
+    assertFalse(PasswordUtil.needsRehash(hashWithCost(target)));
+    assertFalse(PasswordUtil.needsRehash(hashWithCost(target + 1)));
+    assertFalse(PasswordUtil.needsRehash(hashWithCost(target + 3)));
+  }
+
+  @Test
+  void verifiesAHashMadeAtAHigherCostThanTheTarget() {
+    String hash = BCrypt.hashpw("secret", BCrypt.gensalt(PasswordUtil.getRounds() + 1));
+
+    assertTrue(PasswordUtil.verifyPassword("secret", hash));
+    assertFalse(PasswordUtil.needsRehash(hash));
+  }
+}
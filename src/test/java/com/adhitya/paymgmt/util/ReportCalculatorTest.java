@@ -0,0 +1,114 @@
+package com.adhitya.paymgmt.util;
+
+import com.adhitya.paymgmt.analytics.PaymentColumnStore;
+import com.adhitya.paymgmt.dto.ReportDataDTO;
+import com.adhitya.paymgmt.model.Counterparty;
+import com.adhitya.paymgmt.model.Employee;
+import com.adhitya.paymgmt.model.Money;
+import com.adhitya.paymgmt.model.Payment;
+import com.adhitya.paymgmt.model.User;
+import com.adhitya.paymgmt.model.enums.PaymentCategory;
+import com.adhitya.paymgmt.model.enums.PaymentDirection;
+import com.adhitya.paymgmt.model.enums.Status;
+import com.adhitya.paymgmt.repository.PaymentRepository;
+import com.adhitya.paymgmt.service.PaymentService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportCalculatorTest {
+  private static final LocalDate START = LocalDate.of(2025, 1, 1);
+  private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+  private final List<Payment> payments = payments(2_000);
+  private int fetches;
+
+  @Test
+  void columnStoreReportMatchesListReportAndDefersTheListing() {
+    ReportDataDTO fromList = new ReportCalculator(new Payments(null), null, null).calculateReport(START, END);
+    fetches = 0;
+
+    PaymentColumnStore store = new PaymentColumnStore(payments.size());
+    store.load(new ScanSource());
+    ReportDataDTO fromStore = new ReportCalculator(new Payments(store), null, null).calculateReport(START, END);
+
+    assertEquals(0, fetches);
+    assertEquals(fromList.transactionCount(), fromStore.transactionCount());
+    assertEquals(fromList.totalInflow(), fromStore.totalInflow());
+    assertEquals(fromList.totalOutflow(), fromStore.totalOutflow());
+    assertEquals(fromList.avgTransactionValue(), fromStore.avgTransactionValue());
+    assertEquals(fromList.categoryTotals(), fromStore.categoryTotals());
+    assertEquals(fromList.employeeTotals(), fromStore.employeeTotals());
+    assertEquals(fromList.counterpartyTotals(), fromStore.counterpartyTotals());
+
+    assertEquals(payments.size(), fromStore.transactions().size());
+    fromStore.transactions();
+    assertEquals(1, fetches);
+  }
+
+  private final class Payments extends PaymentService {
+    Payments(PaymentColumnStore store) {
+      super(null, null, null, null);
+      if (store != null) {
+        useColumnStore(store);
+      }
+    }
+
+    @Override
+    public List<Payment> getPaymentsByDateRange(LocalDate start, LocalDate end) {
+      fetches++;
+      return payments;
+    }
+  }
+
+  private final class ScanSource extends PaymentRepository {
+    ScanSource() {
+      super(null, null, null);
+    }
+
+    @Override
+    public void scanColumns(int afterId, LocalDateTime updatedSince, ColumnVisitor visitor) {
+      for (Payment p : payments) {
+        if (p.getId() > afterId) {
+          visitor.visit(p.getId(), p.getAmount().minorUnits(), p.getPaymentDirection(), p.getCategory(),
+            p.getStatus(), p.getCreatedBy().getId(), p.getCreatedAt(), p.getUpdatedAt(),
+            p.getEmployee() != null ? p.getEmployee().getId() : 0,
+            p.getCounterParty() != null ? p.getCounterParty().getId() : 0);
+        }
+      }
+    }
+  }
+
+  private static List<Payment> payments(int count) {
+    Random random = new Random(3);
+    List<Payment> payments = new ArrayList<>(count);
+    for (int id = 1; id <= count; id++) {
+      Payment payment = new Payment();
+      payment.setId(id);
+      payment.setAmount(Money.ofMinor(1 + random.nextInt(5_000_000)));
+      payment.setPaymentDirection(random.nextBoolean() ? PaymentDirection.INCOMING : PaymentDirection.OUTGOING);
+      payment.setCategory(PaymentCategory.values()[random.nextInt(PaymentCategory.values().length)]);
+      payment.setStatus(Status.PENDING);
+      User createdBy = new User();
+      createdBy.setId(1);
+      payment.setCreatedBy(createdBy);
+      if (random.nextBoolean()) {
+        payment.setEmployee(new Employee(1 + random.nextInt(40), "e", "d", null));
+      }
+      else {
+        payment.setCounterParty(new Counterparty(1 + random.nextInt(40), "c", null, null, null));
+      }
+      LocalDateTime createdAt = LocalDateTime.of(2025, 1 + random.nextInt(12), 1 + random.nextInt(28), 9, 30);
+      payment.setCreatedAt(createdAt);
+      payment.setUpdatedAt(createdAt);
+      payments.add(payment);
+    }
+    return payments;
+  }
+}